@@ -0,0 +1,475 @@
+package org.apache.maven.plugin.changelog;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmBranch;
+import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.ScmRevision;
+import org.apache.maven.scm.ScmTag;
+import org.apache.maven.scm.ScmVersion;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A cache of the changesets retrieved from the SCM, so that the next reports only retrieve the newer changesets. Each
+ * range of the report (the number of days, a pair of tags or a pair of dates) is cached separately, with the time it
+ * was retrieved.
+ * <p>
+ * The cache is a binary file: all the strings (authors, comments, file names and revisions) are written once in a
+ * table and the changesets refer to them by their index, as the same authors and files appear in most changesets.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.3
+ */
+public class ChangeLogCache
+{
+    private static final int MAGIC = 0x4D434C43;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final ScmFileStatus[] FILE_STATUSES = { ScmFileStatus.ADDED, ScmFileStatus.DELETED,
+        ScmFileStatus.MODIFIED, ScmFileStatus.RENAMED, ScmFileStatus.COPIED, ScmFileStatus.MISSING,
+        ScmFileStatus.CHECKED_IN, ScmFileStatus.CHECKED_OUT, ScmFileStatus.CONFLICT, ScmFileStatus.PATCHED,
+        ScmFileStatus.UPDATED, ScmFileStatus.TAGGED, ScmFileStatus.LOCKED, ScmFileStatus.UNKNOWN,
+        ScmFileStatus.EDITED };
+
+    private final File file;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>();
+
+    /**
+     * Opens a cache, which is empty if the file does not exist yet or cannot be read.
+     *
+     * @param file the cache file
+     */
+    public ChangeLogCache( File file )
+    {
+        this.file = file;
+        if ( file.isFile() )
+        {
+            try
+            {
+                read();
+            }
+            catch ( IOException e )
+            {
+                // the changesets are retrieved again
+                entries.clear();
+            }
+        }
+    }
+
+    /**
+     * @param range the key of a range
+     * @return the cached changesets of the range, or <code>null</code>
+     */
+    public ChangeLogSet getChangeLog( String range )
+    {
+        Entry entry = entries.get( range );
+        return entry == null ? null : entry.changeLog;
+    }
+
+    /**
+     * @param range the key of a range
+     * @return the time the changesets of the range were retrieved from the SCM, or <code>null</code>
+     */
+    public Date getRetrieved( String range )
+    {
+        Entry entry = entries.get( range );
+        return entry == null ? null : entry.retrieved;
+    }
+
+    /**
+     * Caches the changesets of a range.
+     *
+     * @param range the key of the range
+     * @param changeLog the changesets of the range
+     * @param retrieved the time the changesets were retrieved from the SCM
+     */
+    public void putChangeLog( String range, ChangeLogSet changeLog, Date retrieved )
+    {
+        Entry entry = new Entry();
+        entry.changeLog = changeLog;
+        entry.retrieved = retrieved;
+        entries.put( range, entry );
+    }
+
+    /**
+     * Writes the cache file.
+     *
+     * @throws IOException if the file could not be written
+     */
+    public void save()
+        throws IOException
+    {
+        // the changesets are written first, to know the strings of the table
+        Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream( body );
+        out.writeInt( entries.size() );
+        for ( Map.Entry<String, Entry> entry : entries.entrySet() )
+        {
+            ChangeLogSet changeLog = entry.getValue().changeLog;
+            writeString( out, strings, entry.getKey() );
+            writeDate( out, entry.getValue().retrieved );
+            writeDate( out, changeLog.getStartDate() );
+            writeDate( out, changeLog.getEndDate() );
+            writeVersion( out, strings, changeLog.getStartVersion() );
+            writeVersion( out, strings, changeLog.getEndVersion() );
+            List<ChangeSet> changeSets = getChangeSets( changeLog );
+            out.writeInt( changeSets.size() );
+            for ( ChangeSet changeSet : changeSets )
+            {
+                writeDate( out, changeSet.getDate() );
+                writeString( out, strings, changeSet.getAuthor() );
+                writeString( out, strings, changeSet.getComment() );
+                writeString( out, strings, changeSet.getRevision() );
+                List<ChangeFile> files = changeSet.getFiles();
+                out.writeInt( files == null ? 0 : files.size() );
+                if ( files != null )
+                {
+                    for ( ChangeFile changeFile : files )
+                    {
+                        writeString( out, strings, changeFile.getName() );
+                        writeString( out, strings, changeFile.getRevision() );
+                        writeString( out, strings,
+                                     changeFile.getAction() == null ? null : changeFile.getAction().toString() );
+                        writeString( out, strings, changeFile.getOriginalName() );
+                        writeString( out, strings, changeFile.getOriginalRevision() );
+                    }
+                }
+            }
+        }
+        out.close();
+
+        // a file of its own, as another build may save the cache of the same project at the same time
+        file.getParentFile().mkdirs();
+        File tmp = File.createTempFile( file.getName(), ".tmp", file.getParentFile() );
+        DataOutputStream os = null;
+        try
+        {
+            os = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( tmp ) ) );
+            os.writeInt( MAGIC );
+            os.writeInt( FORMAT_VERSION );
+            os.writeInt( strings.size() );
+            for ( String string : strings.keySet() )
+            {
+                byte[] bytes = string.getBytes( "UTF-8" );
+                os.writeInt( bytes.length );
+                os.write( bytes );
+            }
+            body.writeTo( os );
+            os.close();
+
+            if ( !( tmp.renameTo( file ) || ( file.delete() && tmp.renameTo( file ) ) ) )
+            {
+                throw new IOException( "Unable to replace " + file );
+            }
+        }
+        finally
+        {
+            IOUtil.close( os );
+            tmp.delete();
+        }
+    }
+
+    private void read()
+        throws IOException
+    {
+        DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( file ) ) );
+        try
+        {
+            if ( in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION )
+            {
+                throw new IOException( "Unsupported changelog cache " + file );
+            }
+            String[] strings = new String[in.readInt()];
+            for ( int i = 0; i < strings.length; i++ )
+            {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully( bytes );
+                strings[i] = new String( bytes, "UTF-8" );
+            }
+
+            int entryCount = in.readInt();
+            for ( int i = 0; i < entryCount; i++ )
+            {
+                String range = readString( in, strings );
+                Entry entry = new Entry();
+                entry.retrieved = readDate( in );
+                Date startDate = readDate( in );
+                Date endDate = readDate( in );
+                ScmVersion startVersion = readVersion( in, strings );
+                ScmVersion endVersion = readVersion( in, strings );
+                int changeSetCount = in.readInt();
+                List<ChangeSet> changeSets = new ArrayList<ChangeSet>( changeSetCount );
+                for ( int j = 0; j < changeSetCount; j++ )
+                {
+                    ChangeSet changeSet = new ChangeSet();
+                    changeSet.setDate( readDate( in ) );
+                    changeSet.setAuthor( readString( in, strings ) );
+                    changeSet.setComment( readString( in, strings ) );
+                    changeSet.setRevision( readString( in, strings ) );
+                    int fileCount = in.readInt();
+                    List<ChangeFile> files = new ArrayList<ChangeFile>( fileCount );
+                    for ( int k = 0; k < fileCount; k++ )
+                    {
+                        ChangeFile changeFile =
+                            new ChangeFile( readString( in, strings ), readString( in, strings ) );
+                        changeFile.setAction( toFileStatus( readString( in, strings ) ) );
+                        changeFile.setOriginalName( readString( in, strings ) );
+                        changeFile.setOriginalRevision( readString( in, strings ) );
+                        files.add( changeFile );
+                    }
+                    changeSet.setFiles( files );
+                    changeSets.add( changeSet );
+                }
+                entry.changeLog = new ChangeLogSet( changeSets, startDate, endDate );
+                entry.changeLog.setStartVersion( startVersion );
+                entry.changeLog.setEndVersion( endVersion );
+                entries.put( range, entry );
+            }
+        }
+        catch ( RuntimeException e )
+        {
+            // a corrupted string index or count
+            throw new IOException( "Corrupted changelog cache " + file );
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+
+    /**
+     * Merges the changesets retrieved since a cached range was last retrieved into it. The changesets which were
+     * retrieved again replace the cached ones.
+     *
+     * @param cached the cached changesets
+     * @param newer the changesets retrieved since
+     * @param startDate the date of the oldest changesets to keep, or <code>null</code> to keep them all
+     * @return the merged changesets, the newest first
+     */
+    public static ChangeLogSet merge( ChangeLogSet cached, ChangeLogSet newer, Date startDate )
+    {
+        List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+        Set<String> keys = new HashSet<String>();
+        for ( ChangeSet changeSet : getChangeSets( newer ) )
+        {
+            if ( keys.add( getKey( changeSet ) ) )
+            {
+                changeSets.add( changeSet );
+            }
+        }
+        for ( ChangeSet changeSet : getChangeSets( cached ) )
+        {
+            boolean inRange =
+                startDate == null || changeSet.getDate() == null || !changeSet.getDate().before( startDate );
+            if ( inRange && keys.add( getKey( changeSet ) ) )
+            {
+                changeSets.add( changeSet );
+            }
+        }
+        Collections.sort( changeSets, new Comparator<ChangeSet>()
+        {
+            public int compare( ChangeSet changeSet0, ChangeSet changeSet1 )
+            {
+                long date0 = changeSet0.getDate() == null ? 0 : changeSet0.getDate().getTime();
+                long date1 = changeSet1.getDate() == null ? 0 : changeSet1.getDate().getTime();
+                return date1 < date0 ? -1 : ( date1 == date0 ? 0 : 1 );
+            }
+        } );
+
+        ChangeLogSet merged = new ChangeLogSet( changeSets, startDate != null ? startDate : cached.getStartDate(),
+                                                newer.getEndDate() != null ? newer.getEndDate() : cached.getEndDate() );
+        merged.setStartVersion( cached.getStartVersion() );
+        merged.setEndVersion( newer.getEndVersion() != null ? newer.getEndVersion() : cached.getEndVersion() );
+        return merged;
+    }
+
+    /**
+     * @param changeLog some changesets, or <code>null</code>
+     * @return the date of the newest changeset, or <code>null</code> if there is none
+     */
+    public static Date getNewestDate( ChangeLogSet changeLog )
+    {
+        ChangeSet newest = getNewest( changeLog );
+        return newest == null ? null : newest.getDate();
+    }
+
+    /**
+     * @param changeLog some changesets, or <code>null</code>
+     * @return the revision of the newest changeset, or <code>null</code> if there is none or the SCM has no changeset
+     *         revisions
+     */
+    public static String getNewestRevision( ChangeLogSet changeLog )
+    {
+        ChangeSet newest = getNewest( changeLog );
+        return newest == null ? null : newest.getRevision();
+    }
+
+    private static ChangeSet getNewest( ChangeLogSet changeLog )
+    {
+        ChangeSet newest = null;
+        for ( ChangeSet changeSet : getChangeSets( changeLog ) )
+        {
+            if ( changeSet.getDate() != null
+                && ( newest == null || changeSet.getDate().after( newest.getDate() ) ) )
+            {
+                newest = changeSet;
+            }
+        }
+        return newest;
+    }
+
+    private static List<ChangeSet> getChangeSets( ChangeLogSet changeLog )
+    {
+        if ( changeLog == null || changeLog.getChangeSets() == null )
+        {
+            return Collections.emptyList();
+        }
+        return changeLog.getChangeSets();
+    }
+
+    /**
+     * Identifies a changeset by its revision, or by its date, author and comment for the SCMs without changeset
+     * revisions.
+     */
+    private static String getKey( ChangeSet changeSet )
+    {
+        if ( changeSet.getRevision() != null )
+        {
+            return changeSet.getRevision();
+        }
+        return ( changeSet.getDate() == null ? "" : String.valueOf( changeSet.getDate().getTime() ) ) + '\n'
+            + changeSet.getAuthor() + '\n' + changeSet.getComment();
+    }
+
+    private static ScmFileStatus toFileStatus( String status )
+    {
+        for ( ScmFileStatus fileStatus : FILE_STATUSES )
+        {
+            if ( fileStatus.toString().equals( status ) )
+            {
+                return fileStatus;
+            }
+        }
+        return null;
+    }
+
+    private static void writeString( DataOutputStream out, Map<String, Integer> strings, String string )
+        throws IOException
+    {
+        if ( string == null )
+        {
+            out.writeInt( -1 );
+            return;
+        }
+        Integer index = strings.get( string );
+        if ( index == null )
+        {
+            index = Integer.valueOf( strings.size() );
+            strings.put( string, index );
+        }
+        out.writeInt( index.intValue() );
+    }
+
+    private static String readString( DataInputStream in, String[] strings )
+        throws IOException
+    {
+        int index = in.readInt();
+        return index < 0 ? null : strings[index];
+    }
+
+    private static void writeDate( DataOutputStream out, Date date )
+        throws IOException
+    {
+        out.writeBoolean( date != null );
+        if ( date != null )
+        {
+            out.writeLong( date.getTime() );
+        }
+    }
+
+    private static Date readDate( DataInputStream in )
+        throws IOException
+    {
+        return in.readBoolean() ? new Date( in.readLong() ) : null;
+    }
+
+    private static void writeVersion( DataOutputStream out, Map<String, Integer> strings, ScmVersion version )
+        throws IOException
+    {
+        writeString( out, strings, version == null ? null : version.getType() );
+        writeString( out, strings, version == null ? null : version.getName() );
+    }
+
+    private static ScmVersion readVersion( DataInputStream in, String[] strings )
+        throws IOException
+    {
+        String type = readString( in, strings );
+        String name = readString( in, strings );
+        if ( type == null )
+        {
+            return null;
+        }
+        if ( "Tag".equals( type ) )
+        {
+            return new ScmTag( name );
+        }
+        if ( "Branch".equals( type ) )
+        {
+            return new ScmBranch( name );
+        }
+        return new ScmRevision( name );
+    }
+
+    /**
+     * The cached changesets of a range.
+     */
+    private static class Entry
+    {
+        private ChangeLogSet changeLog;
+
+        private Date retrieved;
+    }
+}
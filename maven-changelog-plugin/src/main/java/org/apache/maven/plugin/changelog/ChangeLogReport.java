@@ -19,9 +19,11 @@ package org.apache.maven.plugin.changelog;
  * under the License.
  */
 
+import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.siterenderer.Renderer;
 import org.apache.maven.model.Developer;
+import org.apache.maven.model.Scm;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
@@ -36,6 +38,7 @@ import org.apache.maven.scm.ScmException;
 import org.apache.maven.scm.ScmFileSet;
 import org.apache.maven.scm.ScmResult;
 import org.apache.maven.scm.ScmRevision;
+import org.apache.maven.scm.command.changelog.ChangeLogScmRequest;
 import org.apache.maven.scm.command.changelog.ChangeLogScmResult;
 import org.apache.maven.scm.command.changelog.ChangeLogSet;
 import org.apache.maven.scm.manager.ScmManager;
@@ -59,9 +62,12 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -170,6 +176,38 @@ public class ChangeLogReport
     @Parameter( property = "outputXMLExpiration", defaultValue = "60", required = true )
     private int outputXMLExpiration;
 
+    /**
+     * Keep the changesets retrieved from the SCM in a cache of the local repository. Once the
+     * <code>outputXML</code> expires, only the changesets newer than the cached ones are retrieved, and the ranges
+     * which cannot change anymore (between two tags, or between two past dates) are not retrieved again.
+     *
+     * @since 2.3
+     */
+    @Parameter( property = "changelog.cache", defaultValue = "true" )
+    private boolean cache;
+
+    /**
+     * The local repository, which holds the changelog cache.
+     */
+    @Parameter( defaultValue = "${localRepository}", readonly = true )
+    private ArtifactRepository localRepository;
+
+    /**
+     * Retrieve the changelog once for the whole reactor. The first report needing it retrieves the changelog of the
+     * root project of the reactor, and the report of each module only keeps the changesets of the files under its own
+     * directory, instead of running its own changelog command.
+     *
+     * @since 2.3
+     */
+    @Parameter( property = "changelog.reactorLog", defaultValue = "false" )
+    private boolean reactorLog;
+
+    /**
+     * The projects of the reactor, used to find the root project holding the changelog of the reactor.
+     */
+    @Parameter( defaultValue = "${reactorProjects}", readonly = true )
+    private List<MavenProject> reactorProjects;
+
     /**
      * Comment format string used for interrogating
      * the revision control system.
@@ -491,28 +529,43 @@ public class ChangeLogReport
             outputXML = new File( project.getBasedir(), outputXML.getPath() );
         }
 
+        ChangeLogCache changeLogCache = getChangeLogCache();
+
         if ( outputXML.exists() )
         {
             if ( outputXMLExpiration > 0
                 && outputXMLExpiration * 60000 > System.currentTimeMillis() - outputXML.lastModified() )
             {
-                try
+                if ( changeLogCache != null )
                 {
-                    //ReaderFactory.newReader( outputXML, getOutputEncoding() );
-                    //FileInputStream fIn = new FileInputStream( outputXML );
-
-                    getLog().info( "Using existing changelog.xml..." );
-
-                    changelogList = ChangeLog.loadChangedSets( ReaderFactory.newReader( outputXML, getOutputEncoding() ) );
+                    changelogList = getCachedChangeSets( changeLogCache );
                 }
-                catch ( FileNotFoundException e )
+
+                if ( changelogList != null )
                 {
-                    //do nothing, just regenerate
+                    getLog().info( "Using cached changelog..." );
                 }
-                catch ( Exception e )
+                else
                 {
-                    throw new MavenReportException( "An error occurred while parsing " + outputXML.getAbsolutePath(),
-                                                    e );
+                    try
+                    {
+                        //ReaderFactory.newReader( outputXML, getOutputEncoding() );
+                        //FileInputStream fIn = new FileInputStream( outputXML );
+
+                        getLog().info( "Using existing changelog.xml..." );
+
+                        changelogList =
+                            ChangeLog.loadChangedSets( ReaderFactory.newReader( outputXML, getOutputEncoding() ) );
+                    }
+                    catch ( FileNotFoundException e )
+                    {
+                        //do nothing, just regenerate
+                    }
+                    catch ( Exception e )
+                    {
+                        throw new MavenReportException(
+                            "An error occurred while parsing " + outputXML.getAbsolutePath(), e );
+                    }
                 }
             }
         }
@@ -526,7 +579,17 @@ public class ChangeLogReport
 
             getLog().info( "Generating changed sets xml to: " + outputXML.getAbsolutePath() );
 
-            changelogList = generateChangeSetsFromSCM();
+            if ( reactorLog )
+            {
+                changelogList = getReactorChangeSets();
+            }
+
+            if ( changelogList == null )
+            {
+                changelogList = generateChangeSetsFromSCM( changeLogCache );
+
+                saveChangeLogCache( changeLogCache );
+            }
 
             try
             {
@@ -549,6 +612,211 @@ public class ChangeLogReport
         return changelogList;
     }
 
+    /**
+     * Opens the changelog cache of the SCM connection and base directory.
+     *
+     * @return the cache, or <code>null</code> if the changesets should not or cannot be cached
+     */
+    private ChangeLogCache getChangeLogCache()
+    {
+        try
+        {
+            return getChangeLogCache( getConnection(), basedir );
+        }
+        catch ( MavenReportException e )
+        {
+            // without SCM connection, there is nothing to cache
+            return null;
+        }
+    }
+
+    private ChangeLogCache getChangeLogCache( String scmConnection, File directory )
+    {
+        if ( !cache || localRepository == null )
+        {
+            return null;
+        }
+
+        StringBuilder name = new StringBuilder();
+        try
+        {
+            String key = scmConnection + '\n' + directory.getAbsolutePath();
+            for ( byte b : MessageDigest.getInstance( "SHA-1" ).digest( key.getBytes( "UTF-8" ) ) )
+            {
+                name.append( Integer.toHexString( ( b & 0xff ) | 0x100 ).substring( 1 ) );
+            }
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            getLog().warn( "Can't open the changelog cache: " + e.getMessage() );
+            return null;
+        }
+        catch ( UnsupportedEncodingException e )
+        {
+            getLog().warn( "Can't open the changelog cache: " + e.getMessage() );
+            return null;
+        }
+        File cacheDirectory = new File( localRepository.getBasedir(), ".cache/maven-changelog-plugin" );
+        return new ChangeLogCache( new File( cacheDirectory, name + ".bin" ) );
+    }
+
+    private void saveChangeLogCache( ChangeLogCache changeLogCache )
+    {
+        if ( changeLogCache != null )
+        {
+            try
+            {
+                changeLogCache.save();
+            }
+            catch ( IOException e )
+            {
+                getLog().warn( "Unable to save the changelog cache: " + e.getMessage() );
+            }
+        }
+    }
+
+    /**
+     * Gets the changesets of this project from the changelog of the root project of the reactor, which is retrieved
+     * from the SCM by the first report needing it.
+     *
+     * @return the changesets of this project, or <code>null</code> if the root project of the reactor has no SCM
+     *         connection
+     * @throws MavenReportException
+     */
+    private List<ChangeLogSet> getReactorChangeSets()
+        throws MavenReportException
+    {
+        MavenProject root = null;
+        String path = null;
+        for ( MavenProject reactorProject : reactorProjects == null ? Collections.<MavenProject>emptyList()
+                        : reactorProjects )
+        {
+            String reactorPath = getRelativePath( reactorProject.getBasedir(), basedir );
+            if ( reactorPath != null && ( path == null || reactorPath.length() > path.length() ) )
+            {
+                root = reactorProject;
+                path = reactorPath;
+            }
+        }
+        String rootConnection = root == null ? null : getConnection( root.getScm() );
+        if ( rootConnection == null )
+        {
+            return null;
+        }
+
+        String key = root.getBasedir().getAbsolutePath() + '\n' + rootConnection + '\n' + getRangeKeys();
+        ReactorChangeLog reactorChangeLog;
+        synchronized ( ReactorChangeLog.class )
+        {
+            reactorChangeLog = ReactorChangeLog.getLog( key );
+            if ( reactorChangeLog == null
+                || outputXMLExpiration * 60000 <= System.currentTimeMillis() - reactorChangeLog.getRetrieved() )
+            {
+                getLog().info( "Generating the changelog of the reactor from " + root.getBasedir() );
+
+                long retrieved = System.currentTimeMillis();
+                ChangeLogCache changeLogCache = getChangeLogCache( rootConnection, root.getBasedir() );
+                List<ChangeLogSet> changeSets;
+                try
+                {
+                    changeSets = generateChangeSetsFromSCM( getScmRepository( rootConnection ), root.getBasedir(),
+                                                            changeLogCache );
+                }
+                catch ( ScmException e )
+                {
+                    throw new MavenReportException( "Cannot run changelog command : ", e );
+                }
+                saveChangeLogCache( changeLogCache );
+
+                reactorChangeLog = new ReactorChangeLog( changeSets, root.getBasedir(), retrieved );
+                ReactorChangeLog.putLog( key, reactorChangeLog );
+            }
+        }
+
+        getLog().info( "Using the changelog of the reactor..." );
+        return reactorChangeLog.getChangeLogSets( path );
+    }
+
+    /**
+     * @return the path of a directory relative to an ancestor directory with '/' separators, or <code>null</code> if
+     *         the directory is not under the ancestor directory
+     */
+    private static String getRelativePath( File ancestor, File directory )
+    {
+        if ( ancestor == null )
+        {
+            return null;
+        }
+        String ancestorPath = ancestor.getAbsoluteFile().toURI().normalize().getPath();
+        String path = directory.getAbsoluteFile().toURI().normalize().getPath();
+        if ( !ancestorPath.endsWith( "/" ) )
+        {
+            ancestorPath += "/";
+        }
+        if ( !path.endsWith( "/" ) )
+        {
+            path += "/";
+        }
+        return path.startsWith( ancestorPath ) ? path.substring( ancestorPath.length() ) : null;
+    }
+
+    /**
+     * Gets the changesets of all the ranges from the cache, if they were all retrieved before the
+     * <code>outputXML</code> expiration.
+     *
+     * @return the cached changesets, or <code>null</code> if some of them must be retrieved again
+     */
+    private List<ChangeLogSet> getCachedChangeSets( ChangeLogCache changeLogCache )
+    {
+        List<ChangeLogSet> changeSets = new ArrayList<ChangeLogSet>();
+        for ( String rangeKey : getRangeKeys() )
+        {
+            Date retrieved = changeLogCache.getRetrieved( rangeKey );
+            if ( retrieved == null
+                || outputXMLExpiration * 60000 <= System.currentTimeMillis() - retrieved.getTime() )
+            {
+                return null;
+            }
+            changeSets.add( changeLogCache.getChangeLog( rangeKey ) );
+        }
+        return changeSets;
+    }
+
+    /**
+     * @return the keys of the ranges of the report in the changelog cache, in the order of the report
+     */
+    private List<String> getRangeKeys()
+    {
+        List<String> rangeKeys = new ArrayList<String>();
+        if ( "range".equals( type ) )
+        {
+            rangeKeys.add( getRangeKey() );
+        }
+        else if ( "tag".equals( type ) || "date".equals( type ) )
+        {
+            List<String> bounds = "tag".equals( type ) ? tags : dates;
+            if ( bounds.size() == 1 )
+            {
+                rangeKeys.add( getRangeKey( bounds.get( 0 ), null ) );
+            }
+            for ( int i = 1; i < bounds.size(); i++ )
+            {
+                rangeKeys.add( getRangeKey( bounds.get( i - 1 ), bounds.get( i ) ) );
+            }
+        }
+        return rangeKeys;
+    }
+
+    private String getRangeKey( String start, String end )
+    {
+        return type + ':' + start + ".." + ( end == null ? "" : end );
+    }
+
+    private String getRangeKey()
+    {
+        return type + ':' + range;
+    }
+
     private void writeChangelogXml( List<ChangeLogSet> changelogList )
         throws FileNotFoundException, UnsupportedEncodingException, IOException
     {
@@ -596,12 +864,37 @@ public class ChangeLogReport
      */
     protected List<ChangeLogSet> generateChangeSetsFromSCM()
         throws MavenReportException
+    {
+        return generateChangeSetsFromSCM( (ChangeLogCache) null );
+    }
+
+    /**
+     * creates a ChangeLog object and then connects to the SCM to generate the changed sets
+     *
+     * @param changeLogCache the changesets retrieved by the previous reports, or <code>null</code>
+     * @return changedlogsets generated from the SCM
+     * @throws MavenReportException
+     */
+    protected List<ChangeLogSet> generateChangeSetsFromSCM( ChangeLogCache changeLogCache )
+        throws MavenReportException
     {
         try
         {
-            List<ChangeLogSet> changeSets = new ArrayList<ChangeLogSet>();
+            return generateChangeSetsFromSCM( getScmRepository(), basedir, changeLogCache );
+        }
+        catch ( ScmException e )
+        {
+            throw new MavenReportException( "Cannot run changelog command : ", e );
+        }
+    }
 
-            ScmRepository repository = getScmRepository();
+    private List<ChangeLogSet> generateChangeSetsFromSCM( ScmRepository repository, File directory,
+                                                          ChangeLogCache changeLogCache )
+        throws MavenReportException
+    {
+        try
+        {
+            List<ChangeLogSet> changeSets = new ArrayList<ChangeLogSet>();
 
             ScmProvider provider = manager.getProviderByRepository( repository );
 
@@ -609,12 +902,32 @@ public class ChangeLogReport
 
             if ( "range".equals( type ) )
             {
-                result = provider.changeLog( repository, new ScmFileSet( basedir ), null, null, range, (ScmBranch) null,
-                                             dateFormat );
+                String rangeKey = getRangeKey();
+                ChangeLogSet cached = getCachedChangeLog( changeLogCache, rangeKey );
+                Date retrieved = new Date();
+
+                if ( ChangeLogCache.getNewestDate( cached ) != null )
+                {
+                    // only the changesets since the newest cached one, the older ones leave the range
+                    result = getNewerChangeLog( provider, repository, directory, cached, null );
+
+                    checkResult( result );
+
+                    Calendar start = Calendar.getInstance();
+                    start.add( Calendar.DAY_OF_MONTH, -range );
+                    changeSets.add( ChangeLogCache.merge( cached, result.getChangeLog(), start.getTime() ) );
+                }
+                else
+                {
+                    result = provider.changeLog( repository, new ScmFileSet( directory ), null, null, range,
+                                                 (ScmBranch) null, dateFormat );
 
-                checkResult( result );
+                    checkResult( result );
 
-                changeSets.add( result.getChangeLog() );
+                    changeSets.add( result.getChangeLog() );
+                }
+
+                putCachedChangeLog( changeLogCache, rangeKey, changeSets.get( 0 ), retrieved );
             }
             else if ( "tag".equals( type ) )
             {
@@ -634,24 +947,54 @@ public class ChangeLogReport
                     {
                         endTag = tagsIter.next();
 
-                        result = provider.changeLog( repository, new ScmFileSet( basedir ), new ScmRevision( startTag ),
-                                                     new ScmRevision( endTag ) );
+                        // the changesets between two tags do not change
+                        String rangeKey = getRangeKey( startTag, endTag );
+                        ChangeLogSet changeLog = getCachedChangeLog( changeLogCache, rangeKey );
 
-                        checkResult( result );
+                        if ( changeLog == null )
+                        {
+                            result = provider.changeLog( repository, new ScmFileSet( directory ),
+                                                         new ScmRevision( startTag ), new ScmRevision( endTag ) );
 
-                        changeSets.add( result.getChangeLog() );
+                            checkResult( result );
+
+                            changeLog = result.getChangeLog();
+
+                            putCachedChangeLog( changeLogCache, rangeKey, changeLog, new Date() );
+                        }
+
+                        changeSets.add( changeLog );
 
                         startTag = endTag;
                     }
                 }
                 else
                 {
-                    result = provider.changeLog( repository, new ScmFileSet( basedir ), new ScmRevision( startTag ),
-                                                 new ScmRevision( endTag ) );
+                    String rangeKey = getRangeKey( startTag, null );
+                    ChangeLogSet cached = getCachedChangeLog( changeLogCache, rangeKey );
+                    String newestRevision = ChangeLogCache.getNewestRevision( cached );
+                    Date retrieved = new Date();
 
-                    checkResult( result );
+                    if ( newestRevision != null )
+                    {
+                        result = provider.changeLog( repository, new ScmFileSet( directory ),
+                                                     new ScmRevision( newestRevision ), new ScmRevision( endTag ) );
 
-                    changeSets.add( result.getChangeLog() );
+                        checkResult( result );
+
+                        changeSets.add( ChangeLogCache.merge( cached, result.getChangeLog(), null ) );
+                    }
+                    else
+                    {
+                        result = provider.changeLog( repository, new ScmFileSet( directory ),
+                                                     new ScmRevision( startTag ), new ScmRevision( endTag ) );
+
+                        checkResult( result );
+
+                        changeSets.add( result.getChangeLog() );
+                    }
+
+                    putCachedChangeLog( changeLogCache, rangeKey, changeSets.get( 0 ), retrieved );
                 }
             }
             else if ( "date".equals( type ) )
@@ -667,24 +1010,15 @@ public class ChangeLogReport
                     {
                         endDate = dateIter.next();
 
-                        result = provider.changeLog( repository, new ScmFileSet( basedir ), parseDate( startDate ),
-                                                     parseDate( endDate ), 0, (ScmBranch) null );
-
-                        checkResult( result );
-
-                        changeSets.add( result.getChangeLog() );
+                        changeSets.add( getDateChangeLog( provider, repository, directory, changeLogCache, startDate,
+                                                          endDate ) );
 
                         startDate = endDate;
                     }
                 }
                 else
                 {
-                    result = provider.changeLog( repository, new ScmFileSet( basedir ), parseDate( startDate ),
-                                                 parseDate( endDate ), 0, (ScmBranch) null );
-
-                    checkResult( result );
-
-                    changeSets.add( result.getChangeLog() );
+                    changeSets.add( getDateChangeLog( provider, repository, directory, changeLogCache, startDate, endDate ) );
                 }
             }
             else
@@ -704,6 +1038,100 @@ public class ChangeLogReport
         }
     }
 
+    /**
+     * Retrieves the changesets between two dates. The cached changesets are reused when the range ended before they
+     * were retrieved, otherwise only the changesets since the newest cached one are retrieved.
+     */
+    private ChangeLogSet getDateChangeLog( ScmProvider provider, ScmRepository repository, File directory,
+                                           ChangeLogCache changeLogCache, String startDate, String endDate )
+        throws ScmException, MojoExecutionException
+    {
+        String rangeKey = getRangeKey( startDate, endDate );
+        ChangeLogSet cached = getCachedChangeLog( changeLogCache, rangeKey );
+        Date end = parseDate( endDate );
+        Date retrieved = new Date();
+
+        if ( cached != null && end != null && end.before( changeLogCache.getRetrieved( rangeKey ) ) )
+        {
+            return cached;
+        }
+
+        ChangeLogSet changeLog;
+        if ( ChangeLogCache.getNewestDate( cached ) != null )
+        {
+            ChangeLogScmResult result = getNewerChangeLog( provider, repository, directory, cached, end );
+
+            checkResult( result );
+
+            changeLog = ChangeLogCache.merge( cached, result.getChangeLog(), null );
+
+            if ( end != null )
+            {
+                // following a revision, the SCM may not stop at the end date
+                for ( Iterator<ChangeSet> it = changeLog.getChangeSets().iterator(); it.hasNext(); )
+                {
+                    Date date = it.next().getDate();
+                    if ( date != null && date.after( end ) )
+                    {
+                        it.remove();
+                    }
+                }
+            }
+        }
+        else
+        {
+            ChangeLogScmResult result = provider.changeLog( repository, new ScmFileSet( directory ),
+                                                            parseDate( startDate ), end, 0, (ScmBranch) null );
+
+            checkResult( result );
+
+            changeLog = result.getChangeLog();
+        }
+
+        putCachedChangeLog( changeLogCache, rangeKey, changeLog, retrieved );
+        return changeLog;
+    }
+
+    /**
+     * Retrieves the changesets following the newest cached one. They follow its revision when the SCM has changeset
+     * revisions, as the changesets merged since may be older than it and would be missed following its date.
+     */
+    private ChangeLogScmResult getNewerChangeLog( ScmProvider provider, ScmRepository repository, File directory,
+                                                  ChangeLogSet cached, Date end )
+        throws ScmException
+    {
+        ChangeLogScmRequest request = new ChangeLogScmRequest( repository, new ScmFileSet( directory ) );
+        String newestRevision = ChangeLogCache.getNewestRevision( cached );
+        if ( newestRevision != null )
+        {
+            request.setStartRevision( new ScmRevision( newestRevision ) );
+        }
+        else
+        {
+            request.setStartDate( ChangeLogCache.getNewestDate( cached ) );
+        }
+        if ( end != null )
+        {
+            request.setEndDate( end );
+        }
+        request.setDatePattern( dateFormat );
+        return provider.changeLog( request );
+    }
+
+    private ChangeLogSet getCachedChangeLog( ChangeLogCache changeLogCache, String rangeKey )
+    {
+        return changeLogCache == null ? null : changeLogCache.getChangeLog( rangeKey );
+    }
+
+    private void putCachedChangeLog( ChangeLogCache changeLogCache, String rangeKey, ChangeLogSet changeLog,
+                                     Date retrieved )
+    {
+        if ( changeLogCache != null && changeLog != null )
+        {
+            changeLogCache.putChangeLog( rangeKey, changeLog, retrieved );
+        }
+    }
+
     /**
      * Converts the localized date string pattern to date object.
      *
@@ -731,12 +1159,25 @@ public class ChangeLogReport
 
     public ScmRepository getScmRepository()
         throws ScmException
+    {
+        try
+        {
+            return getScmRepository( getConnection() );
+        }
+        catch ( MavenReportException e )
+        {
+            throw new ScmException( "Can't load the scm provider.", e );
+        }
+    }
+
+    private ScmRepository getScmRepository( String scmConnection )
+        throws ScmException
     {
         ScmRepository repository;
 
         try
         {
-            repository = manager.makeScmRepository( getConnection() );
+            repository = manager.makeScmRepository( scmConnection );
 
             ScmProviderRepository providerRepo = repository.getProviderRepository();
 
@@ -868,29 +1309,39 @@ public class ChangeLogReport
             return connection;
         }
 
-        if ( project.getScm() == null )
+        connection = getConnection( project.getScm() );
+
+        if ( StringUtils.isEmpty( connection ) )
         {
             throw new MavenReportException( "SCM Connection is not set." );
         }
 
-        String scmConnection = project.getScm().getConnection();
-        if ( StringUtils.isNotEmpty( scmConnection ) && "connection".equals( connectionType.toLowerCase() ) )
+        return connection;
+    }
+
+    /**
+     * @return the connection of the SCM matching the <code>connectionType</code>, or <code>null</code>
+     */
+    private String getConnection( Scm scm )
+    {
+        if ( scm == null )
         {
-            connection = scmConnection;
+            return null;
         }
 
-        String scmDeveloper = project.getScm().getDeveloperConnection();
-        if ( StringUtils.isNotEmpty( scmDeveloper ) && "developerconnection".equals( connectionType.toLowerCase() ) )
+        String scmConnection = scm.getConnection();
+        if ( StringUtils.isNotEmpty( scmConnection ) && "connection".equals( connectionType.toLowerCase() ) )
         {
-            connection = scmDeveloper;
+            return scmConnection;
         }
 
-        if ( StringUtils.isEmpty( connection ) )
+        String scmDeveloper = scm.getDeveloperConnection();
+        if ( StringUtils.isNotEmpty( scmDeveloper ) && "developerconnection".equals( connectionType.toLowerCase() ) )
         {
-            throw new MavenReportException( "SCM Connection is not set." );
+            return scmDeveloper;
         }
 
-        return connection;
+        return null;
     }
 
     /**
@@ -0,0 +1,282 @@
+package org.apache.maven.plugin.changelog;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * The changelog of the root project of a reactor, retrieved once from the SCM and shared by the reports of all the
+ * modules. Each module gets the changesets of the files under its own directory, through an index of the changed
+ * files sorted by their path relative to the root project.
+ *
+ * @version $Id$
+ * @since 2.3
+ */
+public class ReactorChangeLog
+{
+    /**
+     * The logs of the reactors of this build, by root project directory, SCM connection and ranges.
+     */
+    private static final Map<String, ReactorChangeLog> LOGS = new HashMap<String, ReactorChangeLog>();
+
+    private final List<ChangeLogSet> changeLogSets;
+
+    private final long retrieved;
+
+    /**
+     * The changed files by path relative to the root project, each path ending with the files changed there.
+     */
+    private final SortedMap<String, List<FileChange>> index = new TreeMap<String, List<FileChange>>();
+
+    /**
+     * @param changeLogSets the changelog of the root project
+     * @param rootDirectory the directory of the root project
+     * @param retrieved the time the changelog was retrieved from the SCM
+     */
+    public ReactorChangeLog( List<ChangeLogSet> changeLogSets, File rootDirectory, long retrieved )
+    {
+        this.changeLogSets = changeLogSets;
+        this.retrieved = retrieved;
+
+        int depth = getRootDepth( rootDirectory );
+        for ( int i = 0; i < changeLogSets.size(); i++ )
+        {
+            List<ChangeSet> changeSets = changeLogSets.get( i ).getChangeSets();
+            for ( int j = 0; changeSets != null && j < changeSets.size(); j++ )
+            {
+                List<ChangeFile> files = changeSets.get( j ).getFiles();
+                for ( int k = 0; files != null && k < files.size(); k++ )
+                {
+                    String[] segments = getSegments( files.get( k ).getName() );
+                    if ( segments.length <= depth )
+                    {
+                        continue;
+                    }
+                    StringBuilder path = new StringBuilder();
+                    for ( int s = depth; s < segments.length; s++ )
+                    {
+                        path.append( '/' ).append( segments[s] );
+                    }
+                    List<FileChange> changes = index.get( path.toString() );
+                    if ( changes == null )
+                    {
+                        changes = new ArrayList<FileChange>();
+                        index.put( path.toString(), changes );
+                    }
+                    changes.add( new FileChange( i, j, files.get( k ) ) );
+                }
+            }
+        }
+    }
+
+    /**
+     * @param key the root project directory, SCM connection and ranges of the log
+     * @return the log retrieved for the key during this build, or <code>null</code>
+     */
+    public static synchronized ReactorChangeLog getLog( String key )
+    {
+        return LOGS.get( key );
+    }
+
+    /**
+     * @param key the root project directory, SCM connection and ranges of the log
+     * @param log the log retrieved for the key
+     */
+    public static synchronized void putLog( String key, ReactorChangeLog log )
+    {
+        LOGS.put( key, log );
+    }
+
+    /**
+     * @return the time the changelog was retrieved from the SCM
+     */
+    public long getRetrieved()
+    {
+        return retrieved;
+    }
+
+    /**
+     * Gets the changelog of a module, which only holds the changesets of the files under the module directory.
+     *
+     * @param path the path of the module directory relative to the root project, with '/' separators, or an empty
+     *            string for the root project itself
+     * @return the changelog of the module, with the same ranges as the root changelog
+     */
+    public List<ChangeLogSet> getChangeLogSets( String path )
+    {
+        String[] segments = getSegments( path );
+        if ( segments.length == 0 )
+        {
+            return changeLogSets;
+        }
+        StringBuilder prefix = new StringBuilder();
+        for ( String segment : segments )
+        {
+            prefix.append( '/' ).append( segment );
+        }
+        // all the paths starting with "prefix/": '0' follows '/'
+        SortedMap<String, List<FileChange>> slice =
+            index.subMap( prefix.toString() + '/', prefix.toString() + '0' );
+
+        // the changed files of the module, by changeset of the root changelog
+        List<Map<ChangeSet, List<ChangeFile>>> files = new ArrayList<Map<ChangeSet, List<ChangeFile>>>();
+        for ( int i = 0; i < changeLogSets.size(); i++ )
+        {
+            files.add( new IdentityHashMap<ChangeSet, List<ChangeFile>>() );
+        }
+        for ( List<FileChange> changes : slice.values() )
+        {
+            for ( FileChange change : changes )
+            {
+                ChangeSet changeSet = changeLogSets.get( change.setIndex ).getChangeSets().get( change.changeSetIndex );
+                List<ChangeFile> changeSetFiles = files.get( change.setIndex ).get( changeSet );
+                if ( changeSetFiles == null )
+                {
+                    changeSetFiles = new ArrayList<ChangeFile>();
+                    files.get( change.setIndex ).put( changeSet, changeSetFiles );
+                }
+                changeSetFiles.add( change.file );
+            }
+        }
+
+        List<ChangeLogSet> moduleChangeLogSets = new ArrayList<ChangeLogSet>();
+        for ( int i = 0; i < changeLogSets.size(); i++ )
+        {
+            ChangeLogSet changeLogSet = changeLogSets.get( i );
+            List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+            for ( ChangeSet changeSet : changeLogSet.getChangeSets() )
+            {
+                List<ChangeFile> changeSetFiles = files.get( i ).get( changeSet );
+                if ( changeSetFiles != null )
+                {
+                    ChangeSet moduleChangeSet = new ChangeSet( changeSet.getDate(), changeSet.getComment(),
+                                                               changeSet.getAuthor(), changeSetFiles );
+                    moduleChangeSet.setRevision( changeSet.getRevision() );
+                    changeSets.add( moduleChangeSet );
+                }
+            }
+            ChangeLogSet moduleChangeLogSet =
+                new ChangeLogSet( changeSets, changeLogSet.getStartDate(), changeLogSet.getEndDate() );
+            moduleChangeLogSet.setStartVersion( changeLogSet.getStartVersion() );
+            moduleChangeLogSet.setEndVersion( changeLogSet.getEndVersion() );
+            moduleChangeLogSets.add( moduleChangeLogSet );
+        }
+        return moduleChangeLogSets;
+    }
+
+    /**
+     * Finds how many leading segments of the changed file names are above the root project: depending on the SCM,
+     * the names are relative to the repository root or to the working copy root. The depth is the one which makes
+     * the most names point to an existing entry of the root project directory.
+     */
+    private int getRootDepth( File rootDirectory )
+    {
+        Map<Integer, Integer> votes = new HashMap<Integer, Integer>();
+        Map<String, Boolean> entries = new HashMap<String, Boolean>();
+        for ( ChangeLogSet changeLogSet : changeLogSets )
+        {
+            if ( changeLogSet.getChangeSets() == null )
+            {
+                continue;
+            }
+            for ( ChangeSet changeSet : changeLogSet.getChangeSets() )
+            {
+                if ( changeSet.getFiles() == null )
+                {
+                    continue;
+                }
+                for ( ChangeFile file : changeSet.getFiles() )
+                {
+                    String[] segments = getSegments( file.getName() );
+                    for ( int depth = 0; depth < segments.length; depth++ )
+                    {
+                        Boolean exists = entries.get( segments[depth] );
+                        if ( exists == null )
+                        {
+                            exists = Boolean.valueOf( new File( rootDirectory, segments[depth] ).exists() );
+                            entries.put( segments[depth], exists );
+                        }
+                        if ( exists.booleanValue() )
+                        {
+                            Integer count = votes.get( Integer.valueOf( depth ) );
+                            votes.put( Integer.valueOf( depth ), Integer.valueOf( count == null ? 1 : count + 1 ) );
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        int rootDepth = 0;
+        int maxVotes = 0;
+        for ( Map.Entry<Integer, Integer> vote : votes.entrySet() )
+        {
+            if ( vote.getValue().intValue() > maxVotes )
+            {
+                rootDepth = vote.getKey().intValue();
+                maxVotes = vote.getValue().intValue();
+            }
+        }
+        return rootDepth;
+    }
+
+    private static String[] getSegments( String path )
+    {
+        List<String> segments = new ArrayList<String>();
+        for ( String segment : path.replace( '\\', '/' ).split( "/" ) )
+        {
+            if ( segment.length() > 0 && !".".equals( segment ) )
+            {
+                segments.add( segment );
+            }
+        }
+        return segments.toArray( new String[segments.size()] );
+    }
+
+    /**
+     * A changed file of a changeset of the root changelog.
+     */
+    private static class FileChange
+    {
+        private final int setIndex;
+
+        private final int changeSetIndex;
+
+        private final ChangeFile file;
+
+        FileChange( int setIndex, int changeSetIndex, ChangeFile file )
+        {
+            this.setIndex = setIndex;
+            this.changeSetIndex = changeSetIndex;
+            this.file = file;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.apache.maven.plugin.changelog;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmFileStatus;
+import org.apache.maven.scm.ScmTag;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * @version $Id$
+ */
+public class ChangeLogCacheTest
+    extends TestCase
+{
+    private File cacheFile;
+
+    protected void setUp()
+        throws Exception
+    {
+        File directory = new File( System.getProperty( "basedir", "." ), "target/unit/changelog-cache" );
+        FileUtils.deleteDirectory( directory );
+        directory.mkdirs();
+        cacheFile = new File( directory, "cache.bin" );
+    }
+
+    public void testSaveAndRead()
+        throws Exception
+    {
+        ChangeFile changeFile = new ChangeFile( "/src/Main.java", "1.2" );
+        changeFile.setAction( ScmFileStatus.RENAMED );
+        changeFile.setOriginalName( "/src/Old.java" );
+        ChangeSet changeSet = createChangeSet( "r2", 2000, "Edwin Punzalan" );
+        changeSet.addFile( changeFile );
+        changeSet.addFile( new ChangeFile( "/src/Other.java" ) );
+
+        List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+        changeSets.add( changeSet );
+        changeSets.add( createChangeSet( null, 1000, "Edwin Punzalan" ) );
+        ChangeLogSet changeLog = new ChangeLogSet( changeSets, new Date( 500 ), null );
+        changeLog.setStartVersion( new ScmTag( "v1" ) );
+
+        ChangeLogCache cache = new ChangeLogCache( cacheFile );
+        assertNull( cache.getChangeLog( "tag:v1.." ) );
+        cache.putChangeLog( "tag:v1..", changeLog, new Date( 3000 ) );
+        cache.save();
+        // the temporary file was renamed
+        assertEquals( 1, cacheFile.getParentFile().list().length );
+
+        cache = new ChangeLogCache( cacheFile );
+        assertEquals( new Date( 3000 ), cache.getRetrieved( "tag:v1.." ) );
+        ChangeLogSet read = cache.getChangeLog( "tag:v1.." );
+        assertEquals( new Date( 500 ), read.getStartDate() );
+        assertNull( read.getEndDate() );
+        assertEquals( "Tag", read.getStartVersion().getType() );
+        assertEquals( "v1", read.getStartVersion().getName() );
+        assertNull( read.getEndVersion() );
+        assertEquals( 2, read.getChangeSets().size() );
+
+        ChangeSet readChangeSet = read.getChangeSets().get( 0 );
+        assertEquals( "r2", readChangeSet.getRevision() );
+        assertEquals( new Date( 2000 ), readChangeSet.getDate() );
+        assertEquals( "Edwin Punzalan", readChangeSet.getAuthor() );
+        assertEquals( "Commit r2", readChangeSet.getComment() );
+        assertEquals( 2, readChangeSet.getFiles().size() );
+        ChangeFile readFile = readChangeSet.getFiles().get( 0 );
+        assertEquals( "/src/Main.java", readFile.getName() );
+        assertEquals( "1.2", readFile.getRevision() );
+        assertSame( ScmFileStatus.RENAMED, readFile.getAction() );
+        assertEquals( "/src/Old.java", readFile.getOriginalName() );
+        assertNull( read.getChangeSets().get( 1 ).getRevision() );
+        assertTrue( read.getChangeSets().get( 1 ).getFiles().isEmpty() );
+    }
+
+    public void testUnreadableCache()
+        throws Exception
+    {
+        FileUtils.fileWrite( cacheFile.getPath(), "<changelog/>" );
+
+        assertNull( new ChangeLogCache( cacheFile ).getChangeLog( "range:30" ) );
+    }
+
+    public void testMerge()
+    {
+        List<ChangeSet> cachedChangeSets = new ArrayList<ChangeSet>();
+        cachedChangeSets.add( createChangeSet( "r3", 3000, "a" ) );
+        cachedChangeSets.add( createChangeSet( "r2", 2000, "a" ) );
+        cachedChangeSets.add( createChangeSet( "r1", 1000, "a" ) );
+        ChangeLogSet cached = new ChangeLogSet( cachedChangeSets, new Date( 0 ), new Date( 3000 ) );
+        assertEquals( new Date( 3000 ), ChangeLogCache.getNewestDate( cached ) );
+        assertEquals( "r3", ChangeLogCache.getNewestRevision( cached ) );
+
+        // the newest cached changeset is retrieved again, as the ranges include their start
+        List<ChangeSet> newerChangeSets = new ArrayList<ChangeSet>();
+        newerChangeSets.add( createChangeSet( "r3", 3000, "b" ) );
+        newerChangeSets.add( createChangeSet( "r4", 4000, "a" ) );
+        ChangeLogSet newer = new ChangeLogSet( newerChangeSets, new Date( 3000 ), new Date( 5000 ) );
+
+        ChangeLogSet merged = ChangeLogCache.merge( cached, newer, new Date( 1500 ) );
+        assertEquals( new Date( 1500 ), merged.getStartDate() );
+        assertEquals( new Date( 5000 ), merged.getEndDate() );
+        List<ChangeSet> changeSets = merged.getChangeSets();
+        assertEquals( 3, changeSets.size() );
+        assertEquals( "r4", changeSets.get( 0 ).getRevision() );
+        assertEquals( "r3", changeSets.get( 1 ).getRevision() );
+        assertEquals( "b", changeSets.get( 1 ).getAuthor() );
+        assertEquals( "r2", changeSets.get( 2 ).getRevision() );
+
+        merged = ChangeLogCache.merge( cached, newer, null );
+        assertEquals( new Date( 0 ), merged.getStartDate() );
+        assertEquals( 4, merged.getChangeSets().size() );
+    }
+
+    private ChangeSet createChangeSet( String revision, long date, String author )
+    {
+        ChangeSet changeSet = new ChangeSet( new Date( date ), "Commit " + revision, author, null );
+        changeSet.setRevision( revision );
+        return changeSet;
+    }
+}
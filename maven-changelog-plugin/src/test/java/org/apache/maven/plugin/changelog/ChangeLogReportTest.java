@@ -19,14 +19,29 @@ package org.apache.maven.plugin.changelog;
  * under the License.
  */
 
+import org.apache.maven.artifact.repository.DefaultArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.plugin.changelog.stubs.ChangeLogScmResultStub;
 import org.apache.maven.plugin.changelog.stubs.ScmManagerStub;
+import org.apache.maven.plugin.changelog.stubs.ScmProviderStub;
 import org.apache.maven.plugin.changelog.stubs.FailedScmManagerStub;
 import org.apache.maven.plugin.changelog.stubs.ScmManagerWithHostStub;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.command.changelog.ChangeLogScmRequest;
+import org.apache.maven.scm.command.changelog.ChangeLogScmResult;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
 import org.apache.maven.scm.manager.ScmManager;
+import org.apache.maven.scm.provider.ScmProvider;
+import org.apache.maven.scm.repository.ScmRepository;
 import org.codehaus.plexus.util.FileUtils;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
 
 /**
  * @author Edwin Punzalan
@@ -109,6 +124,66 @@ public class ChangeLogReportTest
         executeMojo( "cached-plugin-config.xml" );
     }
 
+    /**
+     * The changesets merged since the previous report may be older than the newest cached one, so they are retrieved
+     * following its revision rather than its date.
+     */
+    public void testRangeFollowsNewestCachedRevision()
+        throws Exception
+    {
+        final List<ChangeLogScmRequest> requests = new ArrayList<ChangeLogScmRequest>();
+        final ScmProvider provider = new ScmProviderStub()
+        {
+            protected ChangeLogScmResult getChangeLogScmResult()
+            {
+                return new ChangeLogScmResultStub()
+                {
+                    public ChangeLogSet getChangeLog()
+                    {
+                        ChangeSet changeSet = new ChangeSet( new Date(), "Commit r2", "Edwin Punzalan", null );
+                        changeSet.setRevision( "r2" );
+                        return new ChangeLogSet( Collections.singletonList( changeSet ), null, null );
+                    }
+                };
+            }
+
+            public ChangeLogScmResult changeLog( ChangeLogScmRequest scmRequest )
+                throws ScmException
+            {
+                requests.add( scmRequest );
+                return getChangeLogScmResult();
+            }
+        };
+        scmManager = new ScmManagerStub()
+        {
+            public ScmProvider getProviderByRepository( ScmRepository scmRepository )
+            {
+                return provider;
+            }
+        };
+
+        File localRepository = new File( getBasedir(), "target/unit/changelog-cache-repository" );
+        FileUtils.deleteDirectory( localRepository );
+
+        File pluginXmlFile = new File( getBasedir(), "src/test/plugin-configs/changelog/min-plugin-config.xml" );
+        for ( int i = 0; i < 2; i++ )
+        {
+            ChangeLogReport mojo = (ChangeLogReport) lookupMojo( "changelog", pluginXmlFile );
+            setVariableValueToObject( mojo, "manager", scmManager );
+            setVariableValueToObject( mojo, "cache", Boolean.TRUE );
+            setVariableValueToObject( mojo, "localRepository",
+                                      new DefaultArtifactRepository( "local", localRepository.toURI().toString(),
+                                                                     new DefaultRepositoryLayout() ) );
+            // the changelog.xml of the previous report has expired
+            setVariableValueToObject( mojo, "outputXMLExpiration", new Integer( 0 ) );
+
+            mojo.execute();
+        }
+
+        assertEquals( 1, requests.size() );
+        assertEquals( "r2", requests.get( 0 ).getStartRevision().getName() );
+    }
+
     public void testTypeException()
         throws Exception
     {
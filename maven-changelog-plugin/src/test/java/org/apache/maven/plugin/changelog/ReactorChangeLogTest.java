@@ -0,0 +1,136 @@
+package org.apache.maven.plugin.changelog;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmTag;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * @version $Id$
+ */
+public class ReactorChangeLogTest
+    extends TestCase
+{
+    private File rootDirectory;
+
+    protected void setUp()
+        throws Exception
+    {
+        rootDirectory = new File( System.getProperty( "basedir", "." ), "target/unit/reactor-changelog" );
+        FileUtils.deleteDirectory( rootDirectory );
+        new File( rootDirectory, "core/src" ).mkdirs();
+        new File( rootDirectory, "core-api" ).mkdirs();
+        new File( rootDirectory, "web" ).mkdirs();
+        FileUtils.fileWrite( new File( rootDirectory, "pom.xml" ).getPath(), "<project/>" );
+    }
+
+    public void testRepositoryPaths()
+    {
+        // svn names the files from the repository root
+        ReactorChangeLog reactorChangeLog =
+            new ReactorChangeLog( createChangeLog( "/trunk/project/" ), rootDirectory, 0 );
+
+        assertChangeLog( reactorChangeLog, "/trunk/project/" );
+    }
+
+    public void testWorkingCopyPaths()
+    {
+        // git names the files from the working copy root
+        ReactorChangeLog reactorChangeLog = new ReactorChangeLog( createChangeLog( "" ), rootDirectory, 0 );
+
+        assertChangeLog( reactorChangeLog, "" );
+    }
+
+    public void testSharedLogs()
+    {
+        ReactorChangeLog reactorChangeLog =
+            new ReactorChangeLog( Collections.<ChangeLogSet>emptyList(), rootDirectory, 1000 );
+        ReactorChangeLog.putLog( "reactor-changelog-test", reactorChangeLog );
+
+        assertSame( reactorChangeLog, ReactorChangeLog.getLog( "reactor-changelog-test" ) );
+        assertEquals( 1000, ReactorChangeLog.getLog( "reactor-changelog-test" ).getRetrieved() );
+        assertNull( ReactorChangeLog.getLog( "other" ) );
+    }
+
+    private void assertChangeLog( ReactorChangeLog reactorChangeLog, String prefix )
+    {
+        List<ChangeLogSet> root = reactorChangeLog.getChangeLogSets( "" );
+        assertEquals( 3, root.get( 0 ).getChangeSets().size() );
+
+        List<ChangeLogSet> core = reactorChangeLog.getChangeLogSets( "core/" );
+        assertEquals( 1, core.size() );
+        assertEquals( new Date( 0 ), core.get( 0 ).getStartDate() );
+        assertEquals( "v1", core.get( 0 ).getStartVersion().getName() );
+        List<ChangeSet> changeSets = core.get( 0 ).getChangeSets();
+        assertEquals( 2, changeSets.size() );
+        assertEquals( "r3", changeSets.get( 0 ).getRevision() );
+        assertEquals( "Commit r3", changeSets.get( 0 ).getComment() );
+        assertEquals( 1, changeSets.get( 0 ).getFiles().size() );
+        assertEquals( prefix + "core/src/A.java", changeSets.get( 0 ).getFiles().get( 0 ).getName() );
+        assertEquals( "r1", changeSets.get( 1 ).getRevision() );
+        assertEquals( 2, changeSets.get( 1 ).getFiles().size() );
+
+        // a module whose name starts with the name of another module only has its own files
+        changeSets = reactorChangeLog.getChangeLogSets( "core-api" ).get( 0 ).getChangeSets();
+        assertEquals( 1, changeSets.size() );
+        assertEquals( "r2", changeSets.get( 0 ).getRevision() );
+
+        changeSets = reactorChangeLog.getChangeLogSets( "core/src" ).get( 0 ).getChangeSets();
+        assertEquals( 2, changeSets.size() );
+
+        assertTrue( reactorChangeLog.getChangeLogSets( "web" ).get( 0 ).getChangeSets().isEmpty() );
+    }
+
+    private List<ChangeLogSet> createChangeLog( String prefix )
+    {
+        List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+        changeSets.add( createChangeSet( "r3", prefix + "core/src/A.java", prefix + "pom.xml" ) );
+        changeSets.add( createChangeSet( "r2", prefix + "core-api/B.java" ) );
+        changeSets.add( createChangeSet( "r1", prefix + "core/src/A.java", prefix + "core/pom.xml" ) );
+        ChangeLogSet changeLog = new ChangeLogSet( changeSets, new Date( 0 ), new Date( 3000 ) );
+        changeLog.setStartVersion( new ScmTag( "v1" ) );
+
+        List<ChangeLogSet> changeLogSets = new ArrayList<ChangeLogSet>();
+        changeLogSets.add( changeLog );
+        return changeLogSets;
+    }
+
+    private ChangeSet createChangeSet( String revision, String... files )
+    {
+        ChangeSet changeSet = new ChangeSet( new Date( 1000 ), "Commit " + revision, "a", null );
+        changeSet.setRevision( revision );
+        for ( String file : files )
+        {
+            changeSet.addFile( new ChangeFile( file ) );
+        }
+        return changeSet;
+    }
+}
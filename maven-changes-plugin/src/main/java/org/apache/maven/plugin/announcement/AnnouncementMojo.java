@@ -19,6 +19,7 @@ package org.apache.maven.plugin.announcement;
  * under the License.
  */
 
+import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.changes.ChangesXML;
 import org.apache.maven.plugin.changes.IssueAdapter;
@@ -28,6 +29,7 @@ import org.apache.maven.plugin.github.GitHubDownloader;
 import org.apache.maven.plugin.github.GitHubIssueManagementSystem;
 import org.apache.maven.plugin.issues.Issue;
 import org.apache.maven.plugin.issues.IssueManagementSystem;
+import org.apache.maven.plugin.issues.IssueStore;
 import org.apache.maven.plugin.issues.IssueUtils;
 import org.apache.maven.plugin.jira.AbstractJiraDownloader;
 import org.apache.maven.plugin.jira.AdaptiveJiraDownloader;
@@ -317,6 +319,21 @@ public class AnnouncementMojo
     @Component
     private Settings settings;
 
+    /**
+     * Local Repository.
+     */
+    @Parameter( property = "localRepository", readonly = true )
+    private ArtifactRepository localRepository;
+
+    /**
+     * Keep the issues downloaded from the issue management system in a store of the local repository, so that the
+     * next builds only download the issues which changed since.
+     *
+     * @since 2.10
+     */
+    @Parameter( property = "changes.issueStore", defaultValue = "true" )
+    private boolean issueStore;
+
     /**
      * Include issues from JIRA with these status ids. Multiple status ids can
      * be specified as a comma separated list of ids.
@@ -689,6 +706,18 @@ public class AnnouncementMojo
         }
     }
 
+    /**
+     * @return The directory of the local issue stores, or <code>null</code> if the issues should not be stored
+     */
+    private File getIssueStoreDirectory()
+    {
+        if ( !issueStore || localRepository == null )
+        {
+            return null;
+        }
+        return new File( localRepository.getBasedir(), IssueStore.DIRECTORY );
+    }
+
     protected List<Release> getJiraReleases()
         throws MojoExecutionException
     {
@@ -720,6 +749,8 @@ public class AnnouncementMojo
 
         jiraDownloader.setWebPassword( webPassword );
 
+        jiraDownloader.setIssueStoreDirectory( getIssueStoreDirectory() );
+
         try
         {
             jiraDownloader.doExecute();
@@ -773,6 +804,10 @@ public class AnnouncementMojo
 
         issueDownloader.setTracUser( tracUser );
 
+        issueDownloader.setIssueStoreDirectory( getIssueStoreDirectory() );
+
+        issueDownloader.setLog( getLog() );
+
         try
         {
             return getReleases( issueDownloader.getIssueList(), new TracIssueManagmentSystem() );
@@ -790,6 +825,8 @@ public class AnnouncementMojo
         {
             GitHubDownloader issueDownloader =
                 new GitHubDownloader( project, githubAPIScheme, githubAPIPort, false, true );
+            issueDownloader.setIssueStoreDirectory( getIssueStoreDirectory() );
+            issueDownloader.setLog( getLog() );
             return getReleases( issueDownloader.getIssueList(), new GitHubIssueManagementSystem() );
         }
         catch ( Exception e )
@@ -37,6 +37,7 @@ import org.apache.maven.doxia.siterenderer.RendererException;
 import org.apache.maven.doxia.siterenderer.SiteRenderingContext;
 import org.apache.maven.doxia.siterenderer.sink.SiteRendererSink;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.issues.IssueStore;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
@@ -102,6 +103,15 @@ public abstract class AbstractChangesReport
     @Parameter( property = "localRepository", required = true, readonly = true )
     protected ArtifactRepository localRepository;
 
+    /**
+     * Keep the issues downloaded from the issue management system in a store of the local repository, so that the
+     * next builds only download the issues which changed since.
+     *
+     * @since 2.10
+     */
+    @Parameter( property = "changes.issueStore", defaultValue = "true" )
+    private boolean issueStore;
+
     /**
      */
     @Component
@@ -118,6 +128,18 @@ public abstract class AbstractChangesReport
     @Component
     protected I18N i18n;
 
+    /**
+     * @return The directory of the local issue stores, or <code>null</code> if the issues should not be stored
+     */
+    protected File getIssueStoreDirectory()
+    {
+        if ( !issueStore || localRepository == null )
+        {
+            return null;
+        }
+        return new File( localRepository.getBasedir(), IssueStore.DIRECTORY );
+    }
+
     private File getSkinArtifactFile()
         throws MojoExecutionException
     {
@@ -20,18 +20,28 @@ package org.apache.maven.plugin.github;
  */
 
 import org.apache.maven.plugin.issues.Issue;
+import org.apache.maven.plugin.issues.IssueStore;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.apache.maven.project.MavenProject;
 import org.eclipse.egit.github.core.Label;
 import org.eclipse.egit.github.core.client.GitHubClient;
 import org.eclipse.egit.github.core.service.IssueService;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TimeZone;
 
 /**
  * @since 2.8
@@ -69,6 +79,16 @@ public class GitHubDownloader
      */
     private String githubIssueURL;
 
+    /**
+     * The directory of the local issue stores, or <code>null</code> to download all the issues every time.
+     */
+    private File issueStoreDirectory;
+
+    /**
+     * Log for the warnings.
+     */
+    private Log log = new SystemStreamLog();
+
     public GitHubDownloader( MavenProject project, String githubScheme, int githubPort, boolean includeOpenIssues,
                              boolean onlyMilestoneIssues )
         throws MalformedURLException
@@ -174,9 +194,13 @@ public class GitHubDownloader
     public List<Issue> getIssueList()
         throws IOException
     {
-        List<Issue> issueList = new ArrayList<Issue>();
-
         IssueService service = new IssueService( client );
+        if ( issueStoreDirectory != null )
+        {
+            return getStoredIssueList( service );
+        }
+
+        List<Issue> issueList = new ArrayList<Issue>();
         Map<String, String> issueFilter = new HashMap<String, String>();
 
         if ( includeOpenIssues )
@@ -207,4 +231,75 @@ public class GitHubDownloader
         return issueList;
     }
 
+    /**
+     * Gets the issues through the local issue store. All the issues of the repository are stored, whatever their
+     * state or milestone, so that only the ones updated since the last download are listed by GitHub. The store is
+     * then filtered like the issues listed by {@link #getIssueList()} without store: open issues first, then closed
+     * ones, the most recent first.
+     */
+    private List<Issue> getStoredIssueList( IssueService service )
+        throws IOException
+    {
+        IssueStore store = new IssueStore( issueStoreDirectory, githubIssueURL );
+
+        Map<String, String> issueFilter = new HashMap<String, String>();
+        issueFilter.put( "state", "all" );
+        Date lastUpdated = store.getLastUpdated();
+        if ( lastUpdated != null )
+        {
+            // the update dates come from GitHub, so the clocks do not need to agree
+            DateFormat dateFormat = new SimpleDateFormat( "yyyy-MM-dd'T'HH:mm:ss'Z'" );
+            dateFormat.setTimeZone( TimeZone.getTimeZone( "UTC" ) );
+            issueFilter.put( "since", dateFormat.format( lastUpdated ) );
+        }
+
+        for ( org.eclipse.egit.github.core.Issue issue : service.getIssues( githubOwner, githubRepo, issueFilter ) )
+        {
+            store.putIssue( createIssue( issue ) );
+        }
+        try
+        {
+            store.save();
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Unable to save the downloaded issues: " + e.getMessage() );
+        }
+
+        List<Issue> issueList = new ArrayList<Issue>();
+        for ( Issue issue : store.getIssues() )
+        {
+            boolean open = "open".equals( issue.getStatus() );
+            boolean milestone = issue.getFixVersions() != null && !issue.getFixVersions().isEmpty();
+            if ( ( includeOpenIssues || !open ) && ( !onlyMilestoneIssues || milestone ) )
+            {
+                issueList.add( issue );
+            }
+        }
+        Collections.sort( issueList, new Comparator<Issue>()
+        {
+            public int compare( Issue issue1, Issue issue2 )
+            {
+                boolean open1 = "open".equals( issue1.getStatus() );
+                boolean open2 = "open".equals( issue2.getStatus() );
+                if ( open1 != open2 )
+                {
+                    return open1 ? -1 : 1;
+                }
+                return Integer.valueOf( issue2.getId() ).compareTo( Integer.valueOf( issue1.getId() ) );
+            }
+        } );
+        return issueList;
+    }
+
+    public void setIssueStoreDirectory( File issueStoreDirectory )
+    {
+        this.issueStoreDirectory = issueStoreDirectory;
+    }
+
+    public void setLog( Log log )
+    {
+        this.log = log;
+    }
+
 }
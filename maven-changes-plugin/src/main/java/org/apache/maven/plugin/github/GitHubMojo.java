@@ -158,6 +158,8 @@ public class GitHubMojo
             // Download issues
             GitHubDownloader issueDownloader =
                 new GitHubDownloader( project, githubAPIScheme, githubAPIPort, includeOpenIssues, onlyMilestoneIssues );
+            issueDownloader.setIssueStoreDirectory( getIssueStoreDirectory() );
+            issueDownloader.setLog( getLog() );
 
             List<Issue> issueList = issueDownloader.getIssueList();
 
@@ -0,0 +1,411 @@
+package org.apache.maven.plugin.issues;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A local store of the issues downloaded from an issue management system, so that the next builds only download the
+ * issues which changed. The issues are identified by their id and kept in the order of the last download.
+ * <p>
+ * Each query of each issue management system has its own store file, named after a digest of the query. The stores
+ * live in the local repository by default, so that they survive <code>mvn clean</code>.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.10
+ */
+public class IssueStore
+{
+    /**
+     * The directory of the issue stores, relative to the local repository.
+     */
+    public static final String DIRECTORY = ".cache/maven-changes-plugin/issues";
+
+    /**
+     * Serializes the saving of the store files by the builds of a reactor.
+     */
+    private static final Object LOCK = new Object();
+
+    private final File file;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private Map<String, Issue> issues = new LinkedHashMap<String, Issue>();
+
+    /**
+     * Opens the store of a query, which is empty if it does not exist yet or cannot be read.
+     *
+     * @param directory The directory of the stores
+     * @param query A description of the query, such as the URL of the issue management system and the query itself
+     */
+    public IssueStore( File directory, String query )
+    {
+        this.file = new File( directory, digest( query ) + ".json" );
+        synchronized ( LOCK )
+        {
+            try
+            {
+                if ( file.isFile() )
+                {
+                    read();
+                }
+            }
+            catch ( IOException e )
+            {
+                // start with an empty store, all the issues will be downloaded again
+                issues.clear();
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the store has no issue
+     */
+    public boolean isEmpty()
+    {
+        return issues.isEmpty();
+    }
+
+    /**
+     * @param id The id of an issue
+     * @return The stored issue, or <code>null</code>
+     */
+    public Issue getIssue( String id )
+    {
+        return issues.get( id );
+    }
+
+    /**
+     * @return The stored issues, in the order of the last download
+     */
+    public List<Issue> getIssues()
+    {
+        return new ArrayList<Issue>( issues.values() );
+    }
+
+    /**
+     * @return The latest update time of the stored issues, as told by the issue management system, or
+     *         <code>null</code> if the store is empty
+     */
+    public Date getLastUpdated()
+    {
+        Date lastUpdated = null;
+        for ( Issue issue : issues.values() )
+        {
+            if ( issue.getUpdated() != null && ( lastUpdated == null || issue.getUpdated().after( lastUpdated ) ) )
+            {
+                lastUpdated = issue.getUpdated();
+            }
+        }
+        return lastUpdated;
+    }
+
+    /**
+     * Adds an issue or replaces the stored issue with the same id, keeping its place.
+     *
+     * @param issue The downloaded issue
+     */
+    public void putIssue( Issue issue )
+    {
+        issues.put( issue.getId(), issue );
+    }
+
+    /**
+     * Keeps only the issues which still match the query, in the order of the query.
+     *
+     * @param ids The ids of the issues matching the query
+     */
+    public void retainIssues( List<String> ids )
+    {
+        Map<String, Issue> retained = new LinkedHashMap<String, Issue>();
+        for ( String id : ids )
+        {
+            Issue issue = issues.get( id );
+            if ( issue != null )
+            {
+                retained.put( id, issue );
+            }
+        }
+        issues = retained;
+    }
+
+    /**
+     * Saves the store file.
+     *
+     * @throws IOException If the store file could not be written
+     */
+    public void save()
+        throws IOException
+    {
+        synchronized ( LOCK )
+        {
+            file.getParentFile().mkdirs();
+            // a file of its own, as another build may save the same store at the same time
+            File tmp = File.createTempFile( file.getName(), ".tmp", file.getParentFile() );
+            try
+            {
+                write( tmp );
+                if ( !( tmp.renameTo( file ) || ( file.delete() && tmp.renameTo( file ) ) ) )
+                {
+                    throw new IOException( "Unable to replace " + file );
+                }
+            }
+            finally
+            {
+                tmp.delete();
+            }
+        }
+    }
+
+    private void read()
+        throws IOException
+    {
+        JsonParser parser = jsonFactory.createParser( file );
+        try
+        {
+            if ( parser.nextToken() != JsonToken.START_ARRAY )
+            {
+                throw new IOException( "Unexpected content in " + file );
+            }
+            while ( parser.nextToken() == JsonToken.START_OBJECT )
+            {
+                Issue issue = readIssue( parser );
+                if ( issue.getId() != null )
+                {
+                    issues.put( issue.getId(), issue );
+                }
+            }
+        }
+        finally
+        {
+            parser.close();
+        }
+    }
+
+    private Issue readIssue( JsonParser parser )
+        throws IOException
+    {
+        Issue issue = new Issue();
+        while ( parser.nextToken() == JsonToken.FIELD_NAME )
+        {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ( token == JsonToken.START_ARRAY )
+            {
+                while ( parser.nextToken() == JsonToken.VALUE_STRING )
+                {
+                    if ( "comments".equals( name ) )
+                    {
+                        issue.addComment( parser.getText() );
+                    }
+                    else if ( "components".equals( name ) )
+                    {
+                        issue.addComponent( parser.getText() );
+                    }
+                    else if ( "fixVersions".equals( name ) )
+                    {
+                        issue.addFixVersion( parser.getText() );
+                    }
+                }
+            }
+            else if ( token == JsonToken.VALUE_NUMBER_INT )
+            {
+                if ( "created".equals( name ) )
+                {
+                    issue.setCreated( new Date( parser.getLongValue() ) );
+                }
+                else if ( "updated".equals( name ) )
+                {
+                    issue.setUpdated( new Date( parser.getLongValue() ) );
+                }
+            }
+            else if ( token == JsonToken.VALUE_STRING )
+            {
+                setField( issue, name, parser.getText() );
+            }
+            else
+            {
+                parser.skipChildren();
+            }
+        }
+        return issue;
+    }
+
+    private void setField( Issue issue, String name, String value )
+    {
+        if ( "assignee".equals( name ) )
+        {
+            issue.setAssignee( value );
+        }
+        else if ( "id".equals( name ) )
+        {
+            issue.setId( value );
+        }
+        else if ( "key".equals( name ) )
+        {
+            issue.setKey( value );
+        }
+        else if ( "link".equals( name ) )
+        {
+            issue.setLink( value );
+        }
+        else if ( "priority".equals( name ) )
+        {
+            issue.setPriority( value );
+        }
+        else if ( "reporter".equals( name ) )
+        {
+            issue.setReporter( value );
+        }
+        else if ( "resolution".equals( name ) )
+        {
+            issue.setResolution( value );
+        }
+        else if ( "status".equals( name ) )
+        {
+            issue.setStatus( value );
+        }
+        else if ( "summary".equals( name ) )
+        {
+            issue.setSummary( value );
+        }
+        else if ( "title".equals( name ) )
+        {
+            issue.setTitle( value );
+        }
+        else if ( "type".equals( name ) )
+        {
+            issue.setType( value );
+        }
+        else if ( "version".equals( name ) )
+        {
+            issue.setVersion( value );
+        }
+    }
+
+    private void write( File target )
+        throws IOException
+    {
+        JsonGenerator gen = jsonFactory.createGenerator( target, JsonEncoding.UTF8 );
+        try
+        {
+            gen.writeStartArray();
+            for ( Issue issue : issues.values() )
+            {
+                gen.writeStartObject();
+                writeField( gen, "id", issue.getId() );
+                writeField( gen, "key", issue.getKey() );
+                writeField( gen, "link", issue.getLink() );
+                writeField( gen, "summary", issue.getSummary() );
+                writeField( gen, "title", issue.getTitle() );
+                writeField( gen, "type", issue.getType() );
+                writeField( gen, "status", issue.getStatus() );
+                writeField( gen, "resolution", issue.getResolution() );
+                writeField( gen, "priority", issue.getPriority() );
+                writeField( gen, "assignee", issue.getAssignee() );
+                writeField( gen, "reporter", issue.getReporter() );
+                writeField( gen, "version", issue.getVersion() );
+                writeField( gen, "created", issue.getCreated() );
+                writeField( gen, "updated", issue.getUpdated() );
+                writeField( gen, "fixVersions", issue.getFixVersions() );
+                writeField( gen, "components", issue.getComponents() );
+                writeField( gen, "comments", issue.getComments() );
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+        finally
+        {
+            gen.close();
+        }
+    }
+
+    private void writeField( JsonGenerator gen, String name, String value )
+        throws IOException
+    {
+        if ( value != null )
+        {
+            gen.writeStringField( name, value );
+        }
+    }
+
+    private void writeField( JsonGenerator gen, String name, Date value )
+        throws IOException
+    {
+        if ( value != null )
+        {
+            gen.writeNumberField( name, value.getTime() );
+        }
+    }
+
+    private void writeField( JsonGenerator gen, String name, List<String> values )
+        throws IOException
+    {
+        if ( values != null )
+        {
+            gen.writeArrayFieldStart( name );
+            for ( String value : values )
+            {
+                if ( value != null )
+                {
+                    gen.writeString( value );
+                }
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    private static String digest( String query )
+    {
+        try
+        {
+            byte[] digest = MessageDigest.getInstance( "SHA-1" ).digest( query.getBytes( "UTF-8" ) );
+            StringBuilder name = new StringBuilder();
+            for ( byte b : digest )
+            {
+                name.append( Integer.toHexString( ( b & 0xff ) | 0x100 ).substring( 1 ) );
+            }
+            return name.toString();
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+}
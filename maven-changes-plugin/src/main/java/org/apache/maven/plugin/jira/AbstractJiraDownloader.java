@@ -93,6 +93,12 @@ public abstract class AbstractJiraDownloader
     protected int proxyPort;
     protected String proxyUser;
     protected String proxyPass;
+    /** The number of issues to fetch with each request. */
+    protected int pageSize = 100;
+    /** The number of pages of issues to fetch concurrently. */
+    protected int threads = 4;
+    /** The directory of the local issue stores, or <code>null</code> to download all the issues every time. */
+    protected File issueStoreDirectory;
 
     /**
      * Execute the query on the JIRA server.
@@ -241,6 +247,36 @@ public abstract class AbstractJiraDownloader
         nbEntriesMax = nbEntries;
     }
 
+    /**
+     * Sets the number of issues to fetch with each request.
+     *
+     * @param pageSize The number of issues per request
+     */
+    public void setPageSize( int pageSize )
+    {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Sets the number of pages of issues to fetch concurrently.
+     *
+     * @param threads The number of concurrent requests
+     */
+    public void setThreads( int threads )
+    {
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the directory of the local issue stores, which keep the downloaded issues between builds.
+     *
+     * @param issueStoreDirectory The directory of the stores, or <code>null</code> to disable them
+     */
+    public void setIssueStoreDirectory( File issueStoreDirectory )
+    {
+        this.issueStoreDirectory = issueStoreDirectory;
+    }
+
     /**
      * Sets the statusIds.
      *
@@ -61,6 +61,9 @@ public class AdaptiveJiraDownloader extends AbstractJiraDownloader
         target.setMavenProject( project );
         target.setOutput( output );
         target.setNbEntries( nbEntriesMax );
+        target.setPageSize( pageSize );
+        target.setThreads( threads );
+        target.setIssueStoreDirectory( issueStoreDirectory );
         target.setComponent( component );
         target.setFixVersionIds( fixVersionIds );
         target.setStatusIds( statusIds );
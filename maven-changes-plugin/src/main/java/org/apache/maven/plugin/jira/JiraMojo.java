@@ -117,6 +117,14 @@ public class JiraMojo
     @Parameter( defaultValue = "" )
     private String component;
 
+    /**
+     * The number of requests fetching pages of issues concurrently from JIRA, when using the REST API.
+     *
+     * @since 2.10
+     */
+    @Parameter( defaultValue = "4" )
+    private int downloadThreads;
+
     /**
      * Defines the filter parameters to restrict which issues are retrieved
      * from JIRA. The filter parameter uses the same format of url
@@ -179,6 +187,15 @@ public class JiraMojo
     @Parameter( defaultValue = "false" )
     private boolean onlyCurrentVersion;
 
+    /**
+     * The number of issues fetched from JIRA with each request, when using the REST API. JIRA may return less issues
+     * per request if it is configured with a lower limit.
+     *
+     * @since 2.10
+     */
+    @Parameter( defaultValue = "100" )
+    private int pageSize;
+
     /**
      * Sets the priority(s) that you want to limit your report to include.
      * Valid statuses are <code>Blocker</code>, <code>Critical</code>,
@@ -435,6 +452,12 @@ public class JiraMojo
 
         issueDownloader.setNbEntries( maxEntries );
 
+        issueDownloader.setPageSize( pageSize );
+
+        issueDownloader.setThreads( downloadThreads );
+
+        issueDownloader.setIssueStoreDirectory( getIssueStoreDirectory() );
+
         issueDownloader.setComponent( component );
 
         issueDownloader.setFixVersionIds( fixVersionIds );
@@ -22,8 +22,10 @@ package org.apache.maven.plugin.jira;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.MappingJsonFactory;
+import org.apache.commons.lang.StringUtils;
 import org.apache.cxf.configuration.security.AuthorizationPolicy;
 import org.apache.cxf.configuration.security.ProxyAuthorizationPolicy;
 import org.apache.cxf.interceptor.LoggingInInterceptor;
@@ -36,6 +38,7 @@ import org.apache.cxf.transports.http.configuration.ProxyServerType;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.issues.Issue;
+import org.apache.maven.plugin.issues.IssueStore;
 
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -43,12 +46,19 @@ import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
+import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Use the JIRA REST API to implement the download.
@@ -59,9 +69,25 @@ import java.util.Map;
  */
 public class RestJiraDownloader extends AbstractJiraDownloader
 {
+    //2012-07-17T06:26:47.723-0500
+    private static final String DATE_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+
+    /**
+     * The issue fields shown by the reports, which are the only ones requested from JIRA.
+     */
+    static final String[] SEARCH_FIELDS = { "assignee", "components", "created", "fixVersions", "issuetype",
+        "priority", "reporter", "resolution", "status", "summary", "updated", "versions" };
+
+    /**
+     * The issue fields requested to find out which stored issues changed.
+     */
+    static final String[] INDEX_FIELDS = { "updated" };
+
     private List<Issue> issueList;
     private JsonFactory jsonFactory;
-    private SimpleDateFormat dateFormat;
+
+    /** The cookie of the JIRA session, shared by the clients fetching the pages of issues. */
+    private String sessionCookie;
 
     private List<String> resolvedFixVersionIds;
     private List<String> resolvedStatusIds;
@@ -85,8 +111,6 @@ public class RestJiraDownloader extends AbstractJiraDownloader
 
     public RestJiraDownloader() {
         jsonFactory = new MappingJsonFactory(  );
-        //2012-07-17T06:26:47.723-0500
-        dateFormat = new SimpleDateFormat( "yyyy-MM-dd'T'HH:mm:ss.SSSZ" );
         resolvedFixVersionIds = new ArrayList<String>(  );
         resolvedStatusIds = new ArrayList<String>(  );
         resolvedComponentIds = new ArrayList<String>(  );
@@ -108,7 +132,7 @@ public class RestJiraDownloader extends AbstractJiraDownloader
         try
         {
             Thread.currentThread().setContextClassLoader( WebClient.class.getClassLoader( ) );
-            WebClient client = setupWebClient( jiraUrl );
+            WebClient client = createClient( jiraUrl );
 
             // We use version 2 of the REST API, that first appeared in JIRA 5
             // Check if version 2 of the REST API is supported
@@ -132,31 +156,14 @@ public class RestJiraDownloader extends AbstractJiraDownloader
                 resolvedPriorityIds ).resolutionIds( resolvedResolutionIds ).components( resolvedComponentIds ).typeIds(
                 resolvedTypeIds ).sortColumnNames( sortColumnNames ).build();
 
-            StringWriter searchParamStringWriter = new StringWriter();
-            JsonGenerator gen = jsonFactory.createGenerator( searchParamStringWriter );
-            gen.writeStartObject();
-            gen.writeStringField( "jql", jqlQuery );
-            gen.writeNumberField( "maxResults", nbEntriesMax );
-            gen.writeArrayFieldStart( "fields" );
-            // Retrieve all fields. If that seems slow, we can reconsider.
-            gen.writeString( "*all" );
-            gen.writeEndArray();
-            gen.writeEndObject();
-            gen.close();
-            client.replacePath( "/rest/api/2/search" );
-            client.type( MediaType.APPLICATION_JSON_TYPE );
-            client.accept( MediaType.APPLICATION_JSON_TYPE );
-            Response searchResponse = client.post( searchParamStringWriter.toString() );
-            if ( searchResponse.getStatus() != Response.Status.OK.getStatusCode() )
+            if ( issueStoreDirectory != null )
             {
-                reportErrors( searchResponse );
+                issueList = searchStoredIssues( jiraUrl, jqlQuery );
+            }
+            else
+            {
+                issueList = searchIssues( jiraUrl, jqlQuery, SEARCH_FIELDS );
             }
-
-            JsonNode issueTree = getResponseTree( searchResponse );
-            assert issueTree.isObject();
-            JsonNode issuesNode = issueTree.get( "issues" );
-            assert issuesNode.isArray();
-            buildIssues( issuesNode, jiraUrl, jiraProject );
         }
         finally
         {
@@ -265,222 +272,398 @@ public class RestJiraDownloader extends AbstractJiraDownloader
         return header == null ? null : MediaType.valueOf( header );
     }
 
-    private void buildIssues( JsonNode issuesNode, String jiraUrl, String jiraProject )
+    /**
+     * Fetches the issues matching a JQL query through the local issue store. The ids and update dates of the matching
+     * issues are fetched first, then only the issues which are not stored yet or which changed since. The issues which
+     * no longer match the query are dropped from the store.
+     *
+     * @param jiraUrl the URL of JIRA
+     * @param jqlQuery the JQL query
+     * @return the issues, in the order of the query, but no more than the maximum number of entries
+     */
+    List<Issue> searchStoredIssues( String jiraUrl, String jqlQuery )
+        throws IOException, MojoExecutionException
     {
-        issueList = new ArrayList<Issue>(  );
-        for ( int ix = 0; ix < issuesNode.size(); ix++ )
-        {
-            JsonNode issueNode = issuesNode.get( ix );
-            assert issueNode.isObject();
-            Issue issue = new Issue();
-            JsonNode val;
-
-            val = issueNode.get( "id" );
-            if ( val != null )
-            {
-                issue.setId( val.asText() );
-            }
+        IssueStore store = new IssueStore( issueStoreDirectory, jiraUrl + '\n' + jqlQuery );
 
-            val = issueNode.get( "key" );
-            if ( val != null )
+        List<String> ids = new ArrayList<String>();
+        if ( store.isEmpty() )
+        {
+            for ( Issue issue : searchIssues( jiraUrl, jqlQuery, SEARCH_FIELDS ) )
             {
-                issue.setKey( val.asText() );
-                issue.setLink( String.format( "%s/browse/%s", jiraUrl, val.asText()) );
+                ids.add( issue.getId() );
+                store.putIssue( issue );
             }
-
-            // much of what we want is in here.
-            JsonNode fieldsNode = issueNode.get( "fields" );
-
-            val = fieldsNode.get( "assignee" );
-            processAssignee( issue, val );
-
-            val = fieldsNode.get( "created" );
-            processCreated( issue, val );
-
-            val = fieldsNode.get( "comment" );
-            processComments( issue, val );
-
-            val = fieldsNode.get( "fixVersions" );
-            processFixVersions( issue, val );
-
-
-            val = fieldsNode.get( "priority" );
-            processPriority( issue, val );
-
-            val = fieldsNode.get( "reporter" );
-            processReporter( issue, val );
-
-            val = fieldsNode.get( "resolution" );
-            processResolution( issue, val );
-
-            val = fieldsNode.get( "status" );
-            processStatus( issue, val );
-
-            val = fieldsNode.get( "summary" );
-            if ( val != null )
+        }
+        else
+        {
+            List<String> changedIds = new ArrayList<String>();
+            for ( Issue issue : searchIssues( jiraUrl, jqlQuery, INDEX_FIELDS ) )
             {
-                issue.setSummary( val.asText() );
+                ids.add( issue.getId() );
+                Issue storedIssue = store.getIssue( issue.getId() );
+                if ( storedIssue == null || storedIssue.getUpdated() == null
+                    || !storedIssue.getUpdated().equals( issue.getUpdated() ) )
+                {
+                    changedIds.add( issue.getId() );
+                }
             }
+            getLog().debug( String.format( "%d of %d issues changed since the last download", changedIds.size(),
+                                           ids.size() ) );
 
-            val = issueNode.get( "title" );
-            if ( val != null )
+            // the changed issues are fetched by batches of one page, each batch being itself a search
+            int batchSize = Math.max( 1, Math.min( pageSize, nbEntriesMax ) );
+            for ( int i = 0; i < changedIds.size(); i += batchSize )
             {
-                issue.setTitle( val.asText() );
+                List<String> batch = changedIds.subList( i, Math.min( i + batchSize, changedIds.size() ) );
+                String batchQuery = "id in (" + StringUtils.join( batch.iterator(), ", " ) + ")";
+                for ( Issue issue : searchIssues( jiraUrl, batchQuery, SEARCH_FIELDS ) )
+                {
+                    store.putIssue( issue );
+                }
             }
-
-            val = issueNode.get( "updated" );
-            processUpdated( issue, val );
-
-            val = issueNode.get( "versions" );
-            processVersions( issue, val );
-
-
-            issueList.add( issue );
         }
-    }
+        store.retainIssues( ids );
 
-    private void processVersions( Issue issue, JsonNode val )
-    {
-        StringBuilder sb = new StringBuilder( );
-        if ( val != null )
+        try
         {
-            for ( int vx = 0; vx < val.size(); vx ++ )
-            {
-                sb.append( val.get( vx ).get( "name" ).asText() );
-                sb.append( ", " );
-            }
+            store.save();
         }
-        if ( sb.length() > 0 )
+        catch ( IOException e )
         {
-            // remove last ", "
-            issue.setVersion( sb.substring( 0, sb.length() - 2 ) );
+            getLog().warn( "Unable to save the downloaded issues: " + e.getMessage() );
         }
+        return store.getIssues();
     }
 
-    private void processStatus( Issue issue, JsonNode val )
+    /**
+     * Fetches the issues matching a JQL query, one page at a time. The first page tells how many issues match the
+     * query, the other ones are then fetched concurrently.
+     *
+     * @param jiraUrl the URL of JIRA
+     * @param jqlQuery the JQL query
+     * @param fields the issue fields to fetch
+     * @return the issues, in the order of the query, but no more than the maximum number of entries
+     */
+    List<Issue> searchIssues( final String jiraUrl, final String jqlQuery, final String[] fields )
+        throws IOException, MojoExecutionException
     {
-        if (val != null )
+        SearchPage firstPage = searchPage( createClient( jiraUrl ), jiraUrl, jqlQuery, fields, 0,
+                                           Math.min( pageSize, nbEntriesMax ) );
+        List<Issue> issues = new ArrayList<Issue>( firstPage.issues );
+
+        int limit = Math.min( firstPage.total, nbEntriesMax );
+        if ( issues.size() >= limit )
         {
-            issue.setStatus( val.get( "name" ).asText() );
+            return new ArrayList<Issue>( issues.subList( 0, limit ) );
         }
-    }
-
-    private void processPriority( Issue issue, JsonNode val )
-    {
-        if (val != null )
+        if ( issues.isEmpty() )
         {
-            issue.setPriority( val.get( "name" ).asText() );
+            return issues;
         }
-    }
+        // JIRA may return less issues per page than requested
+        int size = issues.size();
 
-    private void processResolution( Issue issue, JsonNode val )
-    {
-        if (val != null )
+        List<Future<SearchPage>> pages = new ArrayList<Future<SearchPage>>();
+        ExecutorService executor = Executors.newFixedThreadPool( Math.max( 1, threads ) );
+        try
+        {
+            for ( int startAt = size; startAt < limit; startAt += size )
+            {
+                final int pageStart = startAt;
+                final int pageLength = Math.min( size, limit - startAt );
+                pages.add( executor.submit( new Callable<SearchPage>()
+                {
+                    public SearchPage call()
+                        throws Exception
+                    {
+                        return searchPage( createClient( jiraUrl ), jiraUrl, jqlQuery, fields, pageStart,
+                                           pageLength );
+                    }
+                } ) );
+            }
+
+            for ( Future<SearchPage> page : pages )
+            {
+                try
+                {
+                    issues.addAll( page.get().issues );
+                }
+                catch ( InterruptedException e )
+                {
+                    throw new MojoExecutionException( "Interrupted while downloading issues", e );
+                }
+                catch ( ExecutionException e )
+                {
+                    if ( e.getCause() instanceof MojoExecutionException )
+                    {
+                        throw (MojoExecutionException) e.getCause();
+                    }
+                    if ( e.getCause() instanceof IOException )
+                    {
+                        throw (IOException) e.getCause();
+                    }
+                    throw new MojoExecutionException( "Failed to download issues", e.getCause() );
+                }
+            }
+        }
+        finally
         {
-            issue.setResolution( val.get( "name" ).asText() );
+            executor.shutdownNow();
         }
+        getLog().debug( String.format( "Downloaded %d of %d issues in %d pages", issues.size(), firstPage.total,
+                                       pages.size() + 1 ) );
+        return issues;
     }
 
-    private String getPerson( JsonNode val )
+    private SearchPage searchPage( WebClient client, String jiraUrl, String jqlQuery, String[] fields, int startAt,
+                                   int maxResults )
+        throws IOException, MojoExecutionException
     {
-        JsonNode nameNode = val.get( "displayName" );
-        if ( nameNode == null )
-        {
-            nameNode = val.get( "name" );
-        }
-        if ( nameNode != null )
+        StringWriter searchParamStringWriter = new StringWriter();
+        JsonGenerator gen = jsonFactory.createGenerator( searchParamStringWriter );
+        gen.writeStartObject();
+        gen.writeStringField( "jql", jqlQuery );
+        gen.writeNumberField( "startAt", startAt );
+        gen.writeNumberField( "maxResults", maxResults );
+        gen.writeArrayFieldStart( "fields" );
+        // Only retrieve the fields that are needed.
+        for ( String field : fields )
         {
-            return nameNode.asText();
+            gen.writeString( field );
         }
-        else
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.close();
+        client.replacePath( "/rest/api/2/search" );
+        client.type( MediaType.APPLICATION_JSON_TYPE );
+        client.accept( MediaType.APPLICATION_JSON_TYPE );
+        Response searchResponse = client.post( searchParamStringWriter.toString() );
+        if ( searchResponse.getStatus() != Response.Status.OK.getStatusCode() )
         {
-            return null;
+            reportErrors( searchResponse );
         }
+
+        return readSearchPage( (InputStream) searchResponse.getEntity(), jiraUrl );
     }
 
-    private void processAssignee( Issue issue, JsonNode val )
+    /**
+     * Parses a page of search results as a stream, without building a tree of the whole response.
+     */
+    SearchPage readSearchPage( InputStream in, String jiraUrl )
+        throws IOException
     {
-        if ( val != null )
+        SearchPage page = new SearchPage();
+        // each page gets its own date format, as pages are parsed concurrently
+        DateFormat dateFormat = new SimpleDateFormat( DATE_PATTERN );
+        JsonParser parser = jsonFactory.createParser( in );
+        try
         {
-            String text = getPerson( val );
-            if ( text != null )
+            if ( parser.nextToken() != JsonToken.START_OBJECT )
+            {
+                throw new IOException( "Unexpected JIRA search response" );
+            }
+            while ( parser.nextToken() == JsonToken.FIELD_NAME )
             {
-                issue.setAssignee( text );
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ( "total".equals( name ) && token == JsonToken.VALUE_NUMBER_INT )
+                {
+                    page.total = parser.getIntValue();
+                }
+                else if ( "issues".equals( name ) && token == JsonToken.START_ARRAY )
+                {
+                    while ( parser.nextToken() == JsonToken.START_OBJECT )
+                    {
+                        page.issues.add( readIssue( parser, jiraUrl, dateFormat ) );
+                    }
+                }
+                else
+                {
+                    parser.skipChildren();
+                }
             }
         }
+        finally
+        {
+            parser.close();
+        }
+        return page;
     }
 
-    private void processReporter( Issue issue, JsonNode val )
+    private Issue readIssue( JsonParser parser, String jiraUrl, DateFormat dateFormat )
+        throws IOException
     {
-        if ( val != null )
+        Issue issue = new Issue();
+        while ( parser.nextToken() == JsonToken.FIELD_NAME )
         {
-            String text = getPerson( val );
-            if ( text != null )
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ( "id".equals( name ) )
+            {
+                issue.setId( parser.getText() );
+            }
+            else if ( "key".equals( name ) )
             {
-                issue.setReporter( text );
+                issue.setKey( parser.getText() );
+                issue.setLink( String.format( "%s/browse/%s", jiraUrl, parser.getText() ) );
+            }
+            else if ( "fields".equals( name ) && token == JsonToken.START_OBJECT )
+            {
+                // much of what we want is in here.
+                readFields( parser, issue, dateFormat );
+            }
+            else
+            {
+                parser.skipChildren();
             }
         }
+        return issue;
     }
 
-    private void processCreated( Issue issue, JsonNode val )
+    private void readFields( JsonParser parser, Issue issue, DateFormat dateFormat )
+        throws IOException
     {
-        if ( val != null )
+        while ( parser.nextToken() == JsonToken.FIELD_NAME )
         {
-            try
+            String name = parser.getCurrentName();
+            if ( parser.nextToken() == JsonToken.VALUE_NULL )
+            {
+                continue;
+            }
+
+            if ( "assignee".equals( name ) )
+            {
+                issue.setAssignee( getPerson( readObject( parser ) ) );
+            }
+            else if ( "components".equals( name ) )
+            {
+                for ( String component : readNames( parser ) )
+                {
+                    issue.addComponent( component );
+                }
+            }
+            else if ( "created".equals( name ) )
+            {
+                issue.setCreated( parseDate( parser.getText(), dateFormat, "created" ) );
+            }
+            else if ( "fixVersions".equals( name ) )
+            {
+                for ( String fixVersion : readNames( parser ) )
+                {
+                    issue.addFixVersion( fixVersion );
+                }
+            }
+            else if ( "issuetype".equals( name ) )
+            {
+                issue.setType( readObject( parser ).get( "name" ) );
+            }
+            else if ( "priority".equals( name ) )
+            {
+                issue.setPriority( readObject( parser ).get( "name" ) );
+            }
+            else if ( "reporter".equals( name ) )
+            {
+                issue.setReporter( getPerson( readObject( parser ) ) );
+            }
+            else if ( "resolution".equals( name ) )
+            {
+                issue.setResolution( readObject( parser ).get( "name" ) );
+            }
+            else if ( "status".equals( name ) )
+            {
+                issue.setStatus( readObject( parser ).get( "name" ) );
+            }
+            else if ( "summary".equals( name ) )
+            {
+                issue.setSummary( parser.getText() );
+            }
+            else if ( "updated".equals( name ) )
+            {
+                issue.setUpdated( parseDate( parser.getText(), dateFormat, "updated" ) );
+            }
+            else if ( "versions".equals( name ) )
             {
-                issue.setCreated( parseDate( val ) );
+                List<String> versions = readNames( parser );
+                if ( !versions.isEmpty() )
+                {
+                    issue.setVersion( StringUtils.join( versions.iterator(), ", " ) );
+                }
             }
-            catch ( ParseException e )
+            else
             {
-                getLog().warn( "Invalid created date " + val.asText() );
+                parser.skipChildren();
             }
         }
     }
 
-    private void processUpdated( Issue issue, JsonNode val )
+    /**
+     * Reads the scalar fields of the current object, skipping the nested ones.
+     */
+    private Map<String, String> readObject( JsonParser parser )
+        throws IOException
     {
-        if ( val != null )
+        Map<String, String> fields = new HashMap<String, String>();
+        if ( parser.getCurrentToken() != JsonToken.START_OBJECT )
+        {
+            parser.skipChildren();
+            return fields;
+        }
+        while ( parser.nextToken() == JsonToken.FIELD_NAME )
         {
-            try
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ( token.isScalarValue() && token != JsonToken.VALUE_NULL )
             {
-                issue.setUpdated( parseDate( val ) );
+                fields.put( name, parser.getText() );
             }
-            catch ( ParseException e )
+            else
             {
-                getLog().warn( "Invalid created date " + val.asText() );
+                parser.skipChildren();
             }
         }
+        return fields;
     }
 
-    private Date parseDate( JsonNode val )
-        throws ParseException
-    {
-        return dateFormat.parse( val.asText() );
-    }
-
-    private void processFixVersions( Issue issue, JsonNode val )
+    /**
+     * Reads the names of the objects of the current array.
+     */
+    private List<String> readNames( JsonParser parser )
+        throws IOException
     {
-        if (val != null)
+        List<String> names = new ArrayList<String>();
+        if ( parser.getCurrentToken() != JsonToken.START_ARRAY )
+        {
+            parser.skipChildren();
+            return names;
+        }
+        while ( parser.nextToken() != JsonToken.END_ARRAY )
         {
-            assert val.isArray();
-            for ( int vx = 0; vx < val.size(); vx++ )
+            String name = readObject( parser ).get( "name" );
+            if ( name != null )
             {
-                JsonNode fvNode = val.get( vx );
-                issue.addFixVersion( fvNode.get( "name" ).asText() );
+                names.add( name );
             }
         }
+        return names;
+    }
+
+    private String getPerson( Map<String, String> person )
+    {
+        String name = person.get( "displayName" );
+        return name != null ? name : person.get( "name" );
     }
 
-    private void processComments( Issue issue, JsonNode val )
+    private Date parseDate( String text, DateFormat dateFormat, String what )
     {
-        if ( val != null )
+        try
         {
-            JsonNode commentsArray = val.get( "comments" );
-            for ( int cx = 0; cx < commentsArray.size(); cx++ )
-            {
-                JsonNode cnode = commentsArray.get( cx );
-                issue.addComment( cnode.get( "body" ).asText() );
-            }
+            return dateFormat.parse( text );
+        }
+        catch ( ParseException e )
+        {
+            getLog().warn( "Invalid " + what + " date " + text );
+            return null;
         }
     }
 
@@ -509,9 +692,26 @@ public class RestJiraDownloader extends AbstractJiraDownloader
                 }
                 throw new MojoExecutionException( String.format( "Authentication failure status %d.", authRes.getStatus() ) );
             }
+
+            JsonNode session = getResponseTree( authRes ).get( "session" );
+            if ( session != null && session.get( "name" ) != null && session.get( "value" ) != null )
+            {
+                sessionCookie = session.get( "name" ).asText() + "=" + session.get( "value" ).asText();
+                client.header( "Cookie", sessionCookie );
+            }
         }
     }
 
+    private WebClient createClient( String jiraUrl )
+    {
+        WebClient client = setupWebClient( jiraUrl );
+        if ( sessionCookie != null )
+        {
+            client.header( "Cookie", sessionCookie );
+        }
+        return client;
+    }
+
     private WebClient setupWebClient( String jiraUrl )
     {
         WebClient client = WebClient.create( jiraUrl );
@@ -564,4 +764,15 @@ public class RestJiraDownloader extends AbstractJiraDownloader
     {
         return issueList;
     }
+
+    /**
+     * A page of search results.
+     */
+    static class SearchPage
+    {
+        /** The number of issues matching the query. */
+        int total;
+
+        List<Issue> issues = new ArrayList<Issue>();
+    }
 }
@@ -20,6 +20,9 @@ package org.apache.maven.plugin.trac;
  */
 
 import org.apache.maven.plugin.issues.Issue;
+import org.apache.maven.plugin.issues.IssueStore;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.apache.maven.project.MavenProject;
 import org.apache.xmlrpc.XmlRpcException;
 import org.apache.xmlrpc.client.XmlRpcClient;
@@ -27,6 +30,8 @@ import org.apache.xmlrpc.client.XmlRpcClientConfigImpl;
 import org.apache.xmlrpc.client.XmlRpcCommonsTransportFactory;
 import org.codehaus.plexus.util.StringUtils;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.text.ParseException;
@@ -34,9 +39,11 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Get issues from a Trac installation.
@@ -55,6 +62,10 @@ public class TracDownloader
     private String tracPassword;
     /** The username for authentication into a private Trac installation. */
     private String tracUser;
+    /** The directory of the local issue stores, or <code>null</code> to download all the tickets every time. */
+    private File issueStoreDirectory;
+    /** Log for the warnings. */
+    private Log log = new SystemStreamLog();
 
     private Issue createIssue( Object[] ticketObj )
     {
@@ -93,7 +104,7 @@ public class TracDownloader
         return issue;
     }
 
-    public List<Issue> getIssueList() throws MalformedURLException, XmlRpcException
+    public List<Issue> getIssueList() throws MalformedURLException, XmlRpcException, IOException
     {
         // Create and configure an XML-RPC client
         XmlRpcClientConfigImpl config = new XmlRpcClientConfigImpl();
@@ -130,6 +141,11 @@ public class TracDownloader
         {
             queryResult = (Object[]) client.execute( "ticket.query", params );
 
+            if ( issueStoreDirectory != null )
+            {
+                return getStoredIssueList( client, qstr, queryResult );
+            }
+
             for ( int i = 0; i < queryResult.length; i++ )
             {
                 params = new Object[] { queryResult[i] };
@@ -145,6 +161,54 @@ public class TracDownloader
         return issueList;
     }
 
+    /**
+     * Gets the tickets matching the query through the local issue store. Only the tickets which are not stored yet,
+     * or which changed since the last download, are fetched.
+     */
+    private List<Issue> getStoredIssueList( XmlRpcClient client, String qstr, Object[] queryResult )
+        throws XmlRpcException, IOException
+    {
+        IssueStore store = new IssueStore( issueStoreDirectory, getUrl() + '\n' + qstr );
+
+        Set<String> changedIds = new HashSet<String>();
+        Date lastUpdated = store.getLastUpdated();
+        if ( lastUpdated != null )
+        {
+            // a day of margin for the time zone of the dates returned by older Trac versions
+            Calendar since = Calendar.getInstance();
+            since.setTime( lastUpdated );
+            since.add( Calendar.DAY_OF_MONTH, -1 );
+            Object[] recentChanges =
+                (Object[]) client.execute( "ticket.getRecentChanges", new Object[] { since.getTime() } );
+            for ( Object id : recentChanges )
+            {
+                changedIds.add( String.valueOf( id ) );
+            }
+        }
+
+        List<String> ids = new ArrayList<String>();
+        for ( Object ticket : queryResult )
+        {
+            String id = String.valueOf( ticket );
+            ids.add( id );
+            if ( store.getIssue( id ) == null || changedIds.contains( id ) )
+            {
+                store.putIssue( createIssue( (Object[]) client.execute( "ticket.get", new Object[] { ticket } ) ) );
+            }
+        }
+        store.retainIssues( ids );
+        try
+        {
+            store.save();
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Unable to save the downloaded tickets: " + e.getMessage() );
+        }
+
+        return store.getIssues();
+    }
+
     private String getUrl()
     {
 
@@ -178,6 +242,16 @@ public class TracDownloader
         this.tracUser = tracUser;
     }
 
+    public void setIssueStoreDirectory( File issueStoreDirectory )
+    {
+        this.issueStoreDirectory = issueStoreDirectory;
+    }
+
+    public void setLog( Log log )
+    {
+        this.log = log;
+    }
+
     private Date parseDate( String timeCreated )
         throws RuntimeException
     {
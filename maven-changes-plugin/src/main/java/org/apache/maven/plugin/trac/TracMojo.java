@@ -218,5 +218,9 @@ public class TracMojo
         issueDownloader.setTracPassword( tracPassword );
 
         issueDownloader.setTracUser( tracUser );
+
+        issueDownloader.setIssueStoreDirectory( getIssueStoreDirectory() );
+
+        issueDownloader.setLog( getLog() );
     }
 }
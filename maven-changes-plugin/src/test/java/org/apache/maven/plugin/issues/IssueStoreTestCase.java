@@ -0,0 +1,134 @@
+package org.apache.maven.plugin.issues;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tests for the IssueStore class.
+ *
+ * @version $Id$
+ */
+public class IssueStoreTestCase
+    extends TestCase
+{
+    private File directory;
+
+    protected void setUp()
+        throws Exception
+    {
+        directory = new File( System.getProperty( "basedir", "." ), "target/unit/issue-store-test" );
+        FileUtils.deleteDirectory( directory );
+    }
+
+    public void testSaveAndRead()
+        throws Exception
+    {
+        IssueStore store = new IssueStore( directory, "http://jira\nproject = TEST" );
+        assertTrue( store.isEmpty() );
+        assertNull( store.getLastUpdated() );
+
+        Issue issue = createIssue( "1", 1000 );
+        issue.setKey( "TEST-1" );
+        issue.setSummary( "A summary with \"quotes\" and \u00e9" );
+        issue.setStatus( "Closed" );
+        issue.addFixVersion( "1.0" );
+        issue.addFixVersion( "1.1" );
+        issue.addComponent( "core" );
+        issue.setCreated( new Date( 500 ) );
+        store.putIssue( issue );
+        store.putIssue( createIssue( "2", 3000 ) );
+        store.putIssue( createIssue( "3", 2000 ) );
+        store.save();
+        // the temporary file was renamed
+        assertEquals( 1, directory.list().length );
+
+        store = new IssueStore( directory, "http://jira\nproject = TEST" );
+        assertEquals( 3, store.getIssues().size() );
+        assertEquals( new Date( 3000 ), store.getLastUpdated() );
+        Issue read = store.getIssue( "1" );
+        assertEquals( "TEST-1", read.getKey() );
+        assertEquals( "A summary with \"quotes\" and \u00e9", read.getSummary() );
+        assertEquals( "Closed", read.getStatus() );
+        assertEquals( Arrays.asList( "1.0", "1.1" ), read.getFixVersions() );
+        assertEquals( Arrays.asList( "core" ), read.getComponents() );
+        assertNull( read.getComments() );
+        assertEquals( new Date( 500 ), read.getCreated() );
+        assertEquals( new Date( 1000 ), read.getUpdated() );
+
+        // another query has its own store
+        assertTrue( new IssueStore( directory, "http://jira\nproject = OTHER" ).isEmpty() );
+    }
+
+    public void testPutAndRetainIssues()
+    {
+        IssueStore store = new IssueStore( directory, "query" );
+        store.putIssue( createIssue( "1", 1000 ) );
+        store.putIssue( createIssue( "2", 1000 ) );
+        store.putIssue( createIssue( "3", 1000 ) );
+
+        // an updated issue keeps its place
+        store.putIssue( createIssue( "1", 2000 ) );
+        assertEquals( Arrays.asList( "1", "2", "3" ), getIds( store.getIssues() ) );
+        assertEquals( new Date( 2000 ), store.getIssue( "1" ).getUpdated() );
+
+        store.retainIssues( Arrays.asList( "3", "4", "1" ) );
+        assertEquals( Arrays.asList( "3", "1" ), getIds( store.getIssues() ) );
+    }
+
+    public void testUnreadableStore()
+        throws Exception
+    {
+        IssueStore store = new IssueStore( directory, "query" );
+        store.putIssue( createIssue( "1", 1000 ) );
+        store.save();
+
+        File[] files = directory.listFiles();
+        assertEquals( 1, files.length );
+        FileUtils.fileWrite( files[0].getPath(), "[{\"id\":\"1\"" );
+
+        assertTrue( new IssueStore( directory, "query" ).isEmpty() );
+    }
+
+    private Issue createIssue( String id, long updated )
+    {
+        Issue issue = new Issue();
+        issue.setId( id );
+        issue.setUpdated( new Date( updated ) );
+        return issue;
+    }
+
+    private List<String> getIds( List<Issue> issues )
+    {
+        List<String> ids = new ArrayList<String>();
+        for ( Issue issue : issues )
+        {
+            ids.add( issue.getId() );
+        }
+        return ids;
+    }
+}
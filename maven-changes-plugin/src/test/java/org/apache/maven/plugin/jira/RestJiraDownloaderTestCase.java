@@ -0,0 +1,297 @@
+package org.apache.maven.plugin.jira;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import junit.framework.TestCase;
+import org.apache.maven.plugin.issues.Issue;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test class for {@link RestJiraDownloader}, against a local stub of the JIRA search service.
+ *
+ * @version $Id$
+ */
+public class RestJiraDownloaderTestCase
+    extends TestCase
+{
+    private static final int TOTAL = 120;
+
+    /** The maximum number of issues per page returned by the stub, whatever the request. */
+    private static final int SERVER_PAGE_SIZE = 20;
+
+    private final List<JsonNode> requests = Collections.synchronizedList( new ArrayList<JsonNode>() );
+
+    /** The issues updated since the first download. */
+    private final Set<Integer> changed = Collections.synchronizedSet( new HashSet<Integer>() );
+
+    private HttpServer server;
+
+    private String jiraUrl;
+
+    protected void setUp()
+        throws Exception
+    {
+        server = HttpServer.create( new InetSocketAddress( "127.0.0.1", 0 ), 0 );
+        server.createContext( "/rest/api/2/search", new SearchHandler() );
+        server.start();
+        jiraUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    protected void tearDown()
+        throws Exception
+    {
+        server.stop( 0 );
+    }
+
+    public void testSearchIssuesInPages()
+        throws Exception
+    {
+        RestJiraDownloader downloader = createDownloader();
+        downloader.setNbEntries( 95 );
+        downloader.setPageSize( 50 );
+        downloader.setThreads( 3 );
+
+        List<Issue> issues = downloader.searchIssues( jiraUrl, "project = TEST", RestJiraDownloader.SEARCH_FIELDS );
+
+        assertEquals( 95, issues.size() );
+        for ( int i = 0; i < issues.size(); i++ )
+        {
+            assertEquals( "TEST-" + i, issues.get( i ).getKey() );
+        }
+
+        // the first page tells the page size of the server, the next ones are fetched concurrently
+        assertEquals( 5, requests.size() );
+        List<Integer> startAts = new ArrayList<Integer>();
+        for ( JsonNode request : requests )
+        {
+            startAts.add( request.get( "startAt" ).asInt() );
+            assertEquals( "project = TEST", request.get( "jql" ).asText() );
+            List<String> fields = new ArrayList<String>();
+            for ( JsonNode field : request.get( "fields" ) )
+            {
+                fields.add( field.asText() );
+            }
+            assertEquals( Arrays.asList( RestJiraDownloader.SEARCH_FIELDS ), fields );
+        }
+        Collections.sort( startAts );
+        assertEquals( Arrays.asList( 0, 20, 40, 60, 80 ), startAts );
+    }
+
+    public void testSearchIssuesInSinglePage()
+        throws Exception
+    {
+        RestJiraDownloader downloader = createDownloader();
+        downloader.setNbEntries( 10 );
+
+        List<Issue> issues = downloader.searchIssues( jiraUrl, "project = TEST", RestJiraDownloader.SEARCH_FIELDS );
+
+        assertEquals( 10, issues.size() );
+        assertEquals( 1, requests.size() );
+        assertEquals( 10, requests.get( 0 ).get( "maxResults" ).asInt() );
+    }
+
+    public void testSearchStoredIssues()
+        throws Exception
+    {
+        File storeDirectory = new File( System.getProperty( "basedir", "." ), "target/unit/issue-store" );
+        FileUtils.deleteDirectory( storeDirectory );
+
+        RestJiraDownloader downloader = createDownloader();
+        downloader.setNbEntries( 30 );
+        downloader.setPageSize( 10 );
+        downloader.setIssueStoreDirectory( storeDirectory );
+
+        // the first download fetches the whole issues
+        List<Issue> issues = downloader.searchStoredIssues( jiraUrl, "project = TEST" );
+        assertEquals( 30, issues.size() );
+        assertEquals( 3, requests.size() );
+        assertEquals( 1, storeDirectory.listFiles().length );
+
+        // the next one only fetches the issues which changed
+        requests.clear();
+        changed.add( 5 );
+        changed.add( 17 );
+        issues = createStoredDownloader( storeDirectory ).searchStoredIssues( jiraUrl, "project = TEST" );
+        assertEquals( 30, issues.size() );
+        for ( int i = 0; i < issues.size(); i++ )
+        {
+            assertEquals( "TEST-" + i, issues.get( i ).getKey() );
+        }
+        assertEquals( "Issue 5 changed", issues.get( 5 ).getSummary() );
+        assertEquals( "Issue 6", issues.get( 6 ).getSummary() );
+
+        assertEquals( 4, requests.size() );
+        int indexRequests = 0;
+        for ( JsonNode request : requests )
+        {
+            if ( request.get( "jql" ).asText().startsWith( "id in" ) )
+            {
+                assertEquals( "id in (1005, 1017)", request.get( "jql" ).asText() );
+                assertEquals( RestJiraDownloader.SEARCH_FIELDS.length, request.get( "fields" ).size() );
+            }
+            else
+            {
+                indexRequests++;
+                assertEquals( "updated", request.get( "fields" ).get( 0 ).asText() );
+            }
+        }
+        assertEquals( 3, indexRequests );
+
+        // the issues no longer matching the query are dropped
+        downloader = createStoredDownloader( storeDirectory );
+        downloader.setNbEntries( 12 );
+        issues = downloader.searchStoredIssues( jiraUrl, "project = TEST" );
+        assertEquals( 12, issues.size() );
+    }
+
+    public void testReadSearchPage()
+        throws Exception
+    {
+        String json = "{\"expand\":\"names,schema\",\"startAt\":0,\"maxResults\":1,\"total\":1,\"issues\":[{"
+            + "\"expand\":\"editmeta\",\"id\":\"10\",\"self\":\"http://jira/rest/api/2/issue/10\",\"key\":\"TEST-1\","
+            + "\"fields\":{\"summary\":\"A summary\",\"resolution\":null,"
+            + "\"status\":{\"self\":\"s\",\"name\":\"Closed\",\"id\":\"6\"},"
+            + "\"issuetype\":{\"name\":\"Bug\",\"subtask\":false},"
+            + "\"priority\":{\"name\":\"Major\",\"iconUrl\":\"p.gif\"},"
+            + "\"assignee\":{\"name\":\"jdoe\",\"displayName\":\"John Doe\",\"avatarUrls\":{\"16x16\":\"a.png\"}},"
+            + "\"reporter\":{\"name\":\"bob\"},"
+            + "\"components\":[{\"name\":\"core\"},{\"name\":\"web\"}],"
+            + "\"fixVersions\":[{\"name\":\"1.0\",\"released\":true}],"
+            + "\"versions\":[{\"name\":\"0.8\"},{\"name\":\"0.9\"}],"
+            + "\"created\":\"2012-07-17T06:26:47.723-0500\",\"updated\":\"not a date\","
+            + "\"comment\":{\"comments\":[{\"body\":\"ignored\"}]}}}]}";
+
+        RestJiraDownloader.SearchPage page =
+            createDownloader().readSearchPage( new ByteArrayInputStream( json.getBytes( "UTF-8" ) ), "http://jira" );
+
+        assertEquals( 1, page.total );
+        assertEquals( 1, page.issues.size() );
+        Issue issue = page.issues.get( 0 );
+        assertEquals( "10", issue.getId() );
+        assertEquals( "TEST-1", issue.getKey() );
+        assertEquals( "http://jira/browse/TEST-1", issue.getLink() );
+        assertEquals( "A summary", issue.getSummary() );
+        assertNull( issue.getResolution() );
+        assertEquals( "Closed", issue.getStatus() );
+        assertEquals( "Bug", issue.getType() );
+        assertEquals( "Major", issue.getPriority() );
+        assertEquals( "John Doe", issue.getAssignee() );
+        assertEquals( "bob", issue.getReporter() );
+        assertEquals( Arrays.asList( "core", "web" ), issue.getComponents() );
+        assertEquals( Arrays.asList( "1.0" ), issue.getFixVersions() );
+        assertEquals( "0.8, 0.9", issue.getVersion() );
+        assertNotNull( issue.getCreated() );
+        assertNull( issue.getUpdated() );
+    }
+
+    private RestJiraDownloader createDownloader()
+    {
+        RestJiraDownloader downloader = new RestJiraDownloader();
+        downloader.setLog( new SystemStreamLog() );
+        return downloader;
+    }
+
+    private RestJiraDownloader createStoredDownloader( File storeDirectory )
+    {
+        RestJiraDownloader downloader = createDownloader();
+        downloader.setNbEntries( 30 );
+        downloader.setPageSize( 10 );
+        downloader.setIssueStoreDirectory( storeDirectory );
+        return downloader;
+    }
+
+    /**
+     * Serves the issues TEST-0 to TEST-119, no more than {@link #SERVER_PAGE_SIZE} at a time, or the issues listed by
+     * an <code>id in (...)</code> query.
+     */
+    private class SearchHandler
+        implements HttpHandler
+    {
+        public void handle( HttpExchange exchange )
+            throws IOException
+        {
+            JsonNode request = new ObjectMapper().readTree( exchange.getRequestBody() );
+            requests.add( request );
+            int startAt = request.get( "startAt" ).asInt();
+            int maxResults = Math.min( request.get( "maxResults" ).asInt(), SERVER_PAGE_SIZE );
+
+            List<Integer> matches = new ArrayList<Integer>();
+            String jql = request.get( "jql" ).asText();
+            if ( jql.startsWith( "id in (" ) )
+            {
+                for ( String id : jql.substring( 7, jql.length() - 1 ).split( ", " ) )
+                {
+                    matches.add( Integer.parseInt( id ) - 1000 );
+                }
+            }
+            else
+            {
+                for ( int i = 0; i < TOTAL; i++ )
+                {
+                    matches.add( i );
+                }
+            }
+
+            StringBuilder json = new StringBuilder();
+            json.append( "{\"startAt\":" ).append( startAt ).append( ",\"maxResults\":" ).append( maxResults );
+            json.append( ",\"total\":" ).append( matches.size() ).append( ",\"issues\":[" );
+            for ( int n = startAt; n < Math.min( startAt + maxResults, matches.size() ); n++ )
+            {
+                int i = matches.get( n );
+                if ( n > startAt )
+                {
+                    json.append( ',' );
+                }
+                json.append( "{\"id\":\"" ).append( 1000 + i ).append( "\",\"key\":\"TEST-" ).append( i );
+                json.append( "\",\"fields\":{\"summary\":\"Issue " ).append( i );
+                json.append( changed.contains( i ) ? " changed" : "" );
+                json.append( "\",\"updated\":\"2012-07-" ).append( changed.contains( i ) ? 18 : 17 );
+                json.append( "T06:26:47.723-0500\",\"status\":{\"name\":\"Closed\"}}}" );
+            }
+            json.append( "]}" );
+
+            byte[] response = json.toString().getBytes( "UTF-8" );
+            exchange.getResponseHeaders().set( "Content-Type", "application/json" );
+            exchange.sendResponseHeaders( 200, response.length );
+            OutputStream os = exchange.getResponseBody();
+            os.write( response );
+            os.close();
+        }
+    }
+}
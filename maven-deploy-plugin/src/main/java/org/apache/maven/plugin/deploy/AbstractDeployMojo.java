@@ -149,7 +149,9 @@ public abstract class AbstractDeployMojo
     {
         int retryFailedDeploymentCount = Math.max( 1, Math.min( 10, this.retryFailedDeploymentCount ) );
         ArtifactDeploymentException exception = null;
-        for ( int count = 0; count < retryFailedDeploymentCount; count++ )
+        long start = System.currentTimeMillis();
+        int count;
+        for ( count = 0; count < retryFailedDeploymentCount; count++ )
         {
             try
             {
@@ -178,5 +180,21 @@ public abstract class AbstractDeployMojo
         {
             throw exception;
         }
+        deployed( artifact, count + 1, System.currentTimeMillis() - start );
+    }
+
+    /**
+     * Called once an artifact has been deployed successfully.
+     *
+     * @param artifact the deployed artifact
+     * @param attempts the number of attempts that were needed
+     * @param millis the time spent deploying the artifact, including retries
+     */
+    protected void deployed( Artifact artifact, int attempts, long millis )
+    {
+        if ( getLog().isDebugEnabled() )
+        {
+            getLog().debug( "Deployed " + artifact.getId() + " in " + millis + " ms after " + attempts + " attempt(s)" );
+        }
     }
 }
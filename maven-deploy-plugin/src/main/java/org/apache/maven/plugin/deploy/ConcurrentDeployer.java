@@ -0,0 +1,249 @@
+package org.apache.maven.plugin.deploy;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Runs several deployments on a bounded thread pool.
+ * <p>
+ * Deployments sharing the same metadata key (typically <code>groupId:artifactId</code>) are run one after the
+ * other, in the order they were added, so that updates of the same <code>maven-metadata.xml</code> files stay
+ * ordered. The number of deployments running at the same time against one repository is limited by a
+ * per-repository number of connections. Once a deployment failed, no further deployment is started.
+ * </p>
+ *
+ * @since 2.8
+ */
+class ConcurrentDeployer
+{
+    /**
+     * A unit of work run by the {@link ConcurrentDeployer}.
+     */
+    interface Deployment
+    {
+        void deploy()
+            throws MojoExecutionException, MojoFailureException;
+    }
+
+    private final int threads;
+
+    private final int connectionsPerRepository;
+
+    private final Log log;
+
+    private final Map<String, List<Task>> groups = new LinkedHashMap<String, List<Task>>();
+
+    private final ConcurrentMap<String, Semaphore> connections = new ConcurrentHashMap<String, Semaphore>();
+
+    private final List<String> report = Collections.synchronizedList( new ArrayList<String>() );
+
+    private final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+
+    /**
+     * @param threads the maximum number of deployments running at the same time.
+     * @param connectionsPerRepository the maximum number of deployments running at the same time against
+     *            the same repository.
+     * @param log the log used to report progress and timings.
+     */
+    ConcurrentDeployer( int threads, int connectionsPerRepository, Log log )
+    {
+        this.threads = Math.max( 1, threads );
+        this.connectionsPerRepository = Math.max( 1, connectionsPerRepository );
+        this.log = log;
+    }
+
+    /**
+     * Add a deployment.
+     *
+     * @param name a display name for the deployment.
+     * @param repositoryKey identifies the target repository, to enforce the connection limit.
+     * @param metadataKey deployments with the same metadata key are run sequentially.
+     * @param deployment the deployment itself.
+     */
+    void add( String name, String repositoryKey, String metadataKey, Deployment deployment )
+    {
+        List<Task> group = groups.get( metadataKey );
+        if ( group == null )
+        {
+            group = new ArrayList<Task>();
+            groups.put( metadataKey, group );
+        }
+        group.add( new Task( name, repositoryKey, deployment ) );
+    }
+
+    /**
+     * Record the upload of a single artifact, to be reported at the end.
+     *
+     * @param artifact the deployed artifact.
+     * @param attempts the number of attempts the upload needed.
+     * @param millis the time spent, including retries.
+     */
+    void artifactDeployed( Artifact artifact, int attempts, long millis )
+    {
+        report.add( artifact.getId() + " in " + millis + " ms"
+            + ( attempts > 1 ? " (" + attempts + " attempts)" : "" ) );
+    }
+
+    /**
+     * Run all deployments and wait for their completion.
+     *
+     * @throws MojoExecutionException if a deployment failed.
+     * @throws MojoFailureException if a deployment failed.
+     */
+    void execute()
+        throws MojoExecutionException, MojoFailureException
+    {
+        long start = System.currentTimeMillis();
+
+        ExecutorService executor = Executors.newFixedThreadPool( Math.min( threads, Math.max( 1, groups.size() ) ) );
+        try
+        {
+            List<Future<Object>> futures = new ArrayList<Future<Object>>();
+
+            for ( final List<Task> group : groups.values() )
+            {
+                futures.add( executor.submit( new Callable<Object>()
+                {
+                    public Object call()
+                        throws Exception
+                    {
+                        for ( Task task : group )
+                        {
+                            if ( failure.get() != null )
+                            {
+                                break;
+                            }
+                            run( task );
+                        }
+                        return null;
+                    }
+                } ) );
+            }
+
+            for ( Future<Object> future : futures )
+            {
+                try
+                {
+                    future.get();
+                }
+                catch ( ExecutionException e )
+                {
+                    failure.compareAndSet( null, e.getCause() instanceof Exception ? (Exception) e.getCause() : e );
+                }
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException( "Interrupted while deploying artifacts", e );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        log.info( "Deployed " + report.size() + " artifact(s) with " + threads + " thread(s) in "
+            + ( System.currentTimeMillis() - start ) + " ms" );
+        for ( String line : report )
+        {
+            log.info( "  " + line );
+        }
+
+        Exception exception = failure.get();
+        if ( exception instanceof MojoFailureException )
+        {
+            throw (MojoFailureException) exception;
+        }
+        else if ( exception instanceof MojoExecutionException )
+        {
+            throw (MojoExecutionException) exception;
+        }
+        else if ( exception != null )
+        {
+            throw new MojoExecutionException( exception.getMessage(), exception );
+        }
+    }
+
+    private void run( Task task )
+        throws Exception
+    {
+        Semaphore semaphore = connections.get( task.repositoryKey );
+        if ( semaphore == null )
+        {
+            connections.putIfAbsent( task.repositoryKey, new Semaphore( connectionsPerRepository ) );
+            semaphore = connections.get( task.repositoryKey );
+        }
+
+        semaphore.acquire();
+        try
+        {
+            long start = System.currentTimeMillis();
+
+            task.deployment.deploy();
+
+            log.info( "Deployed " + task.name + " in " + ( System.currentTimeMillis() - start ) + " ms" );
+        }
+        catch ( Exception e )
+        {
+            log.error( "Failed to deploy " + task.name + ": " + e.getMessage() );
+            failure.compareAndSet( null, e );
+            throw e;
+        }
+        finally
+        {
+            semaphore.release();
+        }
+    }
+
+    private static class Task
+    {
+        private final String name;
+
+        private final String repositoryKey;
+
+        private final Deployment deployment;
+
+        Task( String name, String repositoryKey, Deployment deployment )
+        {
+            this.name = name;
+            this.repositoryKey = repositoryKey;
+            this.deployment = deployment;
+        }
+    }
+}
@@ -69,6 +69,26 @@ public class DeployMojo
     @Parameter( defaultValue = "false", property = "deployAtEnd" )
     private boolean deployAtEnd;
 
+    /**
+     * The number of reactor projects deployed concurrently when {@code deployAtEnd} is set. Projects sharing the
+     * same groupId and artifactId are still deployed one after the other, to keep the metadata updates ordered.
+     * 
+     * @since 2.8
+     */
+    @Parameter( defaultValue = "1", property = "deployAtEndThreads" )
+    private int deployAtEndThreads;
+
+    /**
+     * The maximum number of projects deployed at the same time to a single repository when
+     * {@code deployAtEndThreads} is greater than 1.
+     * 
+     * @since 2.8
+     */
+    @Parameter( defaultValue = "4", property = "deployAtEndMaxConnectionsPerRepository" )
+    private int deployAtEndMaxConnectionsPerRepository;
+
+    private ConcurrentDeployer concurrentDeployer;
+
     /**
      * @deprecated either use project.getArtifact() or reactorProjects.get(i).getArtifact()
      */
@@ -123,16 +143,23 @@ public class DeployMojo
         
         if( !deployAtEnd )
         {
-            deployProject( project );
+            deployProject( project, getDeploymentRepository( project ) );
         }
         else
         {
             MavenProject lastProject = reactorProjects.get( reactorProjects.size() - 1 );
             if( lastProject.equals( project ) )
             {
-                for( MavenProject reactorProject : reactorProjects )
+                if ( deployAtEndThreads > 1 )
                 {
-                    deployProject( reactorProject );
+                    deployProjectsConcurrently( reactorProjects );
+                }
+                else
+                {
+                    for( MavenProject reactorProject : reactorProjects )
+                    {
+                        deployProject( reactorProject, getDeploymentRepository( reactorProject ) );
+                    }
                 }
             }
             else
@@ -143,7 +170,60 @@ public class DeployMojo
         }
     }
 
-    private void deployProject( MavenProject project )
+    /**
+     * Deploy the given projects on a bounded thread pool, see {@link ConcurrentDeployer}.
+     */
+    private void deployProjectsConcurrently( List<MavenProject> projects )
+        throws MojoExecutionException, MojoFailureException
+    {
+        concurrentDeployer =
+            new ConcurrentDeployer( deployAtEndThreads, deployAtEndMaxConnectionsPerRepository, getLog() );
+        try
+        {
+            for ( final MavenProject reactorProject : projects )
+            {
+                // resolve the repositories up-front, so that a misconfigured project fails before anything is uploaded
+                final ArtifactRepository repo = getDeploymentRepository( reactorProject );
+
+                // plugins also update the groupId level metadata
+                String metadataKey = "maven-plugin".equals( reactorProject.getPackaging() )
+                                ? reactorProject.getGroupId()
+                                : reactorProject.getGroupId() + ":" + reactorProject.getArtifactId();
+
+                concurrentDeployer.add( reactorProject.getId(), repo.getId() + "@" + repo.getUrl(), metadataKey,
+                                        new ConcurrentDeployer.Deployment()
+                                        {
+                                            public void deploy()
+                                                throws MojoExecutionException, MojoFailureException
+                                            {
+                                                deployProject( reactorProject, repo );
+                                            }
+                                        } );
+            }
+
+            concurrentDeployer.execute();
+        }
+        finally
+        {
+            concurrentDeployer = null;
+        }
+    }
+
+    @Override
+    protected void deployed( Artifact artifact, int attempts, long millis )
+    {
+        ConcurrentDeployer deployer = concurrentDeployer;
+        if ( deployer != null )
+        {
+            deployer.artifactDeployed( artifact, attempts, millis );
+        }
+        else
+        {
+            super.deployed( artifact, attempts, millis );
+        }
+    }
+
+    private void deployProject( MavenProject project, ArtifactRepository repo )
         throws MojoExecutionException, MojoFailureException
     {
         Artifact artifact = project.getArtifact();
@@ -152,8 +232,6 @@ public class DeployMojo
         
         @SuppressWarnings( "unchecked" )
         List<Artifact> attachedArtifacts = project.getAttachedArtifacts();
-        
-        ArtifactRepository repo = getDeploymentRepository( project );
 
         String protocol = repo.getProtocol();
 
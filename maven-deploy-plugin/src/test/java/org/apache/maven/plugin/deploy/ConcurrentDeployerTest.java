@@ -0,0 +1,151 @@
+package org.apache.maven.plugin.deploy;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+/**
+ * Tests the scheduling of {@link ConcurrentDeployer}.
+ */
+public class ConcurrentDeployerTest
+    extends TestCase
+{
+    public void testSameMetadataKeyIsDeployedInOrder()
+        throws Exception
+    {
+        ConcurrentDeployer deployer = new ConcurrentDeployer( 4, 4, new SystemStreamLog() );
+
+        final List<String> deployed = Collections.synchronizedList( new ArrayList<String>() );
+
+        for ( int i = 0; i < 10; i++ )
+        {
+            final String name = "a-" + i;
+            deployer.add( name, "repo", "g:a", new Recording( deployed, name ) );
+            deployer.add( "b-" + i, "repo", "g:b-" + i, new Recording( deployed, "b-" + i ) );
+        }
+
+        deployer.execute();
+
+        assertEquals( 20, deployed.size() );
+
+        List<String> ordered = new ArrayList<String>();
+        for ( String name : deployed )
+        {
+            if ( name.startsWith( "a-" ) )
+            {
+                ordered.add( name );
+            }
+        }
+        for ( int i = 0; i < 10; i++ )
+        {
+            assertEquals( "a-" + i, ordered.get( i ) );
+        }
+    }
+
+    public void testConnectionsPerRepositoryAreLimited()
+        throws Exception
+    {
+        ConcurrentDeployer deployer = new ConcurrentDeployer( 8, 2, new SystemStreamLog() );
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        for ( int i = 0; i < 16; i++ )
+        {
+            deployer.add( "p-" + i, "repo", "g:p-" + i, new ConcurrentDeployer.Deployment()
+            {
+                public void deploy()
+                {
+                    int current = running.incrementAndGet();
+                    synchronized ( maxRunning )
+                    {
+                        maxRunning.set( Math.max( maxRunning.get(), current ) );
+                    }
+                    try
+                    {
+                        Thread.sleep( 10 );
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                }
+            } );
+        }
+
+        deployer.execute();
+
+        assertTrue( "max running " + maxRunning.get(), maxRunning.get() <= 2 );
+    }
+
+    public void testFailureIsReported()
+    {
+        ConcurrentDeployer deployer = new ConcurrentDeployer( 2, 2, new SystemStreamLog() );
+
+        deployer.add( "ok", "repo", "g:ok", new Recording( new ArrayList<String>(), "ok" ) );
+        deployer.add( "ko", "repo", "g:ko", new ConcurrentDeployer.Deployment()
+        {
+            public void deploy()
+                throws MojoExecutionException
+            {
+                throw new MojoExecutionException( "upload failed" );
+            }
+        } );
+
+        try
+        {
+            deployer.execute();
+            fail( "Did not throw mojo execution exception" );
+        }
+        catch ( Exception e )
+        {
+            assertTrue( e instanceof MojoExecutionException );
+            assertEquals( "upload failed", e.getMessage() );
+        }
+    }
+
+    private static class Recording
+        implements ConcurrentDeployer.Deployment
+    {
+        private final List<String> deployed;
+
+        private final String name;
+
+        Recording( List<String> deployed, String name )
+        {
+            this.deployed = deployed;
+            this.name = name;
+        }
+
+        public void deploy()
+        {
+            deployed.add( name );
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.maven.plugin.deploy;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 
@@ -254,6 +255,44 @@ public class DeployMojoTest
         assertNull( files );
     }    
     
+    public void testDeployAtEndConcurrently()
+        throws Exception
+    {
+        File testPom = new File( getBasedir(), "target/test-classes/unit/basic-deploy-test/plugin-config.xml" );
+
+        DeployMojo mojo = (DeployMojo) lookupMojo( "deploy", testPom );
+
+        assertNotNull( mojo );
+
+        File file = new File( getBasedir(), "target/test-classes/unit/basic-deploy-test/target/"
+            + "deploy-test-file-1.0-SNAPSHOT.jar" );
+
+        MavenProject project = (MavenProject) getVariableValueFromObject( mojo, "project" );
+
+        artifact = (DeployArtifactStub) project.getArtifact();
+
+        artifact.setFile( file );
+
+        ArtifactRepositoryStub repo = getRepoStub( mojo );
+
+        repo.setAppendToUrl( "deploy-at-end-concurrently" );
+
+        setVariableValueToObject( mojo, "reactorProjects", Collections.singletonList( project ) );
+        setVariableValueToObject( mojo, "deployAtEnd", Boolean.TRUE );
+        setVariableValueToObject( mojo, "deployAtEndThreads", Integer.valueOf( 4 ) );
+        setVariableValueToObject( mojo, "deployAtEndMaxConnectionsPerRepository", Integer.valueOf( 2 ) );
+
+        mojo.execute();
+
+        File deployed = new File( remoteRepo, "deploy-at-end-concurrently/org/apache/maven/test/maven-deploy-test/"
+            + "1.0-SNAPSHOT" );
+
+        assertTrue( new File( deployed, "maven-deploy-test-1.0-SNAPSHOT.jar" ).exists() );
+        assertTrue( new File( deployed, "maven-deploy-test-1.0-SNAPSHOT.pom" ).exists() );
+        assertTrue( new File( deployed, "maven-metadata.xml" ).exists() );
+        assertTrue( new File( deployed.getParentFile(), "maven-metadata.xml" ).exists() );
+    }
+
     public void testBasicDeployWithPackagingAsPom()
         throws Exception
     {
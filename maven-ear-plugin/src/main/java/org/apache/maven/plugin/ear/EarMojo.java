@@ -24,8 +24,10 @@ import org.apache.maven.archiver.MavenArchiver;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.ear.util.EarBuildState;
 import org.apache.maven.plugin.ear.util.EarMavenArchiver;
 import org.apache.maven.plugin.ear.util.JavaEEVersion;
+import org.apache.maven.plugin.ear.util.ZipRewriter;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
@@ -45,20 +47,32 @@ import org.codehaus.plexus.archiver.jar.Manifest.Attribute;
 import org.codehaus.plexus.archiver.jar.ManifestException;
 import org.codehaus.plexus.archiver.manager.ArchiverManager;
 import org.codehaus.plexus.archiver.manager.NoSuchArchiverException;
-import org.codehaus.plexus.archiver.zip.ZipArchiver;
-import org.codehaus.plexus.archiver.zip.ZipUnArchiver;
 import org.codehaus.plexus.util.DirectoryScanner;
 import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.zip.ZipException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * Builds J2EE Enterprise Archive (EAR) files.
@@ -73,6 +87,10 @@ public class EarMojo
 {
     private static final String[] EMPTY_STRING_ARRAY = { };
 
+    private static final String MANIFEST_URI = META_INF + "/MANIFEST.MF";
+
+    private static final String STATE_FILE = "ear-build.state";
+
 
     /**
      * Single directory for extra files to include in the EAR.
@@ -211,22 +229,30 @@ public class EarMojo
     private boolean skinnyWars;
 
     /**
-     * The Jar archiver.
+     * The number of threads rewriting the WAR modules at the same time when creating skinny WARs. A value of
+     * <code>0</code> or less uses one thread per available processor.
+     *
+     * @since 2.9
      */
-    @Component( role = Archiver.class, hint = "jar" )
-    private JarArchiver jarArchiver;
+    @Parameter( property = "maven.ear.skinnyWarThreads", defaultValue = "0" )
+    private int skinnyWarThreads;
 
     /**
-     * The Zip archiver.
+     * Whether to build the EAR incrementally. The checksum of each module is kept between builds so that only the
+     * modules which changed are copied or unpacked again, the modules which are no longer part of the EAR are removed
+     * from the working directory, and when nothing else changed the existing EAR is updated with the changed modules
+     * instead of being created again.
+     *
+     * @since 2.9
      */
-    @Component( role = Archiver.class, hint = "zip" )
-    private ZipArchiver zipArchiver;
+    @Parameter( property = "maven.ear.incremental", defaultValue = "false" )
+    private boolean incremental;
 
     /**
-     * The Zip Un archiver.
+     * The Jar archiver.
      */
-    @Component( role = UnArchiver.class, hint = "zip" )
-    private ZipUnArchiver zipUnArchiver;
+    @Component( role = Archiver.class, hint = "jar" )
+    private JarArchiver jarArchiver;
 
     /**
      * The archive configuration to use.
@@ -266,6 +292,8 @@ public class EarMojo
 
     /**
      * @since 2.9
+     * @deprecated The skinny WARs are rewritten without being unpacked, keeping the permissions of their entries, so
+     *             this parameter is ignored.
      */
     @Parameter( property = "maven.ear.useJvmChmod", defaultValue = "true" )
     private boolean useJvmChmod = true;
@@ -277,8 +305,10 @@ public class EarMojo
         // Initializes ear modules
         super.execute();
 
-        zipArchiver.setUseJvmChmod( useJvmChmod );
-        zipUnArchiver.setUseJvmChmod( useJvmChmod );
+        if ( !useJvmChmod )
+        {
+            getLog().warn( "The useJvmChmod parameter is deprecated and ignored." );
+        }
 
         final JavaEEVersion javaEEVersion = JavaEEVersion.getJavaEEVersion( version );
 
@@ -298,9 +328,34 @@ public class EarMojo
             getLog().debug( "Initialized unpack types " + unpackTypesList );
         }
 
+        // Loads the state of the previous build, which is obsolete if the modules are laid out differently
+        final File stateFile = new File( generatedDescriptorLocation, STATE_FILE );
+        EarBuildState previousState = new EarBuildState();
+        final EarBuildState state = new EarBuildState();
+        state.setSignature( getStateSignature() );
+        final List<EarModule> changedModules = new ArrayList<EarModule>();
+        final List<String> removedModules = new ArrayList<String>();
+        Set<String> previousModules = new TreeSet<String>();
+        if ( incremental )
+        {
+            previousState = EarBuildState.load( stateFile );
+            previousModules = previousState.getModuleUris();
+            if ( !state.getSignature().equals( previousState.getSignature() ) )
+            {
+                previousState = new EarBuildState();
+            }
+        }
+        else
+        {
+            stateFile.delete();
+        }
+
         // Copy modules
         try
         {
+            // the packed WAR modules to rewrite as skinny WARs once all modules are copied
+            Map<File, EarModule> skinnyWarArchives = new LinkedHashMap<File, EarModule>();
+
             for ( EarModule module : getModules() )
             {
                 if ( module instanceof JavaModule )
@@ -329,9 +384,29 @@ public class EarMojo
 
                 // If the module is within the unpack list, make sure that no unpack wasn't forced (null or true)
                 // If the module is not in the unpack list, it should be true
-                if ( ( unpackTypesList.contains( module.getType() ) &&
+                final boolean unpacked = ( unpackTypesList.contains( module.getType() ) &&
                     ( module.shouldUnpack() == null || module.shouldUnpack().booleanValue() ) ) ||
-                    ( module.shouldUnpack() != null && module.shouldUnpack().booleanValue() ) )
+                    ( module.shouldUnpack() != null && module.shouldUnpack().booleanValue() );
+
+                if ( incremental )
+                {
+                    state.addModule( module.getUri(), sourceFile, unpacked, previousState );
+                    if ( state.isModuleUnchanged( module.getUri(), previousState ) && destinationFile.exists() )
+                    {
+                        getLog().debug( "Skipping artifact [" + module + "], as it did not change since the previous"
+                                            + " build at [" + module.getUri() + "]" );
+                        continue;
+                    }
+
+                    // the previous copy may have another packing, or an unpacked module may have lost some files
+                    changedModules.add( module );
+                    if ( destinationFile.exists() )
+                    {
+                        FileUtils.forceDelete( destinationFile );
+                    }
+                }
+
+                if ( unpacked )
                 {
                     getLog().info( "Copying artifact [" + module + "] to [" + module.getUri() + "] (unpacked)" );
                     // Make sure that the destination is a directory to avoid plexus nasty stuff :)
@@ -352,7 +427,7 @@ public class EarMojo
 
                         if ( skinnyWars && module.changeManifestClasspath() )
                         {
-                            changeManifestClasspath( module, destinationFile );
+                            skinnyWarArchives.put( destinationFile, module );
                         }
                     }
                     else
@@ -363,6 +438,21 @@ public class EarMojo
                     }
                 }
             }
+
+            changeManifestClasspath( skinnyWarArchives );
+
+            // Remove the modules of the previous build which are no longer part of the EAR
+            previousModules.removeAll( state.getModuleUris() );
+            for ( String uri : previousModules )
+            {
+                File destinationFile = buildDestinationFile( getWorkDirectory(), uri );
+                if ( destinationFile.exists() )
+                {
+                    getLog().info( "Removing module [" + uri + "], which is no longer part of the EAR" );
+                    FileUtils.forceDelete( destinationFile );
+                }
+                removedModules.add( uri );
+            }
         }
         catch ( IOException e )
         {
@@ -420,20 +510,41 @@ public class EarMojo
         try
         {
             File earFile = getEarFile( outputDirectory, finalName, classifier );
-            final MavenArchiver archiver = new EarMavenArchiver( getModules() );
-            final JarArchiver jarArchiver = getJarArchiver();
-            getLog().debug( "Jar archiver implementation [" + jarArchiver.getClass().getName() + "]" );
-            archiver.setArchiver( jarArchiver );
-            archiver.setOutputFile( earFile );
 
-            // Include custom manifest if necessary
-            includeCustomManifestFile();
+            Map<String, List<String>> moduleFiles = null;
+            if ( incremental )
+            {
+                moduleFiles = scanWorkDirectory( state );
+            }
+
+            if ( incremental && removedModules.isEmpty() && isArchiveUpToDate( earFile, state, previousState ) )
+            {
+                updateArchive( earFile, changedModules, moduleFiles );
+            }
+            else
+            {
+                final MavenArchiver archiver = new EarMavenArchiver( getModules() );
+                final JarArchiver jarArchiver = getJarArchiver();
+                getLog().debug( "Jar archiver implementation [" + jarArchiver.getClass().getName() + "]" );
+                archiver.setArchiver( jarArchiver );
+                archiver.setOutputFile( earFile );
+
+                // Include custom manifest if necessary
+                includeCustomManifestFile();
 
-            getLog().debug( "Excluding " + Arrays.asList( getPackagingExcludes() ) + " from the generated EAR." );
-            getLog().debug( "Including " + Arrays.asList( getPackagingIncludes() ) + " in the generated EAR." );
+                getLog().debug( "Excluding " + Arrays.asList( getPackagingExcludes() ) + " from the generated EAR." );
+                getLog().debug( "Including " + Arrays.asList( getPackagingIncludes() ) + " in the generated EAR." );
 
-            archiver.getArchiver().addDirectory( getWorkDirectory(), getPackagingIncludes(), getPackagingExcludes() );
-            archiver.createArchive( session, getProject(), archive );
+                archiver.getArchiver().addDirectory( getWorkDirectory(), getPackagingIncludes(),
+                                                     getPackagingExcludes() );
+                archiver.createArchive( session, getProject(), archive );
+            }
+
+            if ( incremental )
+            {
+                state.setArchive( earFile );
+                state.save( stateFile );
+            }
 
             if ( classifier != null )
             {
@@ -670,32 +781,285 @@ public class EarMojo
         return filterWrappers;
     }
 
-    private void changeManifestClasspath( EarModule module, File original )
+    /**
+     * @return the configuration which, when changed, makes the modules copied by the previous build obsolete
+     */
+    private String getStateSignature()
+    {
+        StringBuilder signature = new StringBuilder();
+        signature.append( unpackTypes ).append( ';' );
+        signature.append( StringUtils.join( getPackagingIncludes(), "," ) ).append( ';' );
+        signature.append( StringUtils.join( getPackagingExcludes(), "," ) ).append( ';' );
+        signature.append( skinnyWars );
+
+        // the skinny WARs reference the JAR modules in their manifest
+        if ( skinnyWars )
+        {
+            for ( EarModule module : getModules() )
+            {
+                if ( module instanceof JarModule )
+                {
+                    signature.append( ';' ).append( module.getUri() );
+                }
+            }
+        }
+        return signature.toString();
+    }
+
+    /**
+     * Records the files of the working directory which are not part of a module in the state of the build.
+     *
+     * @param state the state of the build
+     * @return the files of the working directory which are part of a module, by module URI
+     * @throws IOException if a file could not be read
+     */
+    private Map<String, List<String>> scanWorkDirectory( EarBuildState state )
+        throws IOException
+    {
+        Set<String> uris = state.getModuleUris();
+        Map<String, List<String>> moduleFiles = new HashMap<String, List<String>>();
+
+        DirectoryScanner scanner = new DirectoryScanner();
+        scanner.setBasedir( getWorkDirectory() );
+        scanner.setIncludes( getPackagingIncludes() );
+        scanner.setExcludes( getPackagingExcludes() );
+        scanner.scan();
+
+        for ( String file : scanner.getIncludedFiles() )
+        {
+            String path = file.replace( File.separatorChar, '/' );
+
+            String uri = null;
+            for ( int i = path.length(); i > 0 && uri == null; i = path.lastIndexOf( '/', i - 1 ) )
+            {
+                if ( uris.contains( path.substring( 0, i ) ) )
+                {
+                    uri = path.substring( 0, i );
+                }
+            }
+
+            if ( uri == null )
+            {
+                state.addFile( path, new File( getWorkDirectory(), file ) );
+            }
+            else
+            {
+                List<String> files = moduleFiles.get( uri );
+                if ( files == null )
+                {
+                    files = new ArrayList<String>();
+                    moduleFiles.put( uri, files );
+                }
+                files.add( path );
+            }
+        }
+        return moduleFiles;
+    }
+
+    /**
+     * Tells whether the EAR of the previous build only differs by the content of some modules, in which case it can be
+     * updated in place.
+     *
+     * @param earFile the EAR file
+     * @param state the state of this build
+     * @param previousState the state of the previous build
+     * @return <code>true</code> if the EAR can be updated with the changed modules only
+     */
+    private boolean isArchiveUpToDate( File earFile, EarBuildState state, EarBuildState previousState )
+    {
+        if ( !previousState.isArchiveUnchanged( earFile ) )
+        {
+            getLog().debug( "The EAR was changed since the previous build, creating it again" );
+            return false;
+        }
+        File pom = getProject().getFile();
+        if ( pom != null && pom.lastModified() > earFile.lastModified() )
+        {
+            getLog().debug( "The project was changed since the previous build, creating the EAR again" );
+            return false;
+        }
+        if ( !state.getModuleUris().equals( previousState.getModuleUris() ) )
+        {
+            getLog().debug( "Modules were added since the previous build, creating the EAR again" );
+            return false;
+        }
+        if ( !state.hasSameFiles( previousState ) )
+        {
+            getLog().debug( "The EAR sources were changed since the previous build, creating the EAR again" );
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Updates the EAR of the previous build with the modules which changed since.
+     *
+     * @param earFile the EAR file
+     * @param changedModules the modules which changed since the previous build
+     * @param moduleFiles the files of the working directory which are part of a module, by module URI
+     * @throws IOException if the EAR could not be updated
+     */
+    private void updateArchive( File earFile, List<EarModule> changedModules, Map<String, List<String>> moduleFiles )
+        throws IOException
+    {
+        if ( changedModules.isEmpty() )
+        {
+            getLog().info( "EAR [" + earFile + "] is up to date" );
+            return;
+        }
+
+        getLog().info( "Updating " + changedModules.size() + " module(s) of EAR [" + earFile + "]" );
+
+        ZipRewriter rewriter = new ZipRewriter( earFile );
+        for ( EarModule module : changedModules )
+        {
+            String uri = module.getUri();
+            File destinationFile = buildDestinationFile( getWorkDirectory(), uri );
+
+            // the module may have been packed differently in the previous build
+            rewriter.removeDirectory( uri + "/" );
+            if ( destinationFile.isDirectory() )
+            {
+                rewriter.remove( uri );
+                List<String> files = moduleFiles.get( uri );
+                if ( files != null )
+                {
+                    for ( String path : files )
+                    {
+                        rewriter.replace( path, new File( getWorkDirectory(), path ) );
+                    }
+                }
+            }
+            else
+            {
+                rewriter.replace( uri, destinationFile );
+            }
+        }
+        rewriter.rewrite();
+    }
+
+    /**
+     * Changes the manifest class path of packed WAR modules, rewriting several of them at the same time.
+     *
+     * @param archives the WAR files to rewrite, with their module
+     * @throws MojoFailureException if a WAR file could not be rewritten
+     */
+    private void changeManifestClasspath( Map<File, EarModule> archives )
         throws MojoFailureException
     {
+        if ( archives.isEmpty() )
+        {
+            return;
+        }
+
+        int threads = skinnyWarThreads > 0 ? skinnyWarThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool( Math.min( threads, archives.size() ) );
         try
         {
-            File workDirectory;
+            List<Future<Object>> futures = new ArrayList<Future<Object>>();
+            for ( final Map.Entry<File, EarModule> entry : archives.entrySet() )
+            {
+                futures.add( executor.submit( new Callable<Object>()
+                {
+                    public Object call()
+                        throws Exception
+                    {
+                        changeArchiveManifestClasspath( entry.getValue(), entry.getKey() );
+                        return null;
+                    }
+                } ) );
+            }
 
-            // Handle the case that the destination might be a directory (project-038)
-            if ( original.isFile() )
+            for ( Future<Object> future : futures )
+            {
+                future.get();
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new MojoFailureException( "Interrupted while creating skinny WARs" );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof MojoFailureException )
             {
-                // Create a temporary work directory
-                workDirectory =
-                    new File( new File( generatedDescriptorLocation, "temp" ), module.getArtifact().getArtifactId() );
-                workDirectory.mkdirs();
-                getLog().debug( "Created a temporary work directory: " + workDirectory.getAbsolutePath() );
+                throw (MojoFailureException) e.getCause();
+            }
+            throw new MojoFailureException( String.valueOf( e.getCause().getMessage() ) );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Changes the manifest class path of a packed module without unpacking it. The entries which are kept are copied
+     * as they are, only the manifest is written again.
+     */
+    private void changeArchiveManifestClasspath( EarModule module, File original )
+        throws MojoFailureException
+    {
+        try
+        {
+            getLog().debug( "Rewriting module " + module + " as a skinny WAR" );
+
+            String manifest = "";
 
-                // Unpack the archive to a temporary work directory
-                zipUnArchiver.setSourceFile( original );
-                zipUnArchiver.setDestDirectory( workDirectory );
-                zipUnArchiver.extract();
+            ZipFile zipFile = new ZipFile( original );
+            try
+            {
+                ZipEntry entry = zipFile.getEntry( MANIFEST_URI );
+                if ( entry != null )
+                {
+                    manifest = IOUtil.toString( zipFile.getInputStream( entry ), "UTF-8" );
+                }
+                else
+                {
+                    getLog().debug( "This project did not have a META-INF/MANIFEST.MF file before, so a new file "
+                                        + "is created." );
+                }
             }
-            else
+            finally
             {
-                workDirectory = original;
+                zipFile.close();
             }
 
+            Manifest mf = new Manifest( new StringReader( manifest ) );
+            updateManifestClasspath( mf );
+
+            StringWriter sw = new StringWriter();
+            PrintWriter pw = new PrintWriter( sw );
+            mf.write( pw );
+            pw.close();
+
+            ZipRewriter rewriter = new ZipRewriter( original );
+            rewriter.replace( MANIFEST_URI, sw.toString().getBytes( "UTF-8" ) );
+            for ( String library : getSkinnyWarLibraries( module ) )
+            {
+                rewriter.remove( library );
+            }
+            rewriter.rewrite();
+        }
+        catch ( ManifestException e )
+        {
+            throw new MojoFailureException( e.getMessage() );
+        }
+        catch ( IOException e )
+        {
+            throw new MojoFailureException( e.getMessage() );
+        }
+    }
+
+    /**
+     * Changes the manifest class path of an unpacked module.
+     */
+    private void changeManifestClasspath( EarModule module, File workDirectory )
+        throws MojoFailureException
+    {
+        try
+        {
             // Create a META-INF/MANIFEST.MF file if it doesn't exist (project-038)
             File metaInfDirectory = new File( workDirectory, "META-INF" );
             boolean newMetaInfCreated = metaInfDirectory.mkdirs();
@@ -714,86 +1078,104 @@ public class EarMojo
 
             // Read the manifest from disk
             Manifest mf = new Manifest( new FileReader( manifestFile ) );
-            Attribute classPath = mf.getMainSection().getAttribute( "Class-Path" );
-            List<String> classPathElements = new ArrayList<String>();
+            updateManifestClasspath( mf );
 
-            if ( classPath != null )
+            for ( String library : getSkinnyWarLibraries( module ) )
             {
-                classPathElements.addAll( Arrays.asList( classPath.getValue().split( " " ) ) );
-            }
-            else
-            {
-                classPath = new Attribute( "Class-Path", "" );
-                mf.getMainSection().addConfiguredAttribute( classPath );
-            }
+                File artifact = new File( workDirectory, library );
 
-            // Modify the classpath entries in the manifest
-            for ( EarModule o : getModules() )
-            {
-                if ( o instanceof JarModule )
+                if ( artifact.exists() )
                 {
-                    JarModule jm = (JarModule) o;
-
-                    if ( module.getLibDir() != null )
-                    {
-                        File artifact =
-                            new File( new File( workDirectory, module.getLibDir() ), jm.getBundleFileName() );
-
-                        if ( artifact.exists() )
-                        {
-                            if ( !artifact.delete() )
-                            {
-                                getLog().error( "Could not delete '" + artifact + "'" );
-                            }
-                        }
-                    }
-
-                    if ( classPathElements.contains( jm.getBundleFileName() ) )
-                    {
-                        classPathElements.set( classPathElements.indexOf( jm.getBundleFileName() ), jm.getUri() );
-                    }
-                    else
+                    if ( !artifact.delete() )
                     {
-                        classPathElements.add( jm.getUri() );
+                        getLog().error( "Could not delete '" + artifact + "'" );
                     }
                 }
             }
-            classPath.setValue( StringUtils.join( classPathElements.iterator(), " " ) );
 
             // Write the manifest to disk
             PrintWriter pw = new PrintWriter( manifestFile );
             mf.write( pw );
             pw.close();
-
-            if ( original.isFile() )
-            {
-                // Pack up the archive again from the work directory
-                if ( !original.delete() )
-                {
-                    getLog().error( "Could not delete original artifact file " + original );
-                }
-
-                getLog().debug( "Zipping module" );
-                zipArchiver.setDestFile( original );
-                zipArchiver.addDirectory( workDirectory );
-                zipArchiver.createArchive();
-            }
         }
         catch ( ManifestException e )
         {
             throw new MojoFailureException( e.getMessage() );
         }
-        catch ( ZipException e )
+        catch ( IOException e )
         {
             throw new MojoFailureException( e.getMessage() );
         }
-        catch ( IOException e )
+    }
+
+    /**
+     * Makes the manifest class path reference the JAR modules of the EAR.
+     */
+    private void updateManifestClasspath( Manifest mf )
+        throws ManifestException
+    {
+        Attribute classPath = mf.getMainSection().getAttribute( "Class-Path" );
+        List<String> classPathElements = new ArrayList<String>();
+
+        if ( classPath != null )
         {
-            throw new MojoFailureException( e.getMessage() );
+            classPathElements.addAll( Arrays.asList( classPath.getValue().split( " " ) ) );
         }
-        catch ( ArchiverException e )
+        else
         {
-            throw new MojoFailureException( e.getMessage() );
+            classPath = new Attribute( "Class-Path", "" );
+            mf.getMainSection().addConfiguredAttribute( classPath );
         }
+
+        // Modify the classpath entries in the manifest
+        for ( EarModule o : getModules() )
+        {
+            if ( o instanceof JarModule )
+            {
+                JarModule jm = (JarModule) o;
+
+                if ( classPathElements.contains( jm.getBundleFileName() ) )
+                {
+                    classPathElements.set( classPathElements.indexOf( jm.getBundleFileName() ), jm.getUri() );
+                }
+                else
+                {
+                    classPathElements.add( jm.getUri() );
+                }
+            }
+        }
+        classPath.setValue( StringUtils.join( classPathElements.iterator(), " " ) );
+    }
+
+    /**
+     * @param module the module made skinny
+     * @return the paths of the JAR modules of the EAR bundled in the library directory of the module
+     */
+    private List<String> getSkinnyWarLibraries( EarModule module )
+    {
+        List<String> libraries = new ArrayList<String>();
+
+        if ( module.getLibDir() != null )
+        {
+            String libDir = StringUtils.replace( module.getLibDir(), "\\", "/" );
+            while ( libDir.startsWith( "/" ) )
+            {
+                libDir = libDir.substring( 1 );
+            }
+            if ( libDir.length() > 0 && !libDir.endsWith( "/" ) )
+            {
+                libDir += "/";
+            }
+
+            for ( EarModule o : getModules() )
+            {
+                if ( o instanceof JarModule )
+                {
+                    libraries.add( libDir + ( (JarModule) o ).getBundleFileName() );
+                }
+            }
+        }
+
+        return libraries;
     }
 }
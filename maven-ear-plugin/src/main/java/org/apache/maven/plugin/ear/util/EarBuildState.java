@@ -0,0 +1,309 @@
+package org.apache.maven.plugin.ear.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The state of an incremental EAR build, kept between builds.
+ * <p>
+ * It records the checksum of every module artifact along with the URI it was copied to, the checksum of the other
+ * files of the working directory, and the size and modification time of the EAR created from them.
+ * </p>
+ *
+ * @author Apache Maven team
+ * @since 2.9
+ */
+public class EarBuildState
+{
+    private static final String SIGNATURE = "signature";
+
+    private static final String MODULE = "module.";
+
+    private static final String FILE = "file.";
+
+    private static final String ARCHIVE = "archive";
+
+    private final Properties properties = new Properties();
+
+    /**
+     * Loads the state of the previous build.
+     *
+     * @param file the state file.
+     * @return the state, empty if the file does not exist or cannot be read.
+     */
+    public static EarBuildState load( File file )
+    {
+        EarBuildState state = new EarBuildState();
+        if ( file.isFile() )
+        {
+            InputStream is = null;
+            try
+            {
+                is = new FileInputStream( file );
+                state.properties.load( is );
+            }
+            catch ( IOException e )
+            {
+                state.properties.clear();
+            }
+            finally
+            {
+                IOUtil.close( is );
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Saves the state for the next build.
+     *
+     * @param file the state file.
+     * @throws IOException if the file could not be written.
+     */
+    public void save( File file )
+        throws IOException
+    {
+        // a file of its own, so that an interrupted build does not leave a truncated state
+        file.getParentFile().mkdirs();
+        File tmp = File.createTempFile( file.getName(), ".tmp", file.getParentFile() );
+        OutputStream os = null;
+        try
+        {
+            os = new FileOutputStream( tmp );
+            properties.store( os, "EAR build state" );
+            os.close();
+            if ( !( tmp.renameTo( file ) || ( file.delete() && tmp.renameTo( file ) ) ) )
+            {
+                throw new IOException( "Unable to replace " + file );
+            }
+        }
+        finally
+        {
+            IOUtil.close( os );
+            tmp.delete();
+        }
+    }
+
+    /**
+     * @return whether nothing was recorded.
+     */
+    public boolean isEmpty()
+    {
+        return properties.isEmpty();
+    }
+
+    /**
+     * Sets the configuration whose change makes the whole state obsolete.
+     *
+     * @param signature the configuration.
+     */
+    public void setSignature( String signature )
+    {
+        properties.setProperty( SIGNATURE, signature );
+    }
+
+    /**
+     * @return the configuration whose change makes the whole state obsolete.
+     */
+    public String getSignature()
+    {
+        return properties.getProperty( SIGNATURE );
+    }
+
+    /**
+     * Records a module artifact. The checksum is only calculated when the size or the modification time of the
+     * artifact differs from the previous build.
+     *
+     * @param uri the URI of the module in the EAR.
+     * @param artifact the module artifact.
+     * @param unpacked whether the module is unpacked in the EAR.
+     * @param previous the state of the previous build.
+     * @throws IOException if the artifact could not be read.
+     */
+    public void addModule( String uri, File artifact, boolean unpacked, EarBuildState previous )
+        throws IOException
+    {
+        String stamp = artifact.length() + " " + artifact.lastModified() + " " + unpacked;
+
+        String checksum = null;
+        String[] old = previous.getModule( uri );
+        if ( old != null && stamp.equals( old[1] ) )
+        {
+            checksum = old[0];
+        }
+        if ( checksum == null )
+        {
+            checksum = checksum( artifact );
+        }
+
+        properties.setProperty( MODULE + uri, checksum + " " + stamp );
+    }
+
+    /**
+     * @param uri the URI of the module in the EAR.
+     * @param previous the state of the previous build.
+     * @return whether the module was recorded with the same content and packing by the previous build.
+     */
+    public boolean isModuleUnchanged( String uri, EarBuildState previous )
+    {
+        String[] current = getModule( uri );
+        String[] old = previous.getModule( uri );
+
+        return current != null && old != null && current[0].equals( old[0] )
+            && current[1].endsWith( old[1].substring( old[1].lastIndexOf( ' ' ) ) );
+    }
+
+    /**
+     * @return the URIs of the recorded modules.
+     */
+    public Set<String> getModuleUris()
+    {
+        Set<String> uris = new TreeSet<String>();
+        for ( Object key : properties.keySet() )
+        {
+            if ( ( (String) key ).startsWith( MODULE ) )
+            {
+                uris.add( ( (String) key ).substring( MODULE.length() ) );
+            }
+        }
+        return uris;
+    }
+
+    /**
+     * Records a file of the working directory which is not part of a module.
+     *
+     * @param path the path of the file in the EAR.
+     * @param file the file.
+     * @throws IOException if the file could not be read.
+     */
+    public void addFile( String path, File file )
+        throws IOException
+    {
+        properties.setProperty( FILE + path, checksum( file ) );
+    }
+
+    /**
+     * @param previous the state of the previous build.
+     * @return whether the files which are not part of a module are the same as in the previous build.
+     */
+    public boolean hasSameFiles( EarBuildState previous )
+    {
+        return getFiles().equals( previous.getFiles() );
+    }
+
+    /**
+     * Records the EAR created by this build.
+     *
+     * @param archive the EAR.
+     */
+    public void setArchive( File archive )
+    {
+        properties.setProperty( ARCHIVE, archive.length() + " " + archive.lastModified() );
+    }
+
+    /**
+     * @param archive the EAR.
+     * @return whether the EAR exists and was not changed since it was recorded.
+     */
+    public boolean isArchiveUnchanged( File archive )
+    {
+        return archive.isFile()
+            && ( archive.length() + " " + archive.lastModified() ).equals( properties.getProperty( ARCHIVE ) );
+    }
+
+    /**
+     * @return the checksum and the size, modification time and packing of a module, or <code>null</code>.
+     */
+    private String[] getModule( String uri )
+    {
+        String value = properties.getProperty( MODULE + uri );
+        if ( value == null || value.indexOf( ' ' ) < 0 )
+        {
+            return null;
+        }
+        int i = value.indexOf( ' ' );
+        return new String[]{ value.substring( 0, i ), value.substring( i + 1 ) };
+    }
+
+    private Map<String, String> getFiles()
+    {
+        Map<String, String> files = new TreeMap<String, String>();
+        for ( Map.Entry<Object, Object> entry : properties.entrySet() )
+        {
+            if ( ( (String) entry.getKey() ).startsWith( FILE ) )
+            {
+                files.put( (String) entry.getKey(), (String) entry.getValue() );
+            }
+        }
+        return files;
+    }
+
+    private static String checksum( File file )
+        throws IOException
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e.getMessage() );
+        }
+
+        InputStream is = new FileInputStream( file );
+        try
+        {
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+            while ( ( n = is.read( buffer ) ) >= 0 )
+            {
+                digest.update( buffer, 0, n );
+            }
+        }
+        finally
+        {
+            is.close();
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for ( byte b : digest.digest() )
+        {
+            hex.append( Character.forDigit( ( b >> 4 ) & 0x0F, 16 ) );
+            hex.append( Character.forDigit( b & 0x0F, 16 ) );
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,306 @@
+package org.apache.maven.plugin.ear.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.apache.maven.plugin.ear.util.ZipFormat.Entry;
+import org.apache.maven.plugin.ear.util.ZipFormat.Writer;
+
+/**
+ * Rewrites a zip file in place, removing and replacing some of its entries.
+ * <p>
+ * The entries which are kept are copied as they are, without being inflated and compressed again, so rewriting
+ * a large archive costs little more than copying it. The new entries get their time in UTC, like the entries of the
+ * {@link ArchiveCompressor}.
+ * </p>
+ *
+ * @author Apache Maven team
+ * @version $Id$
+ */
+public class ZipRewriter
+{
+    private final File file;
+
+    private final Set<String> removed = new HashSet<String>();
+
+    private final List<String> removedDirectories = new ArrayList<String>();
+
+    /**
+     * The new content of the entries, either a byte array or a file.
+     */
+    private final Map<String, Object> replaced = new LinkedHashMap<String, Object>();
+
+    /**
+     * @param file the zip file to rewrite.
+     */
+    public ZipRewriter( File file )
+    {
+        this.file = file;
+    }
+
+    /**
+     * Removes an entry, if it exists.
+     *
+     * @param name the name of the entry.
+     */
+    public void remove( String name )
+    {
+        removed.add( name );
+    }
+
+    /**
+     * Removes a directory entry and all the entries below it.
+     *
+     * @param name the name of the directory, ending with a slash.
+     */
+    public void removeDirectory( String name )
+    {
+        removedDirectories.add( name );
+    }
+
+    /**
+     * Replaces the content of an entry. If the entry does not exist it is added at the beginning of the archive, with
+     * its parent directories.
+     *
+     * @param name the name of the entry.
+     * @param content the new content.
+     */
+    public void replace( String name, byte[] content )
+    {
+        replaced.put( name, content );
+    }
+
+    /**
+     * Replaces the content of an entry with a file, which is read when the archive is rewritten. If the entry does
+     * not exist it is added at the beginning of the archive, with its parent directories.
+     *
+     * @param name the name of the entry.
+     * @param file the file holding the new content.
+     */
+    public void replace( String name, File file )
+    {
+        replaced.put( name, file );
+    }
+
+    /**
+     * Rewrites the zip file.
+     *
+     * @throws IOException if the zip file could not be read or written.
+     */
+    public void rewrite()
+        throws IOException
+    {
+        File tmp = File.createTempFile( file.getName(), ".tmp", file.getParentFile() );
+
+        boolean done = false;
+        try
+        {
+            RandomAccessFile raf = new RandomAccessFile( file, "r" );
+            try
+            {
+                OutputStream out = new BufferedOutputStream( new FileOutputStream( tmp ), 64 * 1024 );
+                try
+                {
+                    rewrite( raf, new Writer( out ) );
+                }
+                finally
+                {
+                    out.close();
+                }
+            }
+            finally
+            {
+                raf.close();
+            }
+
+            if ( !file.delete() || !tmp.renameTo( file ) )
+            {
+                throw new IOException( "Could not replace " + file + " with " + tmp );
+            }
+            done = true;
+        }
+        finally
+        {
+            if ( !done )
+            {
+                tmp.delete();
+            }
+        }
+    }
+
+    private void rewrite( RandomAccessFile raf, Writer writer )
+        throws IOException
+    {
+        List<Entry> entries = new ArrayList<Entry>();
+        byte[] comment = ZipFormat.readCentralDirectory( raf, entries );
+
+        Set<String> names = new HashSet<String>();
+        for ( Iterator<Entry> it = entries.iterator(); it.hasNext(); )
+        {
+            Entry entry = it.next();
+            if ( isRemoved( entry.name ) )
+            {
+                it.remove();
+            }
+            else
+            {
+                names.add( entry.name );
+            }
+        }
+
+        List<Entry> written = new ArrayList<Entry>();
+
+        // entries which do not exist yet go first, after their parent directories
+        long now = ZipFormat.toDosTime( System.currentTimeMillis() );
+        byte[] buffer = new byte[64 * 1024];
+        for ( Map.Entry<String, Object> e : replaced.entrySet() )
+        {
+            if ( names.contains( e.getKey() ) )
+            {
+                continue;
+            }
+
+            String name = e.getKey();
+            for ( int i = name.indexOf( '/' ); i >= 0; i = name.indexOf( '/', i + 1 ) )
+            {
+                String directory = name.substring( 0, i + 1 );
+                if ( names.add( directory ) )
+                {
+                    Entry entry = Entry.create( directory, now );
+                    writer.writeEntry( entry, new byte[0] );
+                    written.add( entry );
+                }
+            }
+
+            Entry entry = Entry.create( name, now );
+            write( writer, entry, e.getValue(), now, buffer );
+            written.add( entry );
+        }
+
+        for ( Entry entry : entries )
+        {
+            Object content = replaced.get( entry.name );
+            if ( content != null )
+            {
+                entry.flags &= ~ZipFormat.DATA_DESCRIPTOR_FLAG;
+                write( writer, entry, content, now, buffer );
+            }
+            else
+            {
+                writer.copyEntry( entry, buffer );
+            }
+            written.add( entry );
+        }
+
+        writer.writeCentralDirectory( written, comment );
+    }
+
+    private boolean isRemoved( String name )
+    {
+        if ( removed.contains( name ) )
+        {
+            return true;
+        }
+        for ( String directory : removedDirectories )
+        {
+            if ( name.startsWith( directory ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void write( Writer writer, Entry entry, Object content, long now, byte[] buffer )
+        throws IOException
+    {
+        if ( content instanceof File )
+        {
+            File file = (File) content;
+            entry.dosTime = ZipFormat.toDosTime( file.lastModified() );
+
+            InputStream is = new FileInputStream( file );
+            try
+            {
+                writer.writeEntry( entry, is, buffer );
+            }
+            finally
+            {
+                is.close();
+            }
+        }
+        else
+        {
+            entry.dosTime = now;
+            writer.writeEntry( entry, deflate( entry, (byte[]) content ) );
+        }
+    }
+
+    /**
+     * Compresses new content for the given entry, updating its method, sizes and checksum.
+     */
+    private static byte[] deflate( Entry entry, byte[] content )
+    {
+        CRC32 crc = new CRC32();
+        crc.update( content );
+        entry.crc = crc.getValue();
+        entry.size = content.length;
+
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream( content.length / 2 + 64 );
+        Deflater deflater = new Deflater( Deflater.DEFAULT_COMPRESSION, true );
+        try
+        {
+            deflater.setInput( content );
+            deflater.finish();
+
+            byte[] buffer = new byte[8192];
+            while ( !deflater.finished() )
+            {
+                deflated.write( buffer, 0, deflater.deflate( buffer ) );
+            }
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        entry.method = ZipFormat.DEFLATED;
+        entry.compressedSize = deflated.size();
+        return deflated.toByteArray();
+    }
+}
@@ -0,0 +1,119 @@
+package org.apache.maven.plugin.ear.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * @author Apache Maven team
+ */
+public class EarBuildStateTest
+    extends TestCase
+{
+    private File directory;
+
+    protected void setUp()
+        throws Exception
+    {
+        directory = new File( System.getProperty( "basedir", "." ), "target/unit/ear-build-state" );
+        FileUtils.deleteDirectory( directory );
+        directory.mkdirs();
+    }
+
+    public void testModuleChanges()
+        throws Exception
+    {
+        File a = createFile( "a.jar", "a" );
+        File b = createFile( "b.war", "b" );
+
+        EarBuildState previous = new EarBuildState();
+        previous.setSignature( "test" );
+        previous.addModule( "a.jar", a, false, new EarBuildState() );
+        previous.addModule( "b.war", b, false, new EarBuildState() );
+        File stateFile = new File( directory, "ear-build.state" );
+        previous.save( stateFile );
+        // the state was written to a temporary file, then renamed
+        assertEquals( new TreeSet<String>( Arrays.asList( "a.jar", "b.war", "ear-build.state" ) ),
+                      new TreeSet<String>( Arrays.asList( directory.list() ) ) );
+        previous = EarBuildState.load( stateFile );
+
+        assertEquals( "test", previous.getSignature() );
+        assertEquals( new TreeSet<String>( Arrays.asList( "a.jar", "b.war" ) ), previous.getModuleUris() );
+
+        // same content with another modification time
+        a.setLastModified( a.lastModified() - 10000 );
+        FileUtils.fileWrite( b.getPath(), "UTF-8", "changed" );
+
+        EarBuildState state = new EarBuildState();
+        state.addModule( "a.jar", a, false, previous );
+        state.addModule( "b.war", b, false, previous );
+        state.addModule( "c.jar", a, false, previous );
+
+        assertTrue( state.isModuleUnchanged( "a.jar", previous ) );
+        assertFalse( state.isModuleUnchanged( "b.war", previous ) );
+        assertFalse( state.isModuleUnchanged( "c.jar", previous ) );
+
+        // unpacking the module changes the EAR
+        state.addModule( "a.jar", a, true, previous );
+        assertFalse( state.isModuleUnchanged( "a.jar", previous ) );
+    }
+
+    public void testFilesAndArchive()
+        throws Exception
+    {
+        File xml = createFile( "application.xml", "<application/>" );
+        File ear = createFile( "test.ear", "ear" );
+
+        EarBuildState previous = new EarBuildState();
+        previous.addFile( "META-INF/application.xml", xml );
+        previous.setArchive( ear );
+
+        EarBuildState state = new EarBuildState();
+        state.addFile( "META-INF/application.xml", xml );
+        assertTrue( state.hasSameFiles( previous ) );
+        assertTrue( previous.isArchiveUnchanged( ear ) );
+
+        FileUtils.fileWrite( xml.getPath(), "UTF-8", "<application></application>" );
+        state.addFile( "META-INF/application.xml", xml );
+        assertFalse( state.hasSameFiles( previous ) );
+
+        FileUtils.fileWrite( ear.getPath(), "UTF-8", "another ear" );
+        assertFalse( previous.isArchiveUnchanged( ear ) );
+        assertFalse( previous.isArchiveUnchanged( new File( directory, "missing.ear" ) ) );
+    }
+
+    public void testLoadMissingState()
+    {
+        assertTrue( EarBuildState.load( new File( directory, "missing.state" ) ).isEmpty() );
+    }
+
+    private File createFile( String name, String content )
+        throws Exception
+    {
+        File file = new File( directory, name );
+        FileUtils.fileWrite( file.getPath(), "UTF-8", content );
+        return file;
+    }
+}
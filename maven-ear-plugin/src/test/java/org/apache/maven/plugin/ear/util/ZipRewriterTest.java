@@ -0,0 +1,226 @@
+package org.apache.maven.plugin.ear.util;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * @author Apache Maven team
+ */
+public class ZipRewriterTest
+    extends TestCase
+{
+    private File war;
+
+    protected void setUp()
+        throws Exception
+    {
+        File directory = new File( System.getProperty( "basedir", "." ), "target/unit/zip-rewriter" );
+        FileUtils.deleteDirectory( directory );
+        directory.mkdirs();
+        war = new File( directory, "test.war" );
+    }
+
+    public void testRemoveAndReplace()
+        throws Exception
+    {
+        createWar( new String[]{ "META-INF/", "META-INF/MANIFEST.MF", "WEB-INF/", "WEB-INF/lib/",
+            "WEB-INF/lib/a.jar", "WEB-INF/lib/b.jar", "index.html" } );
+
+        ZipRewriter rewriter = new ZipRewriter( war );
+        rewriter.remove( "WEB-INF/lib/a.jar" );
+        rewriter.replace( "META-INF/MANIFEST.MF", "Manifest-Version: 1.0\r\nClass-Path: a.jar\r\n\r\n".getBytes() );
+        rewriter.rewrite();
+
+        ZipFile zipFile = new ZipFile( war );
+        try
+        {
+            assertEquals( Arrays.asList( "META-INF/", "META-INF/MANIFEST.MF", "WEB-INF/", "WEB-INF/lib/",
+                                         "WEB-INF/lib/b.jar", "index.html" ), getNames( zipFile ) );
+            assertTrue( read( zipFile, "META-INF/MANIFEST.MF" ).contains( "Class-Path: a.jar" ) );
+            assertEquals( content( "WEB-INF/lib/b.jar" ), read( zipFile, "WEB-INF/lib/b.jar" ) );
+            assertEquals( content( "index.html" ), read( zipFile, "index.html" ) );
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+
+    public void testAddMissingEntry()
+        throws Exception
+    {
+        createWar( new String[]{ "WEB-INF/", "WEB-INF/web.xml" } );
+
+        ZipRewriter rewriter = new ZipRewriter( war );
+        rewriter.replace( "META-INF/MANIFEST.MF", "Manifest-Version: 1.0\r\n\r\n".getBytes() );
+        rewriter.rewrite();
+
+        ZipFile zipFile = new ZipFile( war );
+        try
+        {
+            assertEquals( Arrays.asList( "META-INF/", "META-INF/MANIFEST.MF", "WEB-INF/", "WEB-INF/web.xml" ),
+                          getNames( zipFile ) );
+            assertEquals( "Manifest-Version: 1.0\r\n\r\n", read( zipFile, "META-INF/MANIFEST.MF" ) );
+            assertEquals( content( "WEB-INF/web.xml" ), read( zipFile, "WEB-INF/web.xml" ) );
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+
+    public void testReplaceDirectoryWithFiles()
+        throws Exception
+    {
+        createWar( new String[]{ "lib/", "lib/a.jar", "module.war/", "module.war/index.html",
+            "module.war/WEB-INF/", "module.war/WEB-INF/web.xml", "other.jar" } );
+
+        File index = new File( war.getParentFile(), "index.html" );
+        FileUtils.fileWrite( index.getPath(), "UTF-8", content( "new index.html" ) );
+
+        ZipRewriter rewriter = new ZipRewriter( war );
+        rewriter.removeDirectory( "module.war/" );
+        rewriter.replace( "module.war/index.html", index );
+        rewriter.replace( "other.jar", index );
+        rewriter.rewrite();
+
+        ZipFile zipFile = new ZipFile( war );
+        try
+        {
+            assertEquals( Arrays.asList( "module.war/", "module.war/index.html", "lib/", "lib/a.jar", "other.jar" ),
+                          getNames( zipFile ) );
+            assertEquals( content( "new index.html" ), read( zipFile, "module.war/index.html" ) );
+            assertEquals( content( "new index.html" ), read( zipFile, "other.jar" ) );
+            assertEquals( content( "lib/a.jar" ), read( zipFile, "lib/a.jar" ) );
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+
+    public void testReplacedEntryTimeInUtc()
+        throws Exception
+    {
+        createWar( new String[]{ "index.html" } );
+
+        File index = new File( war.getParentFile(), "index.html" );
+        FileUtils.fileWrite( index.getPath(), "UTF-8", content( "new index.html" ) );
+        // 2013-06-01T23:30:00Z, the day before in the time zones west of UTC
+        index.setLastModified( 1370129400000L );
+
+        ZipRewriter rewriter = new ZipRewriter( war );
+        rewriter.replace( "index.html", index );
+        rewriter.rewrite();
+
+        List<ZipFormat.Entry> entries = new ArrayList<ZipFormat.Entry>();
+        RandomAccessFile raf = new RandomAccessFile( war, "r" );
+        try
+        {
+            ZipFormat.readCentralDirectory( raf, entries );
+        }
+        finally
+        {
+            raf.close();
+        }
+        assertEquals( 1, entries.size() );
+        long dosTime = entries.get( 0 ).dosTime;
+        assertEquals( 2013, ( dosTime >> 25 ) + 1980 );
+        assertEquals( 6, ( dosTime >> 21 ) & 0x0F );
+        assertEquals( 1, ( dosTime >> 16 ) & 0x1F );
+        assertEquals( 23, ( dosTime >> 11 ) & 0x1F );
+        assertEquals( 30, ( dosTime >> 5 ) & 0x3F );
+    }
+
+    /**
+     * Creates the WAR with {@link ZipOutputStream}, which writes the sizes of deflated entries after their data.
+     */
+    private void createWar( String[] names )
+        throws IOException
+    {
+        ZipOutputStream zos = new ZipOutputStream( new FileOutputStream( war ) );
+        try
+        {
+            for ( String name : names )
+            {
+                zos.putNextEntry( new ZipEntry( name ) );
+                if ( !name.endsWith( "/" ) )
+                {
+                    zos.write( content( name ).getBytes( "UTF-8" ) );
+                }
+                zos.closeEntry();
+            }
+        }
+        finally
+        {
+            zos.close();
+        }
+    }
+
+    private static String content( String name )
+    {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0; i < 100; i++ )
+        {
+            sb.append( name ).append( ' ' ).append( i ).append( '\n' );
+        }
+        return sb.toString();
+    }
+
+    private static String read( ZipFile zipFile, String name )
+        throws IOException
+    {
+        InputStream is = zipFile.getInputStream( zipFile.getEntry( name ) );
+        try
+        {
+            return IOUtil.toString( is, "UTF-8" );
+        }
+        finally
+        {
+            is.close();
+        }
+    }
+
+    private static List<String> getNames( ZipFile zipFile )
+    {
+        List<String> names = new ArrayList<String>();
+        for ( Enumeration<? extends ZipEntry> e = zipFile.entries(); e.hasMoreElements(); )
+        {
+            names.add( e.nextElement().getName() );
+        }
+        return names;
+    }
+}
@@ -37,6 +37,7 @@ import java.util.Set;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.handler.ArtifactHandler;
 import org.apache.maven.artifact.manager.WagonManager;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.model.Resource;
@@ -92,6 +93,7 @@ import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
  * @version $Id$
  * @goal eclipse
  * @execute phase="generate-resources"
+ * @threadSafe
  */
 public class EclipsePlugin
     extends AbstractIdeSupportMojo
@@ -484,6 +486,23 @@ public class EclipsePlugin
      */
     private String wtpdefaultserver;
 
+    /**
+     * The file keeping the index of the projects of the eclipse workspace between builds, so that only the projects
+     * which changed in between are read again. The workspace is read only once per build in any case.
+     * 
+     * @parameter expression="${eclipse.workspaceIndexFile}"
+     * @since 2.10
+     */
+    private File workspaceIndexFile;
+
+    /**
+     * The current build session, whose projects share the index of the eclipse workspace.
+     * 
+     * @parameter expression="${session}"
+     * @readonly
+     */
+    private MavenSession session;
+
     private WorkspaceConfiguration workspaceConfiguration;
 
     /**
@@ -1981,13 +2000,12 @@ public class EclipsePlugin
      */
     public String getProjectNameForArifact( Artifact artifact )
     {
-        IdeDependency[] workspaceArtefacts = getWorkspaceArtefacts();
-        for ( int index = 0; workspaceArtefacts != null && index < workspaceArtefacts.length; index++ )
+        IdeDependency[] workspaceArtefacts =
+            getWorkspaceConfiguration().getWorkspaceArtefacts( artifact.getGroupId(), artifact.getArtifactId() );
+        for ( int index = 0; index < workspaceArtefacts.length; index++ )
         {
             IdeDependency workspaceArtefact = workspaceArtefacts[index];
-            if ( workspaceArtefact.isAddedToClasspath()
-                && workspaceArtefact.getGroupId().equals( artifact.getGroupId() )
-                && workspaceArtefact.getArtifactId().equals( artifact.getArtifactId() ) )
+            if ( workspaceArtefact.isAddedToClasspath() )
             {
                 if ( workspaceArtefact.getVersion().equals( artifact.getBaseVersion() ) )
                 {
@@ -2060,7 +2078,9 @@ public class EclipsePlugin
             getLog().info( Messages.getString( "EclipsePlugin.workspace", workspace ) );
             workspaceConfiguration.setWorkspaceDirectory( workspace );
 
-            new ReadWorkspaceLocations().init( getLog(), workspaceConfiguration, project, wtpdefaultserver );
+            new ReadWorkspaceLocations().init( getLog(), workspaceConfiguration, project, wtpdefaultserver,
+                                               session != null ? session.getStartTime() : null,
+                                               workspaceIndexFile );
         }
         return workspaceConfiguration;
     }
@@ -2114,27 +2134,24 @@ public class EclipsePlugin
      */
     private boolean isAvailableAsAWorkspaceProject( Artifact artifact )
     {
-        IdeDependency[] workspaceArtefacts = getWorkspaceArtefacts();
-        for ( int index = 0; workspaceArtefacts != null && index < workspaceArtefacts.length; index++ )
+        IdeDependency[] workspaceArtefacts =
+            getWorkspaceConfiguration().getWorkspaceArtefacts( artifact.getGroupId(), artifact.getArtifactId() );
+        for ( int index = 0; index < workspaceArtefacts.length; index++ )
         {
             IdeDependency workspaceArtefact = workspaceArtefacts[index];
-            if ( workspaceArtefact.getGroupId().equals( artifact.getGroupId() )
-                && workspaceArtefact.getArtifactId().equals( artifact.getArtifactId() ) )
+            if ( workspaceArtefact.getVersion().equals( artifact.getBaseVersion() ) )
             {
-                if ( workspaceArtefact.getVersion().equals( artifact.getBaseVersion() ) )
-                {
-                    workspaceArtefact.setAddedToClasspath( true );
-                    getLog().debug( "Using workspace project: " + workspaceArtefact.getEclipseProjectName() );
-                    return true;
-                }
-                else
-                {
-                    getLog().info(
-                                   "Artifact "
-                                       + artifact.getId()
-                                       + " already available as a workspace project, but with different version. Expected: "
-                                       + artifact.getBaseVersion() + ", found: " + workspaceArtefact.getVersion() );
-                }
+                workspaceArtefact.setAddedToClasspath( true );
+                getLog().debug( "Using workspace project: " + workspaceArtefact.getEclipseProjectName() );
+                return true;
+            }
+            else
+            {
+                getLog().info(
+                               "Artifact "
+                                   + artifact.getId()
+                                   + " already available as a workspace project, but with different version. Expected: "
+                                   + artifact.getBaseVersion() + ", found: " + workspaceArtefact.getVersion() );
             }
         }
         return false;
@@ -20,6 +20,7 @@ import org.apache.maven.plugin.ide.JeeUtils;
  * @goal myeclipse
  * @since 2.5
  * @execute phase="generate-resources"
+ * @threadSafe
  */
 public class MyEclipsePlugin
     extends EclipsePlugin
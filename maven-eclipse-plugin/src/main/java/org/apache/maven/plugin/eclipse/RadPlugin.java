@@ -45,6 +45,7 @@ import org.apache.maven.project.MavenProject;
  * @author jdcasey
  * @goal rad
  * @execute phase="generate-resources"
+ * @threadSafe
  */
 public class RadPlugin
     extends EclipsePlugin
@@ -20,6 +20,7 @@ package org.apache.maven.plugin.eclipse;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -33,7 +34,7 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.ide.IdeUtils;
 
 /**
- * Removes the not-available marker files from the repository.
+ * Removes the not-available marker files and the index of not available attachments from the repository.
  * 
  * @author <a href="mailto:baerrach@apache.org">Barrie Treloar</a>
  * @version $Id$
@@ -60,6 +61,11 @@ public class RemoveCacheMojo
         {
             deleteMarkerFiles( notAvailableMarkerFiles );
         }
+        File notAvailableIndexFile = IdeUtils.getNotAvailableIndexFile( localRepository );
+        if ( notAvailableIndexFile.exists() )
+        {
+            deleteMarkerFiles( Collections.singletonList( notAvailableIndexFile ) );
+        }
         getLog().info( Messages.getString( "RemoveCacheMojo.complete" ) );
     }
 
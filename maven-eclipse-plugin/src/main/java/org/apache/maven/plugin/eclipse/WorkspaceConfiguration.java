@@ -21,6 +21,10 @@ package org.apache.maven.plugin.eclipse;
 
 import java.io.File;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.plugin.ide.IdeDependency;
@@ -39,6 +43,11 @@ public class WorkspaceConfiguration
 
     private IdeDependency[] workspaceArtefacts;
 
+    /**
+     * The workspace artefacts by <code>groupId:artifactId</code>.
+     */
+    private Map/* <String, List<IdeDependency>> */workspaceArtefactsByKey;
+
     private String defaultDeployServerId;
 
     private String defaultDeployServerName;
@@ -101,6 +110,39 @@ public class WorkspaceConfiguration
     public void setWorkspaceArtefacts( IdeDependency[] workspaceArtefacts )
     {
         this.workspaceArtefacts = workspaceArtefacts;
+
+        workspaceArtefactsByKey = new HashMap();
+        for ( int index = 0; workspaceArtefacts != null && index < workspaceArtefacts.length; index++ )
+        {
+            IdeDependency artefact = workspaceArtefacts[index];
+            String key = artefact.getGroupId() + ":" + artefact.getArtifactId();
+            List artefacts = (List) workspaceArtefactsByKey.get( key );
+            if ( artefacts == null )
+            {
+                artefacts = new ArrayList( 1 );
+                workspaceArtefactsByKey.put( key, artefacts );
+            }
+            artefacts.add( artefact );
+        }
+    }
+
+    /**
+     * @param groupId the group id of the artefacts
+     * @param artifactId the artifact id of the artefacts
+     * @return the workspace artefacts with the specified group id and artifact id, whatever their version
+     */
+    public IdeDependency[] getWorkspaceArtefacts( String groupId, String artifactId )
+    {
+        List artefacts = null;
+        if ( workspaceArtefactsByKey != null )
+        {
+            artefacts = (List) workspaceArtefactsByKey.get( groupId + ":" + artifactId );
+        }
+        if ( artefacts == null )
+        {
+            return new IdeDependency[0];
+        }
+        return (IdeDependency[]) artefacts.toArray( new IdeDependency[artefacts.size()] );
     }
 
     public String getDefaultDeployServerId()
@@ -23,7 +23,7 @@ import java.io.StringReader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.MessageFormat;
-import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -89,9 +89,25 @@ public class ReadWorkspaceLocations
 
     public void init( Log log, WorkspaceConfiguration workspaceConfiguration, MavenProject project,
                       String wtpDefaultServer )
+    {
+        init( log, workspaceConfiguration, project, wtpDefaultServer, null, null );
+    }
+
+    /**
+     * @param log the logger to report errors and debug info
+     * @param workspaceConfiguration the configuration to initialize
+     * @param project the maven project the get the configuration
+     * @param wtpDefaultServer the WTP server to use for deployment informations
+     * @param session the start time of the Maven session, the projects of the workspace being only read once per
+     *            session, or <code>null</code>
+     * @param workspaceIndexFile the file persisting the projects of the workspace between sessions, or
+     *            <code>null</code>
+     */
+    public void init( Log log, WorkspaceConfiguration workspaceConfiguration, MavenProject project,
+                      String wtpDefaultServer, Date session, File workspaceIndexFile )
     {
         detectDefaultJREContainer( workspaceConfiguration, project, log );
-        readWorkspace( workspaceConfiguration, log );
+        readWorkspace( workspaceConfiguration, session, workspaceIndexFile, log );
         detectWTPDefaultServer( workspaceConfiguration, wtpDefaultServer, log );
     }
 
@@ -325,7 +341,7 @@ public class ReadWorkspaceLocations
      * @throws XmlPullParserException
      * @throws IOException
      */
-    private IdeDependency readArtefact( File projectLocation, Log logger )
+    /* package */IdeDependency readArtefact( File projectLocation, Log logger )
         throws FileNotFoundException, XmlPullParserException, IOException
     {
         File projectFile = new File( projectLocation, ".project" );
@@ -506,48 +522,25 @@ public class ReadWorkspaceLocations
     }
 
     /**
-     * Scan the eclipse workspace and create a array with {@link IdeDependency} for all found artifacts.
+     * Scan the eclipse workspace and create a array with {@link IdeDependency} for all found artifacts. The workspace
+     * is only scanned once per session and its projects are only read again when they changed.
      * 
-     * @param workspaceLocation the location of the eclipse workspace.
+     * @param workspaceConfiguration the configuration holding the location of the eclipse workspace.
+     * @param session the start time of the Maven session, or <code>null</code>
+     * @param workspaceIndexFile the file persisting the index of the workspace, or <code>null</code>
      * @param logger the logger to report errors and debug info.
      */
-    private void readWorkspace( WorkspaceConfiguration workspaceConfiguration, Log logger )
+    private void readWorkspace( WorkspaceConfiguration workspaceConfiguration, Date session, File workspaceIndexFile,
+                                Log logger )
     {
-        ArrayList dependencies = new ArrayList();
+        IdeDependency[] dependencies = new IdeDependency[0];
         if ( workspaceConfiguration.getWorkspaceDirectory() != null )
         {
-            File workspace =
-                new File( workspaceConfiguration.getWorkspaceDirectory(),
-                          ReadWorkspaceLocations.METADATA_PLUGINS_ORG_ECLIPSE_CORE_RESOURCES_PROJECTS );
-
-            File[] directories = workspace.listFiles();
-            for ( int index = 0; directories != null && index < directories.length; index++ )
-            {
-                File project = directories[index];
-                if ( project.isDirectory() )
-                {
-                    try
-                    {
-                        File projectLocation =
-                            getProjectLocation( workspaceConfiguration.getWorkspaceDirectory(), project );
-                        if ( projectLocation != null )
-                        {
-						    logger.debug( "read workpsace project " + projectLocation );
-                            IdeDependency ideDependency = readArtefact( projectLocation, logger );
-                            if ( ideDependency != null )
-                            {
-                                dependencies.add( ideDependency );
-                            }
-                        }
-                    }
-                    catch ( Exception e )
-                    {
-                        logger.warn( "could not read workspace project:" + project, e );
-                    }
-                }
-            }
+            dependencies =
+                WorkspaceIndex.getIndex( workspaceConfiguration.getWorkspaceDirectory(), session, workspaceIndexFile,
+                                         this, logger ).createWorkspaceArtefacts();
         }
-		logger.debug( dependencies.size() + " from workspace " + workspaceConfiguration.getWorkspaceDirectory() );
-        workspaceConfiguration.setWorkspaceArtefacts( (IdeDependency[]) dependencies.toArray( new IdeDependency[dependencies.size()] ) );
+        logger.debug( dependencies.length + " from workspace " + workspaceConfiguration.getWorkspaceDirectory() );
+        workspaceConfiguration.setWorkspaceArtefacts( dependencies );
     }
 }
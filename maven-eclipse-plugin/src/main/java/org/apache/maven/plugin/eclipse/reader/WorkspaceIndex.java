@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.apache.maven.plugin.eclipse.reader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.apache.maven.plugin.ide.IdeDependency;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * The projects of an eclipse workspace, read once per Maven session and shared by all the modules of the reactor.
+ * <p>
+ * The location, <code>pom.xml</code> and <code>.project</code> of each project are only read again when their
+ * modification time changed. The index can be saved to a file so that the next sessions only read the projects which
+ * changed in between.
+ * </p>
+ *
+ * @version $Id$
+ */
+public class WorkspaceIndex
+{
+    /**
+     * The indexes of the workspaces, by workspace directory.
+     */
+    private static final Map/* <File, WorkspaceIndex> */INDEXES = new HashMap();
+
+    private final File workspace;
+
+    /**
+     * The start time of the session for which the index is up to date.
+     */
+    private Date session;
+
+    /**
+     * The projects of the workspace, by name of their metadata directory.
+     */
+    private Map/* <String, Project> */projects = new TreeMap();
+
+    private WorkspaceIndex( File workspace )
+    {
+        this.workspace = workspace;
+    }
+
+    /**
+     * Returns the index of a workspace, which is only checked for changes once per session.
+     *
+     * @param workspace the location of the eclipse workspace
+     * @param session the start time of the Maven session, or <code>null</code> to check the index for changes
+     * @param indexFile the file persisting the index between sessions, or <code>null</code>
+     * @param reader the reader of the workspace projects
+     * @param logger the logger to report errors and debug info
+     * @return the up to date index
+     */
+    public static WorkspaceIndex getIndex( File workspace, Date session, File indexFile,
+                                           ReadWorkspaceLocations reader, Log logger )
+    {
+        synchronized ( INDEXES )
+        {
+            WorkspaceIndex index = (WorkspaceIndex) INDEXES.get( workspace );
+            if ( index == null )
+            {
+                index = new WorkspaceIndex( workspace );
+                if ( indexFile != null )
+                {
+                    index.load( indexFile, logger );
+                }
+                INDEXES.put( workspace, index );
+            }
+
+            if ( session == null || !session.equals( index.session ) )
+            {
+                if ( index.refresh( reader, logger ) && indexFile != null )
+                {
+                    index.save( indexFile, logger );
+                }
+                index.session = session;
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Creates the workspace artefacts, which belong to the caller: they are marked when they are added to the
+     * classpath of a project.
+     *
+     * @return the artefacts of the workspace projects which have a POM
+     */
+    public IdeDependency[] createWorkspaceArtefacts()
+    {
+        List dependencies = new ArrayList();
+        synchronized ( INDEXES )
+        {
+            for ( Iterator it = projects.values().iterator(); it.hasNext(); )
+            {
+                Project project = (Project) it.next();
+                if ( project.artifactId != null )
+                {
+                    dependencies.add( new IdeDependency( project.groupId, project.artifactId, project.version,
+                                                         project.packaging, true, false, false, false, false, null,
+                                                         project.packaging, false, null, 0, project.name ) );
+                }
+            }
+        }
+        return (IdeDependency[]) dependencies.toArray( new IdeDependency[dependencies.size()] );
+    }
+
+    /**
+     * Reads the projects of the workspace whose files changed since they were indexed.
+     *
+     * @return <code>true</code> if the index changed
+     */
+    private boolean refresh( ReadWorkspaceLocations reader, Log logger )
+    {
+        File metadata = new File( workspace, ReadWorkspaceLocations.METADATA_PLUGINS_ORG_ECLIPSE_CORE_RESOURCES_PROJECTS );
+
+        Map refreshed = new TreeMap();
+        boolean changed = false;
+
+        File[] directories = metadata.listFiles();
+        for ( int index = 0; directories != null && index < directories.length; index++ )
+        {
+            File directory = directories[index];
+            if ( !directory.isDirectory() )
+            {
+                continue;
+            }
+
+            Project cached = (Project) projects.get( directory.getName() );
+            try
+            {
+                Project project = readProject( directory, cached, reader, logger );
+                if ( project != null )
+                {
+                    refreshed.put( directory.getName(), project );
+                    changed |= project != cached;
+                }
+            }
+            catch ( Exception e )
+            {
+                logger.warn( "could not read workspace project:" + directory, e );
+            }
+        }
+
+        changed |= !refreshed.keySet().equals( projects.keySet() );
+        projects = refreshed;
+        logger.debug( projects.size() + " projects indexed in workspace " + workspace );
+        return changed;
+    }
+
+    private Project readProject( File directory, Project cached, ReadWorkspaceLocations reader, Log logger )
+        throws Exception
+    {
+        long locationModified = new File( directory, ReadWorkspaceLocations.BINARY_LOCATION_FILE ).lastModified();
+
+        File location;
+        if ( cached != null && locationModified != 0 && locationModified == cached.locationModified )
+        {
+            location = cached.location;
+        }
+        else
+        {
+            location = reader.getProjectLocation( workspace, directory );
+        }
+        if ( location == null )
+        {
+            return null;
+        }
+
+        long pomModified = new File( location, "pom.xml" ).lastModified();
+        long descriptorModified = new File( location, ".project" ).lastModified();
+        if ( cached != null && location.equals( cached.location ) && locationModified == cached.locationModified
+            && pomModified == cached.pomModified && descriptorModified == cached.descriptorModified )
+        {
+            return cached;
+        }
+
+        logger.debug( "read workspace project " + location );
+        Project project = new Project();
+        project.locationModified = locationModified;
+        project.location = location;
+        project.pomModified = pomModified;
+        project.descriptorModified = descriptorModified;
+
+        IdeDependency dependency = reader.readArtefact( location, logger );
+        if ( dependency != null )
+        {
+            project.groupId = dependency.getGroupId();
+            project.artifactId = dependency.getArtifactId();
+            project.version = dependency.getVersion();
+            project.packaging = dependency.getType();
+            project.name = dependency.getEclipseProjectName();
+        }
+        return project;
+    }
+
+    private void load( File indexFile, Log logger )
+    {
+        if ( !indexFile.isFile() )
+        {
+            return;
+        }
+
+        Properties properties = new Properties();
+        InputStream is = null;
+        try
+        {
+            is = new FileInputStream( indexFile );
+            properties.load( is );
+        }
+        catch ( IOException e )
+        {
+            logger.debug( "ignored unreadable workspace index " + indexFile + ": " + e.getMessage() );
+            return;
+        }
+        finally
+        {
+            IOUtil.close( is );
+        }
+
+        for ( Iterator it = properties.keySet().iterator(); it.hasNext(); )
+        {
+            String key = (String) it.next();
+            if ( !key.endsWith( ".location" ) )
+            {
+                continue;
+            }
+            String prefix = key.substring( 0, key.length() - "location".length() );
+            try
+            {
+                Project project = new Project();
+                project.location = new File( properties.getProperty( key ) );
+                project.locationModified = Long.parseLong( properties.getProperty( prefix + "locationModified" ) );
+                project.pomModified = Long.parseLong( properties.getProperty( prefix + "pomModified" ) );
+                project.descriptorModified = Long.parseLong( properties.getProperty( prefix + "projectModified" ) );
+                project.groupId = properties.getProperty( prefix + "groupId" );
+                project.artifactId = properties.getProperty( prefix + "artifactId" );
+                project.version = properties.getProperty( prefix + "version" );
+                project.packaging = properties.getProperty( prefix + "packaging" );
+                project.name = properties.getProperty( prefix + "name" );
+                projects.put( prefix.substring( 0, prefix.length() - 1 ), project );
+            }
+            catch ( NumberFormatException e )
+            {
+                // the project is read again
+            }
+        }
+    }
+
+    private void save( File indexFile, Log logger )
+    {
+        Properties properties = new Properties();
+        for ( Iterator it = projects.entrySet().iterator(); it.hasNext(); )
+        {
+            Map.Entry entry = (Map.Entry) it.next();
+            String prefix = entry.getKey() + ".";
+            Project project = (Project) entry.getValue();
+            properties.setProperty( prefix + "location", project.location.getPath() );
+            properties.setProperty( prefix + "locationModified", Long.toString( project.locationModified ) );
+            properties.setProperty( prefix + "pomModified", Long.toString( project.pomModified ) );
+            properties.setProperty( prefix + "projectModified", Long.toString( project.descriptorModified ) );
+            setProperty( properties, prefix + "groupId", project.groupId );
+            setProperty( properties, prefix + "artifactId", project.artifactId );
+            setProperty( properties, prefix + "version", project.version );
+            setProperty( properties, prefix + "packaging", project.packaging );
+            setProperty( properties, prefix + "name", project.name );
+        }
+
+        File tmp = null;
+        OutputStream os = null;
+        try
+        {
+            // a file of its own, as another build may save the index of the same workspace at the same time
+            indexFile.getParentFile().mkdirs();
+            tmp = File.createTempFile( indexFile.getName(), ".tmp", indexFile.getParentFile() );
+            os = new FileOutputStream( tmp );
+            properties.store( os, "Projects of the eclipse workspace " + workspace );
+            os.close();
+            if ( !( tmp.renameTo( indexFile ) || ( indexFile.delete() && tmp.renameTo( indexFile ) ) ) )
+            {
+                throw new IOException( "Unable to replace " + indexFile );
+            }
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "could not save the workspace index " + indexFile + ": " + e.getMessage() );
+        }
+        finally
+        {
+            IOUtil.close( os );
+            if ( tmp != null )
+            {
+                tmp.delete();
+            }
+        }
+    }
+
+    private static void setProperty( Properties properties, String key, String value )
+    {
+        if ( value != null )
+        {
+            properties.setProperty( key, value );
+        }
+    }
+
+    /**
+     * A project of the workspace, with the modification times of the files it was read from.
+     */
+    private static class Project
+    {
+        private long locationModified;
+
+        private File location;
+
+        private long pomModified;
+
+        private long descriptorModified;
+
+        private String groupId;
+
+        private String artifactId;
+
+        private String version;
+
+        private String packaging;
+
+        private String name;
+    }
+}
@@ -19,7 +19,6 @@
 package org.apache.maven.plugin.eclipse.writers;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -38,6 +37,7 @@ import org.apache.maven.plugin.eclipse.EclipseSourceDir;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.ide.IdeDependency;
 import org.apache.maven.plugin.ide.IdeUtils;
+import org.apache.maven.plugin.ide.CachingOutputStream;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
@@ -164,8 +164,8 @@ public class EclipseClasspathWriter
         try
         {
             w =
-                new OutputStreamWriter( new FileOutputStream( new File( config.getEclipseProjectDirectory(),
-                                                                        FILE_DOT_CLASSPATH ) ), "UTF-8" );
+                new OutputStreamWriter( new CachingOutputStream( new File( config.getEclipseProjectDirectory(),
+                                                                           FILE_DOT_CLASSPATH ) ), "UTF-8" );
         }
         catch ( IOException ex )
         {
@@ -270,8 +270,8 @@ public class EclipseClasspathWriter
             try
             {
                 Writer buildXmlWriter =
-                    new OutputStreamWriter( new FileOutputStream( new File( config.getEclipseProjectDirectory(),
-                                                                            "maven-eclipse.xml" ) ), "UTF-8" );
+                    new OutputStreamWriter( new CachingOutputStream( new File( config.getEclipseProjectDirectory(),
+                                                                               "maven-eclipse.xml" ) ), "UTF-8" );
                 PrettyPrintXMLWriter buildXmlPrinter = new PrettyPrintXMLWriter( buildXmlWriter );
 
                 buildXmlPrinter.startElement( "project" );
@@ -19,7 +19,6 @@
 package org.apache.maven.plugin.eclipse.writers;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -30,6 +29,7 @@ import java.util.List;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.ide.CachingOutputStream;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
@@ -78,7 +78,7 @@ public abstract class EclipseLaunchConfigurationWriter
             {
                 throw new MojoExecutionException( "Error creating directory " + extToolsDir );
             }
-            w = new OutputStreamWriter( new FileOutputStream( new File( extToolsDir, filename ) ), "UTF-8" );
+            w = new OutputStreamWriter( new CachingOutputStream( new File( extToolsDir, filename ) ), "UTF-8" );
         }
         catch ( IOException ex )
         {
@@ -22,7 +22,6 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
@@ -31,6 +30,7 @@ import java.io.Writer;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.ide.IdeDependency;
+import org.apache.maven.plugin.ide.CachingOutputStream;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 
@@ -95,7 +95,7 @@ public class EclipseOSGiManifestWriter
         Writer out = null;
         try
         {
-            out = new OutputStreamWriter( new FileOutputStream( config.getOSGIManifestFile() ), "UTF-8" );
+            out = new OutputStreamWriter( new CachingOutputStream( config.getOSGIManifestFile() ), "UTF-8" );
             out.write( manifestSb.toString() );
         }
         catch ( FileNotFoundException e )
@@ -20,7 +20,6 @@ package org.apache.maven.plugin.eclipse.writers;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
@@ -39,6 +38,7 @@ import org.apache.maven.plugin.eclipse.LinkedResource;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.ide.IdeDependency;
 import org.apache.maven.plugin.ide.IdeUtils;
+import org.apache.maven.plugin.ide.CachingOutputStream;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
@@ -191,7 +191,7 @@ public class EclipseProjectWriter
 
         try
         {
-            w = new OutputStreamWriter( new FileOutputStream( dotProject ), "UTF-8" );
+            w = new OutputStreamWriter( new CachingOutputStream( dotProject ), "UTF-8" );
         }
         catch ( IOException ex )
         {
@@ -39,7 +39,7 @@ public class MyEclipseStrutsDataWriter
 
     private static final String MYECLIPSE_STRUTS_SERVLET_DEFAULT_NAME = "action";
 
-    private static Map strutsPatterns;
+    private Map strutsPatterns;
 
     private Map strutsProps;
 
@@ -21,7 +21,6 @@ package org.apache.maven.plugin.eclipse.writers.rad;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
@@ -38,6 +37,7 @@ import org.apache.maven.plugin.eclipse.writers.wtp.AbstractWtpResourceWriter;
 import org.apache.maven.plugin.ide.IdeDependency;
 import org.apache.maven.plugin.ide.IdeUtils;
 import org.apache.maven.plugin.ide.JeeUtils;
+import org.apache.maven.plugin.ide.CachingOutputStream;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
@@ -531,7 +531,7 @@ public class RadApplicationXMLWriter
         xmlFile.getParentFile().mkdirs();
         try
         {
-            w = new OutputStreamWriter( new FileOutputStream( xmlFile ), "UTF-8" );
+            w = new OutputStreamWriter( new CachingOutputStream( xmlFile ), "UTF-8" );
         }
         catch ( IOException ex )
         {
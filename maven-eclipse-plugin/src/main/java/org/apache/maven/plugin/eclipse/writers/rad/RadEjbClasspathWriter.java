@@ -21,7 +21,6 @@ package org.apache.maven.plugin.eclipse.writers.rad;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
@@ -37,6 +36,7 @@ import org.apache.maven.plugin.eclipse.EclipseSourceDir;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.eclipse.writers.AbstractEclipseWriter;
 import org.apache.maven.plugin.eclipse.writers.wtp.AbstractWtpResourceWriter;
+import org.apache.maven.plugin.ide.CachingOutputStream;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
@@ -137,7 +137,7 @@ public class RadEjbClasspathWriter
             Writer w;
             try
             {
-                w = new OutputStreamWriter( new FileOutputStream( classpathFile ), "UTF-8" );
+                w = new OutputStreamWriter( new CachingOutputStream( classpathFile ), "UTF-8" );
             }
             catch ( IOException ex )
             {
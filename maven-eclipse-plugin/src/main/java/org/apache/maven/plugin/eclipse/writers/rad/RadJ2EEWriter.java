@@ -19,7 +19,6 @@
 package org.apache.maven.plugin.eclipse.writers.rad;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -32,6 +31,7 @@ import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.eclipse.writers.AbstractEclipseWriter;
 import org.apache.maven.plugin.eclipse.writers.wtp.AbstractWtpResourceWriter;
 import org.apache.maven.plugin.ide.JeeUtils;
+import org.apache.maven.plugin.ide.CachingOutputStream;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
@@ -76,8 +76,8 @@ public class RadJ2EEWriter
             try
             {
                 w =
-                    new OutputStreamWriter( new FileOutputStream( new File( config.getEclipseProjectDirectory(),
-                                                                            J2EE_FILENAME ) ), "UTF-8" );
+                    new OutputStreamWriter( new CachingOutputStream( new File( config.getEclipseProjectDirectory(),
+                                                                               J2EE_FILENAME ) ), "UTF-8" );
             }
             catch ( IOException ex )
             {
@@ -19,7 +19,6 @@
 package org.apache.maven.plugin.eclipse.writers.rad;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -31,6 +30,7 @@ import org.apache.maven.plugin.eclipse.writers.AbstractEclipseWriter;
 import org.apache.maven.plugin.ide.IdeDependency;
 import org.apache.maven.plugin.ide.IdeUtils;
 import org.apache.maven.plugin.ide.JeeUtils;
+import org.apache.maven.plugin.ide.CachingOutputStream;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
@@ -106,8 +106,8 @@ public class RadWebSettingsWriter
             try
             {
                 w =
-                    new OutputStreamWriter( new FileOutputStream( new File( config.getEclipseProjectDirectory(),
-                                                                            WEBSETTINGS_FILENAME ) ), "UTF-8" );
+                    new OutputStreamWriter( new CachingOutputStream( new File( config.getEclipseProjectDirectory(),
+                                                                               WEBSETTINGS_FILENAME ) ), "UTF-8" );
             }
             catch ( IOException ex )
             {
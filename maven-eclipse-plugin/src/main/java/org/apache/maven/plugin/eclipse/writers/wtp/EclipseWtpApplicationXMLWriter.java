@@ -3,7 +3,6 @@ package org.apache.maven.plugin.eclipse.writers.wtp;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
@@ -17,6 +16,7 @@ import org.apache.maven.plugin.eclipse.EclipseSourceDir;
 import org.apache.maven.plugin.ide.IdeDependency;
 import org.apache.maven.plugin.ide.IdeUtils;
 import org.apache.maven.plugin.ide.JeeUtils;
+import org.apache.maven.plugin.ide.CachingOutputStream;
 import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
@@ -614,7 +614,7 @@ public class EclipseWtpApplicationXMLWriter
         xmlFile.getParentFile().mkdirs();
         try
         {
-            w = new OutputStreamWriter( new FileOutputStream( xmlFile ), "UTF-8" );
+            w = new OutputStreamWriter( new CachingOutputStream( xmlFile ), "UTF-8" );
         }
         catch ( IOException ex )
         {
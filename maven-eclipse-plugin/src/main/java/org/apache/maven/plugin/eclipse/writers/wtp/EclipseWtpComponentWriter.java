@@ -19,7 +19,6 @@
 package org.apache.maven.plugin.eclipse.writers.wtp;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -31,6 +30,7 @@ import org.apache.maven.plugin.eclipse.EclipseSourceDir;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.ide.IdeUtils;
 import org.apache.maven.plugin.ide.JeeUtils;
+import org.apache.maven.plugin.ide.CachingOutputStream;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
@@ -92,7 +92,7 @@ public class EclipseWtpComponentWriter
         try
         {
             w =
-                new OutputStreamWriter( new FileOutputStream( new File( settingsDir, getComponentFileName() ) ),
+                new OutputStreamWriter( new CachingOutputStream( new File( settingsDir, getComponentFileName() ) ),
                                         "UTF-8" );
         }
         catch ( IOException ex )
@@ -19,7 +19,6 @@
 package org.apache.maven.plugin.eclipse.writers.wtp;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -31,6 +30,7 @@ import org.apache.maven.plugin.eclipse.Constants;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.ide.IdeUtils;
 import org.apache.maven.plugin.ide.JeeUtils;
+import org.apache.maven.plugin.ide.CachingOutputStream;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
@@ -98,7 +98,9 @@ public class EclipseWtpFacetsWriter
         // Write out facet core xml
         try
         {
-            w = new OutputStreamWriter( new FileOutputStream( new File( settingsDir, FILE_FACET_CORE_XML ) ), "UTF-8" );
+            w =
+                new OutputStreamWriter( new CachingOutputStream( new File( settingsDir, FILE_FACET_CORE_XML ) ),
+                                        "UTF-8" );
         }
         catch ( IOException ex )
         {
@@ -19,7 +19,6 @@
 package org.apache.maven.plugin.eclipse.writers.wtp;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -30,6 +29,7 @@ import org.apache.maven.plugin.eclipse.EclipseSourceDir;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.ide.IdeUtils;
 import org.apache.maven.plugin.ide.JeeUtils;
+import org.apache.maven.plugin.ide.CachingOutputStream;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.PrettyPrintXMLWriter;
 import org.codehaus.plexus.util.xml.XMLWriter;
@@ -57,8 +57,8 @@ public class EclipseWtpmodulesWriter
         try
         {
             w =
-                new OutputStreamWriter( new FileOutputStream( new File( config.getEclipseProjectDirectory(),
-                                                                        FILE_DOT_WTPMODULES ) ), "UTF-8" );
+                new OutputStreamWriter( new CachingOutputStream( new File( config.getEclipseProjectDirectory(),
+                                                                           FILE_DOT_WTPMODULES ) ), "UTF-8" );
         }
         catch ( IOException ex )
         {
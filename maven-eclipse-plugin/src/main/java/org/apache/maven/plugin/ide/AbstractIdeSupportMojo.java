@@ -29,6 +29,11 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -215,6 +220,25 @@ public abstract class AbstractIdeSupportMojo
      */
     protected boolean forceRecheck;
 
+    /**
+     * The number of hours during which a source or javadoc attachment which was not found in the remote repositories
+     * is not looked up again. With a value of <code>0</code> or less it is not looked up again until
+     * <code>mvn eclipse:remove-cache</code> is run or the <code>forceRecheck</code> option is used.
+     * 
+     * @parameter expression="${notAvailableCacheHours}" default-value="24"
+     * @since 2.10
+     */
+    protected int notAvailableCacheHours = 24;
+
+    /**
+     * The number of threads looking up source and javadoc attachments at the same time. A single thread is used with
+     * Maven 2, whose artifact resolver is not thread safe.
+     * 
+     * @parameter expression="${resolutionThreads}" default-value="5"
+     * @since 2.10
+     */
+    protected int resolutionThreads = 5;
+
     /**
      * Plexus logger needed for debugging manual artifact resolution.
      */
@@ -909,128 +933,185 @@ public abstract class AbstractIdeSupportMojo
      * Resolve source artifacts and download them if <code>downloadSources</code> is <code>true</code>. Source and
      * javadocs artifacts will be attached to the <code>IdeDependency</code> Resolve source and javadoc artifacts. The
      * resolved artifacts will be downloaded based on the <code>downloadSources</code> and <code>downloadJavadocs</code>
-     * attributes. Source and
+     * attributes. The attachments of several dependencies are looked up at the same time.
      * 
      * @param deps resolved dependencies
+     * @throws MojoExecutionException if the resolution was interrupted
      */
     private void resolveSourceAndJavadocArtifacts( IdeDependency[] deps )
+        throws MojoExecutionException
     {
-        final List missingSources = resolveDependenciesWithClassifier( deps, "sources", getDownloadSources() );
-        missingSourceDependencies.addAll( missingSources );
+        final NotAvailableIndex index =
+            new NotAvailableIndex( IdeUtils.getNotAvailableIndexFile( localRepository ),
+                                   notAvailableCacheHours * 60L * 60L * 1000L );
 
-        final List missingJavadocs = resolveDependenciesWithClassifier( deps, "javadoc", getDownloadJavadocs() );
-        missingJavadocDependencies.addAll( missingJavadocs );
+        int threads = isMavenVersion( "[3.0,)" ) ? Math.max( 1, resolutionThreads ) : 1;
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List dependencies = new ArrayList();
+            List futures = new ArrayList();
+            for ( int j = 0; j < deps.length; j++ )
+            {
+                final IdeDependency dependency = deps[j];
+
+                if ( dependency.isReferencedProject() || dependency.isSystemScoped() )
+                {
+                    // artifact not needed
+                    continue;
+                }
+
+                dependencies.add( dependency );
+                futures.add( executor.submit( new Callable()
+                {
+                    public Object call()
+                    {
+                        return resolveAttachments( dependency, index );
+                    }
+                } ) );
+            }
+
+            // report the missing attachments in the order of the dependencies
+            for ( int j = 0; j < futures.size(); j++ )
+            {
+                Boolean[] attached = (Boolean[]) ( (Future) futures.get( j ) ).get();
+                if ( Boolean.FALSE.equals( attached[0] ) )
+                {
+                    missingSourceDependencies.add( dependencies.get( j ) );
+                }
+                if ( Boolean.FALSE.equals( attached[1] ) )
+                {
+                    missingJavadocDependencies.add( dependencies.get( j ) );
+                }
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            throw new MojoExecutionException( e.getMessage(), e );
+        }
+        catch ( ExecutionException e )
+        {
+            throw new MojoExecutionException( e.getCause().getMessage(), e.getCause() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        try
+        {
+            index.save();
+        }
+        catch ( IOException e )
+        {
+            getLog().warn( Messages.getString( "AbstractIdeSupportMojo.failedtosavenotavailableindex",
+                                               new Object[] { IdeUtils.getNotAvailableIndexFile( localRepository ),
+                                                   e.getMessage() } ) );
+        }
     }
 
     /**
-     * Resolve the required artifacts for each of the dependency. <code>sources</code> or <code>javadoc</code> artifacts
-     * (depending on the <code>classifier</code>) are attached to the dependency.
+     * Resolve the <code>sources</code> and <code>javadoc</code> artifacts of a dependency and attach them to it.
      * 
-     * @param deps resolved dependencies
-     * @param inClassifier the classifier we are looking for (either <code>sources</code> or <code>javadoc</code>)
-     * @param includeRemoteRepositories flag whether we should search remote repositories for the artifacts or not
-     * @return the list of dependencies for which the required artifact was not found
+     * @param dependency the resolved dependency
+     * @param index the attachments known not to be available
+     * @return for the <code>sources</code> then the <code>javadoc</code> artifact, <code>true</code> if it was
+     *         attached, <code>false</code> if it is missing or <code>null</code> if it was not looked up
      */
-    private List resolveDependenciesWithClassifier( IdeDependency[] deps, String inClassifier,
-                                                    boolean includeRemoteRepositories )
+    private Boolean[] resolveAttachments( IdeDependency dependency, NotAvailableIndex index )
     {
-        List missingClassifierDependencies = new ArrayList();
-
         // if downloadSources is off, just check
         // local repository for reporting missing source jars
+        boolean includeRemoteRepositories = getDownloadSources() || getDownloadJavadocs();
         List remoteRepos = includeRemoteRepositories ? getRemoteArtifactRepositories() : Collections.EMPTY_LIST;
 
-        for ( int j = 0; j < deps.length; j++ )
+        Artifact baseArtifact =
+            artifactFactory.createArtifactWithClassifier( dependency.getGroupId(), dependency.getArtifactId(),
+                                                          dependency.getVersion(), dependency.getType(),
+                                                          dependency.getClassifier() );
+        baseArtifact = IdeUtils.resolveArtifact( artifactResolver, baseArtifact, remoteRepos, localRepository, getLog() );
+        if ( !baseArtifact.isResolved() )
         {
-            IdeDependency dependency = deps[j];
+            // base artifact does not exist - no point checking for javadoc/sources
+            return new Boolean[2];
+        }
 
-            if ( dependency.isReferencedProject() || dependency.isSystemScoped() )
-            {
-                // artifact not needed
-                continue;
-            }
+        return new Boolean[] { resolveDependencyWithClassifier( dependency, "sources", getDownloadSources(), index ),
+            resolveDependencyWithClassifier( dependency, "javadoc", getDownloadJavadocs(), index ) };
+    }
 
-            if ( getLog().isDebugEnabled() )
-            {
-                getLog().debug(
-                                "Searching for sources for " + dependency.getId() + ":" + dependency.getClassifier()
-                                    + " at " + dependency.getId() + ":" + inClassifier );
-            }
+    /**
+     * Resolve the required artifact for the dependency. The <code>sources</code> or <code>javadoc</code> artifact
+     * (depending on the <code>classifier</code>) is attached to the dependency.
+     * 
+     * @param dependency the resolved dependency
+     * @param inClassifier the classifier we are looking for (either <code>sources</code> or <code>javadoc</code>)
+     * @param includeRemoteRepositories flag whether we should search remote repositories for the artifacts or not
+     * @param index the attachments known not to be available
+     * @return <code>true</code> if the artifact was attached, <code>false</code> if it is missing or
+     *         <code>null</code> if it is known not to be available
+     */
+    private Boolean resolveDependencyWithClassifier( IdeDependency dependency, String inClassifier,
+                                                     boolean includeRemoteRepositories, NotAvailableIndex index )
+    {
+        List remoteRepos = includeRemoteRepositories ? getRemoteArtifactRepositories() : Collections.EMPTY_LIST;
+
+        if ( getLog().isDebugEnabled() )
+        {
+            getLog().debug(
+                            "Searching for sources for " + dependency.getId() + ":" + dependency.getClassifier()
+                                + " at " + dependency.getId() + ":" + inClassifier );
+        }
+
+        Artifact artifact =
+            IdeUtils.createArtifactWithClassifier( dependency.getGroupId(), dependency.getArtifactId(),
+                                                   dependency.getVersion(), dependency.getClassifier(),
+                                                   inClassifier, artifactFactory );
+        String id = artifact.getId();
 
-            Artifact baseArtifact =
-                artifactFactory.createArtifactWithClassifier( dependency.getGroupId(), dependency.getArtifactId(),
-                                                              dependency.getVersion(), dependency.getType(),
-                                                              dependency.getClassifier() );
-            baseArtifact =
-                IdeUtils.resolveArtifact( artifactResolver, baseArtifact, remoteRepos, localRepository, getLog() );
-            if ( !baseArtifact.isResolved() )
+        // the marker files of previous versions are moved to the index
+        File notAvailableMarkerFile = IdeUtils.getNotAvailableMarkerFile( localRepository, artifact );
+        if ( notAvailableMarkerFile.exists() )
+        {
+            index.setNotAvailable( id, notAvailableMarkerFile.lastModified() );
+            if ( !notAvailableMarkerFile.delete() )
             {
-                // base artifact does not exist - no point checking for javadoc/sources
-                continue;
+                getLog().warn(
+                               Messages.getString( "AbstractIdeSupportMojo.unabletodeletenotavailablemarkerfile",
+                                                   notAvailableMarkerFile ) );
             }
+        }
 
-            Artifact artifact =
-                IdeUtils.createArtifactWithClassifier( dependency.getGroupId(), dependency.getArtifactId(),
-                                                       dependency.getVersion(), dependency.getClassifier(),
-                                                       inClassifier, artifactFactory );
-            File notAvailableMarkerFile = IdeUtils.getNotAvailableMarkerFile( localRepository, artifact );
+        if ( forceRecheck )
+        {
+            index.remove( id );
+        }
+
+        if ( index.isNotAvailable( id ) )
+        {
+            return null;
+        }
 
-            if ( forceRecheck && notAvailableMarkerFile.exists() )
+        artifact = IdeUtils.resolveArtifact( artifactResolver, artifact, remoteRepos, localRepository, getLog() );
+        if ( artifact.isResolved() )
+        {
+            if ( "sources".equals( inClassifier ) )
             {
-                if ( !notAvailableMarkerFile.delete() )
-                {
-                    getLog().warn(
-                                   Messages.getString( "AbstractIdeSupportMojo.unabletodeletenotavailablemarkerfile",
-                                                       notAvailableMarkerFile ) );
-                }
+                dependency.setSourceAttachment( artifact.getFile() );
             }
-
-            if ( !notAvailableMarkerFile.exists() )
+            else if ( "javadoc".equals( inClassifier ) )
             {
-                artifact =
-                    IdeUtils.resolveArtifact( artifactResolver, artifact, remoteRepos, localRepository, getLog() );
-                if ( artifact.isResolved() )
-                {
-                    if ( "sources".equals( inClassifier ) )
-                    {
-                        dependency.setSourceAttachment( artifact.getFile() );
-                    }
-                    else if ( "javadoc".equals( inClassifier ) )
-                    {
-                        dependency.setJavadocAttachment( artifact.getFile() );
-                    }
-                }
-                else
-                {
-                    if ( includeRemoteRepositories )
-                    {
-                        try
-                        {
-                            notAvailableMarkerFile.createNewFile();
-                            getLog().debug(
-                                            Messages.getString( "AbstractIdeSupportMojo.creatednotavailablemarkerfile",
-                                                                notAvailableMarkerFile ) );
-                        }
-                        catch ( IOException e )
-                        {
-                            getLog().warn(
-                                           Messages.getString(
-                                                               "AbstractIdeSupportMojo.failedtocreatenotavailablemarkerfile",
-                                                               notAvailableMarkerFile ) );
-                        }
-                    }
-                    // add the dependencies to the list
-                    // of those lacking the required
-                    // artifact
-                    missingClassifierDependencies.add( dependency );
-                }
+                dependency.setJavadocAttachment( artifact.getFile() );
             }
+            return Boolean.TRUE;
         }
 
-        // return the list of dependencies missing the
-        // required artifact
-        return missingClassifierDependencies;
-
+        if ( includeRemoteRepositories )
+        {
+            index.setNotAvailable( id, System.currentTimeMillis() );
+            getLog().debug( Messages.getString( "AbstractIdeSupportMojo.recordednotavailable", id ) );
+        }
+        return Boolean.FALSE;
     }
 
     /**
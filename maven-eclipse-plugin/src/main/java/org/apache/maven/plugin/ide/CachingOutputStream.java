@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.ide;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+/**
+ * An output stream rendering a file in memory, which is only written when the stream is closed and its content differs
+ * from the existing file. An IDE does not see unchanged descriptors as modified, so regenerating them does not trigger
+ * a rebuild of the project.
+ *
+ * @author Apache Maven team
+ * @version $Id$
+ * @since 2.10
+ */
+public class CachingOutputStream
+    extends ByteArrayOutputStream
+{
+    private final File file;
+
+    private boolean closed;
+
+    /**
+     * Opens the file for writing without changing it, so that a file which can not be written fails here as with a
+     * {@link FileOutputStream}, rather than when the stream is closed, which writers usually do quietly.
+     *
+     * @param file the file to write
+     * @throws IOException if the file can not be opened for writing
+     */
+    public CachingOutputStream( File file )
+        throws IOException
+    {
+        this.file = file;
+        new RandomAccessFile( file, "rw" ).close();
+    }
+
+    /**
+     * Writes the file if its content changed. Closing the stream again has no effect.
+     *
+     * @throws IOException if the file could not be written
+     */
+    public void close()
+        throws IOException
+    {
+        if ( closed )
+        {
+            return;
+        }
+        closed = true;
+
+        if ( isUnchanged() )
+        {
+            return;
+        }
+
+        OutputStream os = new FileOutputStream( file );
+        try
+        {
+            writeTo( os );
+        }
+        finally
+        {
+            os.close();
+        }
+    }
+
+    private boolean isUnchanged()
+    {
+        if ( !file.isFile() || file.length() != count )
+        {
+            return false;
+        }
+
+        byte[] existing = new byte[count];
+        try
+        {
+            InputStream is = new FileInputStream( file );
+            try
+            {
+                int offset = 0;
+                while ( offset < count )
+                {
+                    int read = is.read( existing, offset, count - offset );
+                    if ( read < 0 )
+                    {
+                        return false;
+                    }
+                    offset += read;
+                }
+            }
+            finally
+            {
+                is.close();
+            }
+        }
+        catch ( IOException e )
+        {
+            // the file is written again
+            return false;
+        }
+        return Arrays.equals( existing, toByteArray() );
+    }
+}
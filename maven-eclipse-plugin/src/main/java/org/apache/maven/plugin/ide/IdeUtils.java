@@ -95,6 +95,12 @@ public class IdeUtils
      */
     public static final String NOT_AVAILABLE_MARKER_FILE_SUFFIX = "-not-available";
 
+    /**
+     * The index of the source and javadoc attachments not available in the remote repositories, relative to the local
+     * repository.
+     */
+    public static final String NOT_AVAILABLE_INDEX_FILE = ".cache/maven-eclipse-plugin/not-available.properties";
+
     /**
      * Delete a file, handling log messages and exceptions
      *
@@ -463,6 +469,15 @@ public class IdeUtils
             + NOT_AVAILABLE_MARKER_FILE_SUFFIX );
     }
 
+    /**
+     * @param localRepository the local repository
+     * @return the index of the source and javadoc attachments not available in the remote repositories
+     */
+    public static File getNotAvailableIndexFile( ArtifactRepository localRepository )
+    {
+        return new File( localRepository.getBasedir(), NOT_AVAILABLE_INDEX_FILE );
+    }
+
     /**
      * Wrapper around {@link ArtifactResolver#resolve(Artifact, List, ArtifactRepository)}
      *
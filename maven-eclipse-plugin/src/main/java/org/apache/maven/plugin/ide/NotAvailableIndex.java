@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.ide;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Remembers the source and javadoc attachments which could not be found in the remote repositories, so that they are
+ * not looked up again on every build. The whole local repository shares a single index file, mapping the id of each
+ * missing artifact to the time it was last looked up; the entries older than the time to live are ignored and dropped.
+ * <p>
+ * The index is safe to use from several threads. Changes are merged with the index file when it is saved, so that
+ * several builds sharing the local repository do not lose each other's entries.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.10
+ */
+public class NotAvailableIndex
+{
+    /**
+     * Serializes the saving of the index files by the builds of a reactor.
+     */
+    private static final Object LOCK = new Object();
+
+    private final File file;
+
+    private final long timeToLive;
+
+    private final Map/* <String, Long> */entries = new HashMap();
+
+    private final Map/* <String, Long> */added = new HashMap();
+
+    private final Set/* <String> */removed = new HashSet();
+
+    /**
+     * @param file the index file
+     * @param timeToLive the time in milliseconds during which a missing artifact is not looked up again, any value of
+     *            <code>0</code> or less meaning forever
+     */
+    public NotAvailableIndex( File file, long timeToLive )
+    {
+        this.file = file;
+        this.timeToLive = timeToLive;
+        synchronized ( LOCK )
+        {
+            read( entries );
+        }
+    }
+
+    /**
+     * @param id the id of the artifact
+     * @return <code>true</code> if the artifact was looked up without success less than the time to live ago
+     */
+    public synchronized boolean isNotAvailable( String id )
+    {
+        Long time = (Long) entries.get( id );
+        return time != null && !isExpired( time.longValue(), System.currentTimeMillis() );
+    }
+
+    /**
+     * Records that an artifact could not be found.
+     *
+     * @param id the id of the artifact
+     * @param time the time of the lookup
+     */
+    public synchronized void setNotAvailable( String id, long time )
+    {
+        Long value = new Long( time );
+        entries.put( id, value );
+        added.put( id, value );
+        removed.remove( id );
+    }
+
+    /**
+     * Forgets that an artifact could not be found, so that it is looked up again.
+     *
+     * @param id the id of the artifact
+     */
+    public synchronized void remove( String id )
+    {
+        if ( entries.remove( id ) != null )
+        {
+            removed.add( id );
+        }
+        added.remove( id );
+    }
+
+    /**
+     * Saves the changes to the index file, if any. The expired entries are dropped.
+     *
+     * @throws IOException if the index file could not be written
+     */
+    public synchronized void save()
+        throws IOException
+    {
+        if ( added.isEmpty() && removed.isEmpty() )
+        {
+            return;
+        }
+
+        synchronized ( LOCK )
+        {
+            Map current = new HashMap();
+            read( current );
+            current.keySet().removeAll( removed );
+            current.putAll( added );
+
+            Properties properties = new Properties();
+            long now = System.currentTimeMillis();
+            for ( Iterator it = current.entrySet().iterator(); it.hasNext(); )
+            {
+                Map.Entry entry = (Map.Entry) it.next();
+                long time = ( (Long) entry.getValue() ).longValue();
+                if ( !isExpired( time, now ) )
+                {
+                    properties.setProperty( (String) entry.getKey(), Long.toString( time ) );
+                }
+            }
+
+            file.getParentFile().mkdirs();
+            // a file of its own, as other builds may save the index at the same time
+            File tmp = File.createTempFile( file.getName(), ".tmp", file.getParentFile() );
+            try
+            {
+                OutputStream os = new FileOutputStream( tmp );
+                try
+                {
+                    properties.store( os, "Source and javadoc attachments not available in the remote repositories" );
+                }
+                finally
+                {
+                    IOUtil.close( os );
+                }
+                if ( !( tmp.renameTo( file ) || ( file.delete() && tmp.renameTo( file ) ) ) )
+                {
+                    throw new IOException( "Unable to replace " + file );
+                }
+            }
+            finally
+            {
+                tmp.delete();
+            }
+        }
+
+        added.clear();
+        removed.clear();
+    }
+
+    private boolean isExpired( long time, long now )
+    {
+        return timeToLive > 0 && now - time >= timeToLive;
+    }
+
+    /**
+     * Reads the index file, ignoring it if it is missing or cannot be read.
+     */
+    private void read( Map/* <String, Long> */target )
+    {
+        if ( !file.isFile() )
+        {
+            return;
+        }
+
+        Properties properties = new Properties();
+        InputStream is = null;
+        try
+        {
+            is = new FileInputStream( file );
+            properties.load( is );
+        }
+        catch ( IOException e )
+        {
+            // start with an empty index, the missing artifacts will be looked up again
+            return;
+        }
+        finally
+        {
+            IOUtil.close( is );
+        }
+
+        for ( Iterator it = properties.entrySet().iterator(); it.hasNext(); )
+        {
+            Map.Entry entry = (Map.Entry) it.next();
+            try
+            {
+                target.put( entry.getKey(), Long.valueOf( (String) entry.getValue() ) );
+            }
+            catch ( NumberFormatException e )
+            {
+                // ignore the entry
+            }
+        }
+    }
+}
@@ -48,6 +48,7 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.eclipse.ExecutionFailedException;
 import org.apache.maven.plugin.eclipse.Messages;
 import org.apache.maven.plugin.ide.IdeUtils;
+import org.apache.maven.plugin.ide.NotAvailableIndex;
 import org.apache.maven.plugin.testing.AbstractMojoTestCase;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.invoker.InvocationRequest;
@@ -916,7 +917,8 @@ public abstract class AbstractEclipsePluginIT
     }
 
     /**
-     * Return the not available marker file for the specified artifact details.
+     * Return the not available marker file for the specified artifact details, as created by previous versions of the
+     * plugin.
      *
      * @param groupId group id of artifact
      * @param artifactId artifact id of artifact
@@ -931,12 +933,43 @@ public abstract class AbstractEclipsePluginIT
                                               String inClassifier )
         throws Exception
     {
-        // HACK: START
-        // TODO: Work out how to use Plexus to obtain these values
+        Artifact artifact = createArtifactWithClassifier( groupId, artifactId, version, classifier, inClassifier );
+        return IdeUtils.getNotAvailableMarkerFile( getLocalRepository(), artifact );
+    }
+
+    /**
+     * Tells whether the specified artifact is recorded as not available in the index of the local repository.
+     *
+     * @param groupId group id of artifact
+     * @param artifactId artifact id of artifact
+     * @param version version of artifact
+     * @param classifier the classifier of the artifact
+     * @param inClassifier the sources/javadocs to be attached
+     * @return <code>true</code> if the artifact is recorded as not available
+     * @throws Exception failures.
+     */
+    protected boolean isRecordedNotAvailable( String groupId, String artifactId, String version, String classifier,
+                                              String inClassifier )
+        throws Exception
+    {
+        Artifact artifact = createArtifactWithClassifier( groupId, artifactId, version, classifier, inClassifier );
+        NotAvailableIndex index = new NotAvailableIndex( IdeUtils.getNotAvailableIndexFile( getLocalRepository() ), 0 );
+        return index.isNotAvailable( artifact.getId() );
+    }
+
+    private ArtifactRepository getLocalRepository()
+    {
+        // TODO: Work out how to use Plexus to obtain this value
         String url = "file://" + localRepositoryDirectory;
-        ArtifactRepository localRepository =
-            new DefaultArtifactRepository( "local", url, new DefaultRepositoryLayout() );
+        return new DefaultArtifactRepository( "local", url, new DefaultRepositoryLayout() );
+    }
 
+    private Artifact createArtifactWithClassifier( String groupId, String artifactId, String version,
+                                                   String classifier, String inClassifier )
+        throws Exception
+    {
+        // HACK: START
+        // TODO: Work out how to use Plexus to obtain these values
         ArtifactFactory artifactFactory = new DefaultArtifactFactory();
 
         DefaultArtifactHandler javaSourceArtifactHandler = new DefaultArtifactHandler( "java-source" );
@@ -954,14 +987,12 @@ public abstract class AbstractEclipsePluginIT
         setVariableValueToObject( artifactFactory, "artifactHandlerManager", artifactHandlerManager );
         // HACK: END
 
-        Artifact artifact =
-            IdeUtils.createArtifactWithClassifier( groupId, artifactId, version, classifier, inClassifier,
-                                                   artifactFactory );
-        return IdeUtils.getNotAvailableMarkerFile( localRepository, artifact );
+        return IdeUtils.createArtifactWithClassifier( groupId, artifactId, version, classifier, inClassifier,
+                                                      artifactFactory );
     }
 
     /**
-     * Assert that the not available marker file exists for the specified artifact details.
+     * Assert that the specified artifact is recorded as not available.
      *
      * @param groupId group id of artifact
      * @param artifactId artifact id of artifact
@@ -974,12 +1005,13 @@ public abstract class AbstractEclipsePluginIT
                                                        String classifier, String inClassifier )
         throws Exception
     {
-        File markerFile = getNotAvailableMarkerFile( groupId, artifactId, version, classifier, inClassifier );
-        assertTrue( "The \"Not Available\" marker file does not exist: " + markerFile, markerFile.exists() );
+        assertTrue( "The artifact is not recorded as \"Not Available\": " + groupId + ":" + artifactId + ":"
+            + version + ":" + inClassifier,
+                    isRecordedNotAvailable( groupId, artifactId, version, classifier, inClassifier ) );
     }
 
     /**
-     * Assert that the not available marker file does not exist for the specified artifact details.
+     * Assert that the specified artifact is not recorded as not available, neither in the index nor with a marker file.
      *
      * @param groupId group id of artifact
      * @param artifactId artifact id of artifact
@@ -994,6 +1026,9 @@ public abstract class AbstractEclipsePluginIT
     {
         File markerFile = getNotAvailableMarkerFile( groupId, artifactId, version, classifier, inClassifier );
         assertTrue( "The \"Not Available\" marker file incorrectly exists: " + markerFile, !markerFile.exists() );
+        assertFalse( "The artifact is incorrectly recorded as \"Not Available\": " + groupId + ":" + artifactId + ":"
+            + version + ":" + inClassifier,
+                     isRecordedNotAvailable( groupId, artifactId, version, classifier, inClassifier ) );
     }
 
 }
@@ -32,8 +32,8 @@ public class RemoveCacheMojoIT
     extends AbstractEclipsePluginIT
 {
     /**
-     * Project-46 uses which does not have sources/javadocs for biz.aQute:bndlib:0.0.145. Once the repo is seeded with
-     * marker files run remove-cache and verify the marker files no longer exist.
+     * Project-46 uses which does not have sources/javadocs for biz.aQute:bndlib:0.0.145. Once the repo records them as
+     * not available run remove-cache and verify they are no longer recorded.
      * 
      * @throws Exception test failures
      */
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.apache.maven.plugin.eclipse.reader;
+
+import java.io.File;
+import java.util.Date;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugin.ide.IdeDependency;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * @version $Id$
+ */
+public class WorkspaceIndexTest
+    extends TestCase
+{
+    private File workspace;
+
+    private File indexFile;
+
+    private Log log = new SystemStreamLog();
+
+    protected void setUp()
+        throws Exception
+    {
+        File directory = new File( System.getProperty( "basedir", "." ), "target/unit/workspace-index/" + getName() );
+        FileUtils.deleteDirectory( directory );
+        workspace = new File( directory, "workspace" ).getCanonicalFile();
+        indexFile = new File( directory, "workspace-index.properties" );
+
+        createProject( "project-A", "a", "1.0" );
+        createProject( "project-B", "b", "1.0" );
+        new File( workspace, ".metadata/.plugins/org.eclipse.core.resources/.projects/no-pom" ).mkdirs();
+        new File( workspace, "no-pom" ).mkdirs();
+    }
+
+    public void testReadOncePerSession()
+        throws Exception
+    {
+        Date session = new Date( 1000 );
+        IdeDependency[] artefacts = getIndex( session ).createWorkspaceArtefacts();
+        assertEquals( 2, artefacts.length );
+        assertEquals( "a", artefacts[0].getArtifactId() );
+        assertEquals( "1.0", artefacts[0].getVersion() );
+        assertEquals( "project-A", artefacts[0].getEclipseProjectName() );
+        assertTrue( indexFile.isFile() );
+        // the index was written to a temporary file, then renamed
+        assertEquals( 2, indexFile.getParentFile().list().length );
+
+        // the artefacts belong to each project
+        artefacts[0].setAddedToClasspath( true );
+        assertFalse( getIndex( session ).createWorkspaceArtefacts()[0].isAddedToClasspath() );
+
+        // the changes are only seen by the next session
+        File pom = createProject( "project-A", "a", "2.0" );
+        pom.setLastModified( pom.lastModified() - 10000 );
+        assertEquals( "1.0", getIndex( session ).createWorkspaceArtefacts()[0].getVersion() );
+        assertEquals( "2.0", getIndex( new Date( 2000 ) ).createWorkspaceArtefacts()[0].getVersion() );
+
+        FileUtils.deleteDirectory( new File( workspace,
+                                             ".metadata/.plugins/org.eclipse.core.resources/.projects/project-B" ) );
+        assertEquals( 1, getIndex( new Date( 3000 ) ).createWorkspaceArtefacts().length );
+    }
+
+    private WorkspaceIndex getIndex( Date session )
+    {
+        return WorkspaceIndex.getIndex( workspace, session, indexFile, new ReadWorkspaceLocations(), log );
+    }
+
+    private File createProject( String name, String artifactId, String version )
+        throws Exception
+    {
+        new File( workspace, ".metadata/.plugins/org.eclipse.core.resources/.projects/" + name ).mkdirs();
+        File location = new File( workspace, name );
+        location.mkdirs();
+        File pom = new File( location, "pom.xml" );
+        FileUtils.fileWrite( pom.getPath(), "<project><groupId>g</groupId><artifactId>" + artifactId
+            + "</artifactId><version>" + version + "</version></project>" );
+        return pom;
+    }
+}
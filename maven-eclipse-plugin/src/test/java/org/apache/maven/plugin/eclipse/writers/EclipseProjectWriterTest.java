@@ -140,6 +140,42 @@ public class EclipseProjectWriterTest
 
     }
 
+    public void testWrite_readOnlyDescriptor()
+        throws MojoExecutionException, IOException
+    {
+        TestEclipseWriterConfig config = new TestEclipseWriterConfig();
+        File basedir = fileManager.createTempDir();
+        config.setProjectBaseDir( basedir );
+        config.setEclipseProjectDirectory( basedir );
+        config.setEclipseProjectName( "test-project" );
+        config.setProject( new MavenProject() );
+
+        File dotProject = new File( basedir, ".project" );
+        Writer w = new OutputStreamWriter( new FileOutputStream( dotProject ), "UTF-8" );
+        w.write( "<projectDescription><name>test-project</name></projectDescription>" );
+        IOUtil.close( w );
+        long length = dotProject.length();
+
+        dotProject.setReadOnly();
+        if ( dotProject.canWrite() )
+        {
+            // the permissions are not enforced for this user
+            return;
+        }
+
+        EclipseProjectWriter projectWriter = new EclipseProjectWriter();
+        projectWriter.init( new TestLog(), config );
+        try
+        {
+            projectWriter.write();
+            fail( "the .project file is read-only" );
+        }
+        catch ( MojoExecutionException e )
+        {
+            assertEquals( length, dotProject.length() );
+        }
+    }
+
     private static final class TestLog
         extends SystemStreamLog
     {
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.ide;
+
+import java.io.File;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Test for {@link CachingOutputStream}
+ *
+ * @version $Id$
+ */
+public class CachingOutputStreamTest
+    extends TestCase
+{
+    private File file;
+
+    protected void setUp()
+        throws Exception
+    {
+        File directory = new File( System.getProperty( "basedir", "." ), "target/unit/caching-output-stream" );
+        FileUtils.deleteDirectory( directory );
+        directory.mkdirs();
+        file = new File( directory, ".classpath" );
+    }
+
+    public void testWriteOnlyIfChanged()
+        throws Exception
+    {
+        assertTrue( write( "<classpath/>" ) );
+        assertEquals( "<classpath/>", FileUtils.fileRead( file ) );
+
+        assertFalse( write( "<classpath/>" ) );
+
+        assertTrue( write( "<classpath></classpath>" ) );
+        assertEquals( "<classpath></classpath>", FileUtils.fileRead( file ) );
+
+        // same length, other content
+        assertTrue( write( "<classpath></Classpath>" ) );
+        assertEquals( "<classpath></Classpath>", FileUtils.fileRead( file ) );
+    }
+
+    public void testReadOnlyFile()
+        throws Exception
+    {
+        write( "<classpath/>" );
+        file.setReadOnly();
+        if ( file.canWrite() )
+        {
+            // the permissions are not enforced for this user
+            return;
+        }
+
+        try
+        {
+            new CachingOutputStream( file );
+            fail( "the file is read-only" );
+        }
+        catch ( IOException e )
+        {
+            assertEquals( "<classpath/>", FileUtils.fileRead( file ) );
+        }
+    }
+
+    public void testMissingDirectory()
+        throws Exception
+    {
+        try
+        {
+            new CachingOutputStream( new File( file.getParentFile(), "missing/.classpath" ) );
+            fail( "the directory does not exist" );
+        }
+        catch ( IOException e )
+        {
+            assertFalse( new File( file.getParentFile(), "missing" ).exists() );
+        }
+    }
+
+    /**
+     * @return whether the file was written, telling by its modification time
+     */
+    private boolean write( String content )
+        throws Exception
+    {
+        file.setLastModified( 1000 );
+
+        CachingOutputStream os = new CachingOutputStream( file );
+        os.write( content.getBytes( "UTF-8" ) );
+        os.close();
+        os.close();
+        return !file.isFile() || file.lastModified() != 1000;
+    }
+}
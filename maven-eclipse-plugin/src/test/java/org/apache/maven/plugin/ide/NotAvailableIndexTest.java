@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugin.ide;
+
+import java.io.File;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Test for {@link NotAvailableIndex}
+ *
+ * @version $Id$
+ */
+public class NotAvailableIndexTest
+    extends TestCase
+{
+    private static final long HOUR = 60L * 60L * 1000L;
+
+    private File file;
+
+    protected void setUp()
+        throws Exception
+    {
+        File directory = new File( System.getProperty( "basedir", "." ), "target/unit/not-available-index" );
+        FileUtils.deleteDirectory( directory );
+        file = new File( directory, "not-available.properties" );
+    }
+
+    public void testSaveAndExpire()
+        throws Exception
+    {
+        long now = System.currentTimeMillis();
+
+        NotAvailableIndex index = new NotAvailableIndex( file, 24 * HOUR );
+        index.setNotAvailable( "g:a:jar:sources:1", now );
+        index.setNotAvailable( "g:b:jar:sources:1", now - 25 * HOUR );
+        assertTrue( index.isNotAvailable( "g:a:jar:sources:1" ) );
+        assertFalse( index.isNotAvailable( "g:b:jar:sources:1" ) );
+        index.save();
+
+        // the expired entry is dropped, the other one is kept forever without time to live
+        index = new NotAvailableIndex( file, 0 );
+        assertTrue( index.isNotAvailable( "g:a:jar:sources:1" ) );
+        assertFalse( index.isNotAvailable( "g:b:jar:sources:1" ) );
+    }
+
+    public void testMergeConcurrentChanges()
+        throws Exception
+    {
+        long now = System.currentTimeMillis();
+
+        NotAvailableIndex initial = new NotAvailableIndex( file, 0 );
+        initial.setNotAvailable( "g:a:jar:sources:1", now );
+        initial.setNotAvailable( "g:b:jar:sources:1", now );
+        initial.save();
+
+        NotAvailableIndex first = new NotAvailableIndex( file, 0 );
+        NotAvailableIndex second = new NotAvailableIndex( file, 0 );
+        first.remove( "g:a:jar:sources:1" );
+        second.setNotAvailable( "g:c:jar:javadoc:1", now );
+        first.save();
+        second.save();
+
+        NotAvailableIndex index = new NotAvailableIndex( file, 0 );
+        assertFalse( index.isNotAvailable( "g:a:jar:sources:1" ) );
+        assertTrue( index.isNotAvailable( "g:b:jar:sources:1" ) );
+        assertTrue( index.isNotAvailable( "g:c:jar:javadoc:1" ) );
+
+        // the temporary files were renamed
+        assertEquals( 1, file.getParentFile().list().length );
+    }
+}
@@ -74,6 +74,16 @@ public class GpgSignAttachedMojo
     @Parameter( defaultValue = "${project.build.directory}/gpg", alias = "outputDirectory" )
     private File ascDirectory;
 
+    /**
+     * The number of gpg processes used to sign the project artifact, the POM and the attached artifacts at the same
+     * time. The passphrase is obtained once before signing and passed to each process. When no passphrase is given
+     * and <code>useAgent</code> is set, the agent may prompt for it, so the files are signed one at a time.
+     *
+     * @since 1.5
+     */
+    @Parameter( property = "gpg.threads", defaultValue = "1" )
+    private int threads;
+
     /**
      * The maven project.
      */
@@ -122,7 +132,9 @@ public class GpgSignAttachedMojo
         signer.setBuildDirectory( new File( project.getBuild().getDirectory() ) );
         signer.setBaseDirectory( project.getBasedir() );
 
-        List signingBundles = new ArrayList();
+        // the files to sign and the extension and classifier of their signature
+        List<File> files = new ArrayList<File>();
+        List<String[]> types = new ArrayList<String[]>();
 
         if ( !"pom".equals( project.getPackaging() ) )
         {
@@ -136,15 +148,8 @@ public class GpgSignAttachedMojo
 
             if ( file != null && file.isFile() )
             {
-                getLog().debug( "Generating signature for " + file );
-
-                File projectArtifactSignature = signer.generateSignatureForArtifact( file );
-
-                if ( projectArtifactSignature != null )
-                {
-                    signingBundles.add( new SigningBundle( artifact.getArtifactHandler().getExtension(),
-                                                           projectArtifactSignature ) );
-                }
+                files.add( file );
+                types.add( new String[] { artifact.getArtifactHandler().getExtension(), null } );
             }
             else if ( project.getAttachedArtifacts().isEmpty() )
             {
@@ -172,33 +177,45 @@ public class GpgSignAttachedMojo
             throw new MojoExecutionException( "Error copying POM for signing.", e );
         }
 
-        getLog().debug( "Generating signature for " + pomToSign );
+        files.add( pomToSign );
+        types.add( new String[] { "pom", null } );
 
-        File pomSignature = signer.generateSignatureForArtifact( pomToSign );
+        // ----------------------------------------------------------------------------
+        // Attached artifacts
+        // ----------------------------------------------------------------------------
 
-        if ( pomSignature != null )
+        for ( Iterator i = project.getAttachedArtifacts().iterator(); i.hasNext(); )
         {
-            signingBundles.add( new SigningBundle( "pom", pomSignature ) );
+            Artifact artifact = (Artifact) i.next();
+
+            files.add( artifact.getFile() );
+            types.add( new String[] { artifact.getArtifactHandler().getExtension(), artifact.getClassifier() } );
         }
 
         // ----------------------------------------------------------------------------
-        // Attached artifacts
+        // Sign all the files in one batch
         // ----------------------------------------------------------------------------
 
-        for ( Iterator i = project.getAttachedArtifacts().iterator(); i.hasNext(); )
+        if ( getLog().isDebugEnabled() )
         {
-            Artifact artifact = (Artifact) i.next();
+            for ( File file : files )
+            {
+                getLog().debug( "Generating signature for " + file );
+            }
+        }
 
-            File file = artifact.getFile();
+        List<File> signatures = signer.generateSignaturesForArtifacts( files, threads );
 
-            getLog().debug( "Generating signature for " + file );
+        List signingBundles = new ArrayList();
 
-            File signature = signer.generateSignatureForArtifact( file );
+        for ( int i = 0; i < signatures.size(); i++ )
+        {
+            File signature = signatures.get( i );
 
             if ( signature != null )
             {
-                signingBundles.add( new SigningBundle( artifact.getArtifactHandler().getExtension(),
-                                                       artifact.getClassifier(), signature ) );
+                String[] type = types.get( i );
+                signingBundles.add( new SigningBundle( type[0], type[1], signature ) );
             }
         }
 
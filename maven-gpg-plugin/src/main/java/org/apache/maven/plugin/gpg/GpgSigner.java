@@ -25,6 +25,13 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.project.MavenProject;
@@ -262,6 +269,72 @@ public class GpgSigner
         return signature;
     }
 
+    /**
+     * Generates the signatures of several files, running up to <code>threads</code> gpg processes at the same time.
+     * Without a passphrase the files are signed one at a time, as each gpg process would ask the agent for the
+     * passphrase and could open its own pinentry prompt.
+     *
+     * @param files the files to sign, must not be <code>null</code>.
+     * @param threads the maximum number of concurrent gpg processes.
+     * @return the signature files, in the same order as <code>files</code>.
+     * @throws MojoExecutionException if a file could not be signed.
+     */
+    public List<File> generateSignaturesForArtifacts( List<File> files, int threads )
+        throws MojoExecutionException
+    {
+        List<File> signatures = new ArrayList<File>( files.size() );
+
+        if ( threads <= 1 || files.size() <= 1 || passphrase == null )
+        {
+            for ( File file : files )
+            {
+                signatures.add( generateSignatureForArtifact( file ) );
+            }
+            return signatures;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( Math.min( threads, files.size() ) );
+        try
+        {
+            List<Future<File>> futures = new ArrayList<Future<File>>( files.size() );
+            for ( final File file : files )
+            {
+                futures.add( executor.submit( new Callable<File>()
+                {
+                    public File call()
+                        throws MojoExecutionException
+                    {
+                        return generateSignatureForArtifact( file );
+                    }
+                } ) );
+            }
+
+            for ( Future<File> future : futures )
+            {
+                signatures.add( future.get() );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException( "Interrupted while signing artifacts", e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof MojoExecutionException )
+            {
+                throw (MojoExecutionException) e.getCause();
+            }
+            throw new MojoExecutionException( "Unable to sign artifacts", e.getCause() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        return signatures;
+    }
+
     private MavenProject findReactorProject( MavenProject prj )
     {
         if ( prj.getParent() != null && prj.getParent().getBasedir() != null && prj.getParent().getBasedir().exists() )
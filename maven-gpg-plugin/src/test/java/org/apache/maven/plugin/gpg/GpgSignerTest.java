@@ -0,0 +1,222 @@
+package org.apache.maven.plugin.gpg;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+/**
+ * Test for {@link GpgSigner#generateSignaturesForArtifacts(List, int)}, with a signer which does not run gpg.
+ *
+ * @version $Id$
+ */
+public class GpgSignerTest
+    extends TestCase
+{
+    /**
+     * A signer which records its calls instead of running gpg.
+     */
+    private static class FakeGpgSigner
+        extends GpgSigner
+    {
+        private final List<File> signed = Collections.synchronizedList( new ArrayList<File>() );
+
+        private final List<Thread> threads = Collections.synchronizedList( new ArrayList<Thread>() );
+
+        private final CountDownLatch started;
+
+        private File failing;
+
+        private RuntimeException failure;
+
+        private int active;
+
+        private int maxActive;
+
+        /**
+         * @param concurrent the number of calls which wait for each other before signing, to check that they run at
+         *            the same time
+         */
+        FakeGpgSigner( int concurrent )
+        {
+            started = new CountDownLatch( concurrent );
+        }
+
+        public File generateSignatureForArtifact( File file )
+            throws MojoExecutionException
+        {
+            synchronized ( this )
+            {
+                active++;
+                maxActive = Math.max( maxActive, active );
+            }
+            try
+            {
+                threads.add( Thread.currentThread() );
+                started.countDown();
+                try
+                {
+                    started.await( 10, TimeUnit.SECONDS );
+                    // the first files take the longest, so they are the last ones signed
+                    Thread.sleep( 10 * Math.max( 0, 5 - signed.size() ) );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    throw new MojoExecutionException( "Interrupted", e );
+                }
+                if ( file.equals( failing ) )
+                {
+                    if ( failure != null )
+                    {
+                        throw failure;
+                    }
+                    throw new MojoExecutionException( "Exit code: 2" );
+                }
+                signed.add( file );
+                return new File( file + SIGNATURE_EXTENSION );
+            }
+            finally
+            {
+                synchronized ( this )
+                {
+                    active--;
+                }
+            }
+        }
+    }
+
+    private static List<File> getFiles( int count )
+    {
+        List<File> files = new ArrayList<File>();
+        for ( int i = 0; i < count; i++ )
+        {
+            files.add( new File( "target/artifact-" + i + ".jar" ) );
+        }
+        return files;
+    }
+
+    public void testConcurrentSignaturesInOrder()
+        throws Exception
+    {
+        FakeGpgSigner signer = new FakeGpgSigner( 3 );
+        signer.setPassPhrase( "secret" );
+
+        List<File> files = getFiles( 8 );
+        List<File> signatures = signer.generateSignaturesForArtifacts( files, 3 );
+
+        assertEquals( files.size(), signatures.size() );
+        for ( int i = 0; i < files.size(); i++ )
+        {
+            assertEquals( new File( files.get( i ) + GpgSigner.SIGNATURE_EXTENSION ), signatures.get( i ) );
+        }
+        assertEquals( files.size(), signer.signed.size() );
+        assertEquals( 3, signer.maxActive );
+        assertFalse( signer.threads.contains( Thread.currentThread() ) );
+    }
+
+    public void testConcurrentFailure()
+        throws Exception
+    {
+        FakeGpgSigner signer = new FakeGpgSigner( 2 );
+        signer.setPassPhrase( "secret" );
+
+        List<File> files = getFiles( 4 );
+        signer.failing = files.get( 2 );
+        try
+        {
+            signer.generateSignaturesForArtifacts( files, 2 );
+            fail( "MojoExecutionException expected" );
+        }
+        catch ( MojoExecutionException e )
+        {
+            assertEquals( "Exit code: 2", e.getMessage() );
+        }
+    }
+
+    public void testConcurrentUnexpectedFailure()
+        throws Exception
+    {
+        FakeGpgSigner signer = new FakeGpgSigner( 2 );
+        signer.setPassPhrase( "secret" );
+
+        List<File> files = getFiles( 4 );
+        signer.failing = files.get( 0 );
+        signer.failure = new IllegalStateException( "broken" );
+        try
+        {
+            signer.generateSignaturesForArtifacts( files, 2 );
+            fail( "MojoExecutionException expected" );
+        }
+        catch ( MojoExecutionException e )
+        {
+            assertSame( signer.failure, e.getCause() );
+        }
+    }
+
+    public void testAgentSignsOneAtATime()
+        throws Exception
+    {
+        // without a passphrase, gpg-agent supplies it and each file is signed in turn on the calling thread
+        FakeGpgSigner signer = new FakeGpgSigner( 1 );
+        signer.setUseAgent( true );
+
+        List<File> files = getFiles( 4 );
+        List<File> signatures = signer.generateSignaturesForArtifacts( files, 4 );
+
+        assertEquals( files.size(), signatures.size() );
+        assertEquals( files, signer.signed );
+        assertEquals( 1, signer.maxActive );
+        for ( Thread thread : signer.threads )
+        {
+            assertSame( Thread.currentThread(), thread );
+        }
+    }
+
+    public void testSequentialFailure()
+        throws Exception
+    {
+        FakeGpgSigner signer = new FakeGpgSigner( 1 );
+        signer.setPassPhrase( "secret" );
+
+        List<File> files = getFiles( 4 );
+        signer.failing = files.get( 1 );
+        try
+        {
+            signer.generateSignaturesForArtifacts( files, 1 );
+            fail( "MojoExecutionException expected" );
+        }
+        catch ( MojoExecutionException e )
+        {
+            assertEquals( "Exit code: 2", e.getMessage() );
+        }
+        // the files after the failing one are not signed
+        assertEquals( files.subList( 0, 1 ), signer.signed );
+        assertEquals( 1, signer.maxActive );
+    }
+}
@@ -55,6 +55,7 @@ import java.util.regex.Pattern;
  * @author Edwin Punzalan
  * @goal module
  * @execute phase="generate-sources"
+ * @threadSafe
  */
 public class IdeaModuleMojo
     extends AbstractIdeaMojo
@@ -166,7 +167,7 @@ public class IdeaModuleMojo
      *
      * @todo this is nasty! the only reason this is static is to use the same cache between reactor calls
      */
-    private static Map attemptedDownloads = new HashMap();
+    private static Map attemptedDownloads = Collections.synchronizedMap( new HashMap() );
 
     /**
      * Tell IntelliJ IDEA that this module is an IntelliJ IDEA Plugin.
@@ -33,6 +33,7 @@ import java.util.Set;
  *
  * @goal idea
  * @execute phase="generate-resources"
+ * @threadSafe
  */
 public class IdeaMojo
     extends AbstractIdeaMojo
@@ -43,6 +43,7 @@ import java.util.StringTokenizer;
  * @author Edwin Punzalan
  * @goal project
  * @execute phase="generate-sources"
+ * @threadSafe
  */
 public class IdeaProjectMojo
     extends AbstractIdeaMojo
@@ -33,6 +33,7 @@ import java.io.IOException;
  * @author Edwin Punzalan
  * @goal workspace
  * @execute phase="generate-sources"
+ * @threadSafe
  */
 public class IdeaWorkspaceMojo
     extends AbstractIdeaMojo
@@ -23,7 +23,6 @@ import org.dom4j.io.OutputFormat;
 import org.dom4j.io.XMLWriter;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 
@@ -42,7 +41,7 @@ public class IdeaXmlWriter
     public IdeaXmlWriter( File file )
         throws IOException
     {
-        super( new OutputStreamWriter( new FileOutputStream( file ), "UTF-8" ),
+        super( new OutputStreamWriter( new CachingOutputStream( file ), "UTF-8" ),
                OutputFormat.createPrettyPrint() );
     }
 
@@ -28,14 +28,17 @@ import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.codehaus.plexus.digest.Digester;
-import org.codehaus.plexus.digest.DigesterException;
 import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.StringUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Common fields for installation mojos.
@@ -71,22 +74,22 @@ public abstract class AbstractInstallMojo
     protected boolean createChecksum;
 
     /**
-     * Whether to update the metadata to make the artifact a release version.
+     * The checksum algorithms used when {@code createChecksum} is set, as a comma separated list of Java
+     * message digest names. All checksums of a file are calculated while reading it once. The checksum files
+     * are named after the algorithm, e.g. <code>.sha256</code> for <code>SHA-256</code>.
+     *
+     * @since 2.5
      */
-    @Parameter( property = "updateReleaseInfo", defaultValue = "false" )
-    protected boolean updateReleaseInfo;
+    @Parameter( property = "checksumAlgorithms", defaultValue = "MD5,SHA-1" )
+    protected String checksumAlgorithms;
 
     /**
-     * Digester for MD5.
+     * Whether to update the metadata to make the artifact a release version.
      */
-    @Component( hint = "md5" )
-    protected Digester md5Digester;
+    @Parameter( property = "updateReleaseInfo", defaultValue = "false" )
+    protected boolean updateReleaseInfo;
 
-    /**
-     * Digester for SHA-1.
-     */
-    @Component( hint = "sha1" )
-    protected Digester sha1Digester;
+    private MultiDigester digester;
 
     /**
      * Gets the path of the specified artifact within the local repository. Note that the returned path need not exist
@@ -178,48 +181,85 @@ public abstract class AbstractInstallMojo
         boolean signatureFile = installedFile.getName().endsWith( ".asc" );
         if ( installedFile.isFile() && !signatureFile )
         {
-            installChecksum( installedFile, installedFile, md5Digester, ".md5" );
-            installChecksum( installedFile, installedFile, sha1Digester, ".sha1" );
+            installChecksums( installedFile, installedFile );
         }
     }
 
     /**
-     * Installs a checksum for the specified file.
+     * Installs the checksums for the specified file, calculating all of them in a single read.
      *
-     * @param originalFile The path to the file from which the checksum is generated, must not be <code>null</code>.
-     * @param installedFile The base path from which the path to the checksum files is derived by appending the given
-     *            file extension, must not be <code>null</code>.
-     * @param digester The checksum algorithm to use, must not be <code>null</code>.
-     * @param ext The file extension (including the leading dot) to use for the checksum file, must not be
-     *            <code>null</code>.
-     * @throws MojoExecutionException If the checksum could not be installed.
+     * @param originalFile The path to the file from which the checksums are generated, must not be <code>null</code>.
+     * @param installedFile The base path from which the path to the checksum files is derived by appending the
+     *            algorithm specific file extension, must not be <code>null</code>.
+     * @throws MojoExecutionException If the checksums could not be installed.
      */
-    private void installChecksum( File originalFile, File installedFile, Digester digester, String ext )
+    private void installChecksums( File originalFile, File installedFile )
         throws MojoExecutionException
     {
-        String checksum;
-        getLog().debug( "Calculating " + digester.getAlgorithm() + " checksum for " + originalFile );
+        Map<String, String> checksums;
+        getLog().debug( "Calculating " + getChecksumAlgorithms() + " checksums for " + originalFile );
         try
         {
-            checksum = digester.calc( originalFile );
+            checksums = getDigester().calc( originalFile );
         }
-        catch ( DigesterException e )
+        catch ( IOException e )
         {
-            throw new MojoExecutionException( "Failed to calculate " + digester.getAlgorithm() + " checksum for "
-                + originalFile, e );
+            throw new MojoExecutionException( "Failed to calculate checksums for " + originalFile, e );
         }
 
-        File checksumFile = new File( installedFile.getAbsolutePath() + ext );
-        getLog().debug( "Installing checksum to " + checksumFile );
-        try
+        for ( Map.Entry<String, String> checksum : checksums.entrySet() )
         {
-            checksumFile.getParentFile().mkdirs();
-            FileUtils.fileWrite( checksumFile.getAbsolutePath(), "UTF-8", checksum );
+            File checksumFile =
+                new File( installedFile.getAbsolutePath() + MultiDigester.getExtension( checksum.getKey() ) );
+            getLog().debug( "Installing checksum to " + checksumFile );
+            try
+            {
+                checksumFile.getParentFile().mkdirs();
+                FileUtils.fileWrite( checksumFile.getAbsolutePath(), "UTF-8", checksum.getValue() );
+            }
+            catch ( IOException e )
+            {
+                throw new MojoExecutionException( "Failed to install checksum to " + checksumFile, e );
+            }
         }
-        catch ( IOException e )
+    }
+
+    private MultiDigester getDigester()
+        throws MojoExecutionException
+    {
+        if ( digester == null )
+        {
+            try
+            {
+                digester = new MultiDigester( getChecksumAlgorithms().toArray( new String[0] ) );
+            }
+            catch ( NoSuchAlgorithmException e )
+            {
+                throw new MojoExecutionException( "Unsupported checksum algorithm in " + checksumAlgorithms, e );
+            }
+        }
+        return digester;
+    }
+
+    private List<String> getChecksumAlgorithms()
+    {
+        List<String> algorithms = new ArrayList<String>();
+        if ( checksumAlgorithms != null )
+        {
+            for ( String algorithm : StringUtils.split( checksumAlgorithms, "," ) )
+            {
+                if ( StringUtils.isNotEmpty( algorithm.trim() ) )
+                {
+                    algorithms.add( algorithm.trim() );
+                }
+            }
+        }
+        if ( algorithms.isEmpty() )
         {
-            throw new MojoExecutionException( "Failed to install checksum to " + checksumFile, e );
+            algorithms.add( "MD5" );
+            algorithms.add( "SHA-1" );
         }
+        return algorithms;
     }
 
 }
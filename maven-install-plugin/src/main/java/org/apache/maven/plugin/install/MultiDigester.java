@@ -0,0 +1,148 @@
+package org.apache.maven.plugin.install;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Calculates the checksums of a file for several algorithms while reading it only once.
+ *
+ * @since 2.5
+ */
+class MultiDigester
+{
+    private static final int BUFFER_SIZE = 32 * 1024;
+
+    private final String[] algorithms;
+
+    /**
+     * @param algorithms The names of the {@link MessageDigest} algorithms to calculate, e.g. <code>MD5</code>,
+     *            <code>SHA-1</code> or <code>SHA-256</code>, must not be <code>null</code>.
+     * @throws NoSuchAlgorithmException If one of the algorithms is not supported by the JVM.
+     */
+    MultiDigester( String[] algorithms )
+        throws NoSuchAlgorithmException
+    {
+        this.algorithms = algorithms.clone();
+
+        // fail early on unsupported algorithms
+        for ( String algorithm : algorithms )
+        {
+            MessageDigest.getInstance( algorithm );
+        }
+    }
+
+    /**
+     * Calculates the checksums of the given file.
+     *
+     * @param file The file to read, must not be <code>null</code>.
+     * @return The lowercase hexadecimal checksums keyed by algorithm, in the configured order, never
+     *         <code>null</code>.
+     * @throws IOException If the file could not be read.
+     */
+    public Map<String, String> calc( File file )
+        throws IOException
+    {
+        InputStream is = new FileInputStream( file );
+        try
+        {
+            return calc( is );
+        }
+        finally
+        {
+            IOUtil.close( is );
+        }
+    }
+
+    /**
+     * Calculates the checksums of the given stream, reading it until its end.
+     *
+     * @param is The stream to read, must not be <code>null</code>. The stream is not closed.
+     * @return The lowercase hexadecimal checksums keyed by algorithm, in the configured order, never
+     *         <code>null</code>.
+     * @throws IOException If the stream could not be read.
+     */
+    public Map<String, String> calc( InputStream is )
+        throws IOException
+    {
+        MessageDigest[] digests = new MessageDigest[algorithms.length];
+        for ( int i = 0; i < algorithms.length; i++ )
+        {
+            try
+            {
+                digests[i] = MessageDigest.getInstance( algorithms[i] );
+            }
+            catch ( NoSuchAlgorithmException e )
+            {
+                // checked in the constructor
+                throw new IllegalStateException( e.getMessage() );
+            }
+        }
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for ( int read = is.read( buffer ); read >= 0; read = is.read( buffer ) )
+        {
+            for ( MessageDigest digest : digests )
+            {
+                digest.update( buffer, 0, read );
+            }
+        }
+
+        Map<String, String> checksums = new LinkedHashMap<String, String>();
+        for ( int i = 0; i < algorithms.length; i++ )
+        {
+            checksums.put( algorithms[i], encode( digests[i].digest() ) );
+        }
+        return checksums;
+    }
+
+    /**
+     * Gets the file extension used for checksum files of the given algorithm, e.g. <code>.sha1</code> for
+     * <code>SHA-1</code>.
+     *
+     * @param algorithm The name of the algorithm, must not be <code>null</code>.
+     * @return The file extension including the leading dot, never <code>null</code>.
+     */
+    public static String getExtension( String algorithm )
+    {
+        return "." + algorithm.replace( "-", "" ).toLowerCase( Locale.ENGLISH );
+    }
+
+    private static String encode( byte[] binary )
+    {
+        StringBuilder hex = new StringBuilder( binary.length * 2 );
+        for ( byte b : binary )
+        {
+            hex.append( Character.forDigit( ( b >> 4 ) & 0x0F, 16 ) );
+            hex.append( Character.forDigit( b & 0x0F, 16 ) );
+        }
+        return hex.toString();
+    }
+}
@@ -26,6 +26,9 @@ import org.apache.maven.plugin.install.stubs.AttachedArtifactStub0;
 import org.apache.maven.plugin.install.stubs.InstallArtifactStub;
 import org.apache.maven.plugin.testing.AbstractMojoTestCase;
 import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.digest.Digester;
+import org.codehaus.plexus.digest.Md5Digester;
+import org.codehaus.plexus.digest.Sha1Digester;
 import org.codehaus.plexus.util.FileUtils;
 
 import java.io.File;
@@ -248,13 +251,16 @@ public class InstallMojoTest
 
         assertTrue( pom.exists() );
 
+        Digester md5Digester = new Md5Digester();
+        Digester sha1Digester = new Sha1Digester();
+
         //get the actual checksum of the pom
-        String actualPomMd5Sum = mojo.md5Digester.calc( pom );
-        String actualPomSha1Sum = mojo.sha1Digester.calc( pom );
+        String actualPomMd5Sum = md5Digester.calc( pom );
+        String actualPomSha1Sum = sha1Digester.calc( pom );
 
         //get the actual checksum of the artifact
-        String actualMd5Sum = mojo.md5Digester.calc( file );
-        String actualSha1Sum = mojo.sha1Digester.calc( file );
+        String actualMd5Sum = md5Digester.calc( file );
+        String actualSha1Sum = sha1Digester.calc( file );
 
         String groupId = dotToSlashReplacer( artifact.getGroupId() );
 
@@ -0,0 +1,71 @@
+package org.apache.maven.plugin.install;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.digest.Md5Digester;
+import org.codehaus.plexus.digest.Sha1Digester;
+
+/**
+ * Tests {@link MultiDigester}.
+ */
+public class MultiDigesterTest
+    extends TestCase
+{
+    public void testSameChecksumsAsPlexusDigesters()
+        throws Exception
+    {
+        File file = new File( System.getProperty( "basedir", "." ), "pom.xml" );
+
+        MultiDigester digester = new MultiDigester( new String[] { "MD5", "SHA-1", "SHA-256" } );
+
+        Map<String, String> checksums = digester.calc( file );
+
+        assertEquals( 3, checksums.size() );
+        assertEquals( new Md5Digester().calc( file ), checksums.get( "MD5" ) );
+        assertEquals( new Sha1Digester().calc( file ), checksums.get( "SHA-1" ) );
+        assertEquals( 64, checksums.get( "SHA-256" ).length() );
+    }
+
+    public void testExtension()
+    {
+        assertEquals( ".md5", MultiDigester.getExtension( "MD5" ) );
+        assertEquals( ".sha1", MultiDigester.getExtension( "SHA-1" ) );
+        assertEquals( ".sha512", MultiDigester.getExtension( "SHA-512" ) );
+    }
+
+    public void testUnsupportedAlgorithm()
+    {
+        try
+        {
+            new MultiDigester( new String[] { "MD5", "NO-SUCH-DIGEST" } );
+            fail( "Unsupported algorithm not detected" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            // expected
+        }
+    }
+}
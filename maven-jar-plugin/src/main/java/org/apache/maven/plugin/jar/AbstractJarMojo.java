@@ -141,6 +141,27 @@ public abstract class AbstractJarMojo
     @Parameter( property = "jar.skipIfEmpty", defaultValue = "false" )
     private boolean skipIfEmpty;
 
+    /**
+     * The number of threads compressing the entries of the JAR. With the default of <code>1</code> the archiver
+     * compresses the entries itself. Otherwise the archiver only stores them, and the JAR is then rewritten with its
+     * entries deflated concurrently and written back in their original order. A value of <code>0</code> or less uses
+     * one thread per available processor.
+     *
+     * @since 2.5
+     */
+    @Parameter( property = "jar.compressionThreads", defaultValue = "1" )
+    private int compressionThreads = 1;
+
+    /**
+     * Timestamp given to all the entries of the JAR, either as an ISO 8601 date such as
+     * <code>2013-06-01T12:00:00Z</code> or as a number of seconds since the epoch. The entries are then also sorted
+     * by name after the manifest, so that building the same content twice gives the same JAR.
+     *
+     * @since 2.5
+     */
+    @Parameter( property = "jar.outputTimestamp", defaultValue = "${project.build.outputTimestamp}" )
+    private String outputTimestamp;
+
     /**
      * Return the specific output directory to serve as the root for the archive.
      */
@@ -223,7 +244,16 @@ public abstract class AbstractJarMojo
                 archive.setManifestFile( existingManifest );
             }
 
-            archiver.createArchive( session, project, archive );
+            long timestamp = ArchiveCompressor.parseTimestamp( outputTimestamp );
+
+            if ( compressionThreads == 1 && timestamp < 0 )
+            {
+                archiver.createArchive( session, project, archive );
+            }
+            else
+            {
+                createArchive( archiver, jarFile, timestamp );
+            }
 
             return jarFile;
         }
@@ -234,6 +264,35 @@ public abstract class AbstractJarMojo
         }
     }
 
+    /**
+     * Lets the archiver store the entries and compresses them afterwards, unless the archiver found the JAR up to
+     * date.
+     */
+    private void createArchive( MavenArchiver archiver, File jarFile, long timestamp )
+        throws Exception
+    {
+        boolean compress = archive.isCompress();
+
+        long checksum = ArchiveCompressor.getContentChecksum( jarFile );
+
+        archive.setCompress( false );
+        try
+        {
+            archiver.createArchive( session, project, archive );
+        }
+        finally
+        {
+            archive.setCompress( compress );
+        }
+
+        if ( ArchiveCompressor.getContentChecksum( jarFile ) != checksum )
+        {
+            ArchiveCompressor compressor = new ArchiveCompressor( compressionThreads, timestamp );
+            compressor.setCompress( compress );
+            compressor.compress( jarFile );
+        }
+    }
+
     /**
      * Generates the JAR.
      *
@@ -20,11 +20,16 @@ package org.apache.maven.plugin.jar;
  */
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.commons.lang.SystemUtils;
 import org.apache.maven.plugin.AbstractMojo;
@@ -100,6 +105,16 @@ public class JarSignVerifyMojo
     @Parameter( property = "errorWhenNotSigned", defaultValue = "true" )
     private boolean errorWhenNotSigned = true;
 
+    /**
+     * Verify the jar in process instead of running <code>jarsigner -verify</code>. Every entry is checked against
+     * the signature files and the unsigned or altered entries are reported, but the certificates themselves are
+     * not validated.
+     *
+     * @since 2.5
+     */
+    @Parameter( property = "inProcess", defaultValue = "false" )
+    private boolean inProcess;
+
     /**
      * Is the jar signed ? output property set by the execute call. The value will be accessible
      * when execute() ends and if errorWhenNotSigned has been set to false.
@@ -121,6 +136,12 @@ public class JarSignVerifyMojo
     public void execute()
         throws MojoExecutionException
     {
+        if ( inProcess )
+        {
+            verifyInProcess();
+            return;
+        }
+
         List arguments = new ArrayList();
 
         Commandline commandLine = new Commandline();
@@ -179,6 +200,67 @@ public class JarSignVerifyMojo
         }
     }
 
+    private void verifyInProcess()
+        throws MojoExecutionException
+    {
+        File jarFile = getJarFile();
+
+        getLog().debug( "Verifying in process: " + jarFile );
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+
+        SignatureVerifier.Result result;
+        try
+        {
+            result = new SignatureVerifier( executor, threads ).verify( jarFile );
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Failed to verify " + jarFile + ": " + e.getMessage(), e );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        signed = result.isSigned();
+
+        for ( Iterator it = result.getTamperedEntries().iterator(); it.hasNext(); )
+        {
+            getLog().warn( "Tampered entry " + it.next() );
+        }
+
+        if ( verbose )
+        {
+            for ( Iterator it = result.getUnsignedEntries().iterator(); it.hasNext(); )
+            {
+                getLog().info( "Unsigned entry " + it.next() );
+            }
+        }
+
+        if ( checkCerts )
+        {
+            for ( Iterator it = result.getSigners().iterator(); it.hasNext(); )
+            {
+                Certificate certificate = (Certificate) it.next();
+                getLog().info( certificate instanceof X509Certificate
+                    ? ( (X509Certificate) certificate ).getSubjectX500Principal().getName()
+                    : certificate.toString() );
+            }
+        }
+
+        if ( signed )
+        {
+            getLog().info( "jar verified." );
+        }
+        else if ( errorWhenNotSigned )
+        {
+            throw new MojoExecutionException( "Verify failed: " + result.getUnsignedEntries().size()
+                + " unsigned and " + result.getTamperedEntries().size() + " tampered entries" );
+        }
+    }
+
     // checks if a consumed line matches
     // also keeps track of the first consumed line.
     class LineMatcherStreamConsumer
@@ -362,6 +444,11 @@ public class JarSignVerifyMojo
         this.verbose = verbose;
     }
 
+    public void setInProcess( boolean inProcess )
+    {
+        this.inProcess = inProcess;
+    }
+
     /**
      * Is the JAR file signed ? Output property set by the {@link #execute()} call.
      *
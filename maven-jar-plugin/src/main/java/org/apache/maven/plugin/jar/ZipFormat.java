@@ -0,0 +1,546 @@
+package org.apache.maven.plugin.jar;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * The records of a zip file, read from its central directory and written back by the tools rewriting archives
+ * without inflating the entries they keep. Zip64 archives are not supported.
+ *
+ * @author Apache Maven team
+ * @version $Id$
+ */
+final class ZipFormat
+{
+    static final int LOCAL_FILE_HEADER = 0x04034b50;
+
+    static final int CENTRAL_FILE_HEADER = 0x02014b50;
+
+    static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+
+    static final int DATA_DESCRIPTOR = 0x08074b50;
+
+    static final int STORED = 0;
+
+    static final int DEFLATED = 8;
+
+    /**
+     * The largest number of entries of an archive without Zip64 records.
+     */
+    static final int MAX_ENTRIES = 0xFFFE;
+
+    /**
+     * The general purpose flag telling that the names are encoded in UTF-8.
+     */
+    static final int UTF8_FLAG = 0x0800;
+
+    /**
+     * The general purpose flag telling that the sizes and checksum of an entry follow its data.
+     */
+    static final int DATA_DESCRIPTOR_FLAG = 0x0008;
+
+    private ZipFormat()
+    {
+        // no instances
+    }
+
+    /**
+     * Reads the entries of an archive from its central directory.
+     *
+     * @param raf The archive.
+     * @param entries The list the entries are added to.
+     * @return The archive comment.
+     * @throws IOException if the file is not a zip file or could not be read.
+     */
+    static byte[] readCentralDirectory( RandomAccessFile raf, List<Entry> entries )
+        throws IOException
+    {
+        byte[] tail = readTail( raf );
+        int end = findEndOfCentralDirectory( tail );
+
+        long offset = getInt( tail, end + 16 ) & 0xFFFFFFFFL;
+        if ( getShort( tail, end + 10 ) == 0xFFFF || offset == 0xFFFFFFFFL )
+        {
+            throw new IOException( "Zip64 archives are not supported" );
+        }
+
+        byte[] comment = copy( tail, end + 22, Math.min( getShort( tail, end + 20 ), tail.length - end - 22 ) );
+
+        byte[] cd = new byte[(int) ( getInt( tail, end + 12 ) & 0xFFFFFFFFL )];
+        raf.seek( offset );
+        raf.readFully( cd );
+
+        int i = 0;
+        while ( i + 46 <= cd.length && getInt( cd, i ) == CENTRAL_FILE_HEADER )
+        {
+            Entry entry = new Entry();
+            entry.channel = raf.getChannel();
+            entry.versionMadeBy = getShort( cd, i + 4 );
+            entry.versionNeeded = getShort( cd, i + 6 );
+            entry.flags = getShort( cd, i + 8 );
+            entry.method = getShort( cd, i + 10 );
+            entry.dosTime = getInt( cd, i + 12 ) & 0xFFFFFFFFL;
+            entry.crc = getInt( cd, i + 16 ) & 0xFFFFFFFFL;
+            entry.compressedSize = getInt( cd, i + 20 ) & 0xFFFFFFFFL;
+            entry.size = getInt( cd, i + 24 ) & 0xFFFFFFFFL;
+            int nameLength = getShort( cd, i + 28 );
+            int extraLength = getShort( cd, i + 30 );
+            int commentLength = getShort( cd, i + 32 );
+            entry.internalAttributes = getShort( cd, i + 36 );
+            entry.externalAttributes = getInt( cd, i + 38 ) & 0xFFFFFFFFL;
+            entry.localHeaderOffset = getInt( cd, i + 42 ) & 0xFFFFFFFFL;
+
+            i += 46;
+            entry.rawName = copy( cd, i, nameLength );
+            entry.name = new String( entry.rawName, ( entry.flags & UTF8_FLAG ) != 0 ? "UTF-8" : "ISO-8859-1" );
+            i += nameLength;
+            entry.extra = copy( cd, i, extraLength );
+            i += extraLength;
+            entry.comment = copy( cd, i, commentLength );
+            i += commentLength;
+
+            entries.add( entry );
+        }
+
+        return comment;
+    }
+
+    /**
+     * Computes the checksum of the central directory of an archive, which lists the name, compression, checksum,
+     * size and time of every entry. It changes whenever the archive is written with a different content.
+     *
+     * @param raf The archive.
+     * @return The checksum.
+     * @throws IOException if the file is not a zip file or could not be read.
+     */
+    static long checksumCentralDirectory( RandomAccessFile raf )
+        throws IOException
+    {
+        byte[] tail = readTail( raf );
+        int end = findEndOfCentralDirectory( tail );
+
+        byte[] cd = new byte[(int) ( getInt( tail, end + 12 ) & 0xFFFFFFFFL )];
+        raf.seek( getInt( tail, end + 16 ) & 0xFFFFFFFFL );
+        raf.readFully( cd );
+
+        CRC32 crc = new CRC32();
+        crc.update( cd );
+        crc.update( tail, end, tail.length - end );
+        return crc.getValue();
+    }
+
+    /**
+     * Reads the end of an archive: the end of central directory record is 22 bytes long, followed by a comment of
+     * at most 65535 bytes.
+     */
+    private static byte[] readTail( RandomAccessFile raf )
+        throws IOException
+    {
+        long length = raf.length();
+        int size = (int) Math.min( length, 22 + 0xFFFF );
+        byte[] tail = new byte[size];
+        raf.seek( length - size );
+        raf.readFully( tail );
+        return tail;
+    }
+
+    private static int findEndOfCentralDirectory( byte[] tail )
+        throws IOException
+    {
+        int end = tail.length - 22;
+        while ( end >= 0 && getInt( tail, end ) != END_OF_CENTRAL_DIRECTORY )
+        {
+            end--;
+        }
+        if ( end < 0 )
+        {
+            throw new IOException( "Not a zip file, end of central directory not found" );
+        }
+        return end;
+    }
+
+    /**
+     * Finds where the data of an entry starts, after its local file header.
+     *
+     * @throws IOException if the local file header is invalid.
+     */
+    static long getDataOffset( Entry entry )
+        throws IOException
+    {
+        byte[] header = new byte[30];
+        read( entry.channel, entry.localHeaderOffset, header );
+        if ( getInt( header, 0 ) != LOCAL_FILE_HEADER )
+        {
+            throw new IOException( "Invalid local file header for " + entry.name );
+        }
+        return entry.localHeaderOffset + 30 + getShort( header, 26 ) + getShort( header, 28 );
+    }
+
+    /**
+     * Reads bytes at the given position, without moving the position of the channel so that several threads can
+     * read the same archive.
+     */
+    static void read( FileChannel channel, long position, byte[] b )
+        throws IOException
+    {
+        read( channel, position, b, b.length );
+    }
+
+    static void read( FileChannel channel, long position, byte[] b, int length )
+        throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.wrap( b, 0, length );
+        while ( buffer.hasRemaining() )
+        {
+            if ( channel.read( buffer, position + buffer.position() ) < 0 )
+            {
+                throw new EOFException( "Unexpected end of archive" );
+            }
+        }
+    }
+
+    /**
+     * Converts a time to the MS-DOS format of zip files. The time is taken in UTC so that it does not depend on the
+     * time zone of the build.
+     */
+    static long toDosTime( long time )
+    {
+        Calendar calendar = Calendar.getInstance( TimeZone.getTimeZone( "UTC" ), Locale.ENGLISH );
+        calendar.setTimeInMillis( time );
+
+        int year = calendar.get( Calendar.YEAR );
+        if ( year < 1980 )
+        {
+            // 1980-01-01, the earliest date that can be represented
+            return ( 1 << 21 ) | ( 1 << 16 );
+        }
+
+        return ( (long) ( year - 1980 ) << 25 ) | ( ( calendar.get( Calendar.MONTH ) + 1 ) << 21 )
+            | ( calendar.get( Calendar.DAY_OF_MONTH ) << 16 ) | ( calendar.get( Calendar.HOUR_OF_DAY ) << 11 )
+            | ( calendar.get( Calendar.MINUTE ) << 5 ) | ( calendar.get( Calendar.SECOND ) >> 1 );
+    }
+
+    static byte[] copy( byte[] b, int offset, int length )
+    {
+        byte[] copy = new byte[length];
+        System.arraycopy( b, offset, copy, 0, length );
+        return copy;
+    }
+
+    static int getShort( byte[] b, int offset )
+    {
+        return ( b[offset] & 0xFF ) | ( ( b[offset + 1] & 0xFF ) << 8 );
+    }
+
+    static int getInt( byte[] b, int offset )
+    {
+        return getShort( b, offset ) | ( getShort( b, offset + 2 ) << 16 );
+    }
+
+    /**
+     * An entry of an archive, as read from the central directory.
+     */
+    static class Entry
+    {
+        /**
+         * The archive the entry is read from, <code>null</code> for a new entry.
+         */
+        FileChannel channel;
+
+        String name;
+
+        byte[] rawName;
+
+        int versionMadeBy;
+
+        int versionNeeded;
+
+        int flags;
+
+        int method;
+
+        long dosTime;
+
+        long crc;
+
+        long compressedSize;
+
+        long size;
+
+        byte[] extra;
+
+        byte[] comment;
+
+        int internalAttributes;
+
+        long externalAttributes;
+
+        /**
+         * The offset in the original archive, then in the rewritten one.
+         */
+        long localHeaderOffset;
+
+        /**
+         * The content to write, compressed according to {@link #method}.
+         */
+        byte[] data;
+
+        /**
+         * Creates an entry which is not read from an archive, stored until content is written.
+         *
+         * @param name The name of the entry, encoded in UTF-8.
+         * @param dosTime The modification time, in MS-DOS format.
+         */
+        static Entry create( String name, long dosTime )
+        {
+            Entry entry = new Entry();
+            entry.name = name;
+            try
+            {
+                entry.rawName = name.getBytes( "UTF-8" );
+            }
+            catch ( UnsupportedEncodingException e )
+            {
+                throw new IllegalStateException( "UTF-8 not supported" );
+            }
+            entry.versionMadeBy = 20;
+            entry.versionNeeded = 10;
+            entry.flags = UTF8_FLAG;
+            entry.method = STORED;
+            entry.dosTime = dosTime;
+            entry.extra = new byte[0];
+            entry.comment = new byte[0];
+            return entry;
+        }
+    }
+
+    /**
+     * Writes the records of a zip file, keeping track of the offsets.
+     */
+    static class Writer
+    {
+        private final OutputStream out;
+
+        private long written;
+
+        Writer( OutputStream out )
+        {
+            this.out = out;
+        }
+
+        /**
+         * Writes an entry with its content, already compressed according to the method of the entry.
+         */
+        void writeEntry( Entry entry, byte[] data )
+            throws IOException
+        {
+            entry.compressedSize = data.length;
+            if ( entry.method == DEFLATED )
+            {
+                entry.versionNeeded = Math.max( entry.versionNeeded, 20 );
+            }
+
+            writeLocalFileHeader( entry );
+            write( data, data.length );
+        }
+
+        /**
+         * Writes an entry whose content is compressed while it is read, so its sizes and checksum follow the data.
+         */
+        void writeEntry( Entry entry, InputStream is, byte[] buffer )
+            throws IOException
+        {
+            entry.method = DEFLATED;
+            entry.versionNeeded = Math.max( entry.versionNeeded, 20 );
+            entry.flags |= DATA_DESCRIPTOR_FLAG;
+            entry.crc = 0;
+            entry.compressedSize = 0;
+            entry.size = 0;
+
+            writeLocalFileHeader( entry );
+
+            CRC32 crc = new CRC32();
+            byte[] deflated = new byte[8192];
+            Deflater deflater = new Deflater( Deflater.DEFAULT_COMPRESSION, true );
+            try
+            {
+                int n;
+                while ( ( n = is.read( buffer ) ) >= 0 )
+                {
+                    crc.update( buffer, 0, n );
+                    entry.size += n;
+                    deflater.setInput( buffer, 0, n );
+                    while ( !deflater.needsInput() )
+                    {
+                        entry.compressedSize += write( deflated, deflater.deflate( deflated ) );
+                    }
+                }
+                deflater.finish();
+                while ( !deflater.finished() )
+                {
+                    entry.compressedSize += write( deflated, deflater.deflate( deflated ) );
+                }
+            }
+            finally
+            {
+                deflater.end();
+            }
+            entry.crc = crc.getValue();
+
+            writeInt( DATA_DESCRIPTOR );
+            writeInt( entry.crc );
+            writeInt( entry.compressedSize );
+            writeInt( entry.size );
+        }
+
+        /**
+         * Copies the compressed data of an entry from the archive it was read from, without any data descriptor
+         * following it.
+         */
+        void copyEntry( Entry entry, byte[] buffer )
+            throws IOException
+        {
+            long position = getDataOffset( entry );
+
+            entry.flags &= ~DATA_DESCRIPTOR_FLAG;
+            writeLocalFileHeader( entry );
+
+            long remaining = entry.compressedSize;
+            while ( remaining > 0 )
+            {
+                int n = (int) Math.min( buffer.length, remaining );
+                read( entry.channel, position, buffer, n );
+                write( buffer, n );
+                position += n;
+                remaining -= n;
+            }
+        }
+
+        void writeLocalFileHeader( Entry entry )
+            throws IOException
+        {
+            entry.localHeaderOffset = written;
+
+            writeInt( LOCAL_FILE_HEADER );
+            writeShort( entry.versionNeeded );
+            writeShort( entry.flags );
+            writeShort( entry.method );
+            writeInt( entry.dosTime );
+            writeInt( entry.crc );
+            writeInt( entry.compressedSize );
+            writeInt( entry.size );
+            writeShort( entry.rawName.length );
+            writeShort( entry.extra.length );
+            write( entry.rawName, entry.rawName.length );
+            write( entry.extra, entry.extra.length );
+        }
+
+        void writeCentralDirectory( List<Entry> entries, byte[] comment )
+            throws IOException
+        {
+            // 0xFFFF tells that the count is in the Zip64 record
+            if ( entries.size() > MAX_ENTRIES )
+            {
+                throw new IOException( "Too many entries in the archive (" + entries.size()
+                    + "), Zip64 is not supported" );
+            }
+
+            long offset = written;
+
+            for ( Entry entry : entries )
+            {
+                writeInt( CENTRAL_FILE_HEADER );
+                writeShort( entry.versionMadeBy );
+                writeShort( entry.versionNeeded );
+                writeShort( entry.flags );
+                writeShort( entry.method );
+                writeInt( entry.dosTime );
+                writeInt( entry.crc );
+                writeInt( entry.compressedSize );
+                writeInt( entry.size );
+                writeShort( entry.rawName.length );
+                writeShort( entry.extra.length );
+                writeShort( entry.comment.length );
+                writeShort( 0 );
+                writeShort( entry.internalAttributes );
+                writeInt( entry.externalAttributes );
+                writeInt( entry.localHeaderOffset );
+                write( entry.rawName, entry.rawName.length );
+                write( entry.extra, entry.extra.length );
+                write( entry.comment, entry.comment.length );
+            }
+
+            long size = written - offset;
+
+            writeInt( END_OF_CENTRAL_DIRECTORY );
+            writeShort( 0 );
+            writeShort( 0 );
+            writeShort( entries.size() );
+            writeShort( entries.size() );
+            writeInt( size );
+            writeInt( offset );
+            writeShort( comment.length );
+            write( comment, comment.length );
+
+            out.flush();
+        }
+
+        void writeShort( int value )
+            throws IOException
+        {
+            out.write( value & 0xFF );
+            out.write( ( value >>> 8 ) & 0xFF );
+            written += 2;
+        }
+
+        void writeInt( long value )
+            throws IOException
+        {
+            if ( value > 0xFFFFFFFFL )
+            {
+                throw new IOException( "Archive too large, Zip64 is not supported" );
+            }
+            writeShort( (int) ( value & 0xFFFF ) );
+            writeShort( (int) ( ( value >>> 16 ) & 0xFFFF ) );
+        }
+
+        int write( byte[] b, int length )
+            throws IOException
+        {
+            out.write( b, 0, length );
+            written += length;
+            return length;
+        }
+    }
+}
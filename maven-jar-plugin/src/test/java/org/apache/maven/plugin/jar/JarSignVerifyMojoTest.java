@@ -29,6 +29,7 @@ import org.codehaus.plexus.util.cli.StreamConsumer;
 import junit.framework.TestCase;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.IOException;
 
@@ -36,6 +37,9 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
 
 /**
  * These unit tests only check whether the generated command lines are correct.
@@ -203,6 +207,66 @@ public class JarSignVerifyMojoTest
         checkMojo( expectedArguments );
     }
 
+    /**
+     */
+    public void testInProcessUnsignedJar()
+        throws Exception
+    {
+        File jar = createUnsignedJar();
+
+        mojo.setJarPath( jar );
+        mojo.setInProcess( true );
+        mojo.setErrorWhenNotSigned( false );
+
+        mojo.execute();
+
+        assertFalse( mojo.isSigned() );
+        assertEquals( 0, mojo.commandLines.size() );
+    }
+
+    /**
+     */
+    public void testInProcessFailureVerifyFailed()
+        throws Exception
+    {
+        File jar = createUnsignedJar();
+
+        mojo.setJarPath( jar );
+        mojo.setInProcess( true );
+
+        try
+        {
+            mojo.execute();
+            fail( "expected failure" );
+        }
+        catch ( MojoExecutionException e )
+        {
+            assertEquals( "Verify failed: 2 unsigned and 0 tampered entries", e.getMessage() );
+        }
+    }
+
+    private File createUnsignedJar()
+        throws IOException
+    {
+        File jar = new File( System.getProperty( "basedir", "." ), "target/unit-tests/sign-verify/unsigned.jar" );
+        jar.getParentFile().mkdirs();
+
+        JarOutputStream jos = new JarOutputStream( new FileOutputStream( jar ), new Manifest() );
+        try
+        {
+            jos.putNextEntry( new JarEntry( "a.txt" ) );
+            jos.write( "a".getBytes( "UTF-8" ) );
+            jos.putNextEntry( new JarEntry( "b/" ) );
+            jos.putNextEntry( new JarEntry( "b/c.txt" ) );
+            jos.write( "c".getBytes( "UTF-8" ) );
+        }
+        finally
+        {
+            jos.close();
+        }
+        return jar;
+    }
+
     private void checkMojo( String[] expectedCommandLineArguments )
     {
         checkMojo( mojo, expectedCommandLineArguments );
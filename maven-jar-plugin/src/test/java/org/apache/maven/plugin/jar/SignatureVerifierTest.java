@@ -0,0 +1,189 @@
+package org.apache.maven.plugin.jar;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests {@link SignatureVerifier} against a JAR of 200 entries signed with the keystore of the jarsigner plugin
+ * integration tests, and against copies of it where one entry, the manifest or the signature file was altered
+ * after signing.
+ */
+public class SignatureVerifierTest
+    extends TestCase
+{
+    private File basedir;
+
+    protected void setUp()
+        throws Exception
+    {
+        basedir = new File( System.getProperty( "basedir", "." ) );
+    }
+
+    public void testSignedOnCallingThread()
+        throws Exception
+    {
+        assertSigned( new SignatureVerifier().verify( getResource( "signed.jar" ) ) );
+    }
+
+    public void testSignedInParts()
+        throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool( 3 );
+        try
+        {
+            assertSigned( new SignatureVerifier( executor, 3 ).verify( getResource( "signed.jar" ) ) );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The calling thread verifies the parts the executor can not start, as when all its threads are verifying other
+     * archives.
+     */
+    public void testBusyExecutor()
+        throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool( 1 );
+        final CountDownLatch latch = new CountDownLatch( 1 );
+        try
+        {
+            executor.execute( new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        latch.await();
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            } );
+
+            assertSigned( new SignatureVerifier( executor, 3 ).verify( getResource( "signed.jar" ) ) );
+        }
+        finally
+        {
+            latch.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    public void testTampered()
+        throws Exception
+    {
+        SignatureVerifier.Result result = new SignatureVerifier().verify( getResource( "tampered.jar" ) );
+
+        assertFalse( result.isSigned() );
+        assertEquals( 199, result.getSignedEntries() );
+        assertEquals( 1, result.getTamperedEntries().size() );
+        assertTrue( result.getTamperedEntries().get( 0 ).startsWith( "org/example/file1.txt" ) );
+    }
+
+    /**
+     * A digest of the manifest was changed after signing, so the signature file no longer matches it.
+     */
+    public void testTamperedManifest()
+        throws Exception
+    {
+        assertNotVerified( new SignatureVerifier().verify( getResource( "tampered-manifest.jar" ) ) );
+    }
+
+    /**
+     * A digest of the signature file was changed after signing, so the signature block no longer matches it.
+     */
+    public void testTamperedSignatureFile()
+        throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool( 3 );
+        try
+        {
+            assertNotVerified( new SignatureVerifier( executor, 3 ).verify( getResource( "tampered-sf.jar" ) ) );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testUnsigned()
+        throws Exception
+    {
+        File jar = new File( basedir, "target/unit-tests/signature-verifier/unsigned.jar" );
+        jar.getParentFile().mkdirs();
+
+        JarOutputStream jos = new JarOutputStream( new FileOutputStream( jar ), new Manifest() );
+        try
+        {
+            jos.putNextEntry( new JarEntry( "a.txt" ) );
+            jos.write( "a".getBytes( "UTF-8" ) );
+            jos.putNextEntry( new JarEntry( "b/" ) );
+            jos.putNextEntry( new JarEntry( "b/c.txt" ) );
+            jos.write( "c".getBytes( "UTF-8" ) );
+        }
+        finally
+        {
+            jos.close();
+        }
+
+        SignatureVerifier.Result result = new SignatureVerifier().verify( jar );
+
+        assertFalse( result.isSigned() );
+        assertEquals( 0, result.getSignedEntries() );
+        assertEquals( 2, result.getUnsignedEntries().size() );
+        assertTrue( result.getSigners().isEmpty() );
+    }
+
+    private void assertSigned( SignatureVerifier.Result result )
+    {
+        assertTrue( result.isSigned() );
+        assertEquals( 200, result.getSignedEntries() );
+        assertEquals( 1, result.getSigners().size() );
+    }
+
+    private void assertNotVerified( SignatureVerifier.Result result )
+    {
+        assertFalse( result.isSigned() );
+        assertEquals( 0, result.getSignedEntries() );
+        assertEquals( 200, result.getTamperedEntries().size() );
+    }
+
+    private File getResource( String name )
+        throws IOException
+    {
+        return new File( basedir, "src/test/resources/unit/signature-verifier/" + name );
+    }
+}
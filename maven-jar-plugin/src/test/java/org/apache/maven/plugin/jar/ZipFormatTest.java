@@ -0,0 +1,104 @@
+package org.apache.maven.plugin.jar;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipFile;
+
+/**
+ * @author Apache Maven team
+ */
+public class ZipFormatTest
+    extends TestCase
+{
+    private File directory;
+
+    protected void setUp()
+        throws Exception
+    {
+        directory = new File( System.getProperty( "basedir", "." ), "target/unit/zip-format" );
+        FileUtils.deleteDirectory( directory );
+        directory.mkdirs();
+    }
+
+    public void testMaximumEntries()
+        throws Exception
+    {
+        File archive = new File( directory, "max.zip" );
+        writeArchive( archive, ZipFormat.MAX_ENTRIES );
+
+        ZipFile zipFile = new ZipFile( archive );
+        try
+        {
+            assertEquals( ZipFormat.MAX_ENTRIES, zipFile.size() );
+            assertNotNull( zipFile.getEntry( "entry-" + ( ZipFormat.MAX_ENTRIES - 1 ) ) );
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+
+    public void testTooManyEntries()
+        throws Exception
+    {
+        try
+        {
+            writeArchive( new File( directory, "over.zip" ), ZipFormat.MAX_ENTRIES + 1 );
+            fail( "more entries than the end of central directory can count" );
+        }
+        catch ( IOException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().indexOf( "Too many entries" ) >= 0 );
+        }
+    }
+
+    private static void writeArchive( File archive, int count )
+        throws IOException
+    {
+        OutputStream out = new BufferedOutputStream( new FileOutputStream( archive ) );
+        try
+        {
+            ZipFormat.Writer writer = new ZipFormat.Writer( out );
+            List<ZipFormat.Entry> entries = new ArrayList<ZipFormat.Entry>( count );
+            long dosTime = ZipFormat.toDosTime( System.currentTimeMillis() );
+            for ( int i = 0; i < count; i++ )
+            {
+                ZipFormat.Entry entry = ZipFormat.Entry.create( "entry-" + i, dosTime );
+                writer.writeEntry( entry, new byte[0] );
+                entries.add( entry );
+            }
+            writer.writeCentralDirectory( entries, new byte[0] );
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+}
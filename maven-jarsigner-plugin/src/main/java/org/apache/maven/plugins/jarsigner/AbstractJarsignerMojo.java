@@ -37,12 +37,20 @@ import org.codehaus.plexus.util.cli.Commandline;
 import java.io.File;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Maven Jarsigner Plugin base class.
@@ -169,28 +177,43 @@ public abstract class AbstractJarsignerMojo
     @Parameter( defaultValue = "${project.basedir}" )
     private File workingDirectory;
 
+    /**
+     * The number of archives processed at the same time, each by its own jarsigner process. A value of
+     * <code>0</code> or less uses one thread per available processor. When archives are processed concurrently,
+     * all of them are processed even if some fail, and the failures are reported together at the end. The same
+     * threads share the verification of large archives when signatures are verified in process.
+     *
+     * @since 1.3
+     */
+    @Parameter( property = "jarsigner.threads", defaultValue = "1" )
+    private int threads;
+
     /**
      */
     @Component
     private JarSigner jarSigner;
 
+    /**
+     * The verifier of the archives being processed, sharing the threads processing them.
+     */
+    private SignatureVerifier signatureVerifier;
+
     public final void execute()
         throws MojoExecutionException
     {
         if ( !this.skip )
         {
-            int processed = 0;
+            List<File> archives = new ArrayList<File>();
 
             if ( this.archive != null )
             {
-                processArchive( this.archive );
-                processed++;
+                archives.add( this.archive );
             }
             else
             {
                 if ( processMainArtifact )
                 {
-                    processed += processArtifact( this.project.getArtifact() ) ? 1 : 0;
+                    addArtifact( this.project.getArtifact(), archives );
                 }
 
                 if ( processAttachedArtifacts && !Boolean.FALSE.equals( attachments ) )
@@ -221,7 +244,7 @@ public abstract class AbstractJarsignerMojo
                             continue;
                         }
 
-                        processed += processArtifact( artifact ) ? 1 : 0;
+                        addArtifact( artifact, archives );
                     }
                 }
                 else
@@ -254,14 +277,13 @@ public abstract class AbstractJarsignerMojo
 
                     for ( Iterator it = jarFiles.iterator(); it.hasNext(); )
                     {
-                        File jarFile = (File) it.next();
-
-                        processArchive( jarFile );
-                        processed++;
+                        archives.add( (File) it.next() );
                     }
                 }
             }
 
+            int processed = processArchives( archives );
+
             getLog().info( getMessage( "processed", Integer.valueOf( processed ) ) );
         }
         else
@@ -310,15 +332,14 @@ public abstract class AbstractJarsignerMojo
     }
 
     /**
-     * Processes a given artifact.
+     * Selects a given artifact for processing.
      *
      * @param artifact The artifact to process.
-     * @return <code>true</code> if the artifact is a JAR and was processed, <code>false</code> otherwise.
+     * @param archives The archives to process, the file of the artifact is added to it if it is a JAR.
+     * @return <code>true</code> if the artifact is a JAR and was added, <code>false</code> otherwise.
      * @throws NullPointerException   if {@code artifact} is {@code null}.
-     * @throws MojoExecutionException if processing {@code artifact} fails.
      */
-    private boolean processArtifact( final Artifact artifact )
-        throws MojoExecutionException
+    private boolean addArtifact( final Artifact artifact, final List<File> archives )
     {
         if ( artifact == null )
         {
@@ -329,7 +350,7 @@ public abstract class AbstractJarsignerMojo
 
         if ( isZipFile( artifact ) )
         {
-            processArchive( artifact.getFile() );
+            archives.add( artifact.getFile() );
 
             processed = true;
         }
@@ -360,14 +381,170 @@ public abstract class AbstractJarsignerMojo
         // default does nothing
     }
 
+    /**
+     * Checks whether a given archive does not need to be processed again. Such an archive is skipped and not counted
+     * as processed.
+     * <p>The default implementation returns <code>false</code>.</p>
+     *
+     * @param archive The archive to check, must not be <code>null</code>.
+     * @return <code>true</code> if the archive must be skipped, <code>false</code> otherwise.
+     * @throws MojoExecutionException If checking the archive failed.
+     * @since 1.3
+     */
+    protected boolean isAlreadyProcessed( final File archive )
+        throws MojoExecutionException
+    {
+        return false;
+    }
+
+    /**
+     * Processes a given archive without running jarsigner.
+     * <p>The default implementation does nothing and lets jarsigner process the archive.</p>
+     *
+     * @param archive The archive to process, must not be <code>null</code>.
+     * @return <code>true</code> if the archive has been processed and jarsigner must not be run,
+     *         <code>false</code> otherwise.
+     * @throws MojoExecutionException If processing failed.
+     * @since 1.3
+     */
+    protected boolean processArchiveInProcess( final File archive )
+        throws MojoExecutionException
+    {
+        return false;
+    }
+
+    /**
+     * Gets the verifier of the archives being processed, which shares the threads processing them.
+     *
+     * @return The verifier, never <code>null</code> while archives are processed.
+     * @since 1.3
+     */
+    protected SignatureVerifier getSignatureVerifier()
+    {
+        return signatureVerifier;
+    }
+
+    /**
+     * Checks whether verbose output is enabled.
+     *
+     * @return <code>true</code> if verbose output is enabled.
+     * @since 1.3
+     */
+    protected boolean isVerbose()
+    {
+        return verbose;
+    }
+
+    /**
+     * Processes the given archives, concurrently if more than one thread is configured.
+     *
+     * @param archives The archives to process.
+     * @return The number of archives processed, not counting the archives skipped.
+     * @throws MojoExecutionException if processing an archive fails.
+     */
+    private int processArchives( final List<File> archives )
+        throws MojoExecutionException
+    {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        int processed = 0;
+
+        if ( poolSize <= 1 || archives.isEmpty() )
+        {
+            signatureVerifier = new SignatureVerifier();
+
+            for ( File file : archives )
+            {
+                if ( processArchive( file ) )
+                {
+                    processed++;
+                }
+            }
+            return processed;
+        }
+
+        long start = System.currentTimeMillis();
+
+        // the threads left idle by the archives verify the parts of large archives
+        ExecutorService executor = Executors.newFixedThreadPool( poolSize );
+
+        signatureVerifier = new SignatureVerifier( executor, poolSize );
+
+        Map<File, Future<Boolean>> futures = new LinkedHashMap<File, Future<Boolean>>();
+
+        List<MojoExecutionException> failures = new ArrayList<MojoExecutionException>();
+
+        try
+        {
+            for ( final File file : archives )
+            {
+                futures.put( file, executor.submit( new Callable<Boolean>()
+                {
+                    public Boolean call()
+                        throws MojoExecutionException
+                    {
+                        return Boolean.valueOf( processArchive( file ) );
+                    }
+                } ) );
+            }
+
+            for ( Map.Entry<File, Future<Boolean>> entry : futures.entrySet() )
+            {
+                try
+                {
+                    if ( entry.getValue().get().booleanValue() )
+                    {
+                        processed++;
+                    }
+                }
+                catch ( ExecutionException e )
+                {
+                    MojoExecutionException failure;
+                    if ( e.getCause() instanceof MojoExecutionException )
+                    {
+                        failure = (MojoExecutionException) e.getCause();
+                    }
+                    else
+                    {
+                        failure = new MojoExecutionException( entry.getKey() + ": " + e.getCause(), e.getCause() );
+                    }
+                    getLog().error( failure.getMessage() );
+                    failures.add( failure );
+                }
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException( "Interrupted while processing archives", e );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        getLog().info( getMessage( "processedConcurrently", new Object[]{ Integer.valueOf( processed ),
+            Integer.valueOf( poolSize ), Long.valueOf( System.currentTimeMillis() - start ) } ) );
+
+        if ( !failures.isEmpty() )
+        {
+            throw new MojoExecutionException(
+                getMessage( "failures", Integer.valueOf( failures.size() ), Integer.valueOf( archives.size() ) ),
+                failures.get( 0 ) );
+        }
+
+        return processed;
+    }
+
     /**
      * Processes a given archive.
      *
      * @param archive The archive to process.
+     * @return <code>true</code> if the archive was processed, <code>false</code> if it was skipped.
      * @throws NullPointerException   if {@code archive} is {@code null}.
      * @throws MojoExecutionException if processing {@code archive} fails.
      */
-    private void processArchive( final File archive )
+    private boolean processArchive( final File archive )
         throws MojoExecutionException
     {
         if ( archive == null )
@@ -375,6 +552,23 @@ public abstract class AbstractJarsignerMojo
             throw new NullPointerException( "archive" );
         }
 
+        if ( isAlreadyProcessed( archive ) )
+        {
+            return false;
+        }
+
+        long start = System.currentTimeMillis();
+
+        if ( processArchiveInProcess( archive ) )
+        {
+            if ( getLog().isDebugEnabled() )
+            {
+                getLog().debug(
+                    getMessage( "processedIn", archive, Long.valueOf( System.currentTimeMillis() - start ) ) );
+            }
+            return true;
+        }
+
         preProcessArchive( archive );
 
         if ( this.verbose )
@@ -386,7 +580,14 @@ public abstract class AbstractJarsignerMojo
             getLog().debug( getMessage( "processing", archive ) );
         }
 
-        JarSignerRequest request = createRequest( archive );
+        JarSignerRequest request;
+
+        // password decryption is not meant to be used concurrently
+        synchronized ( this )
+        {
+            request = createRequest( archive );
+        }
+
         request.setArchive( archive );
         request.setWorkingDirectory( workingDirectory );
         request.setMaxMemory( maxMemory );
@@ -406,6 +607,18 @@ public abstract class AbstractJarsignerMojo
                     getMessage( "failure", getCommandlineInfo( commandLine ), new Integer( resultCode ) ) );
             }
 
+            Long millis = Long.valueOf( System.currentTimeMillis() - start );
+
+            if ( this.verbose )
+            {
+                getLog().info( getMessage( "processedIn", archive, millis ) );
+            }
+            else if ( getLog().isDebugEnabled() )
+            {
+                getLog().debug( getMessage( "processedIn", archive, millis ) );
+            }
+
+            return true;
         }
         catch ( JarSignerException e )
         {
@@ -424,7 +637,7 @@ public abstract class AbstractJarsignerMojo
      *                              if there is no message available matching {@code key} or accessing
      *                              the resource bundle fails.
      */
-    private String getMessage( final String key, final Object[] args )
+    String getMessage( final String key, final Object[] args )
     {
         if ( key == null )
         {
@@ -439,12 +652,12 @@ public abstract class AbstractJarsignerMojo
         return getMessage( key, null );
     }
 
-    private String getMessage( final String key, final Object arg )
+    String getMessage( final String key, final Object arg )
     {
         return getMessage( key, new Object[]{ arg } );
     }
 
-    private String getMessage( final String key, final Object arg1, final Object arg2 )
+    String getMessage( final String key, final Object arg1, final Object arg2 )
     {
         return getMessage( key, new Object[]{ arg1, arg2 } );
     }
@@ -27,13 +27,19 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.shared.jarsigner.JarSignerRequest;
 import org.apache.maven.shared.jarsigner.JarSignerSignRequest;
 import org.apache.maven.shared.jarsigner.JarSignerUtil;
+import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.cli.Commandline;
 import org.sonatype.plexus.components.sec.dispatcher.SecDispatcher;
 import org.sonatype.plexus.components.sec.dispatcher.SecDispatcherException;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
 
 /**
  * Signs a project artifact and attachments using jarsigner.
@@ -110,12 +116,130 @@ public class JarsignerSignMojo
     @Parameter( property = "jarsigner.removeExistingSignatures", defaultValue = "false" )
     private boolean removeExistingSignatures;
 
+    /**
+     * Indicates whether archives already signed with the certificate of {@link #alias} in {@link #keystore} should
+     * be left as they are. The existing signature is verified in process, which is much faster than signing again.
+     * This is ignored if {@link #removeExistingSignatures} is enabled.
+     *
+     * @since 1.3
+     */
+    @Parameter( property = "jarsigner.skipAlreadySigned", defaultValue = "false" )
+    private boolean skipAlreadySigned;
+
     /**
      * @since 1.3
      */
     @Component( hint = "mng-4384")
     private SecDispatcher securityDispatcher;
 
+    /**
+     * The certificate of the alias, {@code null} if it could not be loaded.
+     */
+    private Certificate aliasCertificate;
+
+    private boolean aliasCertificateLoaded;
+
+    protected boolean isAlreadyProcessed( final File archive )
+        throws MojoExecutionException
+    {
+        if ( !skipAlreadySigned || removeExistingSignatures )
+        {
+            return false;
+        }
+
+        Certificate certificate = getAliasCertificate();
+
+        if ( certificate == null )
+        {
+            return false;
+        }
+
+        SignatureVerifier.Result result;
+        try
+        {
+            result = getSignatureVerifier().verify( archive );
+        }
+        catch ( IOException e )
+        {
+            getLog().debug( "Failed to verify archive " + archive + ": " + e.getMessage(), e );
+            return false;
+        }
+
+        if ( result.isSigned() && result.getSigners().contains( certificate ) )
+        {
+            getLog().info( getMessage( "alreadySigned", archive, alias ) );
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Loads the certificate of the alias from the keystore, once.
+     *
+     * @return The certificate, or {@code null} if the keystore is not a readable file or has no such alias.
+     * @throws MojoExecutionException if the store password could not be decrypted.
+     */
+    private synchronized Certificate getAliasCertificate()
+        throws MojoExecutionException
+    {
+        if ( aliasCertificateLoaded )
+        {
+            return aliasCertificate;
+        }
+
+        aliasCertificateLoaded = true;
+
+        // jarsigner uses the .keystore file of the user's home directory by default
+        File keystoreFile = keystore != null ? new File( keystore )
+            : new File( System.getProperty( "user.home" ), ".keystore" );
+
+        if ( !keystoreFile.isFile() )
+        {
+            getLog().debug( "Keystore " + keystoreFile + " is not a file, archives will be signed again" );
+            return null;
+        }
+
+        String password;
+        try
+        {
+            password = securityDispatcher.decrypt( storepass );
+        }
+        catch ( SecDispatcherException e )
+        {
+            throw new MojoExecutionException( "error using security dispatcher: " + e.getMessage(), e );
+        }
+
+        InputStream in = null;
+        try
+        {
+            String type = storetype != null ? storetype : KeyStore.getDefaultType();
+            KeyStore keyStore = providerName != null ? KeyStore.getInstance( type, providerName )
+                : KeyStore.getInstance( type );
+
+            in = new FileInputStream( keystoreFile );
+            keyStore.load( in, password != null ? password.toCharArray() : null );
+
+            aliasCertificate = keyStore.getCertificate( alias );
+        }
+        catch ( GeneralSecurityException e )
+        {
+            getLog().warn( "Failed to load keystore " + keystoreFile + ", archives will be signed again: "
+                + e.getMessage() );
+        }
+        catch ( IOException e )
+        {
+            getLog().warn( "Failed to load keystore " + keystoreFile + ", archives will be signed again: "
+                + e.getMessage() );
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+
+        return aliasCertificate;
+    }
+
     protected String getCommandlineInfo( final Commandline commandLine )
     {
         String commandLineInfo = commandLine != null ? commandLine.toString() : null;
@@ -19,6 +19,7 @@ package org.apache.maven.plugins.jarsigner;
  * under the License.
  */
 
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
@@ -26,6 +27,9 @@ import org.apache.maven.shared.jarsigner.JarSignerRequest;
 import org.apache.maven.shared.jarsigner.JarSignerVerifyRequest;
 
 import java.io.File;
+import java.io.IOException;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
 
 /**
  * Checks the signatures of a project artifact and attachments using jarsigner.
@@ -45,6 +49,73 @@ public class JarsignerVerifyMojo
     @Parameter( property = "jarsigner.certs", defaultValue = "false" )
     private boolean certs;
 
+    /**
+     * Verifies the archives in process instead of running <code>jarsigner -verify</code>. Every entry is checked
+     * against the signature files and the unsigned or altered entries are reported, but the certificates themselves
+     * are not validated.
+     *
+     * @since 1.3
+     */
+    @Parameter( property = "jarsigner.inProcess", defaultValue = "false" )
+    private boolean inProcess;
+
+    protected boolean processArchiveInProcess( final File archive )
+        throws MojoExecutionException
+    {
+        if ( !inProcess )
+        {
+            return false;
+        }
+
+        SignatureVerifier.Result result;
+        try
+        {
+            result = getSignatureVerifier().verify( archive );
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Failed to verify archive " + archive + ": " + e.getMessage(), e );
+        }
+
+        if ( !result.isSigned() )
+        {
+            for ( String entry : result.getUnsignedEntries() )
+            {
+                getLog().error( getMessage( "unsignedEntry", entry ) );
+            }
+            for ( String entry : result.getTamperedEntries() )
+            {
+                getLog().error( getMessage( "tamperedEntry", entry ) );
+            }
+
+            throw new MojoExecutionException( getMessage( "notSigned", new Object[]{ archive,
+                Integer.valueOf( result.getUnsignedEntries().size() ),
+                Integer.valueOf( result.getTamperedEntries().size() ) } ) );
+        }
+
+        String message = getMessage( "verified", archive, Integer.valueOf( result.getSignedEntries() ) );
+        if ( isVerbose() )
+        {
+            getLog().info( message );
+        }
+        else
+        {
+            getLog().debug( message );
+        }
+
+        if ( certs )
+        {
+            for ( Certificate certificate : result.getSigners() )
+            {
+                getLog().info( certificate instanceof X509Certificate
+                    ? ( (X509Certificate) certificate ).getSubjectX500Principal().getName()
+                    : certificate.toString() );
+            }
+        }
+
+        return true;
+    }
+
     protected JarSignerRequest createRequest( File archive )
     {
         JarSignerVerifyRequest request = new JarSignerVerifyRequest();
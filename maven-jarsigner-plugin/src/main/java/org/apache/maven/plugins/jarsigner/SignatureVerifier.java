@@ -0,0 +1,327 @@
+package org.apache.maven.plugins.jarsigner;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.CodeSigner;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Verifies the signature of a JAR file in process, using a {@link JarFile} opened with verification enabled.
+ * <p>
+ * Every entry is read completely so that its digest is checked against the signature files. Large archives can be
+ * split in several parts, each reading its share of the entries through its own {@link JarFile}. The parts are
+ * handed to the executor of the caller, typically the one already processing several archives concurrently, and the
+ * calling thread verifies every part that no thread of the executor has started, so that verifying never waits for
+ * a busy executor.
+ * </p>
+ *
+ * @author Apache Maven team
+ * @version $Id$
+ */
+public class SignatureVerifier
+{
+    /**
+     * Archives with fewer entries per part are verified by the calling thread only.
+     */
+    private static final int MIN_ENTRIES_PER_PART = 64;
+
+    private final Executor executor;
+
+    private final int parts;
+
+    /**
+     * Creates a verifier reading the entries on the calling thread only.
+     */
+    public SignatureVerifier()
+    {
+        this( null, 1 );
+    }
+
+    /**
+     * @param executor The executor sharing the verification of large archives, <code>null</code> to verify on the
+     *            calling thread only.
+     * @param parts The maximum number of parts an archive is split in, usually the number of threads of the
+     *            executor.
+     */
+    public SignatureVerifier( Executor executor, int parts )
+    {
+        this.executor = executor;
+        this.parts = executor != null ? Math.max( 1, parts ) : 1;
+    }
+
+    /**
+     * Verifies the given archive.
+     *
+     * @param archive The archive to verify, must not be <code>null</code>.
+     * @return The outcome of the verification, never <code>null</code>.
+     * @throws IOException if the archive could not be read.
+     */
+    public Result verify( final File archive )
+        throws IOException
+    {
+        int size;
+        JarFile jarFile = new JarFile( archive, true );
+        try
+        {
+            size = jarFile.size();
+        }
+        finally
+        {
+            jarFile.close();
+        }
+
+        final int count = Math.max( 1, Math.min( parts, size / MIN_ENTRIES_PER_PART ) );
+
+        List<FutureTask<Result>> tasks = new ArrayList<FutureTask<Result>>();
+        for ( int i = 1; i < count; i++ )
+        {
+            final int part = i;
+            FutureTask<Result> task = new FutureTask<Result>( new Callable<Result>()
+            {
+                public Result call()
+                    throws IOException
+                {
+                    return verify( archive, part, count );
+                }
+            } );
+            tasks.add( task );
+            executor.execute( task );
+        }
+
+        Result result = verify( archive, 0, count );
+
+        try
+        {
+            for ( FutureTask<Result> task : tasks )
+            {
+                // does nothing if a thread of the executor already took the part
+                task.run();
+                result.add( task.get() );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException( "Interrupted while verifying " + archive );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof IOException )
+            {
+                throw (IOException) e.getCause();
+            }
+            IOException ioe = new IOException( "Failed to verify " + archive + ": " + e.getCause() );
+            ioe.initCause( e.getCause() );
+            throw ioe;
+        }
+        finally
+        {
+            for ( FutureTask<Result> task : tasks )
+            {
+                task.cancel( false );
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Verifies every entry whose index modulo {@code parts} equals {@code part}.
+     */
+    private Result verify( File archive, int part, int parts )
+        throws IOException
+    {
+        Result result = new Result();
+
+        byte[] buffer = new byte[8192];
+
+        JarFile jarFile = new JarFile( archive, true );
+        try
+        {
+            int index = 0;
+            for ( Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements(); index++ )
+            {
+                JarEntry entry = entries.nextElement();
+
+                if ( index % parts != part || entry.isDirectory() || isSignatureRelated( entry.getName() ) )
+                {
+                    continue;
+                }
+
+                // the signature files are checked when the first stream is opened, failing for every entry if they
+                // were altered
+                try
+                {
+                    InputStream is = jarFile.getInputStream( entry );
+                    try
+                    {
+                        while ( is.read( buffer ) >= 0 )
+                        {
+                            // the digest is checked once the entry has been read completely
+                        }
+                    }
+                    finally
+                    {
+                        is.close();
+                    }
+                }
+                catch ( SecurityException e )
+                {
+                    result.tamperedEntries.add( entry.getName() + ": " + e.getMessage() );
+                    continue;
+                }
+
+                CodeSigner[] signers = entry.getCodeSigners();
+                if ( signers == null || signers.length == 0 )
+                {
+                    result.unsignedEntries.add( entry.getName() );
+                    continue;
+                }
+
+                result.signedEntries++;
+
+                Set<Certificate> certificates = new HashSet<Certificate>();
+                for ( CodeSigner signer : signers )
+                {
+                    certificates.add( signer.getSignerCertPath().getCertificates().get( 0 ) );
+                }
+                result.retainSigners( certificates );
+            }
+        }
+        finally
+        {
+            jarFile.close();
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether the given entry is the manifest or a signature file, which are not signed themselves.
+     */
+    private static boolean isSignatureRelated( String name )
+    {
+        String upper = name.toUpperCase( Locale.ENGLISH );
+
+        if ( !upper.startsWith( "META-INF/" ) || upper.indexOf( '/', "META-INF/".length() ) >= 0 )
+        {
+            return false;
+        }
+
+        return upper.equals( JarFile.MANIFEST_NAME ) || upper.endsWith( ".SF" ) || upper.endsWith( ".DSA" )
+            || upper.endsWith( ".RSA" ) || upper.endsWith( ".EC" ) || upper.startsWith( "META-INF/SIG-" );
+    }
+
+    /**
+     * The outcome of the verification of an archive.
+     */
+    public static class Result
+    {
+        private int signedEntries;
+
+        private final List<String> unsignedEntries = new ArrayList<String>();
+
+        private final List<String> tamperedEntries = new ArrayList<String>();
+
+        /**
+         * The certificates of the signers common to all signed entries, <code>null</code> until an entry is signed.
+         */
+        private Set<Certificate> signers;
+
+        private void retainSigners( Set<Certificate> certificates )
+        {
+            if ( signers == null )
+            {
+                signers = new HashSet<Certificate>( certificates );
+            }
+            else
+            {
+                signers.retainAll( certificates );
+            }
+        }
+
+        private void add( Result other )
+        {
+            signedEntries += other.signedEntries;
+            unsignedEntries.addAll( other.unsignedEntries );
+            tamperedEntries.addAll( other.tamperedEntries );
+            if ( other.signers != null )
+            {
+                retainSigners( other.signers );
+            }
+        }
+
+        /**
+         * @return <code>true</code> if the archive has signed entries only, none of them altered since signing.
+         */
+        public boolean isSigned()
+        {
+            return signedEntries > 0 && unsignedEntries.isEmpty() && tamperedEntries.isEmpty();
+        }
+
+        /**
+         * @return The number of signed entries, not counting the manifest and signature files.
+         */
+        public int getSignedEntries()
+        {
+            return signedEntries;
+        }
+
+        /**
+         * @return The names of the entries that are not signed.
+         */
+        public List<String> getUnsignedEntries()
+        {
+            return Collections.unmodifiableList( unsignedEntries );
+        }
+
+        /**
+         * @return The names of the entries whose content does not match their signature, with the reason.
+         */
+        public List<String> getTamperedEntries()
+        {
+            return Collections.unmodifiableList( tamperedEntries );
+        }
+
+        /**
+         * @return The certificates of the signers that signed every signed entry.
+         */
+        public Set<Certificate> getSigners()
+        {
+            return signers != null ? Collections.unmodifiableSet( signers ) : Collections.<Certificate>emptySet();
+        }
+    }
+}
@@ -0,0 +1,756 @@
+package org.apache.maven.plugins.linkcheck;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.doxia.linkcheck.model.LinkcheckFileResult;
+import org.apache.maven.doxia.linkcheck.validation.HTTPLinkValidationResult;
+import org.apache.maven.doxia.linkcheck.validation.LinkValidationResult;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.Base64;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.SelectorUtils;
+import org.codehaus.plexus.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.Proxy;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks the external links of the site concurrently, before Doxia Linkcheck runs: Doxia Linkcheck checks the links
+ * one after the other, so its cache is filled beforehand with the results of this checker.
+ * <p>
+ * Each URL is checked once, whatever the number of pages linking to it. The hosts are checked in parallel, with a
+ * limited number of connections to each host. The valid results are kept in a cache of the local repository, with one
+ * file per host, so that the modules of a build and the next builds do not check them again until they expire.
+ * </p>
+ *
+ * @version $Id$
+ * @since 1.2
+ */
+public class HttpLinkChecker
+{
+    /**
+     * The directory of the results cache, relative to the local repository.
+     */
+    public static final String CACHE_DIRECTORY = ".cache/maven-linkcheck-plugin";
+
+    /**
+     * The same user agent as Doxia Linkcheck, as some servers reject unknown agents.
+     */
+    private static final String USER_AGENT = "Mozilla/4.0 (compatible; MSIE 6.0; Windows NT 5.0)";
+
+    private static final Pattern LINK_PATTERN =
+        Pattern.compile( "(?:href|src)\\s*=\\s*[\"']?(https?://[^\"'\\s>]+)", Pattern.CASE_INSENSITIVE );
+
+    /**
+     * Serializes the updates of the cache files by the modules of a build.
+     */
+    private static final Object LOCK = new Object();
+
+    private final Log log;
+
+    private String method = "head";
+
+    private boolean followRedirects = true;
+
+    private int timeout;
+
+    private int threads = 10;
+
+    private int connectionsPerHost = 2;
+
+    private long cacheTimeToLive;
+
+    private File cacheDirectory;
+
+    private Proxy proxy = Proxy.NO_PROXY;
+
+    private String proxyAuthorization;
+
+    private String[] nonProxyHosts;
+
+    private String[] excludedLinks;
+
+    /**
+     * @param log the Maven log, not null
+     */
+    public HttpLinkChecker( Log log )
+    {
+        this.log = log;
+    }
+
+    /**
+     * @param method the HTTP method to use first, "head" or "get"
+     */
+    public void setMethod( String method )
+    {
+        this.method = method;
+    }
+
+    public void setFollowRedirects( boolean followRedirects )
+    {
+        this.followRedirects = followRedirects;
+    }
+
+    /**
+     * @param timeout the connect and read timeout in milliseconds, zero for no timeout
+     */
+    public void setTimeout( int timeout )
+    {
+        this.timeout = timeout;
+    }
+
+    /**
+     * @param threads the number of links checked at the same time
+     */
+    public void setThreads( int threads )
+    {
+        this.threads = threads;
+    }
+
+    /**
+     * @param connectionsPerHost the number of links of the same host checked at the same time
+     */
+    public void setConnectionsPerHost( int connectionsPerHost )
+    {
+        this.connectionsPerHost = connectionsPerHost;
+    }
+
+    /**
+     * @param cacheDirectory the directory of the results cache, or <code>null</code> to disable the cache
+     * @param cacheTimeToLive how long a cached result is used, in milliseconds
+     */
+    public void setCache( File cacheDirectory, long cacheTimeToLive )
+    {
+        this.cacheDirectory = cacheDirectory;
+        this.cacheTimeToLive = cacheTimeToLive;
+    }
+
+    /**
+     * @param proxy the HTTP proxy to use
+     * @param user the proxy user, or <code>null</code>
+     * @param password the proxy password, or <code>null</code>
+     * @param nonProxyHosts the hosts to reach without proxy, separated by '|', with '*' wildcards, or
+     *            <code>null</code>
+     */
+    public void setProxy( Proxy proxy, String user, String password, String nonProxyHosts )
+    {
+        this.proxy = proxy;
+        if ( StringUtils.isNotEmpty( user ) )
+        {
+            try
+            {
+                String credentials = user + ':' + StringUtils.defaultString( password );
+                byte[] encoded = Base64.encodeBase64( credentials.getBytes( "ISO-8859-1" ) );
+                proxyAuthorization = "Basic " + new String( encoded, "ISO-8859-1" );
+            }
+            catch ( UnsupportedEncodingException e )
+            {
+                throw new IllegalStateException( e.getMessage() );
+            }
+        }
+        this.nonProxyHosts = StringUtils.isEmpty( nonProxyHosts ) ? null : StringUtils.split( nonProxyHosts, "|" );
+    }
+
+    /**
+     * @param excludedLinks the patterns of the links excluded by the user, which are left to Doxia Linkcheck
+     */
+    public void setExcludedLinks( String[] excludedLinks )
+    {
+        this.excludedLinks = excludedLinks;
+    }
+
+    /**
+     * Finds the external links of some documents, without duplicates.
+     *
+     * @param documents the HTML documents, not null
+     * @param encoding the encoding of the documents, not null
+     * @return the HTTP links to check, as they appear in the documents but without anchor
+     * @throws IOException if a document cannot be read
+     */
+    public Set findLinks( List documents, String encoding )
+        throws IOException
+    {
+        Set links = new TreeSet();
+        for ( Iterator it = documents.iterator(); it.hasNext(); )
+        {
+            String content = FileUtils.fileRead( (File) it.next(), encoding );
+            Matcher matcher = LINK_PATTERN.matcher( content );
+            while ( matcher.find() )
+            {
+                String link = getResourceKey( matcher.group( 1 ) );
+                if ( !isExcluded( link ) )
+                {
+                    links.add( link );
+                }
+            }
+        }
+        return links;
+    }
+
+    /**
+     * Checks some links, using the cached results which did not expire yet.
+     *
+     * @param links the links to check, as returned by {@link #findLinks(List, String)}, not null
+     * @return the results of the links, by link
+     */
+    public Map checkLinks( Set links )
+    {
+        // the links by host, in the order of the links
+        Map hosts = new LinkedHashMap();
+        for ( Iterator it = links.iterator(); it.hasNext(); )
+        {
+            String link = (String) it.next();
+            String host;
+            try
+            {
+                host = new URL( decode( link ) ).getHost().toLowerCase();
+            }
+            catch ( MalformedURLException e )
+            {
+                // left to Doxia Linkcheck
+                continue;
+            }
+            List hostLinks = (List) hosts.get( host );
+            if ( hostLinks == null )
+            {
+                hostLinks = new ArrayList();
+                hosts.put( host, hostLinks );
+            }
+            hostLinks.add( link );
+        }
+
+        // the links to check by host, and the results of the checks by host
+        Map results = new HashMap();
+        Map queues = new LinkedHashMap();
+        Map checked = new HashMap();
+        int count = 0;
+        long now = System.currentTimeMillis();
+        for ( Iterator it = hosts.entrySet().iterator(); it.hasNext(); )
+        {
+            Map.Entry entry = (Map.Entry) it.next();
+            Map cached = readCache( (String) entry.getKey() );
+            LinkedList queue = new LinkedList();
+            for ( Iterator hostLinks = ( (List) entry.getValue() ).iterator(); hostLinks.hasNext(); )
+            {
+                String link = (String) hostLinks.next();
+                CheckResult cachedResult = (CheckResult) cached.get( link );
+                if ( cachedResult != null && now - cachedResult.checked < cacheTimeToLive )
+                {
+                    results.put( link, cachedResult );
+                }
+                else
+                {
+                    queue.add( link );
+                }
+            }
+            if ( !queue.isEmpty() )
+            {
+                queues.put( entry.getKey(), queue );
+                checked.put( entry.getKey(), new HashMap() );
+                count += queue.size();
+            }
+        }
+
+        log.info( "Checking " + count + " external links on " + queues.size() + " hosts, "
+            + ( links.size() - count ) + " links from the cache..." );
+
+        if ( count > 0 )
+        {
+            // a host is checked by at most connectionsPerHost workers, each one taking the next link of the host
+            ExecutorService executor = Executors.newFixedThreadPool( Math.max( 1, threads ) );
+            try
+            {
+                for ( Iterator it = queues.entrySet().iterator(); it.hasNext(); )
+                {
+                    Map.Entry entry = (Map.Entry) it.next();
+                    LinkedList queue = (LinkedList) entry.getValue();
+                    int workers = Math.min( Math.max( 1, connectionsPerHost ), queue.size() );
+                    for ( int i = 0; i < workers; i++ )
+                    {
+                        executor.execute( new HostWorker( queue, (Map) checked.get( entry.getKey() ) ) );
+                    }
+                }
+            }
+            finally
+            {
+                executor.shutdown();
+            }
+            try
+            {
+                while ( !executor.awaitTermination( 1, TimeUnit.MINUTES ) )
+                {
+                    log.debug( "Still checking external links..." );
+                }
+            }
+            catch ( InterruptedException e )
+            {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+
+            for ( Iterator it = checked.values().iterator(); it.hasNext(); )
+            {
+                Map hostResults = (Map) it.next();
+                synchronized ( hostResults )
+                {
+                    results.putAll( hostResults );
+                }
+            }
+            writeCache( checked );
+        }
+
+        Map linkResults = new HashMap();
+        for ( Iterator it = results.entrySet().iterator(); it.hasNext(); )
+        {
+            Map.Entry entry = (Map.Entry) it.next();
+            linkResults.put( entry.getKey(), ( (CheckResult) entry.getValue() ).toLinkValidationResult() );
+        }
+        return linkResults;
+    }
+
+    /**
+     * Adds some results to the cache file of Doxia Linkcheck, which uses them instead of checking the links again.
+     *
+     * @param results the results by link, as returned by {@link #checkLinks(Set)}
+     * @param linkCheckCache the cache file of Doxia Linkcheck, not null
+     * @throws IOException if the cache file cannot be written
+     */
+    public void seedLinkCheckCache( Map results, File linkCheckCache )
+        throws IOException
+    {
+        Map cache = null;
+        if ( linkCheckCache.isFile() )
+        {
+            ObjectInputStream is = null;
+            try
+            {
+                is = new ObjectInputStream( new FileInputStream( linkCheckCache ) );
+                cache = (Map) is.readObject();
+            }
+            catch ( Exception e )
+            {
+                // Doxia Linkcheck recreates an incompatible cache too
+                log.debug( "Ignoring the Linkcheck cache " + linkCheckCache + ": " + e.getMessage() );
+            }
+            finally
+            {
+                IOUtil.close( is );
+            }
+        }
+        if ( cache == null )
+        {
+            cache = new HashMap();
+        }
+        cache.putAll( results );
+
+        linkCheckCache.getAbsoluteFile().getParentFile().mkdirs();
+        ObjectOutputStream os = new ObjectOutputStream( new FileOutputStream( linkCheckCache ) );
+        try
+        {
+            os.writeObject( cache );
+        }
+        finally
+        {
+            IOUtil.close( os );
+        }
+    }
+
+    /**
+     * Checks a link with the configured method, falling back to GET when the server rejects HEAD.
+     */
+    CheckResult checkLink( String link )
+    {
+        long now = System.currentTimeMillis();
+        try
+        {
+            URL url = new URL( decode( link ) );
+            CheckResult result = request( url, "head".equalsIgnoreCase( method ) ? "HEAD" : "GET", now );
+            if ( result.status >= 400 && "head".equalsIgnoreCase( method ) )
+            {
+                result = request( url, "GET", now );
+            }
+            return result;
+        }
+        catch ( IOException e )
+        {
+            return new CheckResult( now, LinkcheckFileResult.ERROR_LEVEL, 0,
+                                    e.getClass().getName() + " : " + e.getMessage() );
+        }
+    }
+
+    private CheckResult request( URL url, String requestMethod, long now )
+        throws IOException
+    {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection( getProxy( url.getHost() ) );
+        try
+        {
+            connection.setRequestMethod( requestMethod );
+            connection.setInstanceFollowRedirects( followRedirects );
+            connection.setConnectTimeout( timeout );
+            connection.setReadTimeout( timeout );
+            connection.setUseCaches( false );
+            connection.setRequestProperty( "User-Agent", USER_AGENT );
+            if ( proxyAuthorization != null && proxy.type() != Proxy.Type.DIRECT )
+            {
+                connection.setRequestProperty( "Proxy-Authorization", proxyAuthorization );
+            }
+
+            int status = connection.getResponseCode();
+            String message = connection.getResponseMessage();
+            if ( status >= 200 && status < 300 )
+            {
+                return new CheckResult( now, LinkcheckFileResult.VALID_LEVEL, status, message );
+            }
+            if ( status == HttpURLConnection.HTTP_MOVED_PERM || status == HttpURLConnection.HTTP_MOVED_TEMP
+                || status == 307 )
+            {
+                return new CheckResult( now, LinkcheckFileResult.WARNING_LEVEL, status, message );
+            }
+            return new CheckResult( now, LinkcheckFileResult.ERROR_LEVEL, status, message );
+        }
+        finally
+        {
+            connection.disconnect();
+        }
+    }
+
+    private Proxy getProxy( String host )
+    {
+        if ( nonProxyHosts != null )
+        {
+            for ( int i = 0; i < nonProxyHosts.length; i++ )
+            {
+                if ( SelectorUtils.match( nonProxyHosts[i].trim().toLowerCase(), host.toLowerCase() ) )
+                {
+                    return Proxy.NO_PROXY;
+                }
+            }
+        }
+        return proxy;
+    }
+
+    private boolean isExcluded( String link )
+    {
+        if ( excludedLinks == null )
+        {
+            return false;
+        }
+        for ( int i = 0; i < excludedLinks.length; i++ )
+        {
+            String pattern = excludedLinks[i];
+            if ( StringUtils.isNotEmpty( pattern ) && ( link.indexOf( StringUtils.replace( pattern, "*", "" ) ) >= 0
+                || SelectorUtils.match( pattern, link ) ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the link without anchor, which is the key of the link in the Doxia Linkcheck cache
+     */
+    private static String getResourceKey( String link )
+    {
+        int anchor = link.indexOf( '#' );
+        return anchor == -1 ? link : link.substring( 0, anchor );
+    }
+
+    private static String decode( String link )
+    {
+        return StringUtils.replace( link, "&amp;", "&" );
+    }
+
+    // ----------------------------------------------------------------------
+    // Results cache
+    // ----------------------------------------------------------------------
+
+    /**
+     * @return the cached results of a host by link, empty if the cache is disabled or cannot be read
+     */
+    private Map readCache( String host )
+    {
+        Map cached = new HashMap();
+        if ( cacheDirectory == null )
+        {
+            return cached;
+        }
+        File file = getCacheFile( host );
+        synchronized ( LOCK )
+        {
+            if ( !file.isFile() )
+            {
+                return cached;
+            }
+            BufferedReader reader = null;
+            try
+            {
+                reader = new BufferedReader( new InputStreamReader( new FileInputStream( file ), "UTF-8" ) );
+                String line;
+                while ( ( line = reader.readLine() ) != null )
+                {
+                    // link, check time, level, HTTP status, message
+                    String[] fields = StringUtils.split( line, "\t" );
+                    if ( fields.length >= 4 )
+                    {
+                        cached.put( fields[0], new CheckResult( Long.parseLong( fields[1] ),
+                                                                Integer.parseInt( fields[2] ),
+                                                                Integer.parseInt( fields[3] ),
+                                                                fields.length > 4 ? fields[4] : null ) );
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                log.debug( "Ignoring the link cache " + file + ": " + e.getMessage() );
+                cached.clear();
+            }
+            catch ( NumberFormatException e )
+            {
+                log.debug( "Ignoring the link cache " + file + ": " + e.getMessage() );
+                cached.clear();
+            }
+            finally
+            {
+                IOUtil.close( reader );
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Merges the new results into the cache files, which other modules may have updated meanwhile.
+     */
+    private void writeCache( Map checked )
+    {
+        if ( cacheDirectory == null )
+        {
+            return;
+        }
+        synchronized ( LOCK )
+        {
+            for ( Iterator it = checked.entrySet().iterator(); it.hasNext(); )
+            {
+                Map.Entry entry = (Map.Entry) it.next();
+                String host = (String) entry.getKey();
+                Map cached = readCache( host );
+                Map hostResults = (Map) entry.getValue();
+                synchronized ( hostResults )
+                {
+                    for ( Iterator results = hostResults.entrySet().iterator(); results.hasNext(); )
+                    {
+                        Map.Entry result = (Map.Entry) results.next();
+                        if ( ( (CheckResult) result.getValue() ).isPersistent() )
+                        {
+                            cached.put( result.getKey(), result.getValue() );
+                        }
+                    }
+                }
+
+                File file = getCacheFile( host );
+                File tmp = null;
+                PrintWriter writer = null;
+                try
+                {
+                    // a file of its own, as another build may save the cache of the same host at the same time
+                    cacheDirectory.mkdirs();
+                    tmp = File.createTempFile( file.getName(), ".tmp", cacheDirectory );
+                    writer = new PrintWriter( new OutputStreamWriter( new FileOutputStream( tmp ), "UTF-8" ) );
+                    for ( Iterator links = cached.entrySet().iterator(); links.hasNext(); )
+                    {
+                        Map.Entry link = (Map.Entry) links.next();
+                        CheckResult result = (CheckResult) link.getValue();
+                        writer.print( link.getKey() + "\t" + result.checked + "\t" + result.level + "\t"
+                            + result.status );
+                        if ( result.message != null )
+                        {
+                            writer.print( "\t" + result.message.replace( '\t', ' ' ).replace( '\n', ' ' )
+                                .replace( '\r', ' ' ) );
+                        }
+                        writer.println();
+                    }
+                    writer.close();
+                    if ( writer.checkError() )
+                    {
+                        throw new IOException( "Unable to write " + tmp );
+                    }
+                    if ( !( tmp.renameTo( file ) || ( file.delete() && tmp.renameTo( file ) ) ) )
+                    {
+                        throw new IOException( "Unable to replace " + file );
+                    }
+                }
+                catch ( IOException e )
+                {
+                    log.warn( "Unable to save the link cache: " + e.getMessage() );
+                }
+                finally
+                {
+                    IOUtil.close( writer );
+                    if ( tmp != null )
+                    {
+                        tmp.delete();
+                    }
+                }
+            }
+        }
+    }
+
+    private File getCacheFile( String host )
+    {
+        StringBuffer name = new StringBuffer();
+        try
+        {
+            byte[] digest = MessageDigest.getInstance( "SHA-1" ).digest( host.getBytes( "UTF-8" ) );
+            for ( int i = 0; i < digest.length; i++ )
+            {
+                name.append( Integer.toHexString( ( digest[i] & 0xff ) | 0x100 ).substring( 1 ) );
+            }
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e.getMessage() );
+        }
+        catch ( UnsupportedEncodingException e )
+        {
+            throw new IllegalStateException( e.getMessage() );
+        }
+        return new File( cacheDirectory, name + ".txt" );
+    }
+
+    /**
+     * The result of the check of a link.
+     */
+    static class CheckResult
+    {
+        private final long checked;
+
+        private final int level;
+
+        /**
+         * The HTTP status, or zero if the server could not be reached.
+         */
+        private final int status;
+
+        private final String message;
+
+        CheckResult( long checked, int level, int status, String message )
+        {
+            this.checked = checked;
+            this.level = level;
+            this.status = status;
+            this.message = message;
+        }
+
+        /**
+         * @return <code>true</code> if the result can be reused by the next builds, as Doxia Linkcheck does
+         */
+        boolean isPersistent()
+        {
+            return level == LinkcheckFileResult.VALID_LEVEL || level == LinkcheckFileResult.WARNING_LEVEL;
+        }
+
+        LinkValidationResult toLinkValidationResult()
+        {
+            if ( status == 0 )
+            {
+                return new LinkValidationResult( level, isPersistent(), message );
+            }
+            return new HTTPLinkValidationResult( level, isPersistent(), status, message );
+        }
+
+        public String toString()
+        {
+            return level + " " + status + " " + StringUtils.defaultString( message );
+        }
+    }
+
+    /**
+     * Checks the links of a host, one after the other, until there is no more link to check.
+     */
+    private class HostWorker
+        implements Runnable
+    {
+        private final LinkedList queue;
+
+        private final Map results;
+
+        HostWorker( LinkedList queue, Map results )
+        {
+            this.queue = queue;
+            this.results = results;
+        }
+
+        public void run()
+        {
+            while ( !Thread.currentThread().isInterrupted() )
+            {
+                String link;
+                synchronized ( queue )
+                {
+                    if ( queue.isEmpty() )
+                    {
+                        return;
+                    }
+                    link = (String) queue.removeFirst();
+                }
+
+                CheckResult result = checkLink( link );
+                if ( log.isDebugEnabled() )
+                {
+                    log.debug( "Checked " + link + ": " + result );
+                }
+                synchronized ( results )
+                {
+                    results.put( link, result );
+                }
+            }
+        }
+    }
+}
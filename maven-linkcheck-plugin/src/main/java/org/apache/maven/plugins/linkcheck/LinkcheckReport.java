@@ -25,6 +25,7 @@ import org.apache.maven.doxia.linkcheck.LinkCheck;
 import org.apache.maven.doxia.linkcheck.LinkCheckException;
 import org.apache.maven.doxia.linkcheck.model.LinkcheckModel;
 import org.apache.maven.doxia.siterenderer.Renderer;
+import org.apache.maven.model.ReportPlugin;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
@@ -41,11 +42,14 @@ import org.codehaus.plexus.util.StringUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -227,6 +231,39 @@ public class LinkcheckReport
     @Parameter( property = "timeout", defaultValue = "2000" )
     private int timeout;
 
+    /**
+     * The number of external links checked at the same time. The links are checked before Doxia Linkcheck runs, each
+     * URL once whatever the number of pages linking to it.
+     *
+     * @since 1.2
+     */
+    @Parameter( property = "linkcheck.threads", defaultValue = "10" )
+    private int threads;
+
+    /**
+     * The number of links of the same host checked at the same time.
+     *
+     * @since 1.2
+     */
+    @Parameter( property = "linkcheck.connectionsPerHost", defaultValue = "2" )
+    private int connectionsPerHost;
+
+    /**
+     * Keep the valid results of the external links in a cache of the local repository, shared by all the projects.
+     *
+     * @since 1.2
+     */
+    @Parameter( property = "linkcheck.sharedCache", defaultValue = "true" )
+    private boolean sharedCache;
+
+    /**
+     * How long, in minutes, a result of the shared cache is used before the link is checked again.
+     *
+     * @since 1.2
+     */
+    @Parameter( property = "linkcheck.cacheTimeToLive", defaultValue = "1440" )
+    private int cacheTimeToLive;
+
     /**
      * <code>true</code> to skip the report execution, <code>false</code> otherwise.
      * The purpose is to prevent infinite call when {@link #forceSite} is enable.
@@ -241,6 +278,26 @@ public class LinkcheckReport
     @Parameter( property = "linkcheck.forceSite", defaultValue = "true" )
     private boolean forceSite;
 
+    /**
+     * When {@link #forceSite} is enabled and the site already generated in the report output directory is older than
+     * the site documents, <code>true</code> to generate the site with a nested Maven build, <code>false</code> to
+     * render the site documents in the current build. The site rendered in the current build has the default
+     * template and no report, so a nested build is still used when the project configures other reports than
+     * Linkcheck.
+     *
+     * @since 1.2
+     */
+    @Parameter( property = "linkcheck.forkSite", defaultValue = "true" )
+    private boolean forkSite;
+
+    /**
+     * The directory of the site documents, rendered when the site has to be generated in the current build.
+     *
+     * @since 1.2
+     */
+    @Parameter( defaultValue = "${basedir}/src/site" )
+    private File siteDirectory;
+
     /**
      * The base URL to use for absolute links (eg <code>/index.html</code>) in the site.
      */
@@ -381,12 +438,45 @@ public class LinkcheckReport
         }
     }
 
-    private File getBasedir()
+    File getBasedir()
         throws MojoExecutionException
     {
         File basedir;
 
-        if ( forceSite )
+        if ( forceSite && isUpToDate( outputDirectory ) )
+        {
+            getLog().info( "Using the site already generated in " + outputDirectory );
+            return outputDirectory;
+        }
+
+        boolean inProcess = forceSite && !forkSite;
+        if ( inProcess && hasOtherReports() )
+        {
+            getLog().info( "The project has reports, which are only generated by a nested Maven build." );
+            inProcess = false;
+        }
+
+        if ( inProcess )
+        {
+            basedir = new File( linkcheckOutput.getParentFile(), "tmpsite" );
+            basedir.mkdirs();
+
+            if ( !isUpToDate( basedir ) )
+            {
+                getLog().info( "Rendering the site documents to ensure that all files are generated..." );
+
+                try
+                {
+                    SiteGenerator generator = new SiteGenerator( siteRenderer, getLog() );
+                    generator.generateSite( project, siteDirectory, basedir, encoding, encoding, Locale.getDefault() );
+                }
+                catch ( IOException e )
+                {
+                    throw new MojoExecutionException( "IOException: " + e.getMessage(), e );
+                }
+            }
+        }
+        else if ( forceSite )
         {
             basedir = new File( linkcheckOutput.getParentFile(), "tmpsite" );
             basedir.mkdirs();
@@ -430,6 +520,67 @@ public class LinkcheckReport
         return basedir;
     }
 
+    /**
+     * @return <code>true</code> if the project configures reports besides Linkcheck, whose pages and menu items are
+     *         only generated by the site plugin
+     */
+    private boolean hasOtherReports()
+    {
+        for ( Iterator it = project.getReportPlugins().iterator(); it.hasNext(); )
+        {
+            ReportPlugin reportPlugin = (ReportPlugin) it.next();
+            if ( !"maven-linkcheck-plugin".equals( reportPlugin.getArtifactId() ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param renderedSite a directory of generated documents, not null
+     * @return <code>true</code> if the directory holds documents all generated after the last change of the project
+     *         and of the site documents, <code>false</code> otherwise.
+     */
+    boolean isUpToDate( File renderedSite )
+    {
+        List documents;
+        List sources;
+        try
+        {
+            documents = FileUtils.getFiles( renderedSite, "**/*.html", getOutputName() + ".html" );
+            sources = siteDirectory.isDirectory() ? FileUtils.getFiles( siteDirectory, null, null )
+                            : new ArrayList();
+        }
+        catch ( IOException e )
+        {
+            getLog().debug( e );
+            return false;
+        }
+        if ( documents.isEmpty() )
+        {
+            return false;
+        }
+
+        if ( project.getFile() != null )
+        {
+            sources.add( project.getFile() );
+        }
+        long lastChange = 0;
+        for ( Iterator it = sources.iterator(); it.hasNext(); )
+        {
+            lastChange = Math.max( lastChange, ( (File) it.next() ).lastModified() );
+        }
+        for ( Iterator it = documents.iterator(); it.hasNext(); )
+        {
+            if ( ( (File) it.next() ).lastModified() < lastChange )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Execute the <code>Linkcheck</code> tool.
      *
@@ -439,6 +590,11 @@ public class LinkcheckReport
     private LinkcheckModel executeLinkCheck( File basedir )
         throws LinkCheckException
     {
+        if ( !offline )
+        {
+            checkExternalLinks( basedir );
+        }
+
         // Wrap linkcheck
         linkCheck.setOnline( !offline );
         linkCheck.setBasedir( basedir );
@@ -473,6 +629,50 @@ public class LinkcheckReport
         return linkCheck.execute();
     }
 
+    /**
+     * Checks the external links of the documents concurrently and puts the results in the Linkcheck cache, so that
+     * Linkcheck does not check them again one after the other.
+     *
+     * @param basedir not null
+     */
+    private void checkExternalLinks( File basedir )
+    {
+        HttpLinkChecker checker = new HttpLinkChecker( getLog() );
+        checker.setMethod( httpMethod );
+        checker.setFollowRedirects( httpFollowRedirect );
+        checker.setTimeout( timeout );
+        checker.setThreads( threads );
+        checker.setConnectionsPerHost( connectionsPerHost );
+        checker.setExcludedLinks( excludedLinks );
+        if ( sharedCache )
+        {
+            checker.setCache( new File( localRepository.getBasedir(), HttpLinkChecker.CACHE_DIRECTORY ),
+                              cacheTimeToLive * 60000L );
+        }
+
+        Proxy proxy = settings.getActiveProxy();
+        if ( proxy != null )
+        {
+            checker.setProxy( new java.net.Proxy( java.net.Proxy.Type.HTTP,
+                                                  new InetSocketAddress( proxy.getHost(), proxy.getPort() ) ),
+                              proxy.getUsername(), proxy.getPassword(), proxy.getNonProxyHosts() );
+        }
+
+        try
+        {
+            List documents =
+                FileUtils.getFiles( basedir, "**/*.html,**/*.htm", StringUtils.join( getExcludedPages(), "," ) );
+            Map results = checker.checkLinks(
+                checker.findLinks( documents, StringUtils.isNotEmpty( encoding ) ? encoding : ReaderFactory.UTF_8 ) );
+            checker.seedLinkCheckCache( results, linkcheckCache );
+        }
+        catch ( IOException e )
+        {
+            getLog().warn( "Unable to check the external links concurrently: " + e.getMessage() );
+            getLog().debug( e );
+        }
+    }
+
     /**
      * @return the excludedPages defined by the user and also this report.
      */
@@ -0,0 +1,198 @@
+package org.apache.maven.plugins.linkcheck;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.doxia.site.decoration.DecorationModel;
+import org.apache.maven.doxia.site.decoration.Menu;
+import org.apache.maven.doxia.site.decoration.io.xpp3.DecorationXpp3Reader;
+import org.apache.maven.doxia.siterenderer.Renderer;
+import org.apache.maven.doxia.siterenderer.RendererException;
+import org.apache.maven.doxia.siterenderer.SiteRenderingContext;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.interpolation.ObjectBasedValueSource;
+import org.codehaus.plexus.util.interpolation.PropertiesBasedValueSource;
+import org.codehaus.plexus.util.interpolation.RegexBasedInterpolator;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders the documents of the site directory with the Doxia Site Renderer of the current build, instead of
+ * invoking a nested Maven build for the <code>site</code> phase.
+ * <br/>
+ * <b>Note</b>: the documents are rendered with the default template, and the reports are not generated again: the
+ * links of the reports are only checked when the site has already been generated.
+ *
+ * @version $Id$
+ * @since 1.2
+ */
+public class SiteGenerator
+{
+    /**
+     * The default template of the Doxia Site Renderer.
+     */
+    private static final String DEFAULT_TEMPLATE = "org/apache/maven/doxia/siterenderer/resources/default-site.vm";
+
+    private final Renderer siteRenderer;
+
+    private final Log log;
+
+    /**
+     * @param siteRenderer the Doxia Site Renderer of the current build, not null
+     * @param log the Maven log, not null
+     */
+    public SiteGenerator( Renderer siteRenderer, Log log )
+    {
+        this.siteRenderer = siteRenderer;
+        this.log = log;
+    }
+
+    /**
+     * Renders the site documents.
+     *
+     * @param project the project of the site, not null
+     * @param siteDirectory the directory of the site documents, not null
+     * @param outputDirectory the directory of the rendered site, not null
+     * @param inputEncoding the encoding of the site documents, not null
+     * @param outputEncoding the encoding of the rendered site, not null
+     * @param locale the locale of the site, not null
+     * @throws IOException if the site cannot be rendered
+     */
+    public void generateSite( MavenProject project, File siteDirectory, File outputDirectory, String inputEncoding,
+                              String outputEncoding, Locale locale )
+        throws IOException
+    {
+        SiteRenderingContext context = new SiteRenderingContext();
+        context.setTemplateName( DEFAULT_TEMPLATE );
+        context.setTemplateClassLoader( Renderer.class.getClassLoader() );
+        context.setUsingDefaultTemplate( true );
+        context.setDecoration( getDecorationModel( project, siteDirectory, inputEncoding ) );
+        context.setDefaultWindowTitle( project.getName() );
+        context.setLocale( locale );
+        context.setInputEncoding( inputEncoding );
+        context.setOutputEncoding( outputEncoding );
+
+        Map templateProperties = new HashMap();
+        templateProperties.put( "project", project );
+        templateProperties.put( "inputEncoding", inputEncoding );
+        templateProperties.put( "outputEncoding", outputEncoding );
+        templateProperties.putAll( project.getProperties() );
+        context.setTemplateProperties( templateProperties );
+
+        context.addSiteDirectory( siteDirectory );
+
+        try
+        {
+            Map documents = siteRenderer.locateDocumentFiles( context );
+            if ( log.isDebugEnabled() )
+            {
+                log.debug( "Rendering " + documents.size() + " documents of " + siteDirectory + " to "
+                    + outputDirectory );
+            }
+            siteRenderer.render( documents.values(), context, outputDirectory );
+        }
+        catch ( RendererException e )
+        {
+            IOException ioe = new IOException( "RendererException: " + e.getMessage() );
+            ioe.setStackTrace( e.getStackTrace() );
+            throw ioe;
+        }
+
+        siteRenderer.copyResources( context, new File( siteDirectory, "resources" ), outputDirectory );
+    }
+
+    /**
+     * @return the decoration model of <code>site.xml</code> with the project expressions interpolated, or an empty
+     *         one if there is no <code>site.xml</code>
+     */
+    private DecorationModel getDecorationModel( MavenProject project, File siteDirectory, String inputEncoding )
+        throws IOException
+    {
+        File siteDescriptor = new File( siteDirectory, "site.xml" );
+        if ( !siteDescriptor.isFile() )
+        {
+            return new DecorationModel();
+        }
+
+        String content = FileUtils.fileRead( siteDescriptor, inputEncoding );
+
+        RegexBasedInterpolator interpolator = new RegexBasedInterpolator();
+        interpolator.addValueSource( new ObjectBasedValueSource( project ) );
+        interpolator.addValueSource( new PropertiesBasedValueSource( project.getProperties() ) );
+        try
+        {
+            content = interpolator.interpolate( content, "project|pom" );
+        }
+        catch ( Exception e )
+        {
+            // the interpolation exception of plexus-utils is not part of its public API
+            log.warn( "Unable to interpolate " + siteDescriptor + ": " + e.getMessage() );
+        }
+
+        Reader reader = null;
+        try
+        {
+            reader = new StringReader( content );
+            DecorationModel decoration = new DecorationXpp3Reader().read( reader );
+            removeGeneratedMenus( decoration );
+            return decoration;
+        }
+        catch ( XmlPullParserException e )
+        {
+            log.warn( "Unable to read " + siteDescriptor + ", the menus will not be checked: " + e.getMessage() );
+            return new DecorationModel();
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+    }
+
+    /**
+     * The menus generated by the site plugin, like the reports menu, cannot be rendered here.
+     */
+    private static void removeGeneratedMenus( DecorationModel decoration )
+    {
+        if ( decoration.getBody() == null )
+        {
+            return;
+        }
+        List menus = decoration.getBody().getMenus();
+        for ( Iterator it = menus.iterator(); it.hasNext(); )
+        {
+            Menu menu = (Menu) it.next();
+            if ( menu.getRef() != null )
+            {
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package org.apache.maven.plugins.linkcheck;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.doxia.linkcheck.model.LinkcheckFileResult;
+import org.apache.maven.doxia.linkcheck.validation.LinkValidationResult;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.FileUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Test for {@link HttpLinkChecker}, against a local HTTP server.
+ *
+ * @version $Id$
+ */
+public class HttpLinkCheckerTest
+    extends TestCase
+{
+    private static final long HOUR = 60L * 60L * 1000L;
+
+    private File directory;
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    private String baseUrl;
+
+    /**
+     * The requests received by the server, as method and path.
+     */
+    private final List requests = Collections.synchronizedList( new ArrayList() );
+
+    private int activeRequests;
+
+    private int maxActiveRequests;
+
+    protected void setUp()
+        throws Exception
+    {
+        directory = new File( System.getProperty( "basedir", "." ), "target/unit/http-link-checker" );
+        FileUtils.deleteDirectory( directory );
+        directory.mkdirs();
+
+        server = HttpServer.create( new InetSocketAddress( "127.0.0.1", 0 ), 0 );
+        server.createContext( "/", new HttpHandler()
+        {
+            public void handle( HttpExchange exchange )
+                throws IOException
+            {
+                String method = exchange.getRequestMethod();
+                String path = exchange.getRequestURI().getPath();
+                requests.add( method + " " + path );
+                try
+                {
+                    exchange.sendResponseHeaders( getStatus( method, path ), -1 );
+                }
+                finally
+                {
+                    exchange.close();
+                }
+            }
+        } );
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor( executor );
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    protected void tearDown()
+        throws Exception
+    {
+        server.stop( 0 );
+        executor.shutdown();
+    }
+
+    /**
+     * The responses of the server: HEAD is rejected below <code>/no-head/</code>, <code>/missing</code> does not
+     * exist and the requests below <code>/slow/</code> take some time.
+     */
+    private int getStatus( String method, String path )
+    {
+        if ( path.startsWith( "/slow/" ) )
+        {
+            synchronized ( this )
+            {
+                activeRequests++;
+                maxActiveRequests = Math.max( maxActiveRequests, activeRequests );
+            }
+            try
+            {
+                Thread.sleep( 100 );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            synchronized ( this )
+            {
+                activeRequests--;
+            }
+        }
+        if ( path.startsWith( "/no-head/" ) && "HEAD".equals( method ) )
+        {
+            return 405;
+        }
+        if ( path.equals( "/missing" ) )
+        {
+            return 404;
+        }
+        return 200;
+    }
+
+    private HttpLinkChecker createChecker()
+    {
+        HttpLinkChecker checker = new HttpLinkChecker( new SystemStreamLog() );
+        checker.setTimeout( 10000 );
+        return checker;
+    }
+
+    public void testFindLinksWithoutDuplicates()
+        throws Exception
+    {
+        File first = new File( directory, "first.html" );
+        FileUtils.fileWrite( first.getPath(), "UTF-8", "<a href=\"" + baseUrl + "/a#top\">a</a>\n"
+            + "<img src='" + baseUrl + "/b.png'/>\n<a href=\"" + baseUrl + "/excluded/c\">c</a>" );
+        File second = new File( directory, "second.html" );
+        FileUtils.fileWrite( second.getPath(), "UTF-8", "<a href=\"" + baseUrl + "/a\">a</a>\n"
+            + "<a href=\"" + baseUrl + "/a#bottom\">a</a>\n<a href=\"relative.html\">relative</a>" );
+
+        HttpLinkChecker checker = createChecker();
+        checker.setExcludedLinks( new String[] { "*/excluded/*" } );
+        Set links = checker.findLinks( Arrays.asList( new File[] { first, second } ), "UTF-8" );
+        assertEquals( new TreeSet( Arrays.asList( new String[] { baseUrl + "/a", baseUrl + "/b.png" } ) ), links );
+
+        Map results = checker.checkLinks( links );
+        assertEquals( 2, results.size() );
+        assertEquals( LinkcheckFileResult.VALID_LEVEL, getLevel( results, baseUrl + "/a" ) );
+        assertEquals( LinkcheckFileResult.VALID_LEVEL, getLevel( results, baseUrl + "/b.png" ) );
+
+        // each link is checked once, whatever the number of pages linking to it
+        assertEquals( new TreeSet( Arrays.asList( new String[] { "HEAD /a", "HEAD /b.png" } ) ),
+                      new TreeSet( requests ) );
+        assertEquals( 2, requests.size() );
+    }
+
+    public void testHeadFallsBackToGet()
+        throws Exception
+    {
+        HttpLinkChecker checker = createChecker();
+        Map results = checker.checkLinks( Collections.singleton( baseUrl + "/no-head/page" ) );
+        assertEquals( LinkcheckFileResult.VALID_LEVEL, getLevel( results, baseUrl + "/no-head/page" ) );
+        assertEquals( Arrays.asList( new String[] { "HEAD /no-head/page", "GET /no-head/page" } ), requests );
+
+        requests.clear();
+        results = checker.checkLinks( Collections.singleton( baseUrl + "/missing" ) );
+        assertEquals( LinkcheckFileResult.ERROR_LEVEL, getLevel( results, baseUrl + "/missing" ) );
+        assertEquals( Arrays.asList( new String[] { "HEAD /missing", "GET /missing" } ), requests );
+
+        // GET first, no fallback
+        requests.clear();
+        checker.setMethod( "get" );
+        results = checker.checkLinks( Collections.singleton( baseUrl + "/missing" ) );
+        assertEquals( LinkcheckFileResult.ERROR_LEVEL, getLevel( results, baseUrl + "/missing" ) );
+        assertEquals( Arrays.asList( new String[] { "GET /missing" } ), requests );
+    }
+
+    public void testConnectionsPerHost()
+        throws Exception
+    {
+        Set links = new TreeSet();
+        for ( int i = 0; i < 8; i++ )
+        {
+            links.add( baseUrl + "/slow/" + i );
+        }
+
+        HttpLinkChecker checker = createChecker();
+        checker.setThreads( 10 );
+        checker.setConnectionsPerHost( 2 );
+        Map results = checker.checkLinks( links );
+
+        assertEquals( 8, results.size() );
+        assertEquals( 8, requests.size() );
+        assertTrue( "at most 2 connections expected, got " + maxActiveRequests, maxActiveRequests <= 2 );
+    }
+
+    public void testCacheExpiry()
+        throws Exception
+    {
+        File cacheDirectory = new File( directory, "cache" );
+        Set links = new TreeSet( Arrays.asList( new String[] { baseUrl + "/a", baseUrl + "/missing" } ) );
+
+        HttpLinkChecker checker = createChecker();
+        checker.setCache( cacheDirectory, HOUR );
+        checker.checkLinks( links );
+        assertEquals( 3, requests.size() );
+
+        // the valid result is cached, the error is checked again
+        requests.clear();
+        checker = createChecker();
+        checker.setCache( cacheDirectory, HOUR );
+        Map results = checker.checkLinks( links );
+        assertEquals( LinkcheckFileResult.VALID_LEVEL, getLevel( results, baseUrl + "/a" ) );
+        assertEquals( LinkcheckFileResult.ERROR_LEVEL, getLevel( results, baseUrl + "/missing" ) );
+        assertEquals( Arrays.asList( new String[] { "HEAD /missing", "GET /missing" } ), requests );
+
+        // the cached result expired
+        requests.clear();
+        checker = createChecker();
+        checker.setCache( cacheDirectory, 0 );
+        results = checker.checkLinks( Collections.singleton( baseUrl + "/a" ) );
+        assertEquals( LinkcheckFileResult.VALID_LEVEL, getLevel( results, baseUrl + "/a" ) );
+        assertEquals( Arrays.asList( new String[] { "HEAD /a" } ), requests );
+
+        // one file for the host, the temporary files were renamed
+        String[] files = cacheDirectory.list();
+        assertEquals( 1, files.length );
+        assertTrue( files[0].endsWith( ".txt" ) );
+    }
+
+    private static int getLevel( Map results, String link )
+    {
+        LinkValidationResult result = (LinkValidationResult) results.get( link );
+        assertNotNull( "no result for " + link, result );
+        return result.getStatus();
+    }
+}
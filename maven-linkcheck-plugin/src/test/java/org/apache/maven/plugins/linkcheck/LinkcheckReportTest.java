@@ -0,0 +1,120 @@
+package org.apache.maven.plugins.linkcheck;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.ReportPlugin;
+import org.apache.maven.model.Reporting;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.ReflectionUtils;
+
+/**
+ * Test for the choice of the documents checked by {@link LinkcheckReport}.
+ *
+ * @version $Id$
+ */
+public class LinkcheckReportTest
+    extends TestCase
+{
+    private static final long NOW = System.currentTimeMillis() / 1000 * 1000;
+
+    private File siteDirectory;
+
+    private File outputDirectory;
+
+    private LinkcheckReport report;
+
+    protected void setUp()
+        throws Exception
+    {
+        File directory = new File( System.getProperty( "basedir", "." ), "target/unit/linkcheck-report" );
+        FileUtils.deleteDirectory( directory );
+
+        siteDirectory = new File( directory, "src/site" );
+        write( new File( siteDirectory, "apt/index.apt" ), NOW - 60000 );
+        outputDirectory = new File( directory, "target/site" );
+        outputDirectory.mkdirs();
+
+        Model model = new Model();
+        model.setArtifactId( "test" );
+        report = new LinkcheckReport();
+        ReflectionUtils.setVariableValueInObject( report, "project", new MavenProject( model ) );
+        ReflectionUtils.setVariableValueInObject( report, "siteDirectory", siteDirectory );
+        ReflectionUtils.setVariableValueInObject( report, "outputDirectory", outputDirectory );
+        ReflectionUtils.setVariableValueInObject( report, "linkcheckOutput",
+                                                  new File( directory, "target/linkcheck/linkcheck.xml" ) );
+        ReflectionUtils.setVariableValueInObject( report, "forceSite", Boolean.TRUE );
+        ReflectionUtils.setVariableValueInObject( report, "forkSite", Boolean.TRUE );
+    }
+
+    public void testIsUpToDate()
+        throws Exception
+    {
+        assertFalse( "no document", report.isUpToDate( outputDirectory ) );
+
+        File index = new File( outputDirectory, "index.html" );
+        write( index, NOW );
+        assertTrue( report.isUpToDate( outputDirectory ) );
+
+        // the previous report is not a document of the site
+        write( new File( outputDirectory, "linkcheck.html" ), NOW - 120000 );
+        assertTrue( report.isUpToDate( outputDirectory ) );
+
+        write( new File( siteDirectory, "apt/other.apt" ), NOW + 60000 );
+        assertFalse( "a site document changed", report.isUpToDate( outputDirectory ) );
+
+        write( index, NOW + 120000 );
+        write( new File( outputDirectory, "other.html" ), NOW + 120000 );
+        assertTrue( report.isUpToDate( outputDirectory ) );
+    }
+
+    /**
+     * The site already generated is used, without forking a build, even when the project has other reports.
+     */
+    public void testUpToDateSiteWithReports()
+        throws Exception
+    {
+        ReportPlugin reportPlugin = new ReportPlugin();
+        reportPlugin.setArtifactId( "maven-project-info-reports-plugin" );
+        MavenProject project = (MavenProject) ReflectionUtils.getValueIncludingSuperclasses( "project", report );
+        project.getModel().setReporting( new Reporting() );
+        project.getModel().getReporting().addPlugin( reportPlugin );
+
+        write( new File( outputDirectory, "index.html" ), NOW );
+
+        assertEquals( outputDirectory, report.getBasedir() );
+
+        ReflectionUtils.setVariableValueInObject( report, "forkSite", Boolean.FALSE );
+        assertEquals( outputDirectory, report.getBasedir() );
+    }
+
+    private static void write( File file, long lastModified )
+        throws Exception
+    {
+        file.getParentFile().mkdirs();
+        FileUtils.fileWrite( file.getPath(), "UTF-8", file.getName() );
+        file.setLastModified( lastModified );
+    }
+}
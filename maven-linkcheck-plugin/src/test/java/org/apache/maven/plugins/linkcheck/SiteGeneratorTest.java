@@ -0,0 +1,76 @@
+package org.apache.maven.plugins.linkcheck;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Locale;
+
+import org.apache.maven.doxia.siterenderer.Renderer;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Test for {@link SiteGenerator}, with the Doxia Site Renderer of the plugin.
+ *
+ * @version $Id$
+ */
+public class SiteGeneratorTest
+    extends PlexusTestCase
+{
+    public void testGenerateSite()
+        throws Exception
+    {
+        File directory = new File( getBasedir(), "target/unit/site-generator" );
+        FileUtils.deleteDirectory( directory );
+        File siteDirectory = new File( directory, "src/site" );
+        File outputDirectory = new File( directory, "target/site" );
+
+        new File( siteDirectory, "apt" ).mkdirs();
+        FileUtils.fileWrite( new File( siteDirectory, "apt/index.apt" ).getPath(), "UTF-8",
+                             " ------\n Index\n ------\n\nIndex\n\n  See {{{other.html}the other page}}.\n" );
+        FileUtils.fileWrite( new File( siteDirectory, "apt/other.apt" ).getPath(), "UTF-8",
+                             " ------\n Other\n ------\n\nOther\n\n  Nothing else.\n" );
+        FileUtils.fileWrite( new File( siteDirectory, "site.xml" ).getPath(), "UTF-8",
+                             "<project name=\"${project.name}\"><body>"
+                                 + "<menu name=\"Overview\"><item name=\"Other page\" href=\"other.html\"/></menu>"
+                                 + "<menu ref=\"reports\"/></body></project>" );
+        new File( siteDirectory, "resources/images" ).mkdirs();
+        FileUtils.fileWrite( new File( siteDirectory, "resources/images/logo.txt" ).getPath(), "UTF-8", "logo" );
+
+        Model model = new Model();
+        model.setArtifactId( "test" );
+        model.setName( "Test project" );
+
+        SiteGenerator generator = new SiteGenerator( (Renderer) lookup( Renderer.ROLE ), new SystemStreamLog() );
+        generator.generateSite( new MavenProject( model ), siteDirectory, outputDirectory, "UTF-8", "UTF-8",
+                                Locale.ENGLISH );
+
+        String index = FileUtils.fileRead( new File( outputDirectory, "index.html" ), "UTF-8" );
+        assertTrue( index.indexOf( "the other page" ) >= 0 );
+        // the menu of site.xml, without the menu of the reports generated by the site plugin
+        assertTrue( index.indexOf( "Other page" ) >= 0 );
+        assertTrue( index.indexOf( "Project Reports" ) < 0 );
+        assertTrue( new File( outputDirectory, "other.html" ).isFile() );
+        assertTrue( new File( outputDirectory, "images/logo.txt" ).isFile() );
+    }
+}
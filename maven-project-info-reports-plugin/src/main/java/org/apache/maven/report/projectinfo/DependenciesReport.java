@@ -33,6 +33,8 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProjectBuilder;
 import org.apache.maven.report.projectinfo.dependencies.Dependencies;
 import org.apache.maven.report.projectinfo.dependencies.DependenciesReportConfiguration;
+import org.apache.maven.report.projectinfo.dependencies.JarDataCache;
+import org.apache.maven.report.projectinfo.dependencies.RepositoryProber;
 import org.apache.maven.report.projectinfo.dependencies.RepositoryUtils;
 import org.apache.maven.report.projectinfo.dependencies.renderer.DependenciesRenderer;
 import org.apache.maven.shared.dependency.graph.DependencyGraphBuilder;
@@ -136,6 +138,24 @@ public class DependenciesReport
     @Parameter( property = "dependency.details.enabled", defaultValue = "true" )
     private boolean dependencyDetailsEnabled;
 
+    /**
+     * The number of dependency files analyzed concurrently for the file details, <code>0</code> for the number of
+     * processors.
+     *
+     * @since 2.7
+     */
+    @Parameter( property = "dependency.details.threads", defaultValue = "0" )
+    private int dependencyDetailsThreads;
+
+    /**
+     * Keep the file details of the dependencies in the local repository, by file checksum, so each dependency file is
+     * only analyzed once for all the modules and the next builds.
+     *
+     * @since 2.7
+     */
+    @Parameter( property = "dependency.details.cache", defaultValue = "true" )
+    private boolean dependencyDetailsCache;
+
     /**
      * Display the repository locations of the dependencies. If Maven is configured to be offline, this parameter
      * will be ignored.
@@ -145,6 +165,31 @@ public class DependenciesReport
     @Parameter( property = "dependency.locations.enabled", defaultValue = "true" )
     private boolean dependencyLocationsEnabled;
 
+    /**
+     * The maximum number of concurrent probes of the repository locations of the dependencies.
+     *
+     * @since 2.7
+     */
+    @Parameter( property = "dependency.locations.threads", defaultValue = "10" )
+    private int dependencyLocationsThreads;
+
+    /**
+     * The maximum number of connections to each repository when probing the locations of the dependencies.
+     *
+     * @since 2.7
+     */
+    @Parameter( property = "dependency.locations.connectionsPerRepository", defaultValue = "2" )
+    private int dependencyLocationsConnectionsPerRepository;
+
+    /**
+     * How long, in minutes, the repository locations of the dependencies are kept in the local repository and
+     * reused by the next builds. <code>0</code> probes the repositories again in each build.
+     *
+     * @since 2.7
+     */
+    @Parameter( property = "dependency.locations.cacheTimeToLive", defaultValue = "1440" )
+    private int dependencyLocationsCacheTimeToLive;
+
     // ----------------------------------------------------------------------
     // Public methods
     // ----------------------------------------------------------------------
@@ -172,12 +217,21 @@ public class DependenciesReport
                                  project.getRemoteArtifactRepositories(), project.getPluginArtifactRepositories(),
                                  localRepository, repositoryMetadataManager );
 
+        RepositoryProber prober = repoUtils.getRepositoryProber();
+        prober.setThreads( dependencyLocationsThreads );
+        prober.setConnectionsPerRepository( dependencyLocationsConnectionsPerRepository );
+        prober.setCache( dependencyLocationsCacheTimeToLive > 0 ? new File( localRepository.getBasedir() ) : null,
+                         dependencyLocationsCacheTimeToLive * 60 * 1000L );
+
         DependencyNode dependencyNode = resolveProject();
 
-        Dependencies dependencies = new Dependencies( project, dependencyNode, classesAnalyzer );
+        JarDataCache jarDataCache =
+            new JarDataCache( dependencyDetailsCache ? new File( localRepository.getBasedir() ) : null );
+        Dependencies dependencies = new Dependencies( project, dependencyNode, classesAnalyzer, jarDataCache );
 
         DependenciesReportConfiguration config =
-            new DependenciesReportConfiguration( dependencyDetailsEnabled, dependencyLocationsEnabled );
+            new DependenciesReportConfiguration( dependencyDetailsEnabled, dependencyLocationsEnabled,
+                                                 dependencyDetailsThreads );
 
         DependenciesRenderer r =
             new DependenciesRenderer( getSink(), locale, getI18N( locale ), getLog(), settings, dependencies,
@@ -22,21 +22,16 @@ package org.apache.maven.report.projectinfo;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.sink.SinkEventAttributeSet;
 import org.apache.maven.doxia.sink.SinkEventAttributes;
-import org.apache.maven.model.Dependency;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.report.projectinfo.ReactorDependencyGraph.Convergence;
 import org.apache.maven.reporting.MavenReportException;
 import org.codehaus.plexus.util.StringUtils;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.TreeMap;
 
 /**
  * Generates the Dependency Convergence report for reactor builds.
@@ -110,7 +105,7 @@ public class DependencyConvergenceReport
         sink.text( getI18nString( locale, "title" ) );
         sink.sectionTitle1_();
 
-        Map<String, List<ReverseDependencyLink>> dependencyMap = getDependencyMap();
+        Convergence convergence = ReactorDependencyGraph.getInstance( reactorProjects ).getConvergence();
 
         // legend
         generateLegend( locale, sink );
@@ -118,12 +113,12 @@ public class DependencyConvergenceReport
         sink.lineBreak();
 
         // stats
-        generateStats( locale, sink, dependencyMap );
+        generateStats( locale, sink, convergence );
 
         sink.section1_();
 
         // convergence
-        generateConvergence( locale, sink, dependencyMap );
+        generateConvergence( locale, sink, convergence );
 
         sink.body_();
         sink.flush();
@@ -139,9 +134,9 @@ public class DependencyConvergenceReport
      *
      * @param locale
      * @param sink
-     * @param dependencyMap
+     * @param convergence
      */
-    private void generateConvergence( Locale locale, Sink sink, Map<String, List<ReverseDependencyLink>> dependencyMap )
+    private void generateConvergence( Locale locale, Sink sink, Convergence convergence )
     {
         sink.section2();
 
@@ -149,17 +144,14 @@ public class DependencyConvergenceReport
         sink.text( getI18nString( locale, "convergence.caption" ) );
         sink.sectionTitle2_();
 
-        for ( Map.Entry<String, List<ReverseDependencyLink>> entry : dependencyMap.entrySet() )
+        for ( int i = 0; i < convergence.getDependencyCount(); i++ )
         {
-            String key = entry.getKey();
-            List<ReverseDependencyLink> depList = entry.getValue();
-
             sink.section3();
             sink.sectionTitle3();
-            sink.text( key );
+            sink.text( convergence.getDependency( i ) );
             sink.sectionTitle3_();
 
-            generateDependencyDetails( sink, depList );
+            generateDependencyDetails( sink, convergence.getVersions( i ) );
 
             sink.section3_();
         }
@@ -171,14 +163,12 @@ public class DependencyConvergenceReport
      * Generate the detail table for a given dependency
      *
      * @param sink
-     * @param depList
+     * @param artifactMap the projects using the dependency by version
      */
-    private void generateDependencyDetails( Sink sink, List<ReverseDependencyLink> depList )
+    private void generateDependencyDetails( Sink sink, Map<String, List<MavenProject>> artifactMap )
     {
         sink.table();
 
-        Map<String, List<ReverseDependencyLink>> artifactMap = getSortedUniqueArtifactMap( depList );
-
         sink.tableRow();
 
         sink.tableCell( );
@@ -217,22 +207,19 @@ public class DependencyConvergenceReport
         sink.table_();
     }
 
-    private void generateVersionDetails( Sink sink, Map<String, List<ReverseDependencyLink>> artifactMap,
-                                         String version )
+    private void generateVersionDetails( Sink sink, Map<String, List<MavenProject>> artifactMap, String version )
     {
         sink.numberedList( 1 ); // Use lower alpha numbering
-        List<ReverseDependencyLink> depList = artifactMap.get( version );
-        Collections.sort( depList, new ReverseDependencyLinkComparator() );
 
-        for ( ReverseDependencyLink rdl : depList )
+        for ( MavenProject project : artifactMap.get( version ) )
         {
             sink.numberedListItem();
-            if ( StringUtils.isNotEmpty( rdl.project.getUrl() ) )
+            if ( StringUtils.isNotEmpty( project.getUrl() ) )
             {
-                sink.link( rdl.project.getUrl() );
+                sink.link( project.getUrl() );
             }
-            sink.text( rdl.project.getGroupId() + ":" + rdl.project.getArtifactId() );
-            if ( StringUtils.isNotEmpty( rdl.project.getUrl() ) )
+            sink.text( project.getGroupId() + ":" + project.getArtifactId() );
+            if ( StringUtils.isNotEmpty( project.getUrl() ) )
             {
                 sink.link_();
             }
@@ -241,44 +228,6 @@ public class DependencyConvergenceReport
         sink.numberedList_();
     }
 
-    /**
-     * Produce a Map of relationships between dependencies (its version) and
-     * reactor projects.
-     *
-     * This is the structure of the Map:
-     * <pre>
-     * +--------------------+----------------------------------+
-     * | key                | value                            |
-     * +--------------------+----------------------------------+
-     * | version of a       | A List of ReverseDependencyLinks |
-     * | dependency         | which each look like this:       |
-     * |                    | +------------+-----------------+ |
-     * |                    | | dependency | reactor project | |
-     * |                    | +------------+-----------------+ |
-     * +--------------------+----------------------------------+
-     * </pre>
-     *
-     * @return A Map of sorted unique artifacts
-     */
-    private Map<String, List<ReverseDependencyLink>> getSortedUniqueArtifactMap( List<ReverseDependencyLink> depList )
-    {
-        Map<String, List<ReverseDependencyLink>> uniqueArtifactMap = new TreeMap<String, List<ReverseDependencyLink>>();
-
-        for ( ReverseDependencyLink rdl : depList )
-        {
-            String key = rdl.getDependency().getVersion();
-            List<ReverseDependencyLink> projectList = uniqueArtifactMap.get( key );
-            if ( projectList == null )
-            {
-                projectList = new ArrayList<ReverseDependencyLink>();
-            }
-            projectList.add( rdl );
-            uniqueArtifactMap.put( key, projectList );
-        }
-
-        return uniqueArtifactMap;
-    }
-
     /**
      * Generate the legend table
      *
@@ -324,20 +273,13 @@ public class DependencyConvergenceReport
      *
      * @param locale
      * @param sink
-     * @param dependencyMap
+     * @param dependencyConvergence
      */
-    private void generateStats( Locale locale, Sink sink, Map<String, List<ReverseDependencyLink>> dependencyMap )
+    private void generateStats( Locale locale, Sink sink, Convergence dependencyConvergence )
     {
-        int depCount = dependencyMap.size();
-        int artifactCount = 0;
-        int snapshotCount = 0;
-
-        for ( List<ReverseDependencyLink> depList : dependencyMap.values() )
-        {
-            Map<String, List<ReverseDependencyLink>> artifactMap = getSortedUniqueArtifactMap( depList );
-            snapshotCount += countSnapshots( artifactMap );
-            artifactCount += artifactMap.size();
-        }
+        int depCount = dependencyConvergence.getDependencyCount();
+        int artifactCount = dependencyConvergence.getArtifactCount();
+        int snapshotCount = dependencyConvergence.getSnapshotCount();
 
         int convergence = (int) ( ( (double) depCount / (double) artifactCount ) * PERCENTAGE );
 
@@ -442,58 +384,6 @@ public class DependencyConvergenceReport
         sink.table_();
     }
 
-    private int countSnapshots( Map<String, List<ReverseDependencyLink>> artifactMap )
-    {
-        int count = 0;
-        for ( Map.Entry<String, List<ReverseDependencyLink>> entry : artifactMap.entrySet() )
-        {
-            String version = entry.getKey();
-            boolean isReactorProject = false;
-
-            Iterator<ReverseDependencyLink> iterator = entry.getValue().iterator();
-            // It if enough to check just the first dependency here, because
-            // the dependency is the same in all the RDLs in the List. It's the
-            // reactorProjects that are different.
-            if ( iterator.hasNext() )
-            {
-                ReverseDependencyLink rdl = iterator.next();
-                if ( isReactorProject( rdl.getDependency() ) )
-                {
-                    isReactorProject = true;
-                }
-            }
-
-            if ( version.endsWith( "-SNAPSHOT" ) && !isReactorProject )
-            {
-                count++;
-            }
-        }
-        return count;
-    }
-
-    /**
-     * Check to see if the specified dependency is among the reactor projects.
-     *
-     * @param dependency The dependency to check
-     * @return true if and only if the dependency is a reactor project
-     */
-    private boolean isReactorProject( Dependency dependency )
-    {
-        for ( MavenProject mavenProject : reactorProjects )
-        {
-            if ( mavenProject.getGroupId().equals( dependency.getGroupId() )
-                && mavenProject.getArtifactId().equals( dependency.getArtifactId() ) )
-            {
-                if ( getLog().isDebugEnabled() )
-                {
-                    getLog().debug( dependency + " is a reactor project" );
-                }
-                return true;
-            }
-        }
-        return false;
-    }
-
     private void iconSuccess( Sink sink )
     {
         sink.figure();
@@ -513,93 +403,4 @@ public class DependencyConvergenceReport
         sink.figureGraphics( "images/icon_error_sml.gif" );
         sink.figure_();
     }
-
-    /**
-     * Produce a Map of relationships between dependencies
-     * (its groupId:artifactId) and reactor projects.
-     *
-     * This is the structure of the Map:
-     * <pre>
-     * +--------------------+----------------------------------+
-     * | key                | value                            |
-     * +--------------------+----------------------------------+
-     * | groupId:artifactId | A List of ReverseDependencyLinks |
-     * | of a dependency    | which each look like this:       |
-     * |                    | +------------+-----------------+ |
-     * |                    | | dependency | reactor project | |
-     * |                    | +------------+-----------------+ |
-     * +--------------------+----------------------------------+
-     * </pre>
-     *
-     * @return A Map of relationships between dependencies and reactor projects
-     */
-    private Map<String, List<ReverseDependencyLink>> getDependencyMap()
-    {
-        Map<String, List<ReverseDependencyLink>> dependencyMap = new TreeMap<String, List<ReverseDependencyLink>>();
-
-        for ( MavenProject reactorProject : reactorProjects )
-        {
-            @SuppressWarnings( "unchecked" )
-            Iterator<Dependency> itdep = reactorProject.getDependencies().iterator();
-            while ( itdep.hasNext() )
-            {
-                Dependency dep = itdep.next();
-                String key = dep.getGroupId() + ":" + dep.getArtifactId();
-                List<ReverseDependencyLink> depList = dependencyMap.get( key );
-                if ( depList == null )
-                {
-                    depList = new ArrayList<ReverseDependencyLink>();
-                }
-                depList.add( new ReverseDependencyLink( dep, reactorProject ) );
-                dependencyMap.put( key, depList );
-            }
-        }
-
-        return dependencyMap;
-    }
-
-    /**
-     * Internal object
-     */
-    private static class ReverseDependencyLink
-    {
-        private Dependency dependency;
-
-        protected MavenProject project;
-
-        ReverseDependencyLink( Dependency dependency, MavenProject project )
-        {
-            this.dependency = dependency;
-            this.project = project;
-        }
-
-        public Dependency getDependency()
-        {
-            return dependency;
-        }
-
-        public MavenProject getProject()
-        {
-            return project;
-        }
-
-        @Override
-        public String toString()
-        {
-            return project.getId();
-        }
-    }
-
-    /**
-     * Internal ReverseDependencyLink comparator
-     */
-    static class ReverseDependencyLinkComparator
-        implements Comparator<ReverseDependencyLink>
-    {
-        /** {@inheritDoc} */
-        public int compare( ReverseDependencyLink p1, ReverseDependencyLink p2 )
-        {
-            return p1.getProject().getId().compareTo( p2.getProject().getId() );
-        }
-    }
 }
@@ -202,9 +202,9 @@ public class PluginManagementReport
                 }
                 try
                 {
-                    MavenProject pluginProject = mavenProjectBuilder.buildFromRepository( pluginArtifact,
-                                                                                          artifactRepositories,
-                                                                                          localRepository );
+                    RepositoryProject pluginProject =
+                        new RepositoryProjectCache( mavenProjectBuilder, localRepository )
+                            .getProject( pluginArtifact, artifactRepositories, true );
                     tableRow( getPluginRow( pluginProject.getGroupId(), pluginProject.getArtifactId(), pluginProject
                         .getVersion(), pluginProject.getUrl() ) );
                 }
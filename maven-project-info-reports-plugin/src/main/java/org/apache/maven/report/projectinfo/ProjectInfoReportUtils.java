@@ -223,10 +223,12 @@ public class ProjectInfoReportUtils
         }
         try
         {
-            MavenProject pluginProject =
-                mavenProjectBuilder.buildFromRepository( copyArtifact,
-                                                         remoteRepositories == null ? Collections.EMPTY_LIST
-                                                                         : remoteRepositories, localRepository );
+            @SuppressWarnings( "unchecked" )
+            List<ArtifactRepository> repositories =
+                remoteRepositories == null ? Collections.EMPTY_LIST : remoteRepositories;
+            RepositoryProject pluginProject =
+                new RepositoryProjectCache( mavenProjectBuilder, localRepository ).getProject( copyArtifact,
+                                                                                               repositories, true );
 
             if ( isArtifactUrlValid( pluginProject.getUrl() ) )
             {
@@ -0,0 +1,370 @@
+package org.apache.maven.report.projectinfo;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * The dependencies of all the projects of a reactor, built once per build and shared by the dependency convergence
+ * reports of all the modules.
+ * <p/>
+ * The <code>groupId:artifactId</code> of the dependencies, their versions and the reactor projects are interned and
+ * numbered in their sort order, and every dependency of a reactor project is an edge packed in a <code>long</code>.
+ * The edges are sorted once, so the dependencies, their versions and the projects using them are read in the order of
+ * the report without any map.
+ *
+ * @version $Id$
+ * @since 2.7
+ */
+class ReactorDependencyGraph
+{
+    private static final int BITS = 21;
+
+    private static final long MASK = ( 1L << BITS ) - 1;
+
+    /**
+     * The reactor of the shared graph, compared by identity.
+     */
+    private static WeakReference<List<MavenProject>> sharedReactor;
+
+    private static ReactorDependencyGraph sharedGraph;
+
+    /**
+     * The reactor projects, sorted by id.
+     */
+    private final MavenProject[] projects;
+
+    private final Map<MavenProject, Integer> projectIndexes = new IdentityHashMap<MavenProject, Integer>();
+
+    /**
+     * The <code>groupId:artifactId</code> of the dependencies, sorted.
+     */
+    private final String[] dependencies;
+
+    /**
+     * Whether the dependency is a reactor project, by dependency index.
+     */
+    private final boolean[] reactorDependencies;
+
+    /**
+     * The versions of the dependencies, sorted.
+     */
+    private final String[] versions;
+
+    /**
+     * The sorted edges: dependency index, version index and project index.
+     */
+    private final long[] edges;
+
+    /**
+     * The index of the first edge of each dependency, and the number of edges as last element.
+     */
+    private final int[] dependencyStarts;
+
+    private Convergence convergence;
+
+    ReactorDependencyGraph( List<MavenProject> reactorProjects )
+    {
+        projects = reactorProjects.toArray( new MavenProject[reactorProjects.size()] );
+        Arrays.sort( projects, new Comparator<MavenProject>()
+        {
+            /** {@inheritDoc} */
+            public int compare( MavenProject p1, MavenProject p2 )
+            {
+                return p1.getId().compareTo( p2.getId() );
+            }
+        } );
+
+        Set<String> reactorKeys = new HashSet<String>();
+        Map<String, Integer> dependencyIds = new HashMap<String, Integer>();
+        Map<String, Integer> versionIds = new HashMap<String, Integer>();
+        List<int[]> found = new ArrayList<int[]>();
+        for ( int i = 0; i < projects.length; i++ )
+        {
+            projectIndexes.put( projects[i], i );
+            reactorKeys.add( projects[i].getGroupId() + ":" + projects[i].getArtifactId() );
+
+            @SuppressWarnings( "unchecked" )
+            List<Dependency> projectDependencies = projects[i].getDependencies();
+            for ( Dependency dependency : projectDependencies )
+            {
+                found.add( new int[] { intern( dependencyIds, dependency.getGroupId() + ":"
+                    + dependency.getArtifactId() ), intern( versionIds, dependency.getVersion() ), i } );
+            }
+        }
+        if ( projects.length > MASK || dependencyIds.size() > MASK || versionIds.size() > MASK )
+        {
+            throw new IllegalStateException( "Too many dependencies in the reactor" );
+        }
+
+        dependencies = sort( dependencyIds );
+        versions = sort( versionIds );
+        int[] dependencyOrder = order( dependencies, dependencyIds );
+        int[] versionOrder = order( versions, versionIds );
+
+        reactorDependencies = new boolean[dependencies.length];
+        for ( int i = 0; i < dependencies.length; i++ )
+        {
+            reactorDependencies[i] = reactorKeys.contains( dependencies[i] );
+        }
+
+        edges = new long[found.size()];
+        for ( int i = 0; i < edges.length; i++ )
+        {
+            int[] edge = found.get( i );
+            edges[i] =
+                ( (long) dependencyOrder[edge[0]] << ( 2 * BITS ) ) | ( (long) versionOrder[edge[1]] << BITS )
+                    | edge[2];
+        }
+        Arrays.sort( edges );
+
+        dependencyStarts = new int[dependencies.length + 1];
+        for ( long edge : edges )
+        {
+            dependencyStarts[getDependency( edge ) + 1]++;
+        }
+        for ( int i = 0; i < dependencies.length; i++ )
+        {
+            dependencyStarts[i + 1] += dependencyStarts[i];
+        }
+    }
+
+    /**
+     * @param reactorProjects the projects of the current build, not null
+     * @return the graph of the reactor, built by the first report of the build
+     */
+    static synchronized ReactorDependencyGraph getInstance( List<MavenProject> reactorProjects )
+    {
+        if ( sharedReactor == null || sharedReactor.get() != reactorProjects )
+        {
+            sharedGraph = new ReactorDependencyGraph( reactorProjects );
+            sharedReactor = new WeakReference<List<MavenProject>>( reactorProjects );
+        }
+        return sharedGraph;
+    }
+
+    /**
+     * @return the convergence of the dependencies of all the reactor projects
+     */
+    synchronized Convergence getConvergence()
+    {
+        if ( convergence == null )
+        {
+            convergence = new Convergence( null );
+        }
+        return convergence;
+    }
+
+    /**
+     * @param reactorProjects some projects of the reactor, not null
+     * @return the convergence of the dependencies of the given projects
+     */
+    Convergence getConvergence( Collection<MavenProject> reactorProjects )
+    {
+        boolean[] selected = new boolean[projects.length];
+        for ( MavenProject project : reactorProjects )
+        {
+            Integer index = projectIndexes.get( project );
+            if ( index != null )
+            {
+                selected[index] = true;
+            }
+        }
+        return new Convergence( selected );
+    }
+
+    private static int getDependency( long edge )
+    {
+        return (int) ( edge >>> ( 2 * BITS ) );
+    }
+
+    private static int getVersion( long edge )
+    {
+        return (int) ( ( edge >>> BITS ) & MASK );
+    }
+
+    private static int getProject( long edge )
+    {
+        return (int) ( edge & MASK );
+    }
+
+    private static int intern( Map<String, Integer> ids, String value )
+    {
+        Integer id = ids.get( value );
+        if ( id == null )
+        {
+            id = ids.size();
+            ids.put( value, id );
+        }
+        return id;
+    }
+
+    private static String[] sort( Map<String, Integer> ids )
+    {
+        String[] values = ids.keySet().toArray( new String[ids.size()] );
+        Arrays.sort( values );
+        return values;
+    }
+
+    /**
+     * @return the sorted index of each interned value
+     */
+    private static int[] order( String[] sorted, Map<String, Integer> ids )
+    {
+        int[] order = new int[sorted.length];
+        for ( int i = 0; i < sorted.length; i++ )
+        {
+            order[ids.get( sorted[i] )] = i;
+        }
+        return order;
+    }
+
+    /**
+     * The convergence of the dependencies of some projects of the reactor.
+     */
+    class Convergence
+    {
+        /**
+         * The selected projects, or <code>null</code> for all the reactor projects.
+         */
+        private final boolean[] selected;
+
+        /**
+         * The indexes of the dependencies used by the selected projects.
+         */
+        private final int[] used;
+
+        private int artifactCount;
+
+        private int snapshotCount;
+
+        Convergence( boolean[] selected )
+        {
+            this.selected = selected;
+
+            int[] found = new int[dependencies.length];
+            int size = 0;
+            for ( int dependency = 0; dependency < dependencies.length; dependency++ )
+            {
+                int lastVersion = -1;
+                for ( int i = dependencyStarts[dependency]; i < dependencyStarts[dependency + 1]; i++ )
+                {
+                    int version = getVersion( edges[i] );
+                    if ( version != lastVersion && isSelected( edges[i] ) )
+                    {
+                        lastVersion = version;
+                        artifactCount++;
+                        if ( versions[version].endsWith( "-SNAPSHOT" ) && !reactorDependencies[dependency] )
+                        {
+                            snapshotCount++;
+                        }
+                    }
+                }
+                if ( lastVersion >= 0 )
+                {
+                    found[size++] = dependency;
+                }
+            }
+            used = new int[size];
+            System.arraycopy( found, 0, used, 0, size );
+        }
+
+        private boolean isSelected( long edge )
+        {
+            return selected == null || selected[getProject( edge )];
+        }
+
+        /**
+         * @return the number of distinct <code>groupId:artifactId</code> dependencies
+         */
+        int getDependencyCount()
+        {
+            return used.length;
+        }
+
+        /**
+         * @return the number of distinct <code>groupId:artifactId:version</code> dependencies
+         */
+        int getArtifactCount()
+        {
+            return artifactCount;
+        }
+
+        /**
+         * @return the number of distinct SNAPSHOT dependencies which are not reactor projects
+         */
+        int getSnapshotCount()
+        {
+            return snapshotCount;
+        }
+
+        /**
+         * @param index the index of the dependency, between <code>0</code> and the dependency count
+         * @return the <code>groupId:artifactId</code> of the dependency
+         */
+        String getDependency( int index )
+        {
+            return dependencies[used[index]];
+        }
+
+        /**
+         * @param index the index of the dependency, between <code>0</code> and the dependency count
+         * @return the projects using the dependency by version, the versions and the projects being sorted
+         */
+        Map<String, List<MavenProject>> getVersions( int index )
+        {
+            int dependency = used[index];
+            Map<String, List<MavenProject>> projectsByVersion = new LinkedHashMap<String, List<MavenProject>>();
+            List<MavenProject> versionProjects = null;
+            int lastVersion = -1;
+            for ( int i = dependencyStarts[dependency]; i < dependencyStarts[dependency + 1]; i++ )
+            {
+                if ( !isSelected( edges[i] ) )
+                {
+                    continue;
+                }
+                int version = getVersion( edges[i] );
+                if ( version != lastVersion )
+                {
+                    lastVersion = version;
+                    versionProjects = new ArrayList<MavenProject>();
+                    projectsByVersion.put( versions[version], Collections.unmodifiableList( versionProjects ) );
+                }
+                versionProjects.add( projects[getProject( edges[i] )] );
+            }
+            return projectsByVersion;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.apache.maven.report.projectinfo;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.model.License;
+import org.apache.maven.model.Organization;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * The fields of a project built from a repository POM which are used by the reports.
+ *
+ * @version $Id$
+ * @since 2.7
+ * @see RepositoryProjectCache
+ */
+public class RepositoryProject
+{
+    private String groupId;
+
+    private String artifactId;
+
+    private String version;
+
+    private String name;
+
+    private String description;
+
+    private String url;
+
+    private Organization organization;
+
+    private List<License> licenses = new ArrayList<License>();
+
+    private List<ArtifactRepository> remoteArtifactRepositories = new ArrayList<ArtifactRepository>();
+
+    RepositoryProject()
+    {
+        // filled by the cache
+    }
+
+    /**
+     * @param project a project built from a repository POM, not null
+     */
+    @SuppressWarnings( "unchecked" )
+    public RepositoryProject( MavenProject project )
+    {
+        this.groupId = project.getGroupId();
+        this.artifactId = project.getArtifactId();
+        this.version = project.getVersion();
+        this.name = project.getName();
+        this.description = project.getDescription();
+        this.url = project.getUrl();
+        this.organization = project.getOrganization();
+        if ( project.getLicenses() != null )
+        {
+            this.licenses.addAll( project.getLicenses() );
+        }
+        if ( project.getRemoteArtifactRepositories() != null )
+        {
+            this.remoteArtifactRepositories.addAll( project.getRemoteArtifactRepositories() );
+        }
+    }
+
+    /**
+     * @return the group id of the project
+     */
+    public String getGroupId()
+    {
+        return groupId;
+    }
+
+    void setGroupId( String groupId )
+    {
+        this.groupId = groupId;
+    }
+
+    /**
+     * @return the artifact id of the project
+     */
+    public String getArtifactId()
+    {
+        return artifactId;
+    }
+
+    void setArtifactId( String artifactId )
+    {
+        this.artifactId = artifactId;
+    }
+
+    /**
+     * @return the version of the project
+     */
+    public String getVersion()
+    {
+        return version;
+    }
+
+    void setVersion( String version )
+    {
+        this.version = version;
+    }
+
+    /**
+     * @return the name of the project, which is the artifact id if the POM has no name
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    void setName( String name )
+    {
+        this.name = name;
+    }
+
+    /**
+     * @return the description of the project, could be null
+     */
+    public String getDescription()
+    {
+        return description;
+    }
+
+    void setDescription( String description )
+    {
+        this.description = description;
+    }
+
+    /**
+     * @return the URL of the project, could be null
+     */
+    public String getUrl()
+    {
+        return url;
+    }
+
+    void setUrl( String url )
+    {
+        this.url = url;
+    }
+
+    /**
+     * @return the organization of the project, could be null
+     */
+    public Organization getOrganization()
+    {
+        return organization;
+    }
+
+    void setOrganization( Organization organization )
+    {
+        this.organization = organization;
+    }
+
+    /**
+     * @return the licenses of the project, not null
+     */
+    public List<License> getLicenses()
+    {
+        return Collections.unmodifiableList( licenses );
+    }
+
+    void addLicense( License license )
+    {
+        licenses.add( license );
+    }
+
+    /**
+     * @return the repositories of the project, not null
+     */
+    public List<ArtifactRepository> getRemoteArtifactRepositories()
+    {
+        return Collections.unmodifiableList( remoteArtifactRepositories );
+    }
+
+    void addRemoteArtifactRepository( ArtifactRepository repository )
+    {
+        remoteArtifactRepositories.add( repository );
+    }
+}
@@ -0,0 +1,422 @@
+package org.apache.maven.report.projectinfo;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.DefaultArtifactRepository;
+import org.apache.maven.artifact.repository.layout.ArtifactRepositoryLayout;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.artifact.repository.layout.LegacyRepositoryLayout;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.model.License;
+import org.apache.maven.model.Organization;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.MavenProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Builds the projects of repository POMs once for the reports of all the modules of the build, and keeps the fields
+ * used by the reports in the local repository for the next builds. A cached project is used as long as its POM and
+ * the POMs of its parents have the same checksums.
+ *
+ * @version $Id$
+ * @since 2.7
+ */
+public class RepositoryProjectCache
+{
+    /**
+     * The directory of the cached projects, relative to the local repository.
+     */
+    public static final String CACHE_DIRECTORY = ".cache/maven-project-info-reports-plugin/projects";
+
+    /**
+     * The projects of this build, by group id, artifact id and version.
+     */
+    private static final ConcurrentMap<String, RepositoryProject> PROJECTS =
+        new ConcurrentHashMap<String, RepositoryProject>();
+
+    /**
+     * The checksums of this build, by POM path, length and last modification time.
+     */
+    private static final ConcurrentMap<String, String> CHECKSUMS = new ConcurrentHashMap<String, String>();
+
+    private final MavenProjectBuilder mavenProjectBuilder;
+
+    private final ArtifactRepository localRepository;
+
+    private final File cacheDirectory;
+
+    /**
+     * @param mavenProjectBuilder the builder of the projects which are not cached, not null
+     * @param localRepository the local repository, not null
+     */
+    public RepositoryProjectCache( MavenProjectBuilder mavenProjectBuilder, ArtifactRepository localRepository )
+    {
+        this.mavenProjectBuilder = mavenProjectBuilder;
+        this.localRepository = localRepository;
+        this.cacheDirectory =
+            localRepository.getBasedir() == null ? null : new File( localRepository.getBasedir(), CACHE_DIRECTORY );
+    }
+
+    /**
+     * @param projectArtifact the artifact of the POM, not null
+     * @param remoteRepositories the repositories to download the POM from, not null
+     * @param allowStubModel <code>true</code> to get a stub project if the POM does not exist
+     * @return the project of the POM
+     * @throws ProjectBuildingException if the project is not cached and cannot be built
+     * @see MavenProjectBuilder#buildFromRepository(Artifact, List, ArtifactRepository, boolean)
+     */
+    public RepositoryProject getProject( Artifact projectArtifact, List<ArtifactRepository> remoteRepositories,
+                                         boolean allowStubModel )
+        throws ProjectBuildingException
+    {
+        String key =
+            projectArtifact.getGroupId() + ':' + projectArtifact.getArtifactId() + ':' + projectArtifact.getVersion();
+        RepositoryProject project = PROJECTS.get( key );
+        if ( project != null )
+        {
+            return project;
+        }
+
+        // RELEASE, LATEST or a range may give another version in the next builds
+        String version = projectArtifact.getVersion();
+        File cacheFile = null;
+        if ( cacheDirectory != null && version != null && !Artifact.RELEASE_VERSION.equals( version )
+            && !Artifact.LATEST_VERSION.equals( version ) && !version.startsWith( "[" ) && !version.startsWith( "(" ) )
+        {
+            cacheFile = new File( cacheDirectory, sha1( key ) + ".properties" );
+            project = read( cacheFile );
+        }
+
+        if ( project == null )
+        {
+            MavenProject mavenProject =
+                mavenProjectBuilder.buildFromRepository( projectArtifact, remoteRepositories, localRepository,
+                                                         allowStubModel );
+            project = new RepositoryProject( mavenProject );
+            if ( cacheFile != null )
+            {
+                write( cacheFile, project, getPomFiles( mavenProject ) );
+            }
+        }
+
+        RepositoryProject existing = PROJECTS.putIfAbsent( key, project );
+        return existing != null ? existing : project;
+    }
+
+    /**
+     * @return the POM files of the project and of its parents in the local repository
+     */
+    private List<File> getPomFiles( MavenProject project )
+    {
+        List<File> pomFiles = new ArrayList<File>();
+        for ( MavenProject p = project; p != null; p = p.getParent() )
+        {
+            File pomFile = p.getFile();
+            if ( pomFile == null || !pomFile.isFile() )
+            {
+                Artifact pomArtifact =
+                    new DefaultArtifact( p.getGroupId(), p.getArtifactId(),
+                                         VersionRange.createFromVersion( p.getVersion() ), null, "pom", null,
+                                         new DefaultArtifactHandler( "pom" ) );
+                pomFile = new File( localRepository.getBasedir(), localRepository.pathOf( pomArtifact ) );
+            }
+            if ( !pomFile.isFile() )
+            {
+                // a stub or a parent which is not in the local repository: cannot be checked in the next builds
+                return null;
+            }
+            pomFiles.add( pomFile );
+        }
+        return pomFiles;
+    }
+
+    /**
+     * @return the cached project, or <code>null</code> if there is none, it is unreadable or one of its POM files
+     *         changed
+     */
+    static RepositoryProject read( File cacheFile )
+    {
+        if ( !cacheFile.isFile() )
+        {
+            return null;
+        }
+
+        Properties properties = new Properties();
+        InputStream in = null;
+        try
+        {
+            in = new FileInputStream( cacheFile );
+            properties.load( in );
+
+            int poms = Integer.parseInt( properties.getProperty( "pom.count", "0" ) );
+            if ( poms == 0 )
+            {
+                return null;
+            }
+            for ( int i = 0; i < poms; i++ )
+            {
+                File pomFile = new File( properties.getProperty( "pom." + i + ".path" ) );
+                if ( !pomFile.isFile()
+                    || !getChecksum( pomFile ).equals( properties.getProperty( "pom." + i + ".checksum" ) ) )
+                {
+                    return null;
+                }
+            }
+
+            RepositoryProject project = new RepositoryProject();
+            project.setGroupId( properties.getProperty( "groupId" ) );
+            project.setArtifactId( properties.getProperty( "artifactId" ) );
+            project.setVersion( properties.getProperty( "version" ) );
+            project.setName( properties.getProperty( "name" ) );
+            project.setDescription( properties.getProperty( "description" ) );
+            project.setUrl( properties.getProperty( "url" ) );
+
+            if ( properties.containsKey( "organization.name" ) || properties.containsKey( "organization.url" ) )
+            {
+                Organization organization = new Organization();
+                organization.setName( properties.getProperty( "organization.name" ) );
+                organization.setUrl( properties.getProperty( "organization.url" ) );
+                project.setOrganization( organization );
+            }
+
+            int licenses = Integer.parseInt( properties.getProperty( "license.count", "0" ) );
+            for ( int i = 0; i < licenses; i++ )
+            {
+                License license = new License();
+                license.setName( properties.getProperty( "license." + i + ".name" ) );
+                license.setUrl( properties.getProperty( "license." + i + ".url" ) );
+                license.setDistribution( properties.getProperty( "license." + i + ".distribution" ) );
+                license.setComments( properties.getProperty( "license." + i + ".comments" ) );
+                project.addLicense( license );
+            }
+
+            int repositories = Integer.parseInt( properties.getProperty( "repository.count", "0" ) );
+            for ( int i = 0; i < repositories; i++ )
+            {
+                String prefix = "repository." + i + ".";
+                ArtifactRepositoryLayout layout =
+                    "legacy".equals( properties.getProperty( prefix + "layout" ) ) ? new LegacyRepositoryLayout()
+                                    : new DefaultRepositoryLayout();
+                project.addRemoteArtifactRepository( new DefaultArtifactRepository(
+                    properties.getProperty( prefix + "id" ), properties.getProperty( prefix + "url" ), layout,
+                    readPolicy( properties, prefix + "snapshots." ), readPolicy( properties, prefix + "releases." ) ) );
+            }
+            return project;
+        }
+        catch ( IOException e )
+        {
+            // unreadable: build the project again
+            return null;
+        }
+        catch ( RuntimeException e )
+        {
+            // incomplete: build the project again
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+
+    static void write( File cacheFile, RepositoryProject project, List<File> pomFiles )
+    {
+        if ( pomFiles == null )
+        {
+            return;
+        }
+
+        Properties properties = new Properties();
+        File tmp = null;
+        OutputStream out = null;
+        try
+        {
+            properties.setProperty( "pom.count", String.valueOf( pomFiles.size() ) );
+            for ( int i = 0; i < pomFiles.size(); i++ )
+            {
+                properties.setProperty( "pom." + i + ".path", pomFiles.get( i ).getAbsolutePath() );
+                properties.setProperty( "pom." + i + ".checksum", getChecksum( pomFiles.get( i ) ) );
+            }
+
+            setProperty( properties, "groupId", project.getGroupId() );
+            setProperty( properties, "artifactId", project.getArtifactId() );
+            setProperty( properties, "version", project.getVersion() );
+            setProperty( properties, "name", project.getName() );
+            setProperty( properties, "description", project.getDescription() );
+            setProperty( properties, "url", project.getUrl() );
+
+            if ( project.getOrganization() != null )
+            {
+                setProperty( properties, "organization.name", project.getOrganization().getName() );
+                setProperty( properties, "organization.url", project.getOrganization().getUrl() );
+            }
+
+            properties.setProperty( "license.count", String.valueOf( project.getLicenses().size() ) );
+            for ( int i = 0; i < project.getLicenses().size(); i++ )
+            {
+                License license = project.getLicenses().get( i );
+                setProperty( properties, "license." + i + ".name", license.getName() );
+                setProperty( properties, "license." + i + ".url", license.getUrl() );
+                setProperty( properties, "license." + i + ".distribution", license.getDistribution() );
+                setProperty( properties, "license." + i + ".comments", license.getComments() );
+            }
+
+            List<ArtifactRepository> repositories = project.getRemoteArtifactRepositories();
+            properties.setProperty( "repository.count", String.valueOf( repositories.size() ) );
+            for ( int i = 0; i < repositories.size(); i++ )
+            {
+                String prefix = "repository." + i + ".";
+                ArtifactRepository repository = repositories.get( i );
+                setProperty( properties, prefix + "id", repository.getId() );
+                setProperty( properties, prefix + "url", repository.getUrl() );
+                properties.setProperty( prefix + "layout", repository.getLayout() instanceof LegacyRepositoryLayout
+                                ? "legacy" : "default" );
+                writePolicy( properties, prefix + "snapshots.", repository.getSnapshots() );
+                writePolicy( properties, prefix + "releases.", repository.getReleases() );
+            }
+
+            // a file of its own, as the modules of other builds may build the same project at the same time
+            cacheFile.getParentFile().mkdirs();
+            tmp = File.createTempFile( cacheFile.getName(), ".tmp", cacheFile.getParentFile() );
+            out = new FileOutputStream( tmp );
+            properties.store( out, null );
+            out.close();
+            out = null;
+
+            // the same POMs always give the same project, another module may have written it already
+            if ( !( tmp.renameTo( cacheFile ) || ( cacheFile.delete() && tmp.renameTo( cacheFile ) ) ) )
+            {
+                throw new IOException( "Unable to write " + cacheFile );
+            }
+        }
+        catch ( IOException e )
+        {
+            // not cached, the project will be built again by the next build
+        }
+        finally
+        {
+            IOUtil.close( out );
+            if ( tmp != null )
+            {
+                tmp.delete();
+            }
+        }
+    }
+
+    private static ArtifactRepositoryPolicy readPolicy( Properties properties, String prefix )
+    {
+        return new ArtifactRepositoryPolicy( Boolean.valueOf( properties.getProperty( prefix + "enabled" ) )
+            .booleanValue(), properties.getProperty( prefix + "updatePolicy" ),
+                                             properties.getProperty( prefix + "checksumPolicy" ) );
+    }
+
+    private static void writePolicy( Properties properties, String prefix, ArtifactRepositoryPolicy policy )
+    {
+        properties.setProperty( prefix + "enabled", String.valueOf( policy != null && policy.isEnabled() ) );
+        if ( policy != null )
+        {
+            setProperty( properties, prefix + "updatePolicy", policy.getUpdatePolicy() );
+            setProperty( properties, prefix + "checksumPolicy", policy.getChecksumPolicy() );
+        }
+    }
+
+    private static void setProperty( Properties properties, String key, String value )
+    {
+        if ( value != null )
+        {
+            properties.setProperty( key, value );
+        }
+    }
+
+    /**
+     * @return the SHA-1 checksum of the file, computed once per build unless the file changes
+     */
+    private static String getChecksum( File file )
+        throws IOException
+    {
+        String key = file.getAbsolutePath() + '|' + file.length() + '|' + file.lastModified();
+        String checksum = CHECKSUMS.get( key );
+        if ( checksum == null )
+        {
+            InputStream in = null;
+            try
+            {
+                in = new FileInputStream( file );
+                checksum = sha1( IOUtil.toByteArray( in ) );
+            }
+            finally
+            {
+                IOUtil.close( in );
+            }
+            CHECKSUMS.put( key, checksum );
+        }
+        return checksum;
+    }
+
+    private static String sha1( String text )
+    {
+        try
+        {
+            return sha1( text.getBytes( "UTF-8" ) );
+        }
+        catch ( UnsupportedEncodingException e )
+        {
+            throw new IllegalStateException( e.getMessage() );
+        }
+    }
+
+    private static String sha1( byte[] bytes )
+    {
+        StringBuilder hex = new StringBuilder();
+        try
+        {
+            for ( byte b : MessageDigest.getInstance( "SHA-1" ).digest( bytes ) )
+            {
+                hex.append( Integer.toHexString( ( b & 0xff ) | 0x100 ).substring( 1 ) );
+            }
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e.getMessage() );
+        }
+        return hex.toString();
+    }
+}
@@ -24,6 +24,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.jar.JarEntry;
 
 import org.apache.maven.artifact.Artifact;
@@ -46,6 +50,8 @@ public class Dependencies
 
     private final JarClassesAnalysis classesAnalyzer;
 
+    private final JarDataCache jarDataCache;
+
     /**
      * @since 2.1
      */
@@ -84,10 +90,24 @@ public class Dependencies
      * @param classesAnalyzer the JarClassesAnalysis.
      */
     public Dependencies( MavenProject project, DependencyNode dependencyTreeNode, JarClassesAnalysis classesAnalyzer )
+    {
+        this( project, dependencyTreeNode, classesAnalyzer, null );
+    }
+
+    /**
+     * @param project the MavenProject.
+     * @param dependencyTreeNode the DependencyNode.
+     * @param classesAnalyzer the JarClassesAnalysis.
+     * @param jarDataCache the cache of the JAR analyses shared with the other modules, or <code>null</code>.
+     * @since 2.7
+     */
+    public Dependencies( MavenProject project, DependencyNode dependencyTreeNode, JarClassesAnalysis classesAnalyzer,
+                         JarDataCache jarDataCache )
     {
         this.project = project;
         this.dependencyNode = dependencyTreeNode;
         this.classesAnalyzer = classesAnalyzer;
+        this.jarDataCache = jarDataCache;
     }
 
     /**
@@ -229,9 +249,12 @@ public class Dependencies
     public JarData getJarDependencyDetails( Artifact artifact )
         throws IOException
     {
-        if ( dependencyDetails == null )
+        synchronized ( this )
         {
-            dependencyDetails = new HashMap<String, JarData>();
+            if ( dependencyDetails == null )
+            {
+                dependencyDetails = new ConcurrentHashMap<String, JarData>();
+            }
         }
 
         JarData jarData = dependencyDetails.get( artifact.getId() );
@@ -248,18 +271,27 @@ public class Dependencies
         }
         else
         {
-            JarAnalyzer jarAnalyzer = new JarAnalyzer( artifact.getFile() );
-
-            try
-            {
-                classesAnalyzer.analyze( jarAnalyzer );
-            }
-            finally
+            jarData = jarDataCache != null ? jarDataCache.get( artifact.getFile() ) : null;
+            if ( jarData == null )
             {
-                jarAnalyzer.closeQuietly();
+                JarAnalyzer jarAnalyzer = new JarAnalyzer( artifact.getFile() );
+
+                try
+                {
+                    classesAnalyzer.analyze( jarAnalyzer );
+                }
+                finally
+                {
+                    jarAnalyzer.closeQuietly();
+                }
+
+                jarData = jarAnalyzer.getJarData();
+
+                if ( jarDataCache != null )
+                {
+                    jarDataCache.put( artifact.getFile(), jarData );
+                }
             }
-            
-            jarData = jarAnalyzer.getJarData();
         }
 
         dependencyDetails.put( artifact.getId(), jarData );
@@ -267,6 +299,59 @@ public class Dependencies
         return jarData;
     }
 
+    /**
+     * Analyzes the files of the artifacts concurrently, so the next calls of
+     * {@link #getJarDependencyDetails(Artifact)} return at once. The files which cannot be analyzed are left to
+     * these calls, which report the error.
+     *
+     * @param artifacts the artifacts, not null
+     * @param threads the number of concurrent analyses, or <code>0</code> for the number of processors
+     * @since 2.7
+     */
+    public void analyzeJarDependencyDetails( List<Artifact> artifacts, int threads )
+    {
+        ExecutorService executor =
+            Executors.newFixedThreadPool( threads > 0 ? threads : Runtime.getRuntime().availableProcessors() );
+        for ( final Artifact artifact : artifacts )
+        {
+            if ( artifact.getFile() == null )
+            {
+                continue;
+            }
+            executor.execute( new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        getJarDependencyDetails( artifact );
+                    }
+                    catch ( IOException e )
+                    {
+                        // reported when rendering the artifact
+                    }
+                    catch ( RuntimeException e )
+                    {
+                        // reported when rendering the artifact
+                    }
+                }
+            } );
+        }
+        executor.shutdown();
+        try
+        {
+            while ( !executor.awaitTermination( 1, TimeUnit.SECONDS ) )
+            {
+                // wait for the analyses
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
     // ----------------------------------------------------------------------
     // Private methods
     // ----------------------------------------------------------------------
@@ -31,14 +31,29 @@ public class DependenciesReportConfiguration
 
     private boolean dependencyLocationsEnabled;
 
+    private int dependencyDetailsThreads;
+
     /**
      * @param detailsEnabled whether details is enabled.
      * @param locationEnabled whether location is enabled.
      */
     public DependenciesReportConfiguration( boolean detailsEnabled, boolean locationEnabled )
+    {
+        this( detailsEnabled, locationEnabled, 0 );
+    }
+
+    /**
+     * @param detailsEnabled whether details is enabled.
+     * @param locationEnabled whether location is enabled.
+     * @param detailsThreads the number of concurrent analyses of the dependency files, <code>0</code> for the number
+     *            of processors.
+     * @since 2.7
+     */
+    public DependenciesReportConfiguration( boolean detailsEnabled, boolean locationEnabled, int detailsThreads )
     {
         this.dependencyDetailsEnabled = detailsEnabled;
         this.dependencyLocationsEnabled = locationEnabled;
+        this.dependencyDetailsThreads = detailsThreads;
     }
 
     /**
@@ -56,4 +71,13 @@ public class DependenciesReportConfiguration
     {
         return dependencyLocationsEnabled;
     }
+
+    /**
+     * @return value of Mojo dependencyDetailsThreads parameter.
+     * @since 2.7
+     */
+    public int getDependencyDetailsThreads()
+    {
+        return dependencyDetailsThreads;
+    }
 }
@@ -0,0 +1,337 @@
+package org.apache.maven.report.projectinfo.dependencies;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.JarEntry;
+import java.util.jar.Manifest;
+
+import org.apache.maven.shared.jar.JarData;
+import org.apache.maven.shared.jar.classes.JarClasses;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Keeps the analysis of the dependency JAR files by checksum, so a JAR is only analyzed once by the reports of all
+ * the modules of the build and of the next builds. The analyses are stored in the local repository.
+ *
+ * @version $Id$
+ * @since 2.7
+ */
+public class JarDataCache
+{
+    /**
+     * The directory of the cached analyses, relative to the local repository.
+     */
+    public static final String CACHE_DIRECTORY = ".cache/maven-project-info-reports-plugin/jars";
+
+    /**
+     * The version of the format of the cached analyses.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The analyses of this build, by JAR checksum.
+     */
+    private static final ConcurrentMap<String, JarData> JARS = new ConcurrentHashMap<String, JarData>();
+
+    /**
+     * The checksums of this build, by JAR path, length and last modification time.
+     */
+    private static final ConcurrentMap<String, String> CHECKSUMS = new ConcurrentHashMap<String, String>();
+
+    private final File cacheDirectory;
+
+    /**
+     * @param localRepositoryDirectory the directory of the local repository, or <code>null</code> to only keep the
+     *            analyses during this build
+     */
+    public JarDataCache( File localRepositoryDirectory )
+    {
+        this.cacheDirectory =
+            localRepositoryDirectory == null ? null : new File( localRepositoryDirectory, CACHE_DIRECTORY );
+    }
+
+    /**
+     * @param file a JAR file, not null
+     * @return the analysis of a JAR file with the same checksum, or <code>null</code> if it has not been analyzed
+     * @throws IOException if the JAR file cannot be read
+     */
+    public JarData get( File file )
+        throws IOException
+    {
+        String checksum = getChecksum( file );
+        JarData jarData = JARS.get( checksum );
+        if ( jarData == null && cacheDirectory != null )
+        {
+            jarData = read( new File( cacheDirectory, checksum + ".bin" ) );
+            if ( jarData != null )
+            {
+                JARS.putIfAbsent( checksum, jarData );
+            }
+        }
+        return jarData == null ? null : copy( jarData, file, checksum );
+    }
+
+    /**
+     * @param file a JAR file, not null
+     * @param jarData the analysis of the JAR file, not null
+     * @throws IOException if the JAR file cannot be read
+     */
+    public void put( File file, JarData jarData )
+        throws IOException
+    {
+        String checksum = getChecksum( file );
+        jarData.setFileHash( checksum );
+        if ( JARS.putIfAbsent( checksum, jarData ) == null && cacheDirectory != null )
+        {
+            write( new File( cacheDirectory, checksum + ".bin" ), jarData );
+        }
+    }
+
+    /**
+     * @return the SHA-1 checksum of the file, computed once per build unless the file changes
+     */
+    private String getChecksum( File file )
+        throws IOException
+    {
+        String key = file.getAbsolutePath() + '|' + file.length() + '|' + file.lastModified();
+        String checksum = CHECKSUMS.get( key );
+        if ( checksum != null )
+        {
+            return checksum;
+        }
+
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e.getMessage() );
+        }
+        InputStream in = null;
+        try
+        {
+            in = new FileInputStream( file );
+            byte[] buffer = new byte[65536];
+            int read;
+            while ( ( read = in.read( buffer ) ) != -1 )
+            {
+                digest.update( buffer, 0, read );
+            }
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for ( byte b : digest.digest() )
+        {
+            hex.append( Integer.toHexString( ( b & 0xff ) | 0x100 ).substring( 1 ) );
+        }
+        checksum = hex.toString();
+        CHECKSUMS.put( key, checksum );
+        return checksum;
+    }
+
+    /**
+     * @return the analysis of another JAR file with the same content
+     */
+    private static JarData copy( JarData jarData, File file, String checksum )
+    {
+        if ( file.equals( jarData.getFile() ) )
+        {
+            return jarData;
+        }
+        @SuppressWarnings( "unchecked" )
+        List<JarEntry> entries = jarData.getEntries();
+        JarData copy = new JarData( file, jarData.getManifest(), entries );
+        copy.setJarClasses( jarData.getJarClasses() );
+        copy.setFileHash( checksum );
+        return copy;
+    }
+
+    /**
+     * @return the cached analysis, or <code>null</code> if there is none or it is unreadable
+     */
+    static JarData read( File cacheFile )
+    {
+        if ( !cacheFile.isFile() )
+        {
+            return null;
+        }
+
+        DataInputStream in = null;
+        try
+        {
+            in = new DataInputStream( new BufferedInputStream( new FileInputStream( cacheFile ) ) );
+            if ( in.readInt() != FORMAT_VERSION )
+            {
+                return null;
+            }
+
+            Manifest manifest = null;
+            int manifestLength = in.readInt();
+            if ( manifestLength >= 0 )
+            {
+                byte[] bytes = new byte[manifestLength];
+                in.readFully( bytes );
+                manifest = new Manifest( new ByteArrayInputStream( bytes ) );
+            }
+
+            List<JarEntry> entries = new ArrayList<JarEntry>();
+            for ( String name : readStrings( in ) )
+            {
+                entries.add( new JarEntry( name ) );
+            }
+
+            JarClasses jarClasses = new JarClasses();
+            for ( String className : readStrings( in ) )
+            {
+                jarClasses.addClassName( className );
+            }
+            for ( String packageName : readStrings( in ) )
+            {
+                jarClasses.addPackage( packageName );
+            }
+            jarClasses.setDebugPresent( in.readBoolean() );
+            if ( in.readBoolean() )
+            {
+                jarClasses.setJdkRevision( in.readUTF() );
+            }
+
+            JarData jarData = new JarData( null, manifest, entries );
+            jarData.setJarClasses( jarClasses );
+            return jarData;
+        }
+        catch ( IOException e )
+        {
+            // unreadable: analyze the JAR again
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+
+    static void write( File cacheFile, JarData jarData )
+    {
+        File tmp = null;
+        DataOutputStream out = null;
+        try
+        {
+            // a file of its own, as the modules of other builds may analyze the same JAR at the same time
+            cacheFile.getParentFile().mkdirs();
+            tmp = File.createTempFile( cacheFile.getName(), ".tmp", cacheFile.getParentFile() );
+            out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( tmp ) ) );
+            out.writeInt( FORMAT_VERSION );
+
+            if ( jarData.getManifest() != null )
+            {
+                ByteArrayOutputStream manifest = new ByteArrayOutputStream();
+                jarData.getManifest().write( manifest );
+                out.writeInt( manifest.size() );
+                manifest.writeTo( out );
+            }
+            else
+            {
+                out.writeInt( -1 );
+            }
+
+            List<String> names = new ArrayList<String>();
+            for ( Object entry : jarData.getEntries() )
+            {
+                names.add( ( (JarEntry) entry ).getName() );
+            }
+            writeStrings( out, names );
+
+            JarClasses jarClasses = jarData.getJarClasses();
+            writeStrings( out, jarClasses.getClassNames() );
+            writeStrings( out, jarClasses.getPackages() );
+            out.writeBoolean( jarClasses.isDebugPresent() );
+            out.writeBoolean( jarClasses.getJdkRevision() != null );
+            if ( jarClasses.getJdkRevision() != null )
+            {
+                out.writeUTF( jarClasses.getJdkRevision() );
+            }
+            out.close();
+            out = null;
+
+            // the same content always gives the same analysis, another module may have written it already
+            if ( !tmp.renameTo( cacheFile ) && !cacheFile.isFile() )
+            {
+                throw new IOException( "Unable to write " + cacheFile );
+            }
+        }
+        catch ( IOException e )
+        {
+            // not cached, the JAR will be analyzed again by the next build
+        }
+        finally
+        {
+            IOUtil.close( out );
+            if ( tmp != null )
+            {
+                tmp.delete();
+            }
+        }
+    }
+
+    private static List<String> readStrings( DataInputStream in )
+        throws IOException
+    {
+        int size = in.readInt();
+        List<String> strings = new ArrayList<String>( size );
+        for ( int i = 0; i < size; i++ )
+        {
+            strings.add( in.readUTF() );
+        }
+        return strings;
+    }
+
+    private static void writeStrings( DataOutputStream out, List<?> strings )
+        throws IOException
+    {
+        out.writeInt( strings.size() );
+        for ( Object string : strings )
+        {
+            out.writeUTF( String.valueOf( string ) );
+        }
+    }
+}
@@ -0,0 +1,673 @@
+package org.apache.maven.report.projectinfo.dependencies;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.manager.WagonConfigurationException;
+import org.apache.maven.artifact.manager.WagonManager;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.report.projectinfo.ProjectInfoReportUtils;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.wagon.UnsupportedProtocolException;
+import org.apache.maven.wagon.Wagon;
+import org.apache.maven.wagon.WagonException;
+import org.apache.maven.wagon.authentication.AuthenticationInfo;
+import org.apache.maven.wagon.proxy.ProxyInfo;
+import org.apache.maven.wagon.repository.Repository;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.StringUtils;
+
+/**
+ * Probes the resources of remote repositories concurrently: each repository is probed over a few connections kept
+ * open for all its resources. The probes are shared by the reports of all the modules of the build, so a resource
+ * is only probed once per repository, and their results are kept in the local repository for the next builds.
+ *
+ * @version $Id$
+ * @since 2.7
+ */
+public class RepositoryProber
+{
+    /**
+     * The directory of the cached probes, relative to the local repository.
+     */
+    public static final String CACHE_DIRECTORY = ".cache/maven-project-info-reports-plugin/locations";
+
+    /**
+     * The probes of this build, by repository URL and resource path.
+     */
+    private static final ConcurrentMap<String, Probe> PROBES = new ConcurrentHashMap<String, Probe>();
+
+    /**
+     * The checks of the repository URLs of this build, by URL.
+     */
+    private static final ConcurrentMap<String, Probe> URL_CHECKS = new ConcurrentHashMap<String, Probe>();
+
+    /**
+     * Lock of the cache files, shared by the reports of the modules built in parallel.
+     */
+    private static final Object LOCK = new Object();
+
+    private final Log log;
+
+    private final WagonManager wagonManager;
+
+    private final Settings settings;
+
+    private final ProxyInfo proxyInfo;
+
+    private int threads = 10;
+
+    private int connectionsPerRepository = 2;
+
+    private int timeout = 1000;
+
+    private File cacheDirectory;
+
+    private long timeToLive;
+
+    /**
+     * @param log the Maven log, not null
+     * @param wagonManager the wagon manager giving the connections to the repositories, not null
+     * @param settings the Maven settings, used to check the repository URLs
+     * @param proxyInfo the proxy of the connections to the repositories, or <code>null</code>
+     */
+    public RepositoryProber( Log log, WagonManager wagonManager, Settings settings, ProxyInfo proxyInfo )
+    {
+        this.log = log;
+        this.wagonManager = wagonManager;
+        this.settings = settings;
+        this.proxyInfo = proxyInfo;
+    }
+
+    /**
+     * @param threads the maximum number of concurrent probes, at least 1
+     */
+    public void setThreads( int threads )
+    {
+        this.threads = Math.max( 1, threads );
+    }
+
+    /**
+     * @param connectionsPerRepository the maximum number of connections to each repository, at least 1
+     */
+    public void setConnectionsPerRepository( int connectionsPerRepository )
+    {
+        this.connectionsPerRepository = Math.max( 1, connectionsPerRepository );
+    }
+
+    /**
+     * @param timeout the timeout of the connections, in milliseconds
+     */
+    public void setTimeout( int timeout )
+    {
+        this.timeout = timeout;
+    }
+
+    /**
+     * @param localRepositoryDirectory the directory of the local repository, or <code>null</code> to not cache the
+     *            probes between builds
+     * @param timeToLive how long the probes are cached, in milliseconds
+     */
+    public void setCache( File localRepositoryDirectory, long timeToLive )
+    {
+        this.cacheDirectory =
+            localRepositoryDirectory == null ? null : new File( localRepositoryDirectory, CACHE_DIRECTORY );
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Checks concurrently that the URLs of repositories have some content, each URL being only checked once during
+     * the build.
+     *
+     * @param urls the URLs of the repositories, not null
+     * @return the URLs without content or invalid, not null
+     */
+    public Set<String> getUnreachableUrls( Collection<String> urls )
+    {
+        Map<String, Probe> checks = new HashMap<String, Probe>();
+        List<Probe> owned = new ArrayList<Probe>();
+        for ( String url : urls )
+        {
+            Probe check = new Probe( url );
+            Probe existing = URL_CHECKS.putIfAbsent( url, check );
+            if ( existing == null )
+            {
+                owned.add( check );
+            }
+            checks.put( url, existing == null ? check : existing );
+        }
+
+        if ( !owned.isEmpty() )
+        {
+            ExecutorService executor = Executors.newFixedThreadPool( Math.min( threads, owned.size() ) );
+            for ( final Probe check : owned )
+            {
+                executor.execute( new Runnable()
+                {
+                    public void run()
+                    {
+                        boolean reachable = false;
+                        try
+                        {
+                            reachable = ProjectInfoReportUtils.getContent( new URL( check.path ), settings ) != null;
+                        }
+                        catch ( IOException e )
+                        {
+                            log.debug( "Unable to read " + check.path + ": " + e.getMessage() );
+                        }
+                        finally
+                        {
+                            check.complete( reachable, false );
+                        }
+                    }
+                } );
+            }
+            shutdown( executor );
+
+            // the checks dropped by an interrupted report must not block the other reports
+            for ( Probe check : owned )
+            {
+                check.complete( false, false );
+            }
+        }
+
+        Set<String> unreachable = new HashSet<String>();
+        for ( Map.Entry<String, Probe> check : checks.entrySet() )
+        {
+            if ( !check.getValue().await() )
+            {
+                unreachable.add( check.getKey() );
+            }
+        }
+        return unreachable;
+    }
+
+    /**
+     * Probes the existence of resources in repositories. Identical probes of the reports of other modules are
+     * shared, and the probes cached since less than the time to live are not done again.
+     *
+     * @param repositories the repositories by id, not null
+     * @param resources the paths of the resources to probe, relative to the repository URL, by repository id, not null
+     * @return the paths of the existing resources by repository id, not null
+     */
+    public Map<String, Set<String>> findResources( Map<String, ArtifactRepository> repositories,
+                                                  Map<String, Set<String>> resources )
+    {
+        // the probes to wait for, by repository id
+        Map<String, List<Probe>> probes = new HashMap<String, List<Probe>>();
+        // the probes done by this report, by mirrored repository URL
+        Map<String, LinkedList<Probe>> queues = new HashMap<String, LinkedList<Probe>>();
+        Map<String, ArtifactRepository> mirrors = new HashMap<String, ArtifactRepository>();
+        Map<String, Map<String, Probe>> cached = new HashMap<String, Map<String, Probe>>();
+        long now = System.currentTimeMillis();
+
+        for ( Map.Entry<String, Set<String>> entry : resources.entrySet() )
+        {
+            ArtifactRepository repository = repositories.get( entry.getKey() );
+            if ( repository == null || entry.getValue().isEmpty() )
+            {
+                continue;
+            }
+            ArtifactRepository mirror = wagonManager.getMirrorRepository( repository );
+            String url = mirror.getUrl();
+            if ( !cached.containsKey( url ) )
+            {
+                cached.put( url, readCache( url ) );
+                mirrors.put( url, mirror );
+            }
+
+            List<Probe> repositoryProbes = new ArrayList<Probe>();
+            for ( String path : entry.getValue() )
+            {
+                Probe probe = new Probe( path );
+                Probe existing = PROBES.putIfAbsent( url + '\t' + path, probe );
+                if ( existing != null )
+                {
+                    repositoryProbes.add( existing );
+                    continue;
+                }
+                repositoryProbes.add( probe );
+
+                Probe cachedProbe = cached.get( url ).get( path );
+                if ( cachedProbe != null && now - cachedProbe.checked < timeToLive )
+                {
+                    probe.complete( cachedProbe.await(), false );
+                    continue;
+                }
+
+                LinkedList<Probe> queue = queues.get( url );
+                if ( queue == null )
+                {
+                    queue = new LinkedList<Probe>();
+                    queues.put( url, queue );
+                }
+                queue.add( probe );
+            }
+            probes.put( entry.getKey(), repositoryProbes );
+        }
+
+        if ( !queues.isEmpty() )
+        {
+            ExecutorService executor = Executors.newFixedThreadPool( threads );
+            for ( Map.Entry<String, LinkedList<Probe>> queue : queues.entrySet() )
+            {
+                int workers = Math.min( connectionsPerRepository, queue.getValue().size() );
+                for ( int i = 0; i < workers; i++ )
+                {
+                    executor.execute( new RepositoryWorker( mirrors.get( queue.getKey() ), queue.getValue() ) );
+                }
+            }
+            shutdown( executor );
+
+            // the probes dropped by an interrupted report must not block the other reports
+            for ( LinkedList<Probe> queue : queues.values() )
+            {
+                synchronized ( queue )
+                {
+                    for ( Probe probe : queue )
+                    {
+                        probe.complete( false, false );
+                    }
+                    queue.clear();
+                }
+            }
+
+            writeCache( queues.keySet() );
+        }
+
+        Map<String, Set<String>> found = new HashMap<String, Set<String>>();
+        for ( Map.Entry<String, List<Probe>> entry : probes.entrySet() )
+        {
+            Set<String> paths = new HashSet<String>();
+            for ( Probe probe : entry.getValue() )
+            {
+                if ( probe.await() )
+                {
+                    paths.add( probe.path );
+                }
+            }
+            found.put( entry.getKey(), paths );
+        }
+        return found;
+    }
+
+    /**
+     * Forgets the probes of this build, as the next build would.
+     */
+    static void clearProbes()
+    {
+        PROBES.clear();
+        URL_CHECKS.clear();
+    }
+
+    private void shutdown( ExecutorService executor )
+    {
+        executor.shutdown();
+        try
+        {
+            while ( !executor.awaitTermination( 1, TimeUnit.SECONDS ) )
+            {
+                // wait for the probes
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the probes cached for the repository URL by path, empty if the cache is unreadable
+     */
+    private Map<String, Probe> readCache( String url )
+    {
+        Map<String, Probe> cached = new HashMap<String, Probe>();
+        if ( cacheDirectory == null )
+        {
+            return cached;
+        }
+        File file = getCacheFile( url );
+        synchronized ( LOCK )
+        {
+            if ( !file.isFile() )
+            {
+                return cached;
+            }
+            BufferedReader reader = null;
+            try
+            {
+                reader = new BufferedReader( new InputStreamReader( new FileInputStream( file ), "UTF-8" ) );
+                String line;
+                while ( ( line = reader.readLine() ) != null )
+                {
+                    // path, probe time, existence
+                    String[] fields = StringUtils.split( line, "\t" );
+                    if ( fields.length == 3 )
+                    {
+                        Probe probe = new Probe( fields[0] );
+                        probe.checked = Long.parseLong( fields[1] );
+                        probe.complete( Boolean.valueOf( fields[2] ).booleanValue(), true );
+                        cached.put( probe.path, probe );
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                log.debug( "Ignoring the repository locations cache " + file + ": " + e.getMessage() );
+                cached.clear();
+            }
+            catch ( NumberFormatException e )
+            {
+                log.debug( "Ignoring the repository locations cache " + file + ": " + e.getMessage() );
+                cached.clear();
+            }
+            finally
+            {
+                IOUtil.close( reader );
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Merges the probes done during this build into the cache files of the repositories probed by this report.
+     */
+    private void writeCache( Set<String> urls )
+    {
+        if ( cacheDirectory == null )
+        {
+            return;
+        }
+
+        // the queues have been drained, gather the probes again by URL
+        Map<String, List<Probe>> done = new HashMap<String, List<Probe>>();
+        for ( Map.Entry<String, Probe> entry : PROBES.entrySet() )
+        {
+            Probe probe = entry.getValue();
+            if ( probe.isPersistent() )
+            {
+                String url = entry.getKey().substring( 0, entry.getKey().lastIndexOf( '\t' ) );
+                List<Probe> probes = done.get( url );
+                if ( probes == null )
+                {
+                    probes = new ArrayList<Probe>();
+                    done.put( url, probes );
+                }
+                probes.add( probe );
+            }
+        }
+
+        synchronized ( LOCK )
+        {
+            for ( String url : urls )
+            {
+                if ( !done.containsKey( url ) )
+                {
+                    continue;
+                }
+                Map<String, Probe> cached = readCache( url );
+                for ( Probe probe : done.get( url ) )
+                {
+                    cached.put( probe.path, probe );
+                }
+
+                File file = getCacheFile( url );
+                File tmp = null;
+                PrintWriter writer = null;
+                try
+                {
+                    // a file of its own, as another build may save the cache of the same repository at the same time
+                    cacheDirectory.mkdirs();
+                    tmp = File.createTempFile( file.getName(), ".tmp", cacheDirectory );
+                    writer = new PrintWriter( new OutputStreamWriter( new FileOutputStream( tmp ), "UTF-8" ) );
+                    for ( Probe probe : cached.values() )
+                    {
+                        writer.println( probe.path + "\t" + probe.checked + "\t" + probe.await() );
+                    }
+                    writer.close();
+                    if ( writer.checkError() )
+                    {
+                        throw new IOException( "Unable to write " + tmp );
+                    }
+                    if ( !( tmp.renameTo( file ) || ( file.delete() && tmp.renameTo( file ) ) ) )
+                    {
+                        throw new IOException( "Unable to replace " + file );
+                    }
+                }
+                catch ( IOException e )
+                {
+                    log.warn( "Unable to save the repository locations cache: " + e.getMessage() );
+                }
+                finally
+                {
+                    IOUtil.close( writer );
+                    if ( tmp != null )
+                    {
+                        tmp.delete();
+                    }
+                }
+            }
+        }
+    }
+
+    private File getCacheFile( String url )
+    {
+        StringBuilder name = new StringBuilder();
+        try
+        {
+            byte[] digest = MessageDigest.getInstance( "SHA-1" ).digest( url.getBytes( "UTF-8" ) );
+            for ( byte b : digest )
+            {
+                name.append( Integer.toHexString( ( b & 0xff ) | 0x100 ).substring( 1 ) );
+            }
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e.getMessage() );
+        }
+        catch ( UnsupportedEncodingException e )
+        {
+            throw new IllegalStateException( e.getMessage() );
+        }
+        return new File( cacheDirectory, name + ".txt" );
+    }
+
+    /**
+     * Probes the resources of a repository queue over one connection, until the queue is empty.
+     */
+    private class RepositoryWorker
+        implements Runnable
+    {
+        private final ArtifactRepository repository;
+
+        private final LinkedList<Probe> queue;
+
+        RepositoryWorker( ArtifactRepository repository, LinkedList<Probe> queue )
+        {
+            this.repository = repository;
+            this.queue = queue;
+        }
+
+        public void run()
+        {
+            Repository wagonRepository = new Repository( repository.getId(), repository.getUrl() );
+            Wagon wagon = null;
+            try
+            {
+                wagon = wagonManager.getWagon( wagonRepository );
+                wagon.setTimeout( timeout );
+
+                // FIXME when upgrading to maven 3.x : this must be changed.
+                AuthenticationInfo auth = wagonManager.getAuthenticationInfo( repository.getId() );
+                if ( proxyInfo != null )
+                {
+                    wagon.connect( wagonRepository, auth, proxyInfo );
+                }
+                else
+                {
+                    wagon.connect( wagonRepository, auth );
+                }
+
+                Probe probe;
+                while ( ( probe = next() ) != null )
+                {
+                    try
+                    {
+                        probe.complete( wagon.resourceExists( probe.path ), true );
+                    }
+                    catch ( WagonException e )
+                    {
+                        log.debug( "Unable to determine if " + probe.path + " exists in " + repository.getUrl()
+                            + ": " + e.getMessage() );
+                        probe.complete( false, false );
+                    }
+                }
+            }
+            catch ( UnsupportedProtocolException e )
+            {
+                log.error( "Unsupported protocol: '" + repository.getProtocol() + "'" );
+            }
+            catch ( WagonConfigurationException e )
+            {
+                log.error( "Unsupported protocol: '" + repository.getProtocol() + "'" );
+            }
+            catch ( WagonException e )
+            {
+                log.error( "Unable to connect to: " + repository.getUrl() );
+                log.debug( e );
+            }
+            catch ( AbstractMethodError e )
+            {
+                log.error( "Wagon " + wagon.getClass().getName() + " does not support the resourceExists method" );
+            }
+            finally
+            {
+                // the repository cannot be probed: the remaining resources are not found
+                Probe probe;
+                while ( ( probe = next() ) != null )
+                {
+                    probe.complete( false, false );
+                }
+
+                if ( wagon != null )
+                {
+                    try
+                    {
+                        wagon.disconnect();
+                    }
+                    catch ( WagonException e )
+                    {
+                        log.debug( "Error disconnecting wagon - ignored: " + e.getMessage() );
+                    }
+                }
+            }
+        }
+
+        private Probe next()
+        {
+            synchronized ( queue )
+            {
+                return queue.isEmpty() ? null : queue.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * The existence of a resource, set once by the report probing it and awaited by all the others.
+     */
+    private static class Probe
+    {
+        private final String path;
+
+        private long checked;
+
+        private Boolean exists;
+
+        private boolean persistent;
+
+        Probe( String path )
+        {
+            this.path = path;
+        }
+
+        synchronized void complete( boolean exists, boolean persistent )
+        {
+            if ( this.exists == null )
+            {
+                this.exists = Boolean.valueOf( exists );
+                this.persistent = persistent;
+                if ( checked == 0 )
+                {
+                    checked = System.currentTimeMillis();
+                }
+                notifyAll();
+            }
+        }
+
+        synchronized boolean isPersistent()
+        {
+            return persistent;
+        }
+
+        synchronized boolean await()
+        {
+            while ( exists == null )
+            {
+                try
+                {
+                    wait();
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return exists.booleanValue();
+        }
+    }
+}
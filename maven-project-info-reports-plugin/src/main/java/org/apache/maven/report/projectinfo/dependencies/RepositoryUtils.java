@@ -19,6 +19,7 @@ package org.apache.maven.report.projectinfo.dependencies;
  * under the License.
  */
 
+import java.io.File;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.List;
@@ -41,6 +42,8 @@ import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.MavenProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.report.projectinfo.RepositoryProject;
+import org.apache.maven.report.projectinfo.RepositoryProjectCache;
 import org.apache.maven.settings.Proxy;
 import org.apache.maven.settings.Settings;
 import org.apache.maven.wagon.ConnectionException;
@@ -83,6 +86,8 @@ public class RepositoryUtils
 
     private final ArtifactRepository localRepository;
 
+    private RepositoryProber repositoryProber;
+
     /**
      * @param log
      * @param wagonManager
@@ -153,6 +158,21 @@ public class RepositoryUtils
         resolver.resolve( artifact, repos, localRepository );
     }
 
+    /**
+     * @return the prober of the repository resources, using the wagons, the proxy and the local repository of these
+     *         utilities
+     * @since 2.7
+     */
+    public synchronized RepositoryProber getRepositoryProber()
+    {
+        if ( repositoryProber == null )
+        {
+            repositoryProber = new RepositoryProber( log, wagonManager, settings, getProxyInfo() );
+            repositoryProber.setCache( new File( localRepository.getBasedir() ), 24 * 60 * 60 * 1000L );
+        }
+        return repositoryProber;
+    }
+
     /**
      * @param repo not null
      * @param artifact not null
@@ -299,6 +319,34 @@ public class RepositoryUtils
                                                         allowStubModel );
     }
 
+    /**
+     * Get the fields used by the reports of the <code>Maven project</code> from the repository depending the
+     * <code>Artifact</code> given. The projects are shared by the reports of all the modules and cached in the local
+     * repository.
+     *
+     * @param artifact an artifact
+     * @return the project fields for the given artifact
+     * @throws ProjectBuildingException if any
+     * @since 2.7
+     */
+    public RepositoryProject getRepositoryProject( Artifact artifact )
+        throws ProjectBuildingException
+    {
+        Artifact projectArtifact = artifact;
+
+        boolean allowStubModel = false;
+        if ( !"pom".equals( artifact.getType() ) )
+        {
+            projectArtifact = factory.createProjectArtifact( artifact.getGroupId(), artifact.getArtifactId(),
+                                                             artifact.getVersion(), artifact.getScope() );
+            allowStubModel = true;
+        }
+
+        return new RepositoryProjectCache( mavenProjectBuilder, localRepository ).getProject( projectArtifact,
+                                                                                              remoteRepositories,
+                                                                                              allowStubModel );
+    }
+
     /**
      * @param artifact not null
      * @param repo not null
@@ -22,7 +22,6 @@ package org.apache.maven.report.projectinfo.dependencies.renderer;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.net.URL;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.FieldPosition;
@@ -50,11 +49,11 @@ import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.util.HtmlTools;
 import org.apache.maven.model.License;
 import org.apache.maven.plugin.logging.Log;
-import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.MavenProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
 import org.apache.maven.report.projectinfo.AbstractProjectInfoRenderer;
 import org.apache.maven.report.projectinfo.ProjectInfoReportUtils;
+import org.apache.maven.report.projectinfo.RepositoryProject;
 import org.apache.maven.report.projectinfo.dependencies.Dependencies;
 import org.apache.maven.report.projectinfo.dependencies.DependenciesReportConfiguration;
 import org.apache.maven.report.projectinfo.dependencies.RepositoryUtils;
@@ -508,6 +507,16 @@ public class DependenciesRenderer
         List<Artifact> alldeps = dependencies.getAllDependencies();
         Collections.sort( alldeps, getArtifactComparator() );
 
+        List<Artifact> jardeps = new ArrayList<Artifact>();
+        for ( Artifact artifact : alldeps )
+        {
+            if ( JAR_SUBTYPE.contains( artifact.getType().toLowerCase() ) )
+            {
+                jardeps.add( artifact );
+            }
+        }
+        dependencies.analyzeJarDependencyDetails( jardeps, configuration.getDependencyDetailsThreads() );
+
         // i18n
         String filename = getI18nString( "file.details.column.file" );
         String size = getI18nString( "file.details.column.size" );
@@ -680,6 +689,17 @@ public class DependenciesRenderer
 
     private void blacklistRepositoryMap( Map<String, ArtifactRepository> repos, List<String> repoUrlBlackListed )
     {
+        // ping the repos concurrently
+        Set<String> repoUrls = new HashSet<String>();
+        for ( ArtifactRepository repo : repos.values() )
+        {
+            if ( !repo.isBlacklisted() && !repoUrlBlackListed.contains( repo.getUrl() ) )
+            {
+                repoUrls.add( repo.getUrl() );
+            }
+        }
+        Set<String> unreachableUrls = repoUtils.getRepositoryProber().getUnreachableUrls( repoUrls );
+
         for ( ArtifactRepository repo : repos.values() )
         {
             // ping repo
@@ -693,26 +713,12 @@ public class DependenciesRenderer
                 {
                     repo.setBlacklisted( true );
                 }
-                else
+                else if ( unreachableUrls.contains( repo.getUrl() ) )
                 {
-                    try
-                    {
-                        URL repoUrl = new URL( repo.getUrl() );
-                        if ( ProjectInfoReportUtils.getContent( repoUrl, settings ) == null )
-                        {
-                            log.warn( "The repository url '" + repoUrl + "' has no stream - Repository '"
-                                + repo.getId() + "' will be blacklisted." );
-                            repo.setBlacklisted( true );
-                            repoUrlBlackListed.add( repo.getUrl() );
-                        }
-                    }
-                    catch ( IOException e )
-                    {
-                        log.warn( "The repository url '" + repo.getUrl() + "' is invalid - Repository '" + repo.getId()
-                            + "' will be blacklisted." );
-                        repo.setBlacklisted( true );
-                        repoUrlBlackListed.add( repo.getUrl() );
-                    }
+                    log.warn( "The repository url '" + repo.getUrl() + "' has no stream or is invalid - Repository '"
+                        + repo.getId() + "' will be blacklisted." );
+                    repo.setBlacklisted( true );
+                    repoUrlBlackListed.add( repo.getUrl() );
                 }
             }
         }
@@ -735,7 +741,7 @@ public class DependenciesRenderer
         {
             try
             {
-                MavenProject artifactProject = repoUtils.getMavenProjectFromRepository( artifact );
+                RepositoryProject artifactProject = repoUtils.getRepositoryProject( artifact );
                 populateRepositoryMap( repoMap, artifactProject.getRemoteArtifactRepositories() );
             }
             catch ( ProjectBuildingException e )
@@ -834,12 +840,11 @@ public class DependenciesRenderer
                                                    localRepository );
         String artifactIdCell = ProjectInfoReportUtils.getArtifactIdCell( artifact.getArtifactId(), url );
 
-        MavenProject artifactProject;
+        RepositoryProject artifactProject;
         StringBuilder sb = new StringBuilder();
         try
         {
-            artifactProject = repoUtils.getMavenProjectFromRepository( artifact );
-            @SuppressWarnings( "unchecked" )
+            artifactProject = repoUtils.getRepositoryProject( artifact );
             List<License> licenses = artifactProject.getLicenses();
             for ( License license : licenses )
             {
@@ -925,11 +930,10 @@ public class DependenciesRenderer
         {
             try
             {
-                MavenProject artifactProject = repoUtils.getMavenProjectFromRepository( artifact );
+                RepositoryProject artifactProject = repoUtils.getRepositoryProject( artifact );
                 String artifactDescription = artifactProject.getDescription();
                 String artifactUrl = artifactProject.getUrl();
                 String artifactName = artifactProject.getName();
-                @SuppressWarnings( "unchecked" )
                 List<License> licenses = artifactProject.getLicenses();
 
                 sink.tableRow();
@@ -1265,6 +1269,29 @@ public class DependenciesRenderer
             idnum++;
         }
 
+        // probe all the dependencies in all the repos at once
+        Map<String, String> depUrls = new HashMap<String, String>();
+        Map<String, Set<String>> depPaths = new HashMap<String, Set<String>>();
+        for ( String repokey : repoIdList )
+        {
+            ArtifactRepository repo = repoMap.get( repokey );
+            Set<String> paths = new HashSet<String>();
+            for ( Artifact dependency : alldeps )
+            {
+                // check snapshots in snapshots repository only and releases in release repositories...
+                if ( !Artifact.SCOPE_SYSTEM.equals( dependency.getScope() )
+                    && ( ( dependency.isSnapshot() && repo.getSnapshots().isEnabled() )
+                    || ( !dependency.isSnapshot() && repo.getReleases().isEnabled() ) ) )
+                {
+                    String depUrl = repoUtils.getDependencyUrlFromRepository( dependency, repo );
+                    depUrls.put( repokey + ':' + dependency.getId(), depUrl );
+                    paths.add( StringUtils.replace( depUrl, repo.getUrl(), "" ) );
+                }
+            }
+            depPaths.put( repokey, paths );
+        }
+        Map<String, Set<String>> foundPaths = repoUtils.getRepositoryProber().findResources( repoMap, depPaths );
+
         Map<String, Integer> totalByRepo = new HashMap<String, Integer>();
         TotalCell totaldeps = new TotalCell( DEFAULT_DECIMAL_FORMAT );
 
@@ -1294,7 +1321,7 @@ public class DependenciesRenderer
                 {
                     ArtifactRepository repo = repoMap.get( repokey );
 
-                    String depUrl = repoUtils.getDependencyUrlFromRepository( dependency, repo );
+                    String depUrl = depUrls.get( repokey + ':' + dependency.getId() );
 
                     Integer old = totalByRepo.get( repokey );
                     if ( old == null )
@@ -1303,13 +1330,8 @@ public class DependenciesRenderer
                         totalByRepo.put( repokey, old );
                     }
 
-                    boolean dependencyExists = false;
-                    // check snapshots in snapshots repository only and releases in release repositories...
-                    if ( ( dependency.isSnapshot() && repo.getSnapshots().isEnabled() )
-                        || ( !dependency.isSnapshot() && repo.getReleases().isEnabled() ) )
-                    {
-                        dependencyExists = repoUtils.dependencyExistsInRepo( repo, dependency );
-                    }
+                    boolean dependencyExists = depUrl != null && foundPaths.containsKey( repokey )
+                        && foundPaths.get( repokey ).contains( StringUtils.replace( depUrl, repo.getUrl(), "" ) );
 
                     if ( dependencyExists )
                     {
@@ -38,11 +38,11 @@ import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.License;
 import org.apache.maven.plugin.logging.Log;
-import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.MavenProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
 import org.apache.maven.report.projectinfo.AbstractProjectInfoRenderer;
 import org.apache.maven.report.projectinfo.ProjectInfoReportUtils;
+import org.apache.maven.report.projectinfo.RepositoryProject;
 import org.apache.maven.report.projectinfo.dependencies.ManagementDependencies;
 import org.apache.maven.report.projectinfo.dependencies.RepositoryUtils;
 import org.codehaus.plexus.i18n.I18N;
@@ -256,7 +256,7 @@ public class DependencyManagementRenderer
                 ProjectInfoReportUtils.getArtifactUrl( artifactFactory, artifact, mavenProjectBuilder,
                                                        remoteRepositories, localRepository );
 
-            MavenProject artifactProject = repoUtils.getMavenProjectFromRepository( artifact );
+            RepositoryProject artifactProject = repoUtils.getRepositoryProject( artifact );
 
             List<License> licenses = artifactProject.getLicenses();
             for ( License license : licenses )
@@ -0,0 +1,118 @@
+package org.apache.maven.report.projectinfo;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.report.projectinfo.ReactorDependencyGraph.Convergence;
+
+/**
+ * @version $Id$
+ */
+public class ReactorDependencyGraphTest
+    extends TestCase
+{
+    private MavenProject core;
+
+    private MavenProject web;
+
+    private MavenProject app;
+
+    private List<MavenProject> reactorProjects;
+
+    protected void setUp()
+        throws Exception
+    {
+        core = createProject( "core", "junit:junit:3.8.1", "org.test:utils:1.0-SNAPSHOT" );
+        web = createProject( "web", "junit:junit:4.8", "org.test:core:1.0-SNAPSHOT", "log4j:log4j:1.2.14" );
+        app = createProject( "app", "junit:junit:3.8.1", "org.test:core:1.0-SNAPSHOT", "org.test:web:1.0-SNAPSHOT" );
+        reactorProjects = Arrays.asList( web, core, app );
+    }
+
+    public void testConvergence()
+    {
+        Convergence convergence = new ReactorDependencyGraph( reactorProjects ).getConvergence();
+
+        assertEquals( 5, convergence.getDependencyCount() );
+        assertEquals( "junit:junit", convergence.getDependency( 0 ) );
+        assertEquals( "log4j:log4j", convergence.getDependency( 1 ) );
+        assertEquals( "org.test:core", convergence.getDependency( 2 ) );
+        assertEquals( "org.test:utils", convergence.getDependency( 3 ) );
+        assertEquals( "org.test:web", convergence.getDependency( 4 ) );
+        assertEquals( 6, convergence.getArtifactCount() );
+        // org.test:utils is not a reactor project
+        assertEquals( 1, convergence.getSnapshotCount() );
+
+        Map<String, List<MavenProject>> junit = convergence.getVersions( 0 );
+        assertEquals( Arrays.asList( "3.8.1", "4.8" ), new ArrayList<String>( junit.keySet() ) );
+        assertEquals( Arrays.asList( app, core ), junit.get( "3.8.1" ) );
+        assertEquals( Collections.singletonList( web ), junit.get( "4.8" ) );
+    }
+
+    public void testModuleConvergence()
+    {
+        Convergence convergence =
+            new ReactorDependencyGraph( reactorProjects ).getConvergence( Arrays.asList( core, app ) );
+
+        assertEquals( 4, convergence.getDependencyCount() );
+        assertEquals( "junit:junit", convergence.getDependency( 0 ) );
+        assertEquals( "org.test:core", convergence.getDependency( 1 ) );
+        assertEquals( 4, convergence.getArtifactCount() );
+        assertEquals( 1, convergence.getSnapshotCount() );
+        assertEquals( Collections.singletonMap( "3.8.1", Arrays.asList( app, core ) ), convergence.getVersions( 0 ) );
+    }
+
+    public void testSharedGraph()
+    {
+        ReactorDependencyGraph graph = ReactorDependencyGraph.getInstance( reactorProjects );
+        assertSame( graph, ReactorDependencyGraph.getInstance( reactorProjects ) );
+        assertSame( graph.getConvergence(), graph.getConvergence() );
+
+        // another build
+        assertNotSame( graph, ReactorDependencyGraph.getInstance( new ArrayList<MavenProject>( reactorProjects ) ) );
+    }
+
+    private static MavenProject createProject( String artifactId, String... dependencies )
+    {
+        Model model = new Model();
+        model.setGroupId( "org.test" );
+        model.setArtifactId( artifactId );
+        model.setVersion( "1.0-SNAPSHOT" );
+        for ( String id : dependencies )
+        {
+            String[] coordinates = id.split( ":" );
+            Dependency dependency = new Dependency();
+            dependency.setGroupId( coordinates[0] );
+            dependency.setArtifactId( coordinates[1] );
+            dependency.setVersion( coordinates[2] );
+            model.addDependency( dependency );
+        }
+        return new MavenProject( model );
+    }
+}
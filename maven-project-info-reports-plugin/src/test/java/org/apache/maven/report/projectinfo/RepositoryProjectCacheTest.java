@@ -0,0 +1,141 @@
+package org.apache.maven.report.projectinfo;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.DefaultArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.model.License;
+import org.apache.maven.model.Organization;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * @version $Id$
+ */
+public class RepositoryProjectCacheTest
+    extends TestCase
+{
+    private File directory;
+
+    protected void setUp()
+        throws Exception
+    {
+        directory = new File( System.getProperty( "basedir", "." ), "target/unit/repository-project-cache" );
+        FileUtils.deleteDirectory( directory );
+        directory.mkdirs();
+    }
+
+    public void testSaveAndRead()
+        throws Exception
+    {
+        File pom = new File( directory, "test-1.0.pom" );
+        File parent = new File( directory, "parent-1.pom" );
+        FileUtils.fileWrite( pom.getPath(), "<project/>" );
+        FileUtils.fileWrite( parent.getPath(), "<project><name>parent</name></project>" );
+
+        File cacheFile = new File( directory, "cache.properties" );
+        RepositoryProjectCache.write( cacheFile, createProject(), Arrays.asList( pom, parent ) );
+        // the temporary file was renamed
+        assertEquals( 3, directory.list().length );
+
+        RepositoryProject read = RepositoryProjectCache.read( cacheFile );
+        assertNotNull( read );
+        assertEquals( "org.test", read.getGroupId() );
+        assertEquals( "test", read.getArtifactId() );
+        assertEquals( "1.0", read.getVersion() );
+        assertEquals( "Test", read.getName() );
+        assertNull( read.getDescription() );
+        assertEquals( "http://test.org", read.getUrl() );
+        assertEquals( "Test Organization", read.getOrganization().getName() );
+        assertEquals( 1, read.getLicenses().size() );
+        assertEquals( "The Apache Software License, Version 2.0", read.getLicenses().get( 0 ).getName() );
+        assertEquals( "repo", read.getLicenses().get( 0 ).getDistribution() );
+
+        assertEquals( 1, read.getRemoteArtifactRepositories().size() );
+        ArtifactRepository repository = read.getRemoteArtifactRepositories().get( 0 );
+        assertEquals( "test-repo", repository.getId() );
+        assertEquals( "http://repo.test.org/maven2", repository.getUrl() );
+        assertFalse( repository.getSnapshots().isEnabled() );
+        assertTrue( repository.getReleases().isEnabled() );
+        assertEquals( ArtifactRepositoryPolicy.UPDATE_POLICY_NEVER, repository.getReleases().getUpdatePolicy() );
+    }
+
+    public void testChangedPom()
+        throws Exception
+    {
+        File pom = new File( directory, "test-1.0.pom" );
+        FileUtils.fileWrite( pom.getPath(), "<project/>" );
+
+        File cacheFile = new File( directory, "cache.properties" );
+        RepositoryProjectCache.write( cacheFile, createProject(), Collections.singletonList( pom ) );
+        assertNotNull( RepositoryProjectCache.read( cacheFile ) );
+
+        FileUtils.fileWrite( pom.getPath(), "<project><name>changed</name></project>" );
+        assertNull( RepositoryProjectCache.read( cacheFile ) );
+
+        pom.delete();
+        assertNull( RepositoryProjectCache.read( cacheFile ) );
+    }
+
+    public void testUnreadableCache()
+        throws Exception
+    {
+        File cacheFile = new File( directory, "cache.properties" );
+        assertNull( RepositoryProjectCache.read( cacheFile ) );
+
+        FileUtils.fileWrite( cacheFile.getPath(), "pom.count=one" );
+        assertNull( RepositoryProjectCache.read( cacheFile ) );
+    }
+
+    private RepositoryProject createProject()
+    {
+        RepositoryProject project = new RepositoryProject();
+        project.setGroupId( "org.test" );
+        project.setArtifactId( "test" );
+        project.setVersion( "1.0" );
+        project.setName( "Test" );
+        project.setUrl( "http://test.org" );
+
+        Organization organization = new Organization();
+        organization.setName( "Test Organization" );
+        project.setOrganization( organization );
+
+        License license = new License();
+        license.setName( "The Apache Software License, Version 2.0" );
+        license.setUrl( "http://www.apache.org/licenses/LICENSE-2.0.txt" );
+        license.setDistribution( "repo" );
+        project.addLicense( license );
+
+        project.addRemoteArtifactRepository( new DefaultArtifactRepository(
+            "test-repo", "http://repo.test.org/maven2", new DefaultRepositoryLayout(),
+            new ArtifactRepositoryPolicy( false, ArtifactRepositoryPolicy.UPDATE_POLICY_DAILY,
+                                          ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN ),
+            new ArtifactRepositoryPolicy( true, ArtifactRepositoryPolicy.UPDATE_POLICY_NEVER,
+                                          ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN ) ) );
+        return project;
+    }
+}
@@ -0,0 +1,123 @@
+package org.apache.maven.report.projectinfo.dependencies;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.Manifest;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.shared.jar.JarData;
+import org.apache.maven.shared.jar.classes.JarClasses;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * @version $Id$
+ */
+public class JarDataCacheTest
+    extends TestCase
+{
+    private File directory;
+
+    protected void setUp()
+        throws Exception
+    {
+        directory = new File( System.getProperty( "basedir", "." ), "target/unit/jar-data-cache" );
+        FileUtils.deleteDirectory( directory );
+        directory.mkdirs();
+    }
+
+    public void testSaveAndRead()
+    {
+        File cacheFile = new File( directory, "cache.bin" );
+        JarDataCache.write( cacheFile, createJarData( new File( directory, "test.jar" ) ) );
+
+        JarData read = JarDataCache.read( cacheFile );
+        assertNotNull( read );
+        assertEquals( 3, read.getNumEntries() );
+        assertEquals( "org/test/Test.class", ( (JarEntry) read.getEntries().get( 2 ) ).getName() );
+        assertEquals( 1, read.getNumClasses() );
+        assertEquals( 1, read.getNumPackages() );
+        assertEquals( "1.5", read.getJdkRevision() );
+        assertTrue( read.isDebugPresent() );
+        assertTrue( read.isSealed() );
+        assertEquals( "Test", read.getManifest().getMainAttributes().getValue( "Implementation-Title" ) );
+    }
+
+    public void testUnreadableCache()
+        throws Exception
+    {
+        File cacheFile = new File( directory, "cache.bin" );
+        FileUtils.fileWrite( cacheFile.getPath(), "jar" );
+
+        assertNull( JarDataCache.read( cacheFile ) );
+    }
+
+    public void testSameContent()
+        throws Exception
+    {
+        File jar = new File( directory, "test.jar" );
+        FileUtils.fileWrite( jar.getPath(), "test content" );
+        File copy = new File( directory, "copy/test.jar" );
+        copy.getParentFile().mkdirs();
+        FileUtils.copyFile( jar, copy );
+
+        JarDataCache cache = new JarDataCache( new File( directory, "local" ) );
+        assertNull( cache.get( jar ) );
+        cache.put( jar, createJarData( jar ) );
+
+        JarData cached = cache.get( copy );
+        assertEquals( copy, cached.getFile() );
+        assertEquals( 3, cached.getNumEntries() );
+        assertEquals( cached.getFileHash(), cache.get( jar ).getFileHash() );
+        assertTrue( new File( directory, "local/" + JarDataCache.CACHE_DIRECTORY + "/" + cached.getFileHash()
+            + ".bin" ).isFile() );
+
+        // the temporary file was renamed
+        assertEquals( 1, new File( directory, "local/" + JarDataCache.CACHE_DIRECTORY ).list().length );
+    }
+
+    private JarData createJarData( File file )
+    {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put( Attributes.Name.MANIFEST_VERSION, "1.0" );
+        manifest.getMainAttributes().put( Attributes.Name.SEALED, "true" );
+        manifest.getMainAttributes().put( Attributes.Name.IMPLEMENTATION_TITLE, "Test" );
+
+        List<JarEntry> entries = new ArrayList<JarEntry>();
+        entries.add( new JarEntry( "META-INF/MANIFEST.MF" ) );
+        entries.add( new JarEntry( "org/test/" ) );
+        entries.add( new JarEntry( "org/test/Test.class" ) );
+
+        JarClasses jarClasses = new JarClasses();
+        jarClasses.addClassName( "org.test.Test" );
+        jarClasses.addPackage( "org.test" );
+        jarClasses.setJdkRevision( "1.5" );
+        jarClasses.setDebugPresent( true );
+
+        JarData jarData = new JarData( file, manifest, entries );
+        jarData.setJarClasses( jarClasses );
+        return jarData;
+    }
+}
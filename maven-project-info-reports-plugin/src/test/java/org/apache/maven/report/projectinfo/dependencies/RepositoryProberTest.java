@@ -0,0 +1,163 @@
+package org.apache.maven.report.projectinfo.dependencies;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.artifact.manager.WagonManager;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.DefaultArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * @version $Id$
+ */
+public class RepositoryProberTest
+    extends PlexusTestCase
+{
+    private File directory;
+
+    private File repositoryDirectory;
+
+    private RepositoryProber prober;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        RepositoryProber.clearProbes();
+        directory = new File( getBasedir(), "target/unit/repository-prober" );
+        FileUtils.deleteDirectory( directory );
+        repositoryDirectory = new File( directory, "repository" );
+        new File( repositoryDirectory, "org/test/found/1.0" ).mkdirs();
+        FileUtils.fileWrite( new File( repositoryDirectory, "org/test/found/1.0/found-1.0.jar" ).getPath(), "jar" );
+
+        prober =
+            new RepositoryProber( new SystemStreamLog(), (WagonManager) lookup( WagonManager.ROLE ), null, null );
+        prober.setCache( new File( directory, "local" ), 60 * 1000L );
+    }
+
+    public void testFindResources()
+        throws Exception
+    {
+        ArtifactRepository repository =
+            new DefaultArtifactRepository( "test", repositoryDirectory.toURI().toURL().toExternalForm(),
+                                           new DefaultRepositoryLayout() );
+        Map<String, ArtifactRepository> repositories = Collections.singletonMap( "test", repository );
+        Map<String, Set<String>> resources = new HashMap<String, Set<String>>();
+        resources.put( "test", new HashSet<String>( Arrays.asList( "/org/test/found/1.0/found-1.0.jar",
+                                                                    "/org/test/missing/1.0/missing-1.0.jar" ) ) );
+
+        Map<String, Set<String>> found = prober.findResources( repositories, resources );
+        assertEquals( Collections.singleton( "/org/test/found/1.0/found-1.0.jar" ), found.get( "test" ) );
+
+        File[] cacheFiles = new File( directory, "local/" + RepositoryProber.CACHE_DIRECTORY ).listFiles();
+        assertEquals( 1, cacheFiles.length );
+        String cache = FileUtils.fileRead( cacheFiles[0] );
+        assertTrue( cache.contains( "/org/test/found/1.0/found-1.0.jar\t" ) );
+        assertTrue( cache.contains( "/org/test/missing/1.0/missing-1.0.jar\t" ) );
+
+        // the probes are shared by the reports of the whole build
+        FileUtils.deleteDirectory( new File( repositoryDirectory, "org" ) );
+        found = prober.findResources( repositories, resources );
+        assertEquals( Collections.singleton( "/org/test/found/1.0/found-1.0.jar" ), found.get( "test" ) );
+    }
+
+    public void testTimeToLive()
+        throws Exception
+    {
+        ArtifactRepository repository =
+            new DefaultArtifactRepository( "test", repositoryDirectory.toURI().toURL().toExternalForm(),
+                                           new DefaultRepositoryLayout() );
+        Map<String, ArtifactRepository> repositories = Collections.singletonMap( "test", repository );
+        Map<String, Set<String>> resources =
+            Collections.singletonMap( "test", Collections.singleton( "/org/test/found/1.0/found-1.0.jar" ) );
+
+        Map<String, Set<String>> found = prober.findResources( repositories, resources );
+        assertEquals( resources.get( "test" ), found.get( "test" ) );
+
+        // the next build reads the probe from the cache
+        RepositoryProber.clearProbes();
+        FileUtils.deleteDirectory( new File( repositoryDirectory, "org" ) );
+        found = prober.findResources( repositories, resources );
+        assertEquals( resources.get( "test" ), found.get( "test" ) );
+
+        // the cached probe expired: the resource is probed again and the cache updated
+        RepositoryProber.clearProbes();
+        prober.setCache( new File( directory, "local" ), 0 );
+        found = prober.findResources( repositories, resources );
+        assertEquals( Collections.emptySet(), found.get( "test" ) );
+
+        RepositoryProber.clearProbes();
+        prober.setCache( new File( directory, "local" ), 60 * 1000L );
+        found = prober.findResources( repositories, resources );
+        assertEquals( Collections.emptySet(), found.get( "test" ) );
+    }
+
+    public void testInterrupted()
+        throws Exception
+    {
+        ArtifactRepository repository =
+            new DefaultArtifactRepository( "test", repositoryDirectory.toURI().toURL().toExternalForm(),
+                                           new DefaultRepositoryLayout() );
+        Map<String, ArtifactRepository> repositories = Collections.singletonMap( "test", repository );
+        Set<String> paths = new HashSet<String>();
+        for ( int i = 0; i < 100; i++ )
+        {
+            paths.add( "/org/test/missing/" + i + "/missing-" + i + ".jar" );
+        }
+        Map<String, Set<String>> resources = Collections.singletonMap( "test", paths );
+
+        Thread.currentThread().interrupt();
+        try
+        {
+            prober.findResources( repositories, resources );
+        }
+        finally
+        {
+            assertTrue( Thread.interrupted() );
+        }
+
+        // the probes dropped by the interrupted report do not block the other reports
+        Map<String, Set<String>> found = prober.findResources( repositories, resources );
+        assertEquals( Collections.emptySet(), found.get( "test" ) );
+    }
+
+    public void testUnreachableUrls()
+        throws Exception
+    {
+        String reachable = repositoryDirectory.toURI().toURL().toExternalForm();
+        String unreachable = new File( directory, "none" ).toURI().toURL().toExternalForm();
+
+        Set<String> unreachableUrls =
+            prober.getUnreachableUrls( Arrays.asList( reachable, unreachable, "unknown://repository" ) );
+        assertEquals( new HashSet<String>( Arrays.asList( unreachable, "unknown://repository" ) ), unreachableUrls );
+    }
+}
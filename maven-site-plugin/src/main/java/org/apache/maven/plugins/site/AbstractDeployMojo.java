@@ -29,6 +29,7 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.site.wagon.DeltaDeployer;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.settings.Proxy;
 import org.apache.maven.settings.Server;
@@ -68,6 +69,7 @@ import java.io.File;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
@@ -125,6 +127,33 @@ public abstract class AbstractDeployMojo
 
     private boolean skipDeploy;
 
+    /**
+     * Set this to 'true' to only upload the files that changed since the last deploy.
+     * A manifest of the deployed files and their SHA-1 hashes is stored next to the site,
+     * and non-default locale directories are not uploaded twice.
+     *
+     * @since 3.3
+     */
+    @Parameter( property = "maven.site.deploy.delta", defaultValue = "false" )
+    private boolean deltaDeploy;
+
+    /**
+     * The number of parallel Wagon connections used for a delta deploy.
+     *
+     * @since 3.3
+     */
+    @Parameter( property = "maven.site.deploy.delta.threads", defaultValue = "4" )
+    private int deltaDeployThreads;
+
+    /**
+     * Whether a delta deploy should remove the remote files that no longer exist in the generated site.
+     * Only supported for <code>file:</code> URLs and for protocols able to execute commands, like <code>scp:</code>.
+     *
+     * @since 3.3
+     */
+    @Parameter( property = "maven.site.deploy.delta.deleteRemoved", defaultValue = "false" )
+    private boolean deltaDeployDeleteRemoved;
+
     /**
      */
     @Component
@@ -283,8 +312,16 @@ public abstract class AbstractDeployMojo
                 }
             }
 
-            push( directory, repository, wagon, proxyInfo, siteTool.getAvailableLocales( locales ),
-                  getDeployModuleDirectory() );
+            if ( deltaDeploy )
+            {
+                pushDelta( directory, repository, wagon, proxyInfo, siteTool.getAvailableLocales( locales ),
+                           getDeployModuleDirectory() );
+            }
+            else
+            {
+                push( directory, repository, wagon, proxyInfo, siteTool.getAvailableLocales( locales ),
+                      getDeployModuleDirectory() );
+            }
 
             if ( chmod )
             {
@@ -390,33 +427,9 @@ public abstract class AbstractDeployMojo
                        final ProxyInfo proxyInfo, final List<Locale> localesList, final String relativeDir )
         throws MojoExecutionException
     {
-        AuthenticationInfo authenticationInfo = wagonManager.getAuthenticationInfo( repository.getId() );
-        getLog().debug( "authenticationInfo with id '" + repository.getId() + "': "
-                            + ( ( authenticationInfo == null ) ? "-" : authenticationInfo.getUserName() ) );
-
         try
         {
-            Debug debug = new Debug();
-
-            wagon.addSessionListener( debug );
-
-            wagon.addTransferListener( debug );
-
-            if ( proxyInfo != null )
-            {
-                getLog().debug( "connect with proxyInfo" );
-                wagon.connect( repository, authenticationInfo, proxyInfo );
-            }
-            else if ( proxyInfo == null && authenticationInfo != null )
-            {
-                getLog().debug( "connect with authenticationInfo and without proxyInfo" );
-                wagon.connect( repository, authenticationInfo );
-            }
-            else
-            {
-                getLog().debug( "connect without authenticationInfo and without proxyInfo" );
-                wagon.connect( repository );
-            }
+            connect( wagon, repository, proxyInfo );
 
             getLog().info( "Pushing " + inputDirectory );
 
@@ -464,6 +477,118 @@ public abstract class AbstractDeployMojo
         }
     }
 
+    /**
+     * Push only the files that changed since the last deploy, using several Wagon connections.
+     *
+     * @see DeltaDeployer
+     */
+    private void pushDelta( final File inputDirectory, final Repository repository, final Wagon wagon,
+                            final ProxyInfo proxyInfo, final List<Locale> localesList, final String relativeDir )
+        throws MojoExecutionException
+    {
+        final List<Wagon> wagons = new ArrayList<Wagon>();
+        wagons.add( wagon );
+
+        try
+        {
+            connect( wagon, repository, proxyInfo );
+
+            for ( int i = 1; i < deltaDeployThreads; i++ )
+            {
+                Wagon additionalWagon = getWagon( repository, wagonManager );
+                configureWagon( additionalWagon, repository.getId(), settings, container, getLog() );
+                connect( additionalWagon, repository, proxyInfo );
+                wagons.add( additionalWagon );
+            }
+
+            getLog().info( "Pushing changes of " + inputDirectory + " using " + wagons.size() + " connection(s)" );
+
+            final DeltaDeployer deployer = new DeltaDeployer( wagons, getLog() );
+            deployer.setDeleteRemoved( deltaDeployDeleteRemoved );
+
+            // Default is first in the list
+            final String defaultLocale = localesList.get( 0 ).getLanguage();
+
+            // non-default locales are deployed in their own directory, don't upload them with the default one
+            final List<String> otherLocales = new ArrayList<String>();
+            for ( Locale locale : localesList )
+            {
+                if ( !locale.getLanguage().equals( defaultLocale ) )
+                {
+                    otherLocales.add( locale.getLanguage() );
+                }
+            }
+
+            getLog().info( "   >>> to " + repository.getUrl() + relativeDir );
+
+            deployer.deploy( inputDirectory, relativeDir, otherLocales );
+
+            for ( String locale : otherLocales )
+            {
+                getLog().info( "   >>> to " + repository.getUrl() + locale + "/" + relativeDir );
+
+                deployer.deploy( new File( inputDirectory, locale ), locale + "/" + relativeDir, null );
+            }
+        }
+        catch ( TransferFailedException e )
+        {
+            throw new MojoExecutionException( "Error uploading site", e );
+        }
+        catch ( ConnectionException e )
+        {
+            throw new MojoExecutionException( "Error uploading site", e );
+        }
+        catch ( AuthenticationException e )
+        {
+            throw new MojoExecutionException( "Error uploading site", e );
+        }
+        finally
+        {
+            // the main wagon is disconnected by the caller
+            for ( Wagon additionalWagon : wagons.subList( 1, wagons.size() ) )
+            {
+                try
+                {
+                    additionalWagon.disconnect();
+                }
+                catch ( ConnectionException e )
+                {
+                    getLog().error( "Error disconnecting wagon - ignored", e );
+                }
+            }
+        }
+    }
+
+    private void connect( final Wagon wagon, final Repository repository, final ProxyInfo proxyInfo )
+        throws ConnectionException, AuthenticationException
+    {
+        AuthenticationInfo authenticationInfo = wagonManager.getAuthenticationInfo( repository.getId() );
+        getLog().debug( "authenticationInfo with id '" + repository.getId() + "': "
+                            + ( ( authenticationInfo == null ) ? "-" : authenticationInfo.getUserName() ) );
+
+        Debug debug = new Debug();
+
+        wagon.addSessionListener( debug );
+
+        wagon.addTransferListener( debug );
+
+        if ( proxyInfo != null )
+        {
+            getLog().debug( "connect with proxyInfo" );
+            wagon.connect( repository, authenticationInfo, proxyInfo );
+        }
+        else if ( proxyInfo == null && authenticationInfo != null )
+        {
+            getLog().debug( "connect with authenticationInfo and without proxyInfo" );
+            wagon.connect( repository, authenticationInfo );
+        }
+        else
+        {
+            getLog().debug( "connect without authenticationInfo and without proxyInfo" );
+            wagon.connect( repository );
+        }
+    }
+
     private static void chmod( final Wagon wagon, final Repository repository, final String chmodOptions,
                                final String chmodMode )
         throws MojoExecutionException
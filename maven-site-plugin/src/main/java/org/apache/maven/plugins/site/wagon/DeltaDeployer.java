@@ -0,0 +1,485 @@
+package org.apache.maven.plugins.site.wagon;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.wagon.CommandExecutionException;
+import org.apache.maven.wagon.CommandExecutor;
+import org.apache.maven.wagon.ResourceDoesNotExistException;
+import org.apache.maven.wagon.Wagon;
+import org.apache.maven.wagon.WagonException;
+import org.apache.maven.wagon.repository.Repository;
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uploads only the files of a site directory that changed since the last successful deploy.
+ * <p>
+ * A manifest mapping each relative path to the SHA-1 hash of its content is stored next to the deployed
+ * files. On the next deploy the manifest is downloaded, every local file is hashed and only new or
+ * modified files are put. Uploads are spread over the given, already connected, wagons: each wagon is
+ * used by one thread at a time. The new manifest is only uploaded once every file has been transferred,
+ * so a failed deploy is fully retried the next time.
+ * </p>
+ *
+ * @since 3.3
+ */
+public class DeltaDeployer
+{
+    /**
+     * The name of the manifest file stored in each deployed directory.
+     */
+    public static final String MANIFEST_NAME = ".site-deploy-manifest.properties";
+
+    private final BlockingQueue<Wagon> wagons;
+
+    private final int threads;
+
+    private final Log log;
+
+    private boolean deleteRemoved;
+
+    /**
+     * @param wagons the connected wagons to upload with, at least one. Each one is used by a single thread.
+     * @param log the log to report to.
+     */
+    public DeltaDeployer( List<Wagon> wagons, Log log )
+    {
+        if ( wagons == null || wagons.isEmpty() )
+        {
+            throw new IllegalArgumentException( "at least one wagon is required" );
+        }
+        this.wagons = new LinkedBlockingQueue<Wagon>( wagons );
+        this.threads = wagons.size();
+        this.log = log;
+    }
+
+    /**
+     * Whether remote files that were listed in the previous manifest but no longer exist locally
+     * should be removed. Only supported for <code>file:</code> repositories and wagons implementing
+     * {@link CommandExecutor}.
+     *
+     * @param deleteRemoved <code>true</code> to delete removed files.
+     */
+    public void setDeleteRemoved( boolean deleteRemoved )
+    {
+        this.deleteRemoved = deleteRemoved;
+    }
+
+    /**
+     * Deploy the content of a local directory.
+     *
+     * @param sourceDirectory the local directory to deploy.
+     * @param remoteDirectory the target directory, relative to the repository base directory.
+     * @param excludedDirectories names of top-level sub-directories of <code>sourceDirectory</code> that
+     *            should not be deployed, may be <code>null</code>.
+     * @return the summary of the deploy.
+     * @throws MojoExecutionException if a transfer fails.
+     */
+    public Summary deploy( File sourceDirectory, String remoteDirectory, List<String> excludedDirectories )
+        throws MojoExecutionException
+    {
+        final String remoteDir = normalize( remoteDirectory );
+
+        final Properties previous = fetchManifest( remoteDir );
+
+        final String[] files = scan( sourceDirectory, excludedDirectories );
+
+        final Map<String, String> current = new ConcurrentHashMap<String, String>();
+
+        final Summary summary = new Summary();
+
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<Object>> futures = new ArrayList<Future<Object>>( files.length );
+
+            for ( String file : files )
+            {
+                final String path = file.replace( File.separatorChar, '/' );
+                final File source = new File( sourceDirectory, file );
+
+                futures.add( executor.submit( new Callable<Object>()
+                {
+                    public Object call()
+                        throws Exception
+                    {
+                        String hash = hash( source );
+
+                        if ( hash.equals( previous.getProperty( path ) ) )
+                        {
+                            summary.unchanged.incrementAndGet();
+                        }
+                        else
+                        {
+                            put( source, remoteDir + path );
+                            summary.uploaded.incrementAndGet();
+                        }
+
+                        current.put( path, hash );
+                        return null;
+                    }
+                } ) );
+            }
+
+            waitFor( futures );
+
+            if ( deleteRemoved )
+            {
+                futures.clear();
+
+                for ( Object key : previous.keySet() )
+                {
+                    final String path = (String) key;
+
+                    if ( !current.containsKey( path ) )
+                    {
+                        futures.add( executor.submit( new Callable<Object>()
+                        {
+                            public Object call()
+                                throws Exception
+                            {
+                                if ( delete( remoteDir + path ) )
+                                {
+                                    summary.deleted.incrementAndGet();
+                                }
+                                return null;
+                            }
+                        } ) );
+                    }
+                }
+
+                waitFor( futures );
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        storeManifest( remoteDir, current );
+
+        log.info( "   " + summary.getUploaded() + " file(s) uploaded, " + summary.getUnchanged() + " unchanged, "
+                      + summary.getDeleted() + " deleted" );
+
+        return summary;
+    }
+
+    private String[] scan( File sourceDirectory, List<String> excludedDirectories )
+    {
+        List<String> excludes = new ArrayList<String>();
+        excludes.add( MANIFEST_NAME );
+        if ( excludedDirectories != null )
+        {
+            for ( String excluded : excludedDirectories )
+            {
+                excludes.add( excluded + "/**" );
+            }
+        }
+
+        DirectoryScanner scanner = new DirectoryScanner();
+        scanner.setBasedir( sourceDirectory );
+        scanner.setExcludes( excludes.toArray( new String[excludes.size()] ) );
+        scanner.scan();
+
+        return scanner.getIncludedFiles();
+    }
+
+    private Properties fetchManifest( String remoteDir )
+        throws MojoExecutionException
+    {
+        Properties manifest = new Properties();
+
+        File tmp = null;
+        Wagon wagon = acquire();
+        try
+        {
+            tmp = File.createTempFile( "site-manifest", ".properties" );
+
+            wagon.get( remoteDir + MANIFEST_NAME, tmp );
+
+            InputStream in = new FileInputStream( tmp );
+            try
+            {
+                manifest.load( in );
+            }
+            finally
+            {
+                IOUtil.close( in );
+            }
+        }
+        catch ( ResourceDoesNotExistException e )
+        {
+            log.info( "   No previous deploy manifest found, uploading all files" );
+        }
+        catch ( WagonException e )
+        {
+            throw new MojoExecutionException( "Unable to fetch the deploy manifest: " + e.getMessage(), e );
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Unable to read the deploy manifest: " + e.getMessage(), e );
+        }
+        finally
+        {
+            release( wagon );
+            if ( tmp != null )
+            {
+                tmp.delete();
+            }
+        }
+
+        return manifest;
+    }
+
+    private void storeManifest( String remoteDir, Map<String, String> entries )
+        throws MojoExecutionException
+    {
+        Properties manifest = new Properties();
+        manifest.putAll( entries );
+
+        File tmp = null;
+        try
+        {
+            tmp = File.createTempFile( "site-manifest", ".properties" );
+
+            OutputStream out = new FileOutputStream( tmp );
+            try
+            {
+                manifest.store( out, "Maven site deploy manifest" );
+            }
+            finally
+            {
+                IOUtil.close( out );
+            }
+
+            put( tmp, remoteDir + MANIFEST_NAME );
+        }
+        catch ( WagonException e )
+        {
+            throw new MojoExecutionException( "Unable to upload the deploy manifest: " + e.getMessage(), e );
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Unable to write the deploy manifest: " + e.getMessage(), e );
+        }
+        finally
+        {
+            if ( tmp != null )
+            {
+                tmp.delete();
+            }
+        }
+    }
+
+    private void put( File source, String destination )
+        throws WagonException
+    {
+        Wagon wagon = acquire();
+        try
+        {
+            wagon.put( source, destination );
+        }
+        finally
+        {
+            release( wagon );
+        }
+    }
+
+    private boolean delete( String path )
+        throws CommandExecutionException
+    {
+        Wagon wagon = acquire();
+        try
+        {
+            Repository repository = wagon.getRepository();
+
+            if ( "file".equals( repository.getProtocol() ) )
+            {
+                File file = new File( repository.getBasedir(), path );
+                return file.delete();
+            }
+            else if ( wagon instanceof CommandExecutor )
+            {
+                ( (CommandExecutor) wagon ).executeCommand( "rm -f \"" + repository.getBasedir() + "/" + path + "\"" );
+                return true;
+            }
+
+            log.warn( "   Unable to delete " + path + ": protocol '" + repository.getProtocol()
+                          + "' does not support deletion" );
+            return false;
+        }
+        finally
+        {
+            release( wagon );
+        }
+    }
+
+    private Wagon acquire()
+    {
+        try
+        {
+            return wagons.take();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while waiting for a wagon" );
+        }
+    }
+
+    private void release( Wagon wagon )
+    {
+        wagons.add( wagon );
+    }
+
+    private static void waitFor( List<Future<Object>> futures )
+        throws MojoExecutionException
+    {
+        try
+        {
+            for ( Future<Object> future : futures )
+            {
+                future.get();
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException( "Interrupted while uploading site" );
+        }
+        catch ( ExecutionException e )
+        {
+            throw new MojoExecutionException( "Error uploading site: " + e.getCause().getMessage(), e.getCause() );
+        }
+    }
+
+    /**
+     * Strip a leading "./" and make sure a non-empty directory ends with a slash.
+     */
+    private static String normalize( String remoteDirectory )
+    {
+        String dir = ( remoteDirectory == null ) ? "" : remoteDirectory.replace( '\\', '/' );
+
+        while ( dir.startsWith( "./" ) )
+        {
+            dir = dir.substring( 2 );
+        }
+        if ( dir.equals( "." ) )
+        {
+            dir = "";
+        }
+
+        return ( dir.length() == 0 || dir.endsWith( "/" ) ) ? dir : dir + "/";
+    }
+
+    /**
+     * Compute the hex encoded SHA-1 hash of a file.
+     *
+     * @param file the file to hash.
+     * @return the hash, never <code>null</code>.
+     * @throws IOException if the file cannot be read.
+     */
+    static String hash( File file )
+        throws IOException
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( "SHA-1 not supported" );
+        }
+
+        InputStream in = new FileInputStream( file );
+        try
+        {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ( ( read = in.read( buffer ) ) != -1 )
+            {
+                digest.update( buffer, 0, read );
+            }
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+
+        StringBuilder hex = new StringBuilder( 40 );
+        for ( byte b : digest.digest() )
+        {
+            hex.append( Character.forDigit( ( b >> 4 ) & 0xf, 16 ) ).append( Character.forDigit( b & 0xf, 16 ) );
+        }
+        return hex.toString();
+    }
+
+    /**
+     * The outcome of a delta deploy.
+     */
+    public static class Summary
+    {
+        private final AtomicInteger uploaded = new AtomicInteger();
+
+        private final AtomicInteger unchanged = new AtomicInteger();
+
+        private final AtomicInteger deleted = new AtomicInteger();
+
+        public int getUploaded()
+        {
+            return uploaded.get();
+        }
+
+        public int getUnchanged()
+        {
+            return unchanged.get();
+        }
+
+        public int getDeleted()
+        {
+            return deleted.get();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.apache.maven.plugins.site.wagon;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.wagon.Wagon;
+import org.apache.maven.wagon.providers.file.FileWagon;
+import org.apache.maven.wagon.repository.Repository;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Tests {@link DeltaDeployer} against a <code>file:</code> repository.
+ */
+public class DeltaDeployerTest
+    extends TestCase
+{
+    private File siteDirectory;
+
+    private File targetDirectory;
+
+    private List<Wagon> wagons;
+
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        File base = new File( System.getProperty( "basedir", "." ), "target/unit/delta-deploy" );
+        FileUtils.deleteDirectory( base );
+
+        siteDirectory = new File( base, "site" );
+        targetDirectory = new File( base, "remote" );
+        targetDirectory.mkdirs();
+
+        write( "index.html", "index" );
+        write( "css/site.css", "css" );
+        write( "fr/index.html", "index fr" );
+
+        wagons = new ArrayList<Wagon>();
+        for ( int i = 0; i < 3; i++ )
+        {
+            Wagon wagon = new FileWagon();
+            wagon.connect( new Repository( "delta", "file://" + targetDirectory.getAbsolutePath() ) );
+            wagons.add( wagon );
+        }
+    }
+
+    protected void tearDown()
+        throws Exception
+    {
+        for ( Wagon wagon : wagons )
+        {
+            wagon.disconnect();
+        }
+
+        super.tearDown();
+    }
+
+    public void testDeployOnlyChangedFiles()
+        throws Exception
+    {
+        DeltaDeployer deployer = new DeltaDeployer( wagons, new SystemStreamLog() );
+
+        DeltaDeployer.Summary summary = deployer.deploy( siteDirectory, "./", Collections.singletonList( "fr" ) );
+
+        assertEquals( 2, summary.getUploaded() );
+        assertEquals( 0, summary.getUnchanged() );
+        assertTrue( new File( targetDirectory, "index.html" ).exists() );
+        assertTrue( new File( targetDirectory, "css/site.css" ).exists() );
+        assertFalse( "non-default locale must not be uploaded twice", new File( targetDirectory, "fr" ).exists() );
+        assertTrue( new File( targetDirectory, DeltaDeployer.MANIFEST_NAME ).exists() );
+
+        write( "index.html", "changed index" );
+
+        summary = deployer.deploy( siteDirectory, "./", Collections.singletonList( "fr" ) );
+
+        assertEquals( 1, summary.getUploaded() );
+        assertEquals( 1, summary.getUnchanged() );
+        assertEquals( "changed index", FileUtils.fileRead( new File( targetDirectory, "index.html" ) ) );
+    }
+
+    public void testDeleteRemovedFiles()
+        throws Exception
+    {
+        DeltaDeployer deployer = new DeltaDeployer( wagons, new SystemStreamLog() );
+        deployer.setDeleteRemoved( true );
+
+        deployer.deploy( siteDirectory, "module", null );
+        assertTrue( new File( targetDirectory, "module/css/site.css" ).exists() );
+
+        new File( siteDirectory, "css/site.css" ).delete();
+
+        DeltaDeployer.Summary summary = deployer.deploy( siteDirectory, "module", null );
+
+        assertEquals( 0, summary.getUploaded() );
+        assertEquals( 2, summary.getUnchanged() );
+        assertEquals( 1, summary.getDeleted() );
+        assertFalse( new File( targetDirectory, "module/css/site.css" ).exists() );
+    }
+
+    private void write( String path, String content )
+        throws Exception
+    {
+        File file = new File( siteDirectory, path );
+        file.getParentFile().mkdirs();
+        FileUtils.fileWrite( file.getPath(), content );
+    }
+}
@@ -190,6 +190,27 @@ public abstract class AbstractSourceJarMojo
     @Parameter( property = "source.skip", defaultValue = "false" )
     private boolean skipSource;
 
+    /**
+     * The number of threads compressing the entries of the archive. With the default of <code>1</code> the archiver
+     * compresses the entries itself. Otherwise the archiver only stores them, and the archive is then rewritten with
+     * its entries deflated concurrently and written back in their original order. A value of <code>0</code> or less
+     * uses one thread per available processor.
+     *
+     * @since 2.3
+     */
+    @Parameter( property = "source.compressionThreads", defaultValue = "1" )
+    private int compressionThreads = 1;
+
+    /**
+     * Timestamp given to all the entries of the archive, either as an ISO 8601 date such as
+     * <code>2013-06-01T12:00:00Z</code> or as a number of seconds since the epoch. The entries are then also sorted
+     * by name after the manifest, so that packaging the same sources twice gives the same archive.
+     *
+     * @since 2.3
+     */
+    @Parameter( property = "source.outputTimestamp", defaultValue = "${project.build.outputTimestamp}" )
+    private String outputTimestamp;
+
     // ----------------------------------------------------------------------
     // Public methods
     // ----------------------------------------------------------------------
@@ -232,6 +253,18 @@ public abstract class AbstractSourceJarMojo
     protected abstract List<Resource> getResources( MavenProject p )
         throws MojoExecutionException;
 
+    /**
+     * @param p not null
+     * @return an archive already created for the given module whose entries are copied instead of packaging the
+     *         sources of the module again, or <code>null</code> to package the sources
+     * @throws MojoExecutionException if the sources of the module cannot be determined
+     */
+    protected File getModuleArchive( MavenProject p )
+        throws MojoExecutionException
+    {
+        return null;
+    }
+
     protected void packageSources( MavenProject p )
         throws MojoExecutionException
     {
@@ -255,6 +288,8 @@ public abstract class AbstractSourceJarMojo
 
         MavenArchiver archiver = createArchiver();
 
+        List<File> moduleArchives = new ArrayList<File>();
+
         for ( MavenProject project : projects )
         {
             MavenProject subProject = getProject( project );
@@ -264,10 +299,18 @@ public abstract class AbstractSourceJarMojo
                 continue;
             }
 
+            File moduleArchive = getModuleArchive( project );
+            if ( moduleArchive != null )
+            {
+                getLog().debug( "Copying entries of " + moduleArchive );
+                moduleArchives.add( moduleArchive );
+                continue;
+            }
+
             archiveProjectContent( subProject, archiver.getArchiver() );
         }
 
-        if ( !archiver.getArchiver().getFiles().isEmpty() || forceCreation )
+        if ( !archiver.getArchiver().getFiles().isEmpty() || !moduleArchives.isEmpty() || forceCreation )
         {
 
             if ( useDefaultManifestFile && defaultManifestFile.exists() && archive.getManifestFile() == null )
@@ -283,9 +326,23 @@ public abstract class AbstractSourceJarMojo
                 archiver.setOutputFile( outputFile );
 
                 archive.setAddMavenDescriptor( false );
-                archive.setForced( forceCreation );
+                // the archiver cannot tell whether the copied module archives changed
+                archive.setForced( forceCreation || !moduleArchives.isEmpty() );
 
-                archiver.createArchive( project, archive );
+                long timestamp = ArchiveCompressor.parseTimestamp( outputTimestamp );
+
+                if ( compressionThreads == 1 && timestamp < 0 && moduleArchives.isEmpty() )
+                {
+                    archiver.createArchive( project, archive );
+                }
+                else
+                {
+                    createArchive( archiver, outputFile, timestamp, moduleArchives );
+                }
+            }
+            catch ( IllegalArgumentException e )
+            {
+                throw new MojoExecutionException( e.getMessage() );
             }
             catch ( IOException e )
             {
@@ -319,6 +376,43 @@ public abstract class AbstractSourceJarMojo
         }
     }
 
+    /**
+     * Lets the archiver store the entries and compresses them afterwards, unless the archiver found the archive up to
+     * date. The files of the module archives matching the includes and excludes are appended without being
+     * compressed again, except their Maven descriptors.
+     */
+    private void createArchive( MavenArchiver archiver, File outputFile, long timestamp, List<File> moduleArchives )
+        throws IOException, ArchiverException, ManifestException, DependencyResolutionRequiredException
+    {
+        boolean compress = archive.isCompress();
+        boolean deferCompression = compressionThreads != 1 || timestamp >= 0;
+
+        long checksum = ArchiveCompressor.getContentChecksum( outputFile );
+
+        archive.setCompress( compress && !deferCompression );
+        try
+        {
+            archiver.createArchive( project, archive );
+        }
+        finally
+        {
+            archive.setCompress( compress );
+        }
+
+        if ( ArchiveCompressor.getContentChecksum( outputFile ) != checksum )
+        {
+            ArchiveCompressor compressor = new ArchiveCompressor( compressionThreads, timestamp );
+            compressor.setCompress( compress && deferCompression );
+            for ( File moduleArchive : moduleArchives )
+            {
+                // the aggregated archive has no Maven descriptor, neither from the modules
+                compressor.addArchive( moduleArchive, getCombinedIncludes( null ), getCombinedExcludes( null ),
+                                       "META-INF/maven/" );
+            }
+            compressor.compress( outputFile );
+        }
+    }
+
     protected void archiveProjectContent( MavenProject p, Archiver archiver )
         throws MojoExecutionException
     {
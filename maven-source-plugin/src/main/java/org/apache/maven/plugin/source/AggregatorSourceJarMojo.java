@@ -19,10 +19,16 @@ package org.apache.maven.plugin.source;
  * under the License.
  */
 
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Execute;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
 
 /**
  * Aggregate sources for all modules in an aggregator project.
@@ -35,6 +41,18 @@ import org.apache.maven.plugins.annotations.Mojo;
 public class AggregatorSourceJarMojo
     extends SourceJarMojo
 {
+    /**
+     * Whether to copy the entries of the source archives the modules already attached in this build, instead of
+     * scanning the source directories of these modules again. The files matching the includes and excludes of the
+     * aggregation are copied without being compressed again. A module is packaged from its sources instead when it
+     * attached no such archive, when the archive does not exist or when one of its sources or resources was modified
+     * after the archive.
+     *
+     * @since 2.3
+     */
+    @Parameter( property = "source.reuseModuleArchives", defaultValue = "false" )
+    private boolean reuseModuleArchives;
+
     /**
      * {@inheritDoc}
      */
@@ -46,4 +64,96 @@ public class AggregatorSourceJarMojo
             packageSources( reactorProjects );
         }
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected File getModuleArchive( MavenProject p )
+        throws MojoExecutionException
+    {
+        if ( !reuseModuleArchives )
+        {
+            return null;
+        }
+
+        for ( Object o : p.getAttachedArtifacts() )
+        {
+            Artifact artifact = (Artifact) o;
+
+            if ( !getClassifier().equals( artifact.getClassifier() ) || artifact.getFile() == null )
+            {
+                continue;
+            }
+
+            File moduleArchive = artifact.getFile();
+            if ( !moduleArchive.isFile() )
+            {
+                getLog().debug( "Packaging the sources of " + p.getId() + ", " + moduleArchive + " does not exist" );
+                return null;
+            }
+            if ( !isUpToDate( moduleArchive, getProject( p ) ) )
+            {
+                getLog().debug( "Packaging the sources of " + p.getId() + ", " + moduleArchive + " is out of date" );
+                return null;
+            }
+            return moduleArchive;
+        }
+
+        return null;
+    }
+
+    /**
+     * @return <code>true</code> if none of the sources, resources and POM of the project was modified after the
+     *         archive
+     */
+    private boolean isUpToDate( File moduleArchive, MavenProject p )
+        throws MojoExecutionException
+    {
+        long lastModified = moduleArchive.lastModified();
+
+        if ( includePom && p.getFile() != null && p.getFile().lastModified() > lastModified )
+        {
+            return false;
+        }
+
+        for ( String source : getSources( p ) )
+        {
+            if ( isModifiedAfter( new File( source ), lastModified ) )
+            {
+                return false;
+            }
+        }
+
+        for ( Resource resource : getResources( p ) )
+        {
+            if ( isModifiedAfter( new File( resource.getDirectory() ), lastModified ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isModifiedAfter( File file, long lastModified )
+    {
+        if ( file.lastModified() > lastModified )
+        {
+            return true;
+        }
+
+        File[] children = file.listFiles();
+        if ( children != null )
+        {
+            for ( File child : children )
+            {
+                if ( isModifiedAfter( child, lastModified ) )
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
 }
@@ -0,0 +1,543 @@
+package org.apache.maven.plugin.source;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+import org.apache.maven.plugin.source.ZipFormat.Entry;
+import org.codehaus.plexus.util.SelectorUtils;
+
+/**
+ * Rewrites an archive whose entries are stored uncompressed, deflating the entries concurrently.
+ * <p>
+ * Each entry is compressed by a worker thread into its own buffer, and the buffers are written to the final archive
+ * in the order of the original entries, so the result does not depend on which thread finishes first. The entries
+ * are read ahead up to a bounded size, so that large entries do not fill the memory. Entries that do not get
+ * smaller are kept stored, as are the entries which already were compressed.
+ * </p>
+ * <p>
+ * When a timestamp is given, every entry gets that modification time and the entries are sorted by name after the
+ * manifest, so that the same content always gives the same archive.
+ * </p>
+ * <p>
+ * The entries of other archives can be appended on the way, copied without being inflated and deflated again.
+ * </p>
+ *
+ * @author Apache Maven team
+ * @version $Id$
+ */
+public class ArchiveCompressor
+{
+    /**
+     * The default size of the entries read and not written yet. Each of them holds its content and its compressed
+     * content, so the memory used is at most twice this size, or twice the size of the largest entry.
+     */
+    private static final long MAX_PENDING_BYTES = 32 * 1024 * 1024;
+
+    private final int threads;
+
+    private final long timestamp;
+
+    private boolean compress = true;
+
+    private boolean recompressZips = true;
+
+    private long maxPendingBytes = MAX_PENDING_BYTES;
+
+    private final List<File> appendedArchives = new ArrayList<File>();
+
+    /**
+     * The directories excluded from each appended archive.
+     */
+    private final List<String[]> appendedExcludedDirectories = new ArrayList<String[]>();
+
+    /**
+     * The patterns of the files included in each appended archive, <code>null</code> for all of them.
+     */
+    private final List<String[]> appendedIncludes = new ArrayList<String[]>();
+
+    /**
+     * The patterns of the files excluded from each appended archive, <code>null</code> for none of them.
+     */
+    private final List<String[]> appendedExcludes = new ArrayList<String[]>();
+
+    /**
+     * @param threads The number of threads compressing entries, <code>0</code> or less for one per processor.
+     * @param timestamp The modification time of every entry in milliseconds, or <code>-1</code> to keep the
+     *            original times and order.
+     */
+    public ArchiveCompressor( int threads, long timestamp )
+    {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @param compress <code>false</code> to keep all the entries stored, only applying the timestamp.
+     */
+    public void setCompress( boolean compress )
+    {
+        this.compress = compress;
+    }
+
+    /**
+     * @param recompressZips <code>false</code> to keep entries which are zip files themselves stored.
+     */
+    public void setRecompressZips( boolean recompressZips )
+    {
+        this.recompressZips = recompressZips;
+    }
+
+    /**
+     * @param maxPendingBytes The size of the entries read and not written yet, bounding the memory used.
+     */
+    void setMaxPendingBytes( long maxPendingBytes )
+    {
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+    /**
+     * Appends the entries of another archive. They are copied as they are, without being inflated again, after the
+     * entries of the rewritten archive; entries whose name was already written are skipped.
+     *
+     * @param archive The archive whose entries are appended, must not be <code>null</code>.
+     * @param excludedDirectories The directories whose entries are not appended, such as
+     *            <code>META-INF/maven/</code>, each ending with a slash.
+     */
+    public void addArchive( File archive, String... excludedDirectories )
+    {
+        addArchive( archive, null, null, excludedDirectories );
+    }
+
+    /**
+     * Appends the files of another archive which match the given patterns, as {@link #addArchive(File, String...)}.
+     * The patterns are matched against the entry names as the patterns of a
+     * {@link org.codehaus.plexus.util.DirectoryScanner}; the directory entries are always appended.
+     *
+     * @param archive The archive whose entries are appended, must not be <code>null</code>.
+     * @param includes The patterns of the files appended, or <code>null</code> for all of them.
+     * @param excludes The patterns of the files not appended, or <code>null</code> for none of them.
+     * @param excludedDirectories The directories whose entries are not appended, each ending with a slash.
+     */
+    public void addArchive( File archive, String[] includes, String[] excludes, String... excludedDirectories )
+    {
+        appendedArchives.add( archive );
+        appendedExcludedDirectories.add( excludedDirectories );
+        appendedIncludes.add( normalizePatterns( includes ) );
+        appendedExcludes.add( normalizePatterns( excludes ) );
+    }
+
+    /**
+     * Uses the file separator in the patterns, as {@link SelectorUtils#matchPath(String, String)} expects, and
+     * lets a pattern ending with a separator match everything below it.
+     */
+    private static String[] normalizePatterns( String[] patterns )
+    {
+        if ( patterns == null )
+        {
+            return null;
+        }
+        String[] normalized = new String[patterns.length];
+        for ( int i = 0; i < patterns.length; i++ )
+        {
+            String pattern = patterns[i].trim().replace( '/', File.separatorChar ).replace( '\\', File.separatorChar );
+            normalized[i] = pattern.endsWith( File.separator ) ? pattern + "**" : pattern;
+        }
+        return normalized;
+    }
+
+    /**
+     * Parses the timestamp configured for reproducible archives.
+     *
+     * @param value A date in ISO 8601 format such as <code>2013-06-01T12:00:00Z</code>, or a number of seconds
+     *            since the epoch; may be <code>null</code>.
+     * @return The timestamp in milliseconds, or <code>-1</code> if no value was given.
+     * @throws IllegalArgumentException if the value cannot be parsed.
+     */
+    public static long parseTimestamp( String value )
+    {
+        if ( value == null || value.trim().length() == 0 )
+        {
+            return -1;
+        }
+
+        String s = value.trim();
+
+        if ( s.matches( "\\d+" ) )
+        {
+            return Long.parseLong( s ) * 1000L;
+        }
+
+        // SimpleDateFormat only understands RFC 822 time zones such as +0100
+        if ( s.endsWith( "Z" ) )
+        {
+            s = s.substring( 0, s.length() - 1 ) + "+0000";
+        }
+        else if ( s.matches( ".*[+-]\\d\\d:\\d\\d" ) )
+        {
+            s = s.substring( 0, s.length() - 3 ) + s.substring( s.length() - 2 );
+        }
+
+        try
+        {
+            return new SimpleDateFormat( "yyyy-MM-dd'T'HH:mm:ssZ", Locale.ENGLISH ).parse( s ).getTime();
+        }
+        catch ( ParseException e )
+        {
+            throw new IllegalArgumentException( "Invalid timestamp '" + value
+                + "', expected an ISO 8601 date such as 2013-06-01T12:00:00Z or a number of seconds" );
+        }
+    }
+
+    /**
+     * Computes a checksum of the entries of an archive, to tell whether an archiver wrote it again. Unlike the
+     * modification time and the length of the file, it changes whenever the archive is written with a different
+     * content, even on a file system with a coarse time resolution.
+     *
+     * @param archive The archive, which may not exist.
+     * @return The checksum, or <code>-1</code> if the archive does not exist or is not a zip file.
+     */
+    public static long getContentChecksum( File archive )
+    {
+        if ( !archive.isFile() )
+        {
+            return -1;
+        }
+
+        try
+        {
+            RandomAccessFile raf = new RandomAccessFile( archive, "r" );
+            try
+            {
+                return ZipFormat.checksumCentralDirectory( raf );
+            }
+            finally
+            {
+                raf.close();
+            }
+        }
+        catch ( IOException e )
+        {
+            return -1;
+        }
+    }
+
+    /**
+     * Rewrites the given archive in place.
+     *
+     * @param archive The archive to compress, must not be <code>null</code>.
+     * @throws IOException if the archive could not be read or written.
+     */
+    public void compress( File archive )
+        throws IOException
+    {
+        File tmp = File.createTempFile( archive.getName(), ".tmp", archive.getAbsoluteFile().getParentFile() );
+
+        List<RandomAccessFile> files = new ArrayList<RandomAccessFile>();
+
+        boolean done = false;
+        try
+        {
+            try
+            {
+                files.add( new RandomAccessFile( archive, "r" ) );
+                for ( File appended : appendedArchives )
+                {
+                    files.add( new RandomAccessFile( appended, "r" ) );
+                }
+
+                OutputStream out = new BufferedOutputStream( new FileOutputStream( tmp ), 64 * 1024 );
+                try
+                {
+                    rewrite( files, out );
+                }
+                finally
+                {
+                    out.close();
+                }
+            }
+            finally
+            {
+                for ( RandomAccessFile raf : files )
+                {
+                    raf.close();
+                }
+            }
+
+            if ( !archive.delete() || !tmp.renameTo( archive ) )
+            {
+                throw new IOException( "Could not replace " + archive + " with " + tmp );
+            }
+            done = true;
+        }
+        finally
+        {
+            if ( !done )
+            {
+                tmp.delete();
+            }
+        }
+    }
+
+    private void rewrite( List<RandomAccessFile> files, OutputStream out )
+        throws IOException
+    {
+        List<Entry> entries = new ArrayList<Entry>();
+        Set<String> names = new HashSet<String>();
+
+        byte[] comment = readEntries( files.get( 0 ), new String[0], null, null, entries, names );
+        for ( int i = 1; i < files.size(); i++ )
+        {
+            readEntries( files.get( i ), appendedExcludedDirectories.get( i - 1 ), appendedIncludes.get( i - 1 ),
+                         appendedExcludes.get( i - 1 ), entries, names );
+        }
+
+        if ( timestamp >= 0 )
+        {
+            Collections.sort( entries, new Comparator<Entry>()
+            {
+                public int compare( Entry e1, Entry e2 )
+                {
+                    int rank = rank( e1.name ) - rank( e2.name );
+                    return rank != 0 ? rank : e1.name.compareTo( e2.name );
+                }
+            } );
+        }
+
+        ZipFormat.Writer writer = new ZipFormat.Writer( out );
+
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            LinkedList<Future<Entry>> pending = new LinkedList<Future<Entry>>();
+            // the size of each pending entry as read, its compressed size changing once it is compressed
+            LinkedList<Long> pendingSizes = new LinkedList<Long>();
+            long pendingBytes = 0;
+
+            int next = 0;
+            while ( next < entries.size() || !pending.isEmpty() )
+            {
+                // at least one entry is read, however large it is
+                while ( next < entries.size()
+                    && ( pending.isEmpty() || pendingBytes + entries.get( next ).compressedSize <= maxPendingBytes ) )
+                {
+                    final Entry entry = entries.get( next++ );
+                    pendingSizes.add( entry.compressedSize );
+                    pendingBytes += entry.compressedSize;
+                    pending.add( executor.submit( new Callable<Entry>()
+                    {
+                        public Entry call()
+                            throws IOException
+                        {
+                            compress( entry );
+                            return entry;
+                        }
+                    } ) );
+                }
+
+                Entry entry = pending.removeFirst().get();
+                pendingBytes -= pendingSizes.removeFirst();
+                writer.writeEntry( entry, entry.data );
+                // release the buffer as soon as it has been written
+                entry.data = null;
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while compressing entries" );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof IOException )
+            {
+                throw (IOException) e.getCause();
+            }
+            if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            IOException ioe = new IOException( "Failed to compress entry: " + e.getCause() );
+            ioe.initCause( e.getCause() );
+            throw ioe;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        writer.writeCentralDirectory( entries, comment );
+    }
+
+    /**
+     * Reads the entries of an archive, skipping the excluded entries and the entries whose name was already read.
+     *
+     * @return The archive comment.
+     */
+    private byte[] readEntries( RandomAccessFile raf, String[] excludedDirectories, String[] includes,
+                                String[] excludes, List<Entry> entries, Set<String> names )
+        throws IOException
+    {
+        List<Entry> read = new ArrayList<Entry>();
+        byte[] comment = ZipFormat.readCentralDirectory( raf, read );
+
+        long dosTime = timestamp >= 0 ? ZipFormat.toDosTime( timestamp ) : -1;
+
+        for ( Entry entry : read )
+        {
+            // the sizes are written in the local file header, never in a data descriptor
+            entry.flags &= ZipFormat.UTF8_FLAG;
+
+            if ( dosTime >= 0 )
+            {
+                entry.dosTime = dosTime;
+            }
+
+            if ( !isExcluded( entry.name, excludedDirectories ) && isSelected( entry.name, includes, excludes )
+                && names.add( entry.name ) )
+            {
+                entries.add( entry );
+            }
+        }
+
+        return comment;
+    }
+
+    private static boolean isExcluded( String name, String[] excludedDirectories )
+    {
+        for ( String directory : excludedDirectories )
+        {
+            if ( name.startsWith( directory ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSelected( String name, String[] includes, String[] excludes )
+    {
+        if ( name.endsWith( "/" ) )
+        {
+            return true;
+        }
+        String path = name.replace( '/', File.separatorChar );
+        return ( includes == null || matchPath( includes, path ) )
+            && ( excludes == null || !matchPath( excludes, path ) );
+    }
+
+    private static boolean matchPath( String[] patterns, String path )
+    {
+        for ( String pattern : patterns )
+        {
+            if ( SelectorUtils.matchPath( pattern, path ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sorts the manifest directory and the manifest first, as required by {@link java.util.jar.JarInputStream}.
+     */
+    private static int rank( String name )
+    {
+        if ( "META-INF/".equals( name ) )
+        {
+            return 0;
+        }
+        return "META-INF/MANIFEST.MF".equals( name ) ? 1 : 2;
+    }
+
+    /**
+     * Reads the content of an entry and deflates it, unless it is better kept as it is.
+     */
+    private void compress( Entry entry )
+        throws IOException
+    {
+        if ( entry.compressedSize > Integer.MAX_VALUE )
+        {
+            throw new IOException( "Entry too large to be compressed: " + entry.name );
+        }
+
+        byte[] raw = new byte[(int) entry.compressedSize];
+        ZipFormat.read( entry.channel, ZipFormat.getDataOffset( entry ), raw );
+        entry.data = raw;
+
+        if ( !compress || entry.method != ZipFormat.STORED || raw.length == 0
+            || ( !recompressZips && isZip( raw ) ) )
+        {
+            return;
+        }
+
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream( raw.length / 2 + 64 );
+        Deflater deflater = new Deflater( Deflater.DEFAULT_COMPRESSION, true );
+        try
+        {
+            deflater.setInput( raw );
+            deflater.finish();
+
+            byte[] buffer = new byte[8192];
+            while ( !deflater.finished() && deflated.size() < raw.length )
+            {
+                deflated.write( buffer, 0, deflater.deflate( buffer ) );
+            }
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        if ( deflated.size() < raw.length )
+        {
+            entry.method = ZipFormat.DEFLATED;
+            entry.data = deflated.toByteArray();
+        }
+    }
+
+    private static boolean isZip( byte[] content )
+    {
+        return content.length >= 4 && ZipFormat.getInt( content, 0 ) == ZipFormat.LOCAL_FILE_HEADER;
+    }
+}
@@ -0,0 +1,359 @@
+package org.apache.maven.plugin.source;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Test for {@link ArchiveCompressor}
+ *
+ * @version $Id$
+ */
+public class ArchiveCompressorTest
+    extends TestCase
+{
+    private File directory;
+
+    private byte[] text;
+
+    private byte[] random;
+
+    protected void setUp()
+        throws Exception
+    {
+        directory = new File( System.getProperty( "basedir", "." ), "target/unit/archive-compressor" );
+        FileUtils.deleteDirectory( directory );
+        directory.mkdirs();
+
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0; i < 1000; i++ )
+        {
+            sb.append( "line " ).append( i ).append( '\n' );
+        }
+        text = sb.toString().getBytes( "UTF-8" );
+
+        random = new byte[4096];
+        new Random( 0 ).nextBytes( random );
+    }
+
+    public void testCompressKeepsContentAndOrder()
+        throws Exception
+    {
+        File archive = new File( directory, "test.jar" );
+        String[] names = { "META-INF/", "META-INF/MANIFEST.MF", "b/", "b/B.txt", "a.bin", "empty.txt" };
+        createStoredArchive( archive, names, 0 );
+        long storedLength = archive.length();
+
+        new ArchiveCompressor( 3, -1 ).compress( archive );
+
+        assertTrue( archive.length() < storedLength );
+        assertFalse( new File( directory, "test.jar.tmp" ).exists() );
+
+        ZipFile zipFile = new ZipFile( archive );
+        try
+        {
+            assertEquals( Arrays.asList( names ), getNames( zipFile ) );
+
+            assertEquals( ZipEntry.DEFLATED, zipFile.getEntry( "b/B.txt" ).getMethod() );
+            assertEquals( ZipEntry.STORED, zipFile.getEntry( "a.bin" ).getMethod() );
+
+            assertTrue( Arrays.equals( text, read( zipFile, "b/B.txt" ) ) );
+            assertTrue( Arrays.equals( random, read( zipFile, "a.bin" ) ) );
+            assertEquals( 0, read( zipFile, "empty.txt" ).length );
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+
+    public void testBoundedReadAhead()
+        throws Exception
+    {
+        File archive = new File( directory, "bounded.jar" );
+        String[] names = { "META-INF/", "META-INF/MANIFEST.MF", "a.txt", "b.bin", "c.txt", "d.bin", "e.txt" };
+        createStoredArchive( archive, names, 0 );
+
+        // less than a single entry, so each entry is compressed on its own
+        ArchiveCompressor compressor = new ArchiveCompressor( 4, -1 );
+        compressor.setMaxPendingBytes( 1 );
+        compressor.compress( archive );
+
+        ZipFile zipFile = new ZipFile( archive );
+        try
+        {
+            assertEquals( Arrays.asList( names ), getNames( zipFile ) );
+            assertTrue( Arrays.equals( text, read( zipFile, "a.txt" ) ) );
+            assertTrue( Arrays.equals( random, read( zipFile, "d.bin" ) ) );
+            assertTrue( Arrays.equals( text, read( zipFile, "e.txt" ) ) );
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+
+    public void testReproducibleTimestamp()
+        throws Exception
+    {
+        File first = new File( directory, "first.jar" );
+        createStoredArchive( first, new String[]{ "META-INF/", "META-INF/MANIFEST.MF", "b/B.txt", "a.bin" },
+                             1000000000000L );
+        File second = new File( directory, "second.jar" );
+        createStoredArchive( second, new String[]{ "META-INF/", "META-INF/MANIFEST.MF", "a.bin", "b/B.txt" },
+                             1200000000000L );
+
+        long timestamp = ArchiveCompressor.parseTimestamp( "2013-06-01T12:00:00Z" );
+        new ArchiveCompressor( 2, timestamp ).compress( first );
+        new ArchiveCompressor( 4, timestamp ).compress( second );
+
+        assertTrue( Arrays.equals( read( first ), read( second ) ) );
+
+        ZipFile zipFile = new ZipFile( first );
+        try
+        {
+            assertEquals( Arrays.asList( "META-INF/", "META-INF/MANIFEST.MF", "a.bin", "b/B.txt" ),
+                          getNames( zipFile ) );
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+
+    public void testAddArchive()
+        throws Exception
+    {
+        File archive = new File( directory, "test.jar" );
+        createStoredArchive( archive, new String[]{ "META-INF/", "META-INF/MANIFEST.MF", "a.bin" }, 0 );
+        File module = new File( directory, "module.jar" );
+        createStoredArchive( module, new String[]{ "META-INF/", "META-INF/MANIFEST.MF", "b/", "b/B.txt" }, 0 );
+
+        ArchiveCompressor compressor = new ArchiveCompressor( 2, -1 );
+        compressor.addArchive( module );
+        compressor.compress( archive );
+
+        ZipFile zipFile = new ZipFile( archive );
+        try
+        {
+            assertEquals( Arrays.asList( "META-INF/", "META-INF/MANIFEST.MF", "a.bin", "b/", "b/B.txt" ),
+                          getNames( zipFile ) );
+            assertTrue( Arrays.equals( text, read( zipFile, "b/B.txt" ) ) );
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+
+    public void testAddArchiveWithExcludes()
+        throws Exception
+    {
+        File archive = new File( directory, "test.jar" );
+        createStoredArchive( archive, new String[]{ "META-INF/", "META-INF/MANIFEST.MF", "a.bin" }, 0 );
+        File module = new File( directory, "module.jar" );
+        createStoredArchive( module, new String[]{ "META-INF/", "META-INF/MANIFEST.MF", "META-INF/maven/",
+            "META-INF/maven/pom.txt", "b/B.txt" }, 0 );
+
+        ArchiveCompressor compressor = new ArchiveCompressor( 2, -1 );
+        compressor.addArchive( module, "META-INF/maven/" );
+        compressor.compress( archive );
+
+        ZipFile zipFile = new ZipFile( archive );
+        try
+        {
+            assertEquals( Arrays.asList( "META-INF/", "META-INF/MANIFEST.MF", "a.bin", "b/B.txt" ),
+                          getNames( zipFile ) );
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+
+    public void testAddArchiveWithPatterns()
+        throws Exception
+    {
+        File archive = new File( directory, "test.jar" );
+        createStoredArchive( archive, new String[]{ "META-INF/", "META-INF/MANIFEST.MF", "a.bin" }, 0 );
+        File module = new File( directory, "module.jar" );
+        createStoredArchive( module, new String[]{ "META-INF/", "META-INF/MANIFEST.MF", "b/", "b/B.java",
+            "b/B.txt", "b/internal/", "b/internal/C.java" }, 0 );
+
+        ArchiveCompressor compressor = new ArchiveCompressor( 2, -1 );
+        compressor.addArchive( module, new String[]{ "**/*.java" }, new String[]{ "**/internal/" } );
+        compressor.compress( archive );
+
+        ZipFile zipFile = new ZipFile( archive );
+        try
+        {
+            // the directory entries are kept
+            assertEquals( Arrays.asList( "META-INF/", "META-INF/MANIFEST.MF", "a.bin", "b/", "b/B.java",
+                                         "b/internal/" ), getNames( zipFile ) );
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+
+    public void testContentChecksum()
+        throws Exception
+    {
+        File archive = new File( directory, "test.jar" );
+        assertEquals( -1, ArchiveCompressor.getContentChecksum( archive ) );
+
+        String[] names = { "META-INF/", "META-INF/MANIFEST.MF", "b/B.txt" };
+        createStoredArchive( archive, names, 1000000000000L );
+        long stored = ArchiveCompressor.getContentChecksum( archive );
+
+        // the same content written again, as by an archiver finding the archive out of date
+        createStoredArchive( archive, names, 1000000000000L );
+        assertEquals( stored, ArchiveCompressor.getContentChecksum( archive ) );
+
+        new ArchiveCompressor( 2, -1 ).compress( archive );
+        long compressed = ArchiveCompressor.getContentChecksum( archive );
+        assertTrue( compressed != stored );
+
+        // the stored archive written again over the compressed one, with the same length and time
+        createStoredArchive( archive, names, 1000000000000L );
+        assertEquals( stored, ArchiveCompressor.getContentChecksum( archive ) );
+    }
+
+    public void testParseTimestamp()
+    {
+        assertEquals( -1, ArchiveCompressor.parseTimestamp( null ) );
+        assertEquals( -1, ArchiveCompressor.parseTimestamp( " " ) );
+        assertEquals( 1370088000000L, ArchiveCompressor.parseTimestamp( "1370088000" ) );
+        assertEquals( 1370088000000L, ArchiveCompressor.parseTimestamp( "2013-06-01T12:00:00Z" ) );
+        assertEquals( 1370088000000L, ArchiveCompressor.parseTimestamp( "2013-06-01T14:00:00+02:00" ) );
+
+        try
+        {
+            ArchiveCompressor.parseTimestamp( "yesterday" );
+            fail( "Invalid timestamp accepted" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            // expected
+        }
+    }
+
+    private void createStoredArchive( File archive, String[] names, long time )
+        throws IOException
+    {
+        ZipOutputStream zos = new ZipOutputStream( new FileOutputStream( archive ) );
+        try
+        {
+            for ( String name : names )
+            {
+                byte[] content = new byte[0];
+                if ( name.endsWith( ".txt" ) && !name.startsWith( "empty" ) )
+                {
+                    content = text;
+                }
+                else if ( name.endsWith( ".bin" ) )
+                {
+                    content = random;
+                }
+                else if ( name.endsWith( ".MF" ) )
+                {
+                    content = "Manifest-Version: 1.0\r\n\r\n".getBytes( "UTF-8" );
+                }
+
+                CRC32 crc = new CRC32();
+                crc.update( content );
+
+                ZipEntry entry = new ZipEntry( name );
+                entry.setMethod( ZipEntry.STORED );
+                entry.setSize( content.length );
+                entry.setCompressedSize( content.length );
+                entry.setCrc( crc.getValue() );
+                if ( time > 0 )
+                {
+                    entry.setTime( time );
+                }
+                zos.putNextEntry( entry );
+                zos.write( content );
+                zos.closeEntry();
+            }
+        }
+        finally
+        {
+            zos.close();
+        }
+    }
+
+    private static byte[] read( ZipFile zipFile, String name )
+        throws IOException
+    {
+        InputStream is = zipFile.getInputStream( zipFile.getEntry( name ) );
+        try
+        {
+            return IOUtil.toByteArray( is );
+        }
+        finally
+        {
+            is.close();
+        }
+    }
+
+    private static byte[] read( File file )
+        throws IOException
+    {
+        InputStream is = new FileInputStream( file );
+        try
+        {
+            return IOUtil.toByteArray( is );
+        }
+        finally
+        {
+            is.close();
+        }
+    }
+
+    private static List<String> getNames( ZipFile zipFile )
+    {
+        List<String> names = new ArrayList<String>();
+        for ( Enumeration<? extends ZipEntry> e = zipFile.entries(); e.hasMoreElements(); )
+        {
+            names.add( e.nextElement().getName() );
+        }
+        return names;
+    }
+}
@@ -77,6 +77,37 @@ public class CopyRepositoryMojo
     @Parameter( property = "version", required = true )
     private String version;
 
+    /**
+     * The number of connections opened to each repository to scan and download files, and to fetch the
+     * metadata to merge.
+     */
+    @Parameter( property = "connections", defaultValue = "4" )
+    private int connections;
+
+    /**
+     * Whether to resume an interrupted copy: the files already downloaded and verified against their checksums
+     * are not downloaded again. Only a copy which was itself run with <code>resume</code> enabled can be resumed,
+     * as the files are otherwise streamed to the target repository without being kept: enable it up front when a
+     * copy may be interrupted.
+     */
+    @Parameter( property = "resume", defaultValue = "false" )
+    private boolean resume;
+
+    /**
+     * What to do when a downloaded file does not match its <code>.md5</code> or <code>.sha1</code> file:
+     * <code>fail</code>, <code>warn</code> or <code>ignore</code>.
+     */
+    @Parameter( property = "checksumPolicy", defaultValue = "warn" )
+    private String checksumPolicy;
+
+    /**
+     * The size in bytes up to which a downloaded file is kept in memory while it is added to the zip file uploaded
+     * to the target repository. Larger files are buffered in a temporary file. Not used when resuming, as the
+     * files are then kept in a work directory.
+     */
+    @Parameter( property = "spillThreshold", defaultValue = "1048576" )
+    private int spillThreshold;
+
     /**
      * The repository copier to use.
      */
@@ -90,7 +121,8 @@ public class CopyRepositoryMojo
         {
             Repository sourceRepository = new Repository( sourceRepositoryId, source );
             Repository targetRepository = new Repository( targetRepositoryId, target );
-            copier.copy( sourceRepository, targetRepository, version );
+            copier.copy( sourceRepository, targetRepository, version, connections, resume, checksumPolicy,
+                         spillThreshold );
         }
         catch ( IOException e )
         {
@@ -21,6 +21,7 @@ package org.apache.maven.plugins.stage;
 
 import org.apache.maven.artifact.manager.WagonManager;
 import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
 import org.apache.maven.artifact.repository.metadata.Metadata;
 import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
 import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
@@ -40,29 +41,33 @@ import org.codehaus.plexus.logging.LogEnabled;
 import org.codehaus.plexus.logging.Logger;
 import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.ReaderFactory;
 import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.WriterFactory;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
-import java.io.PrintWriter;
-import java.io.Reader;
 import java.io.Writer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.TreeSet;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author Jason van Zyl
@@ -71,10 +76,6 @@ import java.util.zip.ZipOutputStream;
 public class DefaultRepositoryCopier
     implements LogEnabled, RepositoryCopier
 {
-    private MetadataXpp3Reader reader = new MetadataXpp3Reader();
-
-    private MetadataXpp3Writer writer = new MetadataXpp3Writer();
-
     /** @plexus.requirement */
     private WagonManager wagonManager;
 
@@ -82,6 +83,14 @@ public class DefaultRepositoryCopier
 
     public void copy( Repository sourceRepository, Repository targetRepository, String version )
         throws WagonException, IOException
+    {
+        copy( sourceRepository, targetRepository, version, 1, false, ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN,
+              DEFAULT_SPILL_THRESHOLD );
+    }
+
+    public void copy( Repository sourceRepository, Repository targetRepository, String version, int connections,
+                      boolean resume, String checksumPolicy, int spillThreshold )
+        throws WagonException, IOException
     {
         String prefix = "staging-plugin";
 
@@ -91,194 +100,407 @@ public class DefaultRepositoryCopier
 
         logger.debug( "Writing all output to " + tempdir );
 
-        // Create the renameScript script
-
         String renameScriptName = prefix + "-" + version + "-rename.sh";
 
-        File renameScript = new File( tempdir, renameScriptName );
-
-        // Work directory
+        // Work directory, only used to resume an interrupted copy
 
         File basedir = new File( tempdir, prefix + "-" + version );
 
-        FileUtils.deleteDirectory( basedir );
+        // Verified downloads of a previous, interrupted copy
 
-        basedir.mkdirs();
+        File journal = new File( tempdir, prefix + "-" + version + ".journal" );
 
-        String protocol = sourceRepository.getProtocol();
+        if ( resume )
+        {
+            basedir.mkdirs();
+        }
+        else
+        {
+            FileUtils.deleteDirectory( basedir );
 
-        Wagon sourceWagon = wagonManager.getWagon( sourceRepository );
-        AuthenticationInfo sourceAuth = wagonManager.getAuthenticationInfo( sourceRepository.getId() );
+            journal.delete();
+        }
 
-        sourceWagon.connect( sourceRepository, sourceAuth );
+        File archiveFile = new File( tempdir, fileName );
 
-        logger.info( "Looking for files in the source repository." );
+        // ----------------------------------------------------------------------------
+        // Create the Zip file that we will deploy to the targetRepositoryUrl stage
+        // ----------------------------------------------------------------------------
 
-        List<String> files = new ArrayList<String>();
+        StagingArchive archive = new StagingArchive( archiveFile, version );
 
-        scan( sourceWagon, "", files );
+        boolean finished = false;
 
-        logger.info( "Downloading files from the source repository to: " + basedir );
+        WagonPool targetPool = null;
 
-        for ( String s : files )
+        try
         {
+            List<String> files;
 
-            if ( s.indexOf( ".svn" ) >= 0 )
-            {
-                continue;
-            }
-
-            File f = new File( basedir, s );
+            Map<String, Map<String, byte[]>> stagedMetadata = new TreeMap<String, Map<String, byte[]>>();
 
-            FileUtils.mkdir( f.getParentFile().getAbsolutePath() );
+            WagonPool sourcePool = connect( sourceRepository, connections );
 
-            logger.info( "Downloading file from the source repository: " + s );
+            try
+            {
+                RepositoryDownloader downloader = new RepositoryDownloader( sourcePool, checksumPolicy, logger );
 
-            sourceWagon.get( s, f );
-        }
+                logger.info( "Looking for files in the source repository." );
 
-        // ----------------------------------------------------------------------------
-        // Now all the files are present locally and now we are going to grab the
-        // metadata files from the targetRepositoryUrl and pull those down locally
-        // so that we can merge the metadata.
-        // ----------------------------------------------------------------------------
+                files = downloader.scan();
 
-        logger.info( "Downloading metadata from the target repository." );
+                if ( resume )
+                {
+                    logger.info( "Downloading files from the source repository to: " + basedir );
 
-        Wagon targetWagon = wagonManager.getWagon( targetRepository );
+                    downloader.download( files, basedir, journal, true );
+                }
+                else
+                {
+                    logger.info( "Downloading files from the source repository to: " + archiveFile );
 
-        if ( ! ( targetWagon instanceof CommandExecutor ) )
-        {
-            throw new CommandExecutionException( "Wagon class '" + targetWagon.getClass().getName() +
-                "' in use for target repository is not a CommandExecutor" );
-        }
+                    stream( downloader, files, spillThreshold, new File( tempdir ), archive, stagedMetadata );
+                }
+            }
+            finally
+            {
+                sourcePool.disconnect();
+            }
 
-        AuthenticationInfo targetAuth = wagonManager.getAuthenticationInfo( targetRepository.getId() );
+            // ----------------------------------------------------------------------------
+            // Now all the files are present and now we are going to grab the
+            // metadata files from the targetRepositoryUrl so that we can merge the metadata.
+            // ----------------------------------------------------------------------------
 
-        targetWagon.connect( targetRepository, targetAuth );
+            logger.info( "Downloading metadata from the target repository." );
 
-        PrintWriter rw = new PrintWriter( new FileWriter( renameScript ) );
+            targetPool = connect( targetRepository, connections );
 
-        File archive = new File( tempdir, fileName );
+            Wagon targetWagon = targetPool.take();
 
-        for ( String s : files )
-        {
+            targetPool.release( targetWagon );
 
-            if ( s.startsWith( "/" ) )
+            if ( ! ( targetWagon instanceof CommandExecutor ) )
             {
-                s = s.substring( 1 );
+                throw new CommandExecutionException( "Wagon class '" + targetWagon.getClass().getName() +
+                    "' in use for target repository is not a CommandExecutor" );
             }
 
-            if ( s.endsWith( MAVEN_METADATA ) )
+            if ( resume )
             {
-                File emf = new File( basedir, s + IN_PROCESS_MARKER );
+                mergeMetadata( targetPool, basedir, files );
 
-                try
-                {
-                    targetWagon.get( s, emf );
-                }
-                catch ( ResourceDoesNotExistException e )
-                {
-                    // We don't have an equivalent on the targetRepositoryUrl side because we have something
-                    // new on the sourceRepositoryUrl side so just skip the metadata merging.
+                scanDirectory( basedir, basedir, archive, version );
+            }
+            else
+            {
+                mergeMetadata( targetPool, stagedMetadata, spillThreshold, new File( tempdir ), archive );
+            }
 
-                    continue;
-                }
+            // ----------------------------------------------------------------------------
+            // Create the renameScript script. This is as atomic as we can
+            // ----------------------------------------------------------------------------
 
-                try
-                {
-                    mergeMetadata( emf );
-                }
-                catch ( XmlPullParserException e )
-                {
-                    throw new IOException( "Metadata file is corrupt " + s + " Reason: " + e.getMessage() );
-                }
-            }
-        }
+            logger.info( "Creating rename script." );
 
-        Set moveCommands = new TreeSet();
+            archive.finish( renameScriptName );
 
-        // ----------------------------------------------------------------------------
-        // Create the Zip file that we will deploy to the targetRepositoryUrl stage
-        // ----------------------------------------------------------------------------
+            finished = true;
 
-        logger.info( "Creating zip file." );
+            targetWagon = targetPool.take();
 
-        OutputStream os = new FileOutputStream( archive );
+            // Push the Zip to the target system
 
-        ZipOutputStream zos = new ZipOutputStream( os );
+            logger.info( "Uploading zip file to the target repository." );
 
-        scanDirectory( basedir, basedir, zos, version, moveCommands );
+            targetWagon.put( archiveFile, fileName );
 
-        // ----------------------------------------------------------------------------
-        // Create the renameScript script. This is as atomic as we can
-        // ----------------------------------------------------------------------------
+            logger.info( "Unpacking zip file on the target machine." );
 
-        logger.info( "Creating rename script." );
+            String targetRepoBaseDirectory = targetRepository.getBasedir();
 
-        for ( Iterator i = moveCommands.iterator(); i.hasNext(); )
-        {
-            String s = (String) i.next();
+            // We use the super quiet option here as all the noise seems to kill/stall the connection
 
-            // We use an explicit unix '\n' line-ending here instead of using the println() method.
-            // Using println() will cause files and folders to have a '\r' at the end if the plugin is run on Windows.
-            rw.print( s + "\n" );
-        }
+            String command = "unzip -o -qq -d " + targetRepoBaseDirectory + " " + targetRepoBaseDirectory + "/" + fileName;
 
-        IOUtil.close( rw );
+            ( (CommandExecutor) targetWagon ).executeCommand( command );
 
-        ZipEntry e = new ZipEntry( renameScript.getName() );
+            logger.info( "Deleting zip file from the target repository." );
 
-        zos.putNextEntry( e );
+            command = "rm -f " + targetRepoBaseDirectory + "/" + fileName;
 
-        InputStream is = new FileInputStream( renameScript );
+            ( (CommandExecutor) targetWagon ).executeCommand( command );
 
-        IOUtil.copy( is, zos );
+            logger.info( "Running rename script on the target machine." );
 
-        IOUtil.close( is );
+            command = "cd " + targetRepoBaseDirectory + "; sh " + renameScriptName;
 
-        IOUtil.close( zos );
+            ( (CommandExecutor) targetWagon ).executeCommand( command );
 
-        sourceWagon.disconnect();
+            logger.info( "Deleting rename script from the target repository." );
+
+            command = "rm -f " + targetRepoBaseDirectory + "/" + renameScriptName;
+
+            ( (CommandExecutor) targetWagon ).executeCommand( command );
+
+            targetPool.release( targetWagon );
+        }
+        finally
+        {
+            if ( !finished )
+            {
+                archive.abort();
+
+                if ( !resume )
+                {
+                    logger.info( "The downloaded files were not kept: run the copy with resume enabled to be able"
+                        + " to resume it if it is interrupted again." );
+                }
+            }
+            if ( targetPool != null )
+            {
+                targetPool.disconnect();
+            }
+        }
+
+        // The copy is complete, a new run has to start from scratch
+
+        journal.delete();
+    }
+
+    /**
+     * Download the files of the source repository straight into the archive. The metadata files are kept in
+     * memory, to be merged with the ones of the target repository.
+     */
+    private void stream( RepositoryDownloader downloader, List<String> files, int spillThreshold, File tempdir,
+                         final StagingArchive archive, final Map<String, Map<String, byte[]>> stagedMetadata )
+        throws WagonException, IOException
+    {
+        downloader.stream( files, spillThreshold, tempdir, new RepositoryDownloader.Consumer()
+        {
+            public void downloaded( List<String> group, List<SpillBuffer> contents )
+                throws IOException
+            {
+                if ( group.get( 0 ).endsWith( MAVEN_METADATA ) )
+                {
+                    Map<String, byte[]> metadata = new LinkedHashMap<String, byte[]>();
+                    for ( int i = 0; i < group.size(); i++ )
+                    {
+                        metadata.put( group.get( i ), contents.get( i ).toByteArray() );
+                    }
+                    synchronized ( stagedMetadata )
+                    {
+                        stagedMetadata.put( group.get( 0 ), metadata );
+                    }
+                    return;
+                }
 
-        // Push the Zip to the target system
+                for ( int i = 0; i < group.size(); i++ )
+                {
+                    archive.add( group.get( i ), contents.get( i ) );
+                }
+            }
+        } );
+    }
 
-        logger.info( "Uploading zip file to the target repository." );
+    /**
+     * Open several connections to the same repository.
+     */
+    private WagonPool connect( Repository repository, int connections )
+        throws WagonException
+    {
+        AuthenticationInfo auth = wagonManager.getAuthenticationInfo( repository.getId() );
 
-        targetWagon.put( archive, fileName );
+        List<Wagon> wagons = new ArrayList<Wagon>();
+        try
+        {
+            for ( int i = Math.max( 1, connections ); i > 0; i-- )
+            {
+                Wagon wagon = wagonManager.getWagon( repository );
 
-        logger.info( "Unpacking zip file on the target machine." );
+                wagon.connect( repository, auth );
 
-        String targetRepoBaseDirectory = targetRepository.getBasedir();
+                wagons.add( wagon );
+            }
+        }
+        catch ( WagonException e )
+        {
+            if ( !wagons.isEmpty() )
+            {
+                new WagonPool( wagons ).disconnect();
+            }
+            throw e;
+        }
+        return new WagonPool( wagons );
+    }
 
-        // We use the super quiet option here as all the noise seems to kill/stall the connection
+    /**
+     * Fetch the metadata of the target repository matching the downloaded ones and merge them, one connection
+     * per metadata file.
+     */
+    private void mergeMetadata( final WagonPool targetPool, final File basedir, List<String> files )
+        throws WagonException, IOException
+    {
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
 
-        String command = "unzip -o -qq -d " + targetRepoBaseDirectory + " " + targetRepoBaseDirectory + "/" + fileName;
+        for ( String file : files )
+        {
+            if ( !file.endsWith( MAVEN_METADATA ) )
+            {
+                continue;
+            }
 
-        ( (CommandExecutor) targetWagon ).executeCommand( command );
+            final String s = file.startsWith( "/" ) ? file.substring( 1 ) : file;
 
-        logger.info( "Deleting zip file from the target repository." );
+            tasks.add( new Callable<Object>()
+            {
+                public Object call()
+                    throws Exception
+                {
+                    File emf = new File( basedir, s + IN_PROCESS_MARKER );
+
+                    Wagon targetWagon = targetPool.take();
+                    try
+                    {
+                        targetWagon.get( s, emf );
+                    }
+                    catch ( ResourceDoesNotExistException e )
+                    {
+                        // We don't have an equivalent on the targetRepositoryUrl side because we have something
+                        // new on the sourceRepositoryUrl side so just skip the metadata merging.
+
+                        return null;
+                    }
+                    finally
+                    {
+                        targetPool.release( targetWagon );
+                    }
+
+                    try
+                    {
+                        mergeMetadata( emf );
+                    }
+                    catch ( XmlPullParserException e )
+                    {
+                        throw new IOException( "Metadata file is corrupt " + s + " Reason: " + e.getMessage() );
+                    }
+                    return null;
+                }
+            } );
+        }
 
-        command = "rm -f " + targetRepoBaseDirectory + "/" + fileName;
+        invokeAll( targetPool.size(), tasks );
+    }
 
-        ( (CommandExecutor) targetWagon ).executeCommand( command );
+    /**
+     * Fetch the metadata of the target repository matching the staged ones, merge them in memory and add the
+     * result to the archive. Staged metadata without an equivalent in the target repository is added as is.
+     */
+    void mergeMetadata( final WagonPool targetPool, Map<String, Map<String, byte[]>> stagedMetadata,
+                                final int spillThreshold, final File tempdir, final StagingArchive archive )
+        throws WagonException, IOException
+    {
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
 
-        logger.info( "Running rename script on the target machine." );
+        for ( final Map.Entry<String, Map<String, byte[]>> entry : stagedMetadata.entrySet() )
+        {
+            final String file = entry.getKey();
 
-        command = "cd " + targetRepoBaseDirectory + "; sh " + renameScriptName;
+            final String s = file.startsWith( "/" ) ? file.substring( 1 ) : file;
 
-        ( (CommandExecutor) targetWagon ).executeCommand( command );
+            tasks.add( new Callable<Object>()
+            {
+                public Object call()
+                    throws Exception
+                {
+                    Map<String, byte[]> staged = entry.getValue();
+
+                    byte[] merged;
+
+                    SpillBuffer existing = new SpillBuffer( spillThreshold, tempdir );
+                    try
+                    {
+                        Wagon targetWagon = targetPool.take();
+                        try
+                        {
+                            RepositoryDownloader.fetch( targetWagon, s, existing );
+                        }
+                        catch ( ResourceDoesNotExistException e )
+                        {
+                            // We don't have an equivalent on the targetRepositoryUrl side because we have something
+                            // new on the sourceRepositoryUrl side so just skip the metadata merging.
+
+                            for ( Map.Entry<String, byte[]> file : staged.entrySet() )
+                            {
+                                archive.add( file.getKey(), file.getValue() );
+                            }
+                            return null;
+                        }
+                        finally
+                        {
+                            targetPool.release( targetWagon );
+                        }
+
+                        merged = mergeMetadata( existing.toByteArray(), staged.get( entry.getKey() ) );
+                    }
+                    catch ( XmlPullParserException e )
+                    {
+                        throw new IOException( "Metadata file is corrupt " + s + " Reason: " + e.getMessage() );
+                    }
+                    finally
+                    {
+                        // the existing metadata may have been spilled to disk, it is only deleted once merged
+                        existing.delete();
+                    }
+
+                    // Mark all metadata as in-process and regenerate the checksums as they will be different
+                    // after the merger
+
+                    archive.add( s + IN_PROCESS_MARKER, merged );
+                    archive.add( s + ".md5" + IN_PROCESS_MARKER, checksum( merged, MD5 ).getBytes( "US-ASCII" ) );
+                    archive.add( s + ".sha1" + IN_PROCESS_MARKER, checksum( merged, SHA1 ).getBytes( "US-ASCII" ) );
+                    return null;
+                }
+            } );
+        }
 
-        logger.info( "Deleting rename script from the target repository." );
+        invokeAll( targetPool.size(), tasks );
+    }
 
-        command = "rm -f " + targetRepoBaseDirectory + "/" + renameScriptName;
+    private void invokeAll( int threads, List<Callable<Object>> tasks )
+        throws WagonException, IOException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<Object>> futures = new ArrayList<Future<Object>>();
 
-        ( (CommandExecutor) targetWagon ).executeCommand( command );
+            for ( Callable<Object> task : tasks )
+            {
+                futures.add( executor.submit( task ) );
+            }
 
-        targetWagon.disconnect();
+            for ( Future<Object> future : futures )
+            {
+                future.get();
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while merging metadata" );
+        }
+        catch ( ExecutionException e )
+        {
+            throw RepositoryDownloader.unwrap( e );
+        }
+        finally
+        {
+            RepositoryDownloader.shutdown( executor );
+        }
     }
 
-    private void scanDirectory( File basedir, File dir, ZipOutputStream zos, String version, Set moveCommands )
+    private void scanDirectory( File basedir, File dir, StagingArchive archive, String version )
         throws IOException
     {
         if ( dir == null )
@@ -292,6 +514,9 @@ public class DefaultRepositoryCopier
         {
             File f = files[i];
 
+            String s = f.getAbsolutePath().substring( basedir.getAbsolutePath().length() + 1 );
+            s = StringUtils.replace( s, "\\", "/" );
+
             if ( f.isDirectory() )
             {
                 if ( f.getName().equals( ".svn" ) )
@@ -301,44 +526,22 @@ public class DefaultRepositoryCopier
 
                 if ( f.getName().endsWith( version ) )
                 {
-                    String s = f.getAbsolutePath().substring( basedir.getAbsolutePath().length() + 1 );
-                    s = StringUtils.replace( s, "\\", "/" );
-
-                    moveCommands.add( "mv " + s + IN_PROCESS_MARKER + " " + s );
+                    archive.addMoveCommand( s );
                 }
 
-                scanDirectory( basedir, f, zos, version, moveCommands );
+                scanDirectory( basedir, f, archive, version );
             }
             else
             {
                 InputStream is = new FileInputStream( f );
 
-                String s = f.getAbsolutePath().substring( basedir.getAbsolutePath().length() + 1 );                
-                s = StringUtils.replace( s, "\\", "/" );
-
-                // We are marking any version directories with the in-process flag so that
-                // anything being unpacked on the target side will not be recogized by Maven
-                // and so users cannot download partially uploaded files.
-
-                String vtag = "/" + version;
-
-                s = StringUtils.replace( s, vtag + "/", vtag + IN_PROCESS_MARKER + "/" );
-
-                ZipEntry e = new ZipEntry( s );
-
-                zos.putNextEntry( e );
-
-                IOUtil.copy( is, zos );
-
-                IOUtil.close( is );
-
-                int idx = s.indexOf( IN_PROCESS_MARKER );
-
-                if ( idx > 0 )
+                try
                 {
-                    String d = s.substring( 0, idx );
-
-                    moveCommands.add( "mv " + d + IN_PROCESS_MARKER + " " + d );
+                    archive.add( s, is );
+                }
+                finally
+                {
+                    IOUtil.close( is );
                 }
             }
         }
@@ -347,85 +550,105 @@ public class DefaultRepositoryCopier
     private void mergeMetadata( File existingMetadata )
         throws IOException, XmlPullParserException
     {
-        // Existing Metadata in target stage
+        // Staged Metadata
 
-        Reader existingMetadataReader = new FileReader( existingMetadata );
+        File stagedMetadataFile = new File( existingMetadata.getParentFile(), MAVEN_METADATA );
 
-        Metadata existing = reader.read( existingMetadataReader );
+        byte[] merged = mergeMetadata( read( existingMetadata ), read( stagedMetadataFile ) );
 
-        // Staged Metadata
+        OutputStream os = new FileOutputStream( existingMetadata );
 
-        File stagedMetadataFile = new File( existingMetadata.getParentFile(), MAVEN_METADATA );
+        try
+        {
+            os.write( merged );
+        }
+        finally
+        {
+            IOUtil.close( os );
+        }
 
-        Reader stagedMetadataReader = new FileReader( stagedMetadataFile );
+        // Mark all metadata as in-process and regenerate the checksums as they will be different
+        // after the merger
 
-        Metadata staged = reader.read( stagedMetadataReader );
+        File newMd5 = new File( existingMetadata.getParentFile(), MAVEN_METADATA + ".md5" + IN_PROCESS_MARKER );
 
-        // Merge
+        FileUtils.fileWrite( newMd5.getAbsolutePath(), checksum( merged, MD5 ) );
 
-        existing.merge( staged );
+        File oldMd5 = new File( existingMetadata.getParentFile(), MAVEN_METADATA + ".md5" );
 
-        Writer writer = new FileWriter( existingMetadata );
+        oldMd5.delete();
 
-        this.writer.write( writer, existing );
+        File newSha1 = new File( existingMetadata.getParentFile(), MAVEN_METADATA + ".sha1" + IN_PROCESS_MARKER );
 
-        IOUtil.close( writer );
+        FileUtils.fileWrite( newSha1.getAbsolutePath(), checksum( merged, SHA1 ) );
 
-        IOUtil.close( stagedMetadataReader );
+        File oldSha1 = new File( existingMetadata.getParentFile(), MAVEN_METADATA + ".sha1" );
 
-        IOUtil.close( existingMetadataReader );
+        oldSha1.delete();
 
-        // Mark all metadata as in-process and regenerate the checksums as they will be different
-        // after the merger
+        // We have the new merged copy so we're good
 
-        try
-        {
-            File newMd5 = new File( existingMetadata.getParentFile(), MAVEN_METADATA + ".md5" + IN_PROCESS_MARKER );
+        stagedMetadataFile.delete();
+    }
 
-            FileUtils.fileWrite( newMd5.getAbsolutePath(), checksum( existingMetadata, MD5 ) );
+    /**
+     * Merge the staged metadata into the existing metadata of the target repository.
+     */
+    private byte[] mergeMetadata( byte[] existingMetadata, byte[] stagedMetadata )
+        throws IOException, XmlPullParserException
+    {
+        // Readers and writers are not shared, metadata files are merged concurrently
 
-            File oldMd5 = new File( existingMetadata.getParentFile(), MAVEN_METADATA + ".md5" );
+        MetadataXpp3Reader reader = new MetadataXpp3Reader();
 
-            oldMd5.delete();
+        // Existing Metadata in target stage
 
-            File newSha1 = new File( existingMetadata.getParentFile(), MAVEN_METADATA + ".sha1" + IN_PROCESS_MARKER );
+        Metadata existing = reader.read( ReaderFactory.newXmlReader( new ByteArrayInputStream( existingMetadata ) ) );
 
-            FileUtils.fileWrite( newSha1.getAbsolutePath(), checksum( existingMetadata, SHA1 ) );
+        // Staged Metadata
 
-            File oldSha1 = new File( existingMetadata.getParentFile(), MAVEN_METADATA + ".sha1" );
+        Metadata staged = reader.read( ReaderFactory.newXmlReader( new ByteArrayInputStream( stagedMetadata ) ) );
 
-            oldSha1.delete();
-        }
-        catch ( NoSuchAlgorithmException e )
-        {
-            throw new RuntimeException( e );
-        }
+        // Merge
 
-        // We have the new merged copy so we're good
+        existing.merge( staged );
 
-        stagedMetadataFile.delete();
-    }
+        ByteArrayOutputStream merged = new ByteArrayOutputStream();
 
-    private String checksum( File file,
-                             String type )
-        throws IOException, NoSuchAlgorithmException
-    {
-        MessageDigest md5 = MessageDigest.getInstance( type );
+        Writer writer = WriterFactory.newXmlWriter( merged );
 
-        InputStream is = new FileInputStream( file );
+        new MetadataXpp3Writer().write( writer, existing );
 
-        byte[] buf = new byte[8192];
+        IOUtil.close( writer );
 
-        int i;
+        return merged.toByteArray();
+    }
+
+    private static byte[] read( File file )
+        throws IOException
+    {
+        InputStream is = new FileInputStream( file );
 
-        while ( ( i = is.read( buf ) ) > 0 )
+        try
         {
-            md5.update( buf, 0, i );
+            return IOUtil.toByteArray( is );
         }
+        finally
+        {
+            IOUtil.close( is );
+        }
+    }
 
-        IOUtil.close( is );
-
-        return encode( md5.digest() );
+    private String checksum( byte[] data, String type )
+    {
+        try
+        {
+            return encode( MessageDigest.getInstance( type ).digest( data ) );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new RuntimeException( e );
+        }
     }
 
     protected String encode( byte[] binaryData )
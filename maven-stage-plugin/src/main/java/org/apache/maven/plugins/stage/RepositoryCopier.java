@@ -39,6 +39,32 @@ public interface RepositoryCopier
 
     String MAVEN_METADATA = "maven-metadata.xml";
 
+    /**
+     * The size in bytes above which a downloaded file is written to a temporary file instead of being kept in memory.
+     */
+    int DEFAULT_SPILL_THRESHOLD = 1024 * 1024;
+
     void copy( Repository sourceRepository, Repository targetRepository, String version )
         throws WagonException, IOException;
+
+    /**
+     * Copy the source repository to the target repository.
+     *
+     * @param sourceRepository the repository to copy from.
+     * @param targetRepository the repository to copy to.
+     * @param version the version, used to name temporary files.
+     * @param connections the number of connections to open to each repository.
+     * @param resume whether to keep the files verified by a previous, interrupted copy instead of downloading
+     *            them again. The files are then downloaded to a work directory, otherwise they are streamed into the
+     *            zip file uploaded to the target repository and an interrupted copy can not be resumed.
+     * @param checksumPolicy what to do when a downloaded file does not match its checksum: <code>fail</code>,
+     *            <code>warn</code> or <code>ignore</code>.
+     * @param spillThreshold the size in bytes above which a file streamed to the zip file is buffered in a
+     *            temporary file instead of memory.
+     * @throws WagonException if a transfer failed.
+     * @throws IOException if a local file could not be written.
+     */
+    void copy( Repository sourceRepository, Repository targetRepository, String version, int connections,
+               boolean resume, String checksumPolicy, int spillThreshold )
+        throws WagonException, IOException;
 }
@@ -0,0 +1,764 @@
+package org.apache.maven.plugins.stage;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.wagon.ResourceDoesNotExistException;
+import org.apache.maven.wagon.StreamingWagon;
+import org.apache.maven.wagon.Wagon;
+import org.apache.maven.wagon.WagonException;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PrintWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans and downloads the content of a source repository using several connections at the same time.
+ * <p>
+ * Each downloaded file is checked against its <code>.md5</code> and <code>.sha1</code> files as soon as they are
+ * all present, and the verified paths are appended to a journal so that an interrupted copy can be resumed
+ * without downloading them again. Metadata files are never journaled: they are merged in place afterwards and
+ * always have to be fetched again.
+ * </p>
+ *
+ * @author Apache Maven team
+ */
+class RepositoryDownloader
+{
+    private static final String[] CHECKSUMS = { RepositoryCopier.MD5, RepositoryCopier.SHA1 };
+
+    private final WagonPool pool;
+
+    private final Logger logger;
+
+    private final String checksumPolicy;
+
+    /**
+     * @param pool the connections to the source repository.
+     * @param checksumPolicy what to do when a file does not match its checksum, one of the
+     *            <code>CHECKSUM_POLICY_*</code> constants of {@link ArtifactRepositoryPolicy}.
+     * @param logger the logger.
+     */
+    RepositoryDownloader( WagonPool pool, String checksumPolicy, Logger logger )
+    {
+        this.pool = pool;
+        this.checksumPolicy = checksumPolicy;
+        this.logger = logger;
+    }
+
+    /**
+     * Find all the files of the source repository. Directories are listed in parallel, one per connection.
+     *
+     * @return the paths of the files, starting with a <code>/</code>, sorted.
+     * @throws WagonException if a directory could not be listed.
+     * @throws IOException if the scan was interrupted.
+     */
+    List<String> scan()
+        throws WagonException, IOException
+    {
+        List<String> collected = new ArrayList<String>();
+
+        ExecutorService executor = Executors.newFixedThreadPool( pool.size() );
+        try
+        {
+            CompletionService<List<String>> completion = new ExecutorCompletionService<List<String>>( executor );
+
+            completion.submit( new ListTask( "", collected ) );
+            int pending = 1;
+
+            while ( pending > 0 )
+            {
+                Future<List<String>> future = completion.take();
+                pending--;
+
+                List<String> children = future.get();
+                if ( children == null )
+                {
+                    continue;
+                }
+                for ( String child : children )
+                {
+                    logger.info( "Found file in the source repository: " + child );
+                    completion.submit( new ListTask( child, collected ) );
+                    pending++;
+                }
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while scanning the source repository" );
+        }
+        catch ( ExecutionException e )
+        {
+            throw unwrap( e );
+        }
+        finally
+        {
+            shutdown( executor );
+        }
+
+        Collections.sort( collected );
+        return collected;
+    }
+
+    /**
+     * Download the given files, verifying their checksums when the repository provides them.
+     *
+     * @param paths the files to download, as returned by {@link #scan()}.
+     * @param basedir the local directory to download to.
+     * @param journal the file recording the verified downloads, appended to.
+     * @param resume whether to skip the files already recorded in the journal.
+     * @throws WagonException if a file could not be downloaded.
+     * @throws IOException if a file could not be written or does not match its checksum.
+     */
+    void download( List<String> paths, final File basedir, File journal, boolean resume )
+        throws WagonException, IOException
+    {
+        Set<String> done = resume ? readJournal( journal ) : new HashSet<String>();
+
+        Map<String, List<String>> groups = group( paths );
+
+        int skipped = 0;
+        for ( Iterator<List<String>> it = groups.values().iterator(); it.hasNext(); )
+        {
+            List<String> group = it.next();
+            if ( isComplete( group, done, basedir ) )
+            {
+                it.remove();
+                skipped++;
+            }
+        }
+        if ( skipped > 0 )
+        {
+            logger.info( "Resuming: " + skipped + " file(s) already downloaded and verified." );
+        }
+
+        final PrintWriter journalWriter = new PrintWriter( new FileWriter( journal, resume ) );
+
+        ExecutorService executor = Executors.newFixedThreadPool( pool.size() );
+        try
+        {
+            List<Future<Object>> futures = new ArrayList<Future<Object>>();
+            for ( final List<String> group : groups.values() )
+            {
+                futures.add( executor.submit( new Callable<Object>()
+                {
+                    public Object call()
+                        throws Exception
+                    {
+                        downloadAndVerify( group, basedir );
+
+                        if ( !isMetadata( group.get( 0 ) ) )
+                        {
+                            synchronized ( journalWriter )
+                            {
+                                for ( String path : group )
+                                {
+                                    journalWriter.print( path + "\n" );
+                                }
+                                journalWriter.flush();
+                            }
+                        }
+                        return null;
+                    }
+                } ) );
+            }
+
+            for ( Future<Object> future : futures )
+            {
+                future.get();
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while downloading the source repository" );
+        }
+        catch ( ExecutionException e )
+        {
+            throw unwrap( e );
+        }
+        finally
+        {
+            shutdown( executor );
+            IOUtil.close( journalWriter );
+        }
+    }
+
+    /**
+     * Download the given files without writing them to the local repository: each one is kept in memory up to
+     * the threshold, verified with the checksums calculated while it was received, and handed to the consumer.
+     *
+     * @param paths the files to download, as returned by {@link #scan()}.
+     * @param threshold the size above which a file is spilled to a temporary file.
+     * @param directory the directory of the temporary files.
+     * @param consumer receives every file with its checksum files, from several threads.
+     * @throws WagonException if a file could not be downloaded.
+     * @throws IOException if a file could not be consumed or does not match its checksum.
+     */
+    void stream( List<String> paths, final int threshold, final File directory, final Consumer consumer )
+        throws WagonException, IOException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool( pool.size() );
+        try
+        {
+            List<Future<Object>> futures = new ArrayList<Future<Object>>();
+            for ( final List<String> group : group( paths ).values() )
+            {
+                futures.add( executor.submit( new Callable<Object>()
+                {
+                    public Object call()
+                        throws Exception
+                    {
+                        List<SpillBuffer> contents = streamAndVerify( group, threshold, directory );
+                        try
+                        {
+                            consumer.downloaded( group, contents );
+                        }
+                        finally
+                        {
+                            for ( SpillBuffer content : contents )
+                            {
+                                content.delete();
+                            }
+                        }
+                        return null;
+                    }
+                } ) );
+            }
+
+            for ( Future<Object> future : futures )
+            {
+                future.get();
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while downloading the source repository" );
+        }
+        catch ( ExecutionException e )
+        {
+            throw unwrap( e );
+        }
+        finally
+        {
+            shutdown( executor );
+        }
+    }
+
+    /**
+     * Group every file with its checksum files, so that it can be verified as soon as it is downloaded.
+     */
+    private static Map<String, List<String>> group( List<String> paths )
+    {
+        Set<String> available = new HashSet<String>( paths );
+        Map<String, List<String>> groups = new LinkedHashMap<String, List<String>>();
+        for ( String path : paths )
+        {
+            if ( path.indexOf( ".svn" ) >= 0 || isChecksum( path ) && available.contains( stripChecksum( path ) ) )
+            {
+                continue;
+            }
+            List<String> group = new ArrayList<String>();
+            group.add( path );
+            for ( String type : CHECKSUMS )
+            {
+                if ( available.contains( path + "." + type ) )
+                {
+                    group.add( path + "." + type );
+                }
+            }
+            groups.put( path, group );
+        }
+        return groups;
+    }
+
+    private List<SpillBuffer> streamAndVerify( List<String> group, int threshold, File directory )
+        throws WagonException, IOException
+    {
+        List<SpillBuffer> contents = new ArrayList<SpillBuffer>();
+
+        Wagon wagon = pool.take();
+        try
+        {
+            for ( String s : group )
+            {
+                logger.info( "Downloading file from the source repository: " + s );
+
+                SpillBuffer content = new SpillBuffer( threshold, directory );
+                contents.add( content );
+                fetch( wagon, s, content );
+            }
+
+            if ( ArtifactRepositoryPolicy.CHECKSUM_POLICY_IGNORE.equals( checksumPolicy ) )
+            {
+                return contents;
+            }
+
+            String mismatch = verify( group, contents );
+            if ( mismatch != null )
+            {
+                // give the transfer a second chance before reporting it
+                logger.debug( mismatch + ", downloading it again." );
+
+                contents.get( 0 ).delete();
+                SpillBuffer content = new SpillBuffer( threshold, directory );
+                contents.set( 0, content );
+                fetch( wagon, group.get( 0 ), content );
+
+                mismatch = verify( group, contents );
+            }
+            if ( mismatch != null )
+            {
+                if ( ArtifactRepositoryPolicy.CHECKSUM_POLICY_FAIL.equals( checksumPolicy ) )
+                {
+                    throw new IOException( mismatch );
+                }
+                logger.warn( mismatch );
+            }
+            return contents;
+        }
+        catch ( WagonException e )
+        {
+            delete( contents );
+            throw e;
+        }
+        catch ( IOException e )
+        {
+            delete( contents );
+            throw e;
+        }
+        finally
+        {
+            pool.release( wagon );
+        }
+    }
+
+    private static void delete( List<SpillBuffer> contents )
+    {
+        for ( SpillBuffer content : contents )
+        {
+            content.delete();
+        }
+    }
+
+    /**
+     * @return a description of the first checksum that does not match, <code>null</code> if all match.
+     */
+    private static String verify( List<String> group, List<SpillBuffer> contents )
+        throws IOException
+    {
+        for ( int i = 1; i < group.size(); i++ )
+        {
+            String s = group.get( i );
+            String type = s.substring( s.lastIndexOf( '.' ) + 1 );
+
+            String mismatch = compare( group.get( 0 ), type, new String( contents.get( i ).toByteArray(), "US-ASCII" ),
+                                       contents.get( 0 ).getChecksum( type ) );
+            if ( mismatch != null )
+            {
+                return mismatch;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Download a file to a stream, through a temporary file if the wagon cannot stream.
+     *
+     * @param wagon the connected wagon.
+     * @param path the path of the file.
+     * @param content the buffer to fill, closed afterwards.
+     * @throws WagonException if the file could not be downloaded.
+     * @throws IOException if the file could not be written to the buffer.
+     */
+    static void fetch( Wagon wagon, String path, SpillBuffer content )
+        throws WagonException, IOException
+    {
+        try
+        {
+            if ( wagon instanceof StreamingWagon )
+            {
+                ( (StreamingWagon) wagon ).getToStream( path, content );
+            }
+            else
+            {
+                File temp = File.createTempFile( "staging-plugin-", ".tmp" );
+                try
+                {
+                    wagon.get( path, temp );
+
+                    InputStream is = new FileInputStream( temp );
+                    try
+                    {
+                        IOUtil.copy( is, content );
+                    }
+                    finally
+                    {
+                        IOUtil.close( is );
+                    }
+                }
+                finally
+                {
+                    temp.delete();
+                }
+            }
+        }
+        finally
+        {
+            content.close();
+        }
+    }
+
+    private void downloadAndVerify( List<String> group, File basedir )
+        throws WagonException, IOException
+    {
+        String path = group.get( 0 );
+
+        File f = new File( basedir, path );
+
+        FileUtils.mkdir( f.getParentFile().getAbsolutePath() );
+
+        Wagon wagon = pool.take();
+        try
+        {
+            for ( String s : group )
+            {
+                logger.info( "Downloading file from the source repository: " + s );
+
+                wagon.get( s, new File( basedir, s ) );
+            }
+
+            if ( ArtifactRepositoryPolicy.CHECKSUM_POLICY_IGNORE.equals( checksumPolicy ) )
+            {
+                return;
+            }
+
+            String mismatch = verify( group, basedir );
+            if ( mismatch != null )
+            {
+                // give the transfer a second chance before reporting it
+                logger.debug( mismatch + ", downloading it again." );
+
+                wagon.get( path, f );
+
+                mismatch = verify( group, basedir );
+            }
+            if ( mismatch != null )
+            {
+                if ( ArtifactRepositoryPolicy.CHECKSUM_POLICY_FAIL.equals( checksumPolicy ) )
+                {
+                    throw new IOException( mismatch );
+                }
+                logger.warn( mismatch );
+            }
+        }
+        finally
+        {
+            pool.release( wagon );
+        }
+    }
+
+    /**
+     * @return a description of the first checksum that does not match, <code>null</code> if all match.
+     */
+    private String verify( List<String> group, File basedir )
+        throws IOException
+    {
+        File f = new File( basedir, group.get( 0 ) );
+
+        for ( String s : group.subList( 1, group.size() ) )
+        {
+            String type = s.substring( s.lastIndexOf( '.' ) + 1 );
+
+            String actual;
+            try
+            {
+                actual = checksum( f, type );
+            }
+            catch ( NoSuchAlgorithmException e )
+            {
+                throw new RuntimeException( e );
+            }
+
+            String mismatch = compare( group.get( 0 ), type, FileUtils.fileRead( new File( basedir, s ) ), actual );
+            if ( mismatch != null )
+            {
+                return mismatch;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return a description of the mismatch, <code>null</code> if the checksums match.
+     */
+    private static String compare( String path, String type, String checksumFile, String actual )
+    {
+        String expected = checksumFile.trim();
+        int space = expected.indexOf( ' ' );
+        if ( space > 0 )
+        {
+            // "<checksum>  <file name>" format
+            expected = expected.substring( 0, space );
+        }
+
+        if ( !actual.equalsIgnoreCase( expected ) )
+        {
+            return "Checksum mismatch for " + path + ": expected " + type + " " + expected + " but was " + actual;
+        }
+        return null;
+    }
+
+    private static boolean isComplete( List<String> group, Set<String> done, File basedir )
+    {
+        for ( String s : group )
+        {
+            if ( !done.contains( s ) || !new File( basedir, s ).isFile() )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> readJournal( File journal )
+        throws IOException
+    {
+        Set<String> done = new HashSet<String>();
+        if ( journal.isFile() )
+        {
+            BufferedReader reader = new BufferedReader( new FileReader( journal ) );
+            try
+            {
+                for ( String line = reader.readLine(); line != null; line = reader.readLine() )
+                {
+                    if ( line.length() > 0 )
+                    {
+                        done.add( line );
+                    }
+                }
+            }
+            finally
+            {
+                IOUtil.close( reader );
+            }
+        }
+        return done;
+    }
+
+    private static boolean isChecksum( String path )
+    {
+        for ( String type : CHECKSUMS )
+        {
+            if ( path.endsWith( "." + type ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripChecksum( String path )
+    {
+        return path.substring( 0, path.lastIndexOf( '.' ) );
+    }
+
+    private static boolean isMetadata( String path )
+    {
+        return path.endsWith( RepositoryCopier.MAVEN_METADATA );
+    }
+
+    static String checksum( File file, String type )
+        throws IOException, NoSuchAlgorithmException
+    {
+        MessageDigest digest = MessageDigest.getInstance( type );
+
+        InputStream is = new FileInputStream( file );
+        try
+        {
+            byte[] buf = new byte[8192];
+
+            int i;
+
+            while ( ( i = is.read( buf ) ) > 0 )
+            {
+                digest.update( buf, 0, i );
+            }
+        }
+        finally
+        {
+            IOUtil.close( is );
+        }
+
+        return SpillBuffer.encode( digest.digest() );
+    }
+
+    /**
+     * Stop the remaining tasks and wait for the running ones, so that no connection is still in use afterwards.
+     *
+     * @param executor the executor running the tasks.
+     */
+    static void shutdown( ExecutorService executor )
+    {
+        executor.shutdownNow();
+        try
+        {
+            executor.awaitTermination( 1, TimeUnit.MINUTES );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Rethrow the cause of a failed task.
+     *
+     * @param e the failure of a task.
+     * @return never returns, declared so that callers can write <code>throw unwrap( e )</code>.
+     */
+    static IOException unwrap( ExecutionException e )
+        throws WagonException, IOException
+    {
+        Throwable cause = e.getCause();
+        if ( cause instanceof WagonException )
+        {
+            throw (WagonException) cause;
+        }
+        if ( cause instanceof IOException )
+        {
+            throw (IOException) cause;
+        }
+        if ( cause instanceof RuntimeException )
+        {
+            throw (RuntimeException) cause;
+        }
+        if ( cause instanceof Error )
+        {
+            throw (Error) cause;
+        }
+        IOException ioe = new IOException( String.valueOf( cause ) );
+        ioe.initCause( cause );
+        throw ioe;
+    }
+
+    /**
+     * Receives the files downloaded by {@link RepositoryDownloader#stream(List, int, File, Consumer)}.
+     */
+    interface Consumer
+    {
+        /**
+         * @param group the path of a file followed by the paths of its checksum files.
+         * @param contents the content of each path, deleted once this method returns.
+         * @throws IOException if the files could not be consumed.
+         */
+        void downloaded( List<String> group, List<SpillBuffer> contents )
+            throws IOException;
+    }
+
+    /**
+     * Lists one path: returns its children, or records it as a file when it has none.
+     */
+    private class ListTask
+        implements Callable<List<String>>
+    {
+        private final String basePath;
+
+        private final List<String> files;
+
+        ListTask( String basePath, List<String> files )
+        {
+            this.basePath = basePath;
+            this.files = files;
+        }
+
+        public List<String> call()
+            throws Exception
+        {
+            List<String> list;
+
+            Wagon wagon = pool.take();
+            try
+            {
+                list = wagon.getFileList( basePath );
+            }
+            catch ( ResourceDoesNotExistException e )
+            {
+                // is thrown when calling getFileList on a file
+                list = Collections.emptyList();
+            }
+            finally
+            {
+                pool.release( wagon );
+            }
+
+            if ( list.isEmpty() )
+            {
+                synchronized ( files )
+                {
+                    files.add( basePath );
+                }
+                return null;
+            }
+
+            List<String> children = new ArrayList<String>( list.size() );
+            for ( String file : list )
+            {
+                // some wagons list directories with a trailing slash
+                if ( file.endsWith( "/" ) )
+                {
+                    file = file.substring( 0, file.length() - 1 );
+                }
+                children.add( basePath + "/" + file );
+            }
+            return children;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.apache.maven.plugins.stage;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The content of a downloaded file, kept in memory up to a threshold and spilled to a temporary file above it.
+ * The MD5 and SHA-1 checksums are calculated while the content is written, so it never has to be read again to
+ * be verified.
+ *
+ * @author Apache Maven team
+ */
+class SpillBuffer
+    extends OutputStream
+{
+    private final DeferredFileOutputStream out;
+
+    private final MessageDigest md5;
+
+    private final MessageDigest sha1;
+
+    private String md5Checksum;
+
+    private String sha1Checksum;
+
+    private boolean closed;
+
+    /**
+     * @param threshold the number of bytes kept in memory before spilling to disk.
+     * @param directory the directory of the temporary file.
+     */
+    SpillBuffer( int threshold, File directory )
+    {
+        out = new DeferredFileOutputStream( Math.max( 0, threshold ), "staging-plugin-", ".tmp", directory );
+        try
+        {
+            md5 = MessageDigest.getInstance( RepositoryCopier.MD5 );
+            sha1 = MessageDigest.getInstance( RepositoryCopier.SHA1 );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    public void write( int b )
+        throws IOException
+    {
+        md5.update( (byte) b );
+        sha1.update( (byte) b );
+        out.write( b );
+    }
+
+    public void write( byte[] b, int off, int len )
+        throws IOException
+    {
+        md5.update( b, off, len );
+        sha1.update( b, off, len );
+        out.write( b, off, len );
+    }
+
+    public void close()
+        throws IOException
+    {
+        if ( !closed )
+        {
+            closed = true;
+            out.close();
+            md5Checksum = encode( md5.digest() );
+            sha1Checksum = encode( sha1.digest() );
+        }
+    }
+
+    /**
+     * @param type {@link RepositoryCopier#MD5} or {@link RepositoryCopier#SHA1}.
+     * @return the checksum of the content, the buffer must have been closed.
+     */
+    String getChecksum( String type )
+    {
+        return RepositoryCopier.MD5.equals( type ) ? md5Checksum : sha1Checksum;
+    }
+
+    /**
+     * @return whether the content is still held in memory.
+     */
+    boolean isInMemory()
+    {
+        return out.isInMemory();
+    }
+
+    /**
+     * @return the content, read back from disk if it was spilled.
+     * @throws IOException if the spilled content could not be read.
+     */
+    byte[] toByteArray()
+        throws IOException
+    {
+        close();
+        return out.isInMemory() ? out.getData() : FileUtils.readFileToByteArray( out.getFile() );
+    }
+
+    /**
+     * Write the content to another stream.
+     *
+     * @param os the stream to write to, not closed.
+     * @throws IOException if the content could not be written.
+     */
+    void writeTo( OutputStream os )
+        throws IOException
+    {
+        close();
+        out.writeTo( os );
+    }
+
+    /**
+     * Delete the temporary file, if any.
+     */
+    void delete()
+    {
+        if ( !out.isInMemory() && out.getFile() != null )
+        {
+            out.getFile().delete();
+        }
+    }
+
+    static String encode( byte[] binary )
+    {
+        StringBuilder hex = new StringBuilder( binary.length * 2 );
+        for ( byte b : binary )
+        {
+            hex.append( Character.forDigit( ( b >> 4 ) & 0x0F, 16 ) );
+            hex.append( Character.forDigit( b & 0x0F, 16 ) );
+        }
+        return hex.toString();
+    }
+}
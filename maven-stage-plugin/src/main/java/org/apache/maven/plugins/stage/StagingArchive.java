@@ -0,0 +1,187 @@
+package org.apache.maven.plugins.stage;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.StringUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * The zip file uploaded to the target repository, along with the rename script unpacked with it.
+ * <p>
+ * Version directories are renamed with the {@link RepositoryCopier#IN_PROCESS_MARKER} so that users cannot download
+ * partially unpacked files, and the rename script moves them in place once everything is unpacked. Entries can be
+ * added from several threads.
+ * </p>
+ *
+ * @author Apache Maven team
+ */
+class StagingArchive
+{
+    private final String version;
+
+    private final ZipOutputStream zos;
+
+    private final Set<String> moveCommands = new TreeSet<String>();
+
+    /**
+     * @param archive the zip file to create.
+     * @param version the version whose directories are marked as in process.
+     * @throws IOException if the zip file could not be created.
+     */
+    StagingArchive( File archive, String version )
+        throws IOException
+    {
+        this.version = version;
+        this.zos = new ZipOutputStream( new FileOutputStream( archive ) );
+    }
+
+    /**
+     * Add a file read from a stream.
+     *
+     * @param path the path of the file in the repository.
+     * @param is the content, not closed.
+     * @throws IOException if the entry could not be written.
+     */
+    synchronized void add( String path, InputStream is )
+        throws IOException
+    {
+        putNextEntry( path );
+
+        IOUtil.copy( is, zos );
+    }
+
+    /**
+     * Add a downloaded file.
+     *
+     * @param path the path of the file in the repository.
+     * @param content the content.
+     * @throws IOException if the entry could not be written.
+     */
+    synchronized void add( String path, SpillBuffer content )
+        throws IOException
+    {
+        putNextEntry( path );
+
+        content.writeTo( zos );
+    }
+
+    /**
+     * Add a file held in memory.
+     *
+     * @param path the path of the file in the repository.
+     * @param content the content.
+     * @throws IOException if the entry could not be written.
+     */
+    synchronized void add( String path, byte[] content )
+        throws IOException
+    {
+        putNextEntry( path );
+
+        zos.write( content );
+    }
+
+    /**
+     * Register a directory to be renamed by the rename script.
+     *
+     * @param path the path of the directory in the repository, without the in-process marker.
+     */
+    synchronized void addMoveCommand( String path )
+    {
+        moveCommands.add( "mv " + path + RepositoryCopier.IN_PROCESS_MARKER + " " + path );
+    }
+
+    /**
+     * Add the rename script and close the zip file.
+     *
+     * @param renameScriptName the name of the rename script in the zip file.
+     * @throws IOException if the zip file could not be written.
+     */
+    synchronized void finish( String renameScriptName )
+        throws IOException
+    {
+        try
+        {
+            StringBuilder script = new StringBuilder();
+            for ( String s : moveCommands )
+            {
+                // We use an explicit unix '\n' line-ending here instead of using the println() method.
+                // Using println() will cause files and folders to have a '\r' at the end if the plugin is run on
+                // Windows.
+                script.append( s ).append( '\n' );
+            }
+
+            zos.putNextEntry( new ZipEntry( renameScriptName ) );
+
+            zos.write( script.toString().getBytes( "UTF-8" ) );
+        }
+        finally
+        {
+            IOUtil.close( zos );
+        }
+    }
+
+    /**
+     * Close the zip file without completing it.
+     */
+    void abort()
+    {
+        IOUtil.close( zos );
+    }
+
+    private void putNextEntry( String path )
+        throws IOException
+    {
+        String s = StringUtils.replace( path, "\\", "/" );
+
+        if ( s.startsWith( "/" ) )
+        {
+            s = s.substring( 1 );
+        }
+
+        // We are marking any version directories with the in-process flag so that
+        // anything being unpacked on the target side will not be recogized by Maven
+        // and so users cannot download partially uploaded files.
+
+        String vtag = "/" + version;
+
+        s = StringUtils.replace( s, vtag + "/", vtag + RepositoryCopier.IN_PROCESS_MARKER + "/" );
+
+        zos.putNextEntry( new ZipEntry( s ) );
+
+        // As with the directory scan this replaces, anything holding the in-process flag is renamed by the script:
+        // the version directories, and also the merged metadata and its checksums which replace the existing ones.
+
+        int idx = s.indexOf( RepositoryCopier.IN_PROCESS_MARKER );
+
+        if ( idx > 0 )
+        {
+            addMoveCommand( s.substring( 0, idx ) );
+        }
+    }
+}
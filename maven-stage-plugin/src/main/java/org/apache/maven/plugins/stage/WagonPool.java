@@ -0,0 +1,119 @@
+package org.apache.maven.plugins.stage;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.wagon.ConnectionException;
+import org.apache.maven.wagon.Wagon;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A fixed set of connected wagons to the same repository. A wagon is not thread safe, so each one is handed out
+ * to a single thread at a time.
+ *
+ * @author Apache Maven team
+ */
+class WagonPool
+{
+    private final List<Wagon> wagons;
+
+    private final BlockingQueue<Wagon> idle;
+
+    /**
+     * @param wagons the connected wagons, at least one.
+     */
+    WagonPool( List<Wagon> wagons )
+    {
+        if ( wagons.isEmpty() )
+        {
+            throw new IllegalArgumentException( "at least one wagon is required" );
+        }
+        this.wagons = new ArrayList<Wagon>( wagons );
+        this.idle = new LinkedBlockingQueue<Wagon>( wagons );
+    }
+
+    /**
+     * @return the number of wagons in this pool.
+     */
+    int size()
+    {
+        return wagons.size();
+    }
+
+    /**
+     * Take a wagon out of the pool, waiting until one is available.
+     *
+     * @return the wagon, to be given back with {@link #release(Wagon)}.
+     * @throws InterruptedIOException if the current thread is interrupted while waiting.
+     */
+    Wagon take()
+        throws InterruptedIOException
+    {
+        try
+        {
+            return idle.take();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while waiting for a connection" );
+        }
+    }
+
+    /**
+     * Give back a wagon obtained with {@link #take()}.
+     *
+     * @param wagon the wagon.
+     */
+    void release( Wagon wagon )
+    {
+        idle.add( wagon );
+    }
+
+    /**
+     * Disconnect all the wagons of this pool.
+     *
+     * @throws ConnectionException if a wagon could not be disconnected.
+     */
+    void disconnect()
+        throws ConnectionException
+    {
+        ConnectionException failure = null;
+        for ( Wagon wagon : wagons )
+        {
+            try
+            {
+                wagon.disconnect();
+            }
+            catch ( ConnectionException e )
+            {
+                failure = e;
+            }
+        }
+        if ( failure != null )
+        {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.apache.maven.plugins.stage;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.wagon.Wagon;
+import org.apache.maven.wagon.providers.file.FileWagon;
+import org.apache.maven.wagon.repository.Repository;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipFile;
+
+/**
+ * Tests the in-memory metadata merge of {@link DefaultRepositoryCopier} against a file repository.
+ */
+public class DefaultRepositoryCopierTest
+    extends TestCase
+{
+    private static final String METADATA = "org/apache/maven/maven-core/" + RepositoryCopier.MAVEN_METADATA;
+
+    private File basedir;
+
+    private File spill;
+
+    private WagonPool targetPool;
+
+    protected void setUp()
+        throws Exception
+    {
+        basedir = new File( System.getProperty( "basedir", "." ) );
+
+        spill = new File( basedir, "target/copier/spill" );
+
+        FileUtils.deleteDirectory( new File( basedir, "target/copier" ) );
+        spill.mkdirs();
+
+        Wagon wagon = new FileWagon();
+        wagon.connect( new Repository( "target",
+                                       new File( basedir, "src/test/target-repository" ).toURI().toString() ) );
+        targetPool = new WagonPool( Collections.singletonList( wagon ) );
+    }
+
+    protected void tearDown()
+        throws Exception
+    {
+        targetPool.disconnect();
+    }
+
+    public void testMergeSpilledMetadata()
+        throws Exception
+    {
+        File source = new File( basedir, "src/test/staging-repository" );
+
+        Map<String, byte[]> staged = new LinkedHashMap<String, byte[]>();
+        for ( String path : new String[] { METADATA, METADATA + ".md5", METADATA + ".sha1" } )
+        {
+            staged.put( path, FileUtils.fileRead( new File( source, path ) ).getBytes( "UTF-8" ) );
+        }
+        Map<String, Map<String, byte[]>> stagedMetadata = new TreeMap<String, Map<String, byte[]>>();
+        stagedMetadata.put( METADATA, staged );
+
+        File zip = new File( basedir, "target/copier/staging.zip" );
+        StagingArchive archive = new StagingArchive( zip, "2.0.6" );
+
+        // the existing metadata of the target repository is spilled to disk before being merged
+        new DefaultRepositoryCopier().mergeMetadata( targetPool, stagedMetadata, 0, spill, archive );
+        archive.finish( "rename.sh" );
+
+        assertEquals( 0, spill.list().length );
+
+        ZipFile zipFile = new ZipFile( zip );
+        try
+        {
+            Metadata metadata = new MetadataXpp3Reader().read(
+                zipFile.getInputStream( zipFile.getEntry( METADATA + RepositoryCopier.IN_PROCESS_MARKER ) ) );
+            assertEquals( "2.0.6", metadata.getVersioning().getRelease() );
+            assertTrue( metadata.getVersioning().getVersions().contains( "2.0.1" ) );
+
+            assertNotNull( zipFile.getEntry( METADATA + ".md5" + RepositoryCopier.IN_PROCESS_MARKER ) );
+            assertNotNull( zipFile.getEntry( METADATA + ".sha1" + RepositoryCopier.IN_PROCESS_MARKER ) );
+
+            // the merged metadata replaces the existing one once everything is unpacked
+            String script = IOUtil.toString( zipFile.getInputStream( zipFile.getEntry( "rename.sh" ) ) );
+            for ( String path : staged.keySet() )
+            {
+                assertTrue( script, script.contains( "mv " + path + RepositoryCopier.IN_PROCESS_MARKER + " " + path
+                    + "\n" ) );
+            }
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package org.apache.maven.plugins.stage;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.wagon.Wagon;
+import org.apache.maven.wagon.providers.file.FileWagon;
+import org.apache.maven.wagon.repository.Repository;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Tests {@link RepositoryDownloader} against a file repository.
+ */
+public class RepositoryDownloaderTest
+    extends TestCase
+{
+    private static final String POM = "/org/apache/maven/reporting/maven-reporting/2.0.6/maven-reporting-2.0.6.pom";
+
+    private File basedir;
+
+    private File source;
+
+    private File target;
+
+    private File journal;
+
+    private WagonPool pool;
+
+    protected void setUp()
+        throws Exception
+    {
+        basedir = new File( System.getProperty( "basedir", "." ) );
+
+        source = new File( basedir, "target/downloader/source" );
+        target = new File( basedir, "target/downloader/target" );
+        journal = new File( basedir, "target/downloader/copy.journal" );
+
+        FileUtils.deleteDirectory( new File( basedir, "target/downloader" ) );
+        FileUtils.copyDirectoryStructure( new File( basedir, "src/test/staging-repository" ), source );
+
+        List<Wagon> wagons = new ArrayList<Wagon>();
+        for ( int i = 0; i < 3; i++ )
+        {
+            Wagon wagon = new FileWagon();
+            wagon.connect( new Repository( "source", source.toURI().toString() ) );
+            wagons.add( wagon );
+        }
+        pool = new WagonPool( wagons );
+    }
+
+    protected void tearDown()
+        throws Exception
+    {
+        pool.disconnect();
+    }
+
+    public void testScanAndDownload()
+        throws Exception
+    {
+        RepositoryDownloader downloader =
+            new RepositoryDownloader( pool, ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN, newLogger() );
+
+        List<String> files = downloader.scan();
+
+        assertTrue( files.contains( POM ) );
+        assertTrue( files.contains( POM + ".md5" ) );
+        assertEquals( FileUtils.getFiles( source, "**", null ).size(), files.size() );
+
+        downloader.download( files, target, journal, false );
+
+        for ( String file : files )
+        {
+            assertTrue( file, new File( target, file ).isFile() );
+        }
+
+        String recorded = FileUtils.fileRead( journal );
+        assertTrue( recorded.contains( POM + "\n" ) );
+        assertFalse( recorded.contains( RepositoryCopier.MAVEN_METADATA ) );
+    }
+
+    public void testChecksumMismatch()
+        throws Exception
+    {
+        FileUtils.fileWrite( new File( source, POM + ".sha1" ).getAbsolutePath(),
+                             "0000000000000000000000000000000000000000" );
+
+        RepositoryDownloader downloader =
+            new RepositoryDownloader( pool, ArtifactRepositoryPolicy.CHECKSUM_POLICY_FAIL, newLogger() );
+
+        List<String> files = new ArrayList<String>();
+        files.add( POM );
+        files.add( POM + ".md5" );
+        files.add( POM + ".sha1" );
+
+        try
+        {
+            downloader.download( files, target, journal, false );
+            fail( "Checksum mismatch not detected" );
+        }
+        catch ( IOException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().startsWith( "Checksum mismatch for " + POM ) );
+        }
+        assertFalse( FileUtils.fileRead( journal ).contains( POM + "\n" ) );
+
+        // the default policy only warns
+        downloader = new RepositoryDownloader( pool, ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN, newLogger() );
+
+        downloader.download( files, target, journal, false );
+
+        assertTrue( FileUtils.fileRead( journal ).contains( POM + "\n" ) );
+    }
+
+    public void testResumeSkipsVerifiedFiles()
+        throws Exception
+    {
+        RepositoryDownloader downloader =
+            new RepositoryDownloader( pool, ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN, newLogger() );
+
+        List<String> files = downloader.scan();
+
+        downloader.download( files, target, journal, false );
+
+        // a file changed in the source after being verified is not downloaded again
+        FileUtils.fileWrite( new File( source, POM ).getAbsolutePath(), "changed" );
+
+        downloader.download( files, target, journal, true );
+
+        assertFalse( "changed".equals( FileUtils.fileRead( new File( target, POM ) ) ) );
+
+        // without resume everything is downloaded again
+        FileUtils.fileWrite( new File( source, POM + ".md5" ).getAbsolutePath(),
+                             RepositoryDownloader.checksum( new File( source, POM ), RepositoryCopier.MD5 ) );
+        FileUtils.fileWrite( new File( source, POM + ".sha1" ).getAbsolutePath(),
+                             RepositoryDownloader.checksum( new File( source, POM ), RepositoryCopier.SHA1 ) );
+
+        downloader.download( files, target, journal, false );
+
+        assertEquals( "changed", FileUtils.fileRead( new File( target, POM ) ) );
+    }
+
+    public void testStreamIntoArchive()
+        throws Exception
+    {
+        RepositoryDownloader downloader =
+            new RepositoryDownloader( pool, ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN, newLogger() );
+
+        List<String> files = downloader.scan();
+
+        File zip = new File( basedir, "target/downloader/staging.zip" );
+        final StagingArchive archive = new StagingArchive( zip, "2.0.6" );
+        final File spill = new File( basedir, "target/downloader/spill" );
+        spill.mkdirs();
+
+        // a tiny threshold makes most files spill to disk
+        downloader.stream( files, 64, spill, new RepositoryDownloader.Consumer()
+        {
+            public void downloaded( List<String> group, List<SpillBuffer> contents )
+                throws IOException
+            {
+                for ( int i = 0; i < group.size(); i++ )
+                {
+                    archive.add( group.get( i ), contents.get( i ) );
+                }
+            }
+        } );
+        archive.finish( "rename.sh" );
+
+        assertEquals( 0, spill.list().length );
+
+        ZipFile zipFile = new ZipFile( zip );
+        try
+        {
+            String pom = POM.substring( 1 ).replace( "/2.0.6/", "/2.0.6" + RepositoryCopier.IN_PROCESS_MARKER + "/" );
+            ZipEntry entry = zipFile.getEntry( pom );
+            assertNotNull( pom, entry );
+            assertEquals( new File( source, POM ).length(), entry.getSize() );
+            assertEquals( files.size() + 1, zipFile.size() );
+
+            String script = IOUtil.toString( zipFile.getInputStream( zipFile.getEntry( "rename.sh" ) ) );
+            assertTrue( script, script.contains( "mv org/apache/maven/reporting/maven-reporting/2.0.6"
+                + RepositoryCopier.IN_PROCESS_MARKER + " org/apache/maven/reporting/maven-reporting/2.0.6\n" ) );
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+
+    private static Logger newLogger()
+    {
+        return new ConsoleLogger( Logger.LEVEL_ERROR, "test" );
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.war.util.ArchiveCompressor;
 import org.apache.maven.plugin.war.util.ClassesPackager;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -155,6 +156,27 @@ public class WarMojo
     @Parameter( defaultValue = "classes" )
     private String classesClassifier = "classes";
 
+    /**
+     * The number of threads compressing the entries of the WAR. With the default of <code>1</code> the archiver
+     * compresses the entries itself. Otherwise the archiver only stores them, and the WAR is then rewritten with its
+     * entries deflated concurrently and written back in their original order. A value of <code>0</code> or less uses
+     * one thread per available processor.
+     *
+     * @since 2.4
+     */
+    @Parameter( property = "war.compressionThreads", defaultValue = "1" )
+    private int compressionThreads = 1;
+
+    /**
+     * Timestamp given to all the entries of the WAR, either as an ISO 8601 date such as
+     * <code>2013-06-01T12:00:00Z</code> or as a number of seconds since the epoch. The entries are then also sorted
+     * by name after the manifest, so that building the same content twice gives the same WAR.
+     *
+     * @since 2.4
+     */
+    @Parameter( property = "war.outputTimestamp", defaultValue = "${project.build.outputTimestamp}" )
+    private String outputTimestamp;
+
     // ----------------------------------------------------------------------
     // Implementation
     // ----------------------------------------------------------------------
@@ -241,7 +263,24 @@ public class WarMojo
         }
 
         // create archive
-        archiver.createArchive( getSession(), getProject(), getArchive() );
+        long timestamp;
+        try
+        {
+            timestamp = ArchiveCompressor.parseTimestamp( outputTimestamp );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            throw new MojoExecutionException( e.getMessage() );
+        }
+
+        if ( compressionThreads == 1 && timestamp < 0 )
+        {
+            archiver.createArchive( getSession(), getProject(), getArchive() );
+        }
+        else
+        {
+            createArchive( archiver, warFile, timestamp );
+        }
 
         // create the classes to be attached if necessary
         if ( isAttachClasses() )
@@ -286,6 +325,35 @@ public class WarMojo
         }
     }
 
+    /**
+     * Lets the archiver store the entries and compresses them afterwards, unless the archiver found the WAR up to
+     * date.
+     */
+    private void createArchive( MavenArchiver archiver, File warFile, long timestamp )
+        throws IOException, ArchiverException, ManifestException, DependencyResolutionRequiredException
+    {
+        boolean compress = getArchive().isCompress();
+
+        long checksum = ArchiveCompressor.getContentChecksum( warFile );
+
+        getArchive().setCompress( false );
+        try
+        {
+            archiver.createArchive( getSession(), getProject(), getArchive() );
+        }
+        finally
+        {
+            getArchive().setCompress( compress );
+        }
+
+        if ( ArchiveCompressor.getContentChecksum( warFile ) != checksum )
+        {
+            ArchiveCompressor compressor = new ArchiveCompressor( compressionThreads, timestamp );
+            compressor.setCompress( compress );
+            compressor.setRecompressZips( isRecompressZippedFiles() );
+            compressor.compress( warFile );
+        }
+    }
 
     protected static File getTargetFile( File basedir, String finalName, String classifier, String type )
     {